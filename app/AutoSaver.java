@@ -0,0 +1,266 @@
+package app;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Automatisches Speichern im Hintergrund.
+ *
+ * Der Spiel-Thread erstellt nach jedem Zug mit {@link #submit(EscapeGame)}
+ * eine Momentaufnahme im Format von {@link SaveGameCodec} und übergibt sie
+ * an einen eigenen Schreib-Thread. Das Spiel wartet dabei nie auf die
+ * Festplatte. Kommen Momentaufnahmen schneller, als sie geschrieben werden
+ * können, wird nur die neueste geschrieben (die übersprungenen werden als
+ * zusammengefasst gezählt).
+ *
+ * Geschrieben wird zuerst in eine temporäre Datei, die dann atomar über den
+ * Spielstand verschoben wird. Nach einem Absturz liegt daher immer ein
+ * vollständiger Spielstand vor. Nach einem beendeten Spiel und beim
+ * Schließen wird die Datei gelöscht, sodass sie beim nächsten Start nur
+ * nach einem Absturz existiert.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class AutoSaver implements Closeable {
+    /**
+     * Auftrag an den Schreib-Thread, den Spielstand zu löschen statt zu schreiben.
+     */
+    private static final byte[] DISCARD = new byte[0];
+
+    /**
+     * Ziel des automatischen Spielstands.
+     */
+    private final Path target;
+    /**
+     * Temporäre Datei, die atomar über das Ziel verschoben wird.
+     */
+    private final Path temp;
+    /**
+     * Neueste noch nicht geschriebene Momentaufnahme (null, wenn keine offen ist).
+     */
+    private final AtomicReference<byte[]> pending = new AtomicReference<>();
+    /**
+     * Schreib-Thread.
+     */
+    private final Thread writer;
+    /**
+     * Wird beim Schließen auf falsch gesetzt.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Anzahl übergebener Momentaufnahmen.
+     */
+    private final AtomicLong submitted = new AtomicLong();
+    /**
+     * Anzahl geschriebener Momentaufnahmen.
+     */
+    private final AtomicLong written = new AtomicLong();
+    /**
+     * Anzahl von neueren Momentaufnahmen ersetzter, nie geschriebener Momentaufnahmen.
+     */
+    private final AtomicLong coalesced = new AtomicLong();
+    /**
+     * Anzahl fehlgeschlagener Schreibvorgänge.
+     */
+    private final AtomicLong failed = new AtomicLong();
+    /**
+     * Summe der Schreibdauer in Nanosekunden.
+     */
+    private final AtomicLong totalWriteNanos = new AtomicLong();
+    /**
+     * Längste Schreibdauer in Nanosekunden.
+     */
+    private final AtomicLong maxWriteNanos = new AtomicLong();
+
+    /**
+     * Startet das automatische Speichern in die angegebene Datei.
+     *
+     * @param target Ziel des automatischen Spielstands
+     */
+    public AutoSaver(Path target) {
+        this.target = target;
+        this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+        this.writer = new Thread(this::writeLoop, "autosave-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Erstellt eine Momentaufnahme des Spiels und übergibt sie dem
+     * Schreib-Thread. Muss im Spiel-Thread aufgerufen werden.
+     *
+     * @param game aktuelles Spiel
+     */
+    public void submit(EscapeGame game) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try {
+            SaveGameCodec.write(game, bytes);
+        } catch (IOException ex) {
+            // ByteArrayOutputStream wirft keine IOException
+            throw new IllegalStateException(ex);
+        }
+        submitted.incrementAndGet();
+        replacePending(bytes.toByteArray());
+    }
+
+    /**
+     * Löscht den automatischen Spielstand, z. B. weil das Spiel beendet ist.
+     * Eine noch offene Momentaufnahme wird verworfen.
+     */
+    public void discard() {
+        replacePending(DISCARD);
+    }
+
+    /**
+     * Ersetzt den offenen Auftrag und weckt den Schreib-Thread.
+     *
+     * @param next Momentaufnahme oder {@link #DISCARD}
+     */
+    private void replacePending(byte[] next) {
+        byte[] previous = pending.getAndSet(next);
+        if (previous != null && previous != DISCARD) {
+            coalesced.incrementAndGet();
+        }
+        LockSupport.unpark(writer);
+    }
+
+    /**
+     * Schreibt Momentaufnahmen, bis der AutoSaver geschlossen wird und
+     * keine Momentaufnahme mehr offen ist.
+     */
+    private void writeLoop() {
+        while (running || pending.get() != null) {
+            byte[] snapshot = pending.getAndSet(null);
+            if (snapshot == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            if (snapshot == DISCARD) {
+                try {
+                    Files.deleteIfExists(target);
+                } catch (IOException ex) {
+                    System.err.println("Could not delete the autosave: " + ex.getMessage());
+                }
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                writeAtomically(target, temp, snapshot);
+                written.incrementAndGet();
+            } catch (IOException ex) {
+                failed.incrementAndGet();
+                System.err.println("Autosave failed: " + ex.getMessage());
+            }
+            long nanos = System.nanoTime() - start;
+            totalWriteNanos.addAndGet(nanos);
+            maxWriteNanos.accumulateAndGet(nanos, Math::max);
+        }
+    }
+
+    /**
+     * Schreibt die Daten in die temporäre Datei und verschiebt sie über das Ziel.
+     *
+     * @param target Ziel
+     * @param temp   temporäre Datei im selben Verzeichnis
+     * @param data   zu schreibende Daten
+     * @throws IOException bei Schreibfehlern
+     */
+    static void writeAtomically(Path target, Path temp, byte[] data) throws IOException {
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Löscht den automatischen Spielstand und beendet den Schreib-Thread.
+     */
+    @Override
+    public void close() {
+        discard();
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return Anzahl übergebener Momentaufnahmen
+     */
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    /**
+     * @return Anzahl geschriebener Momentaufnahmen
+     */
+    public long getWritten() {
+        return written.get();
+    }
+
+    /**
+     * @return Anzahl zusammengefasster (übersprungener) Momentaufnahmen
+     */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    /**
+     * @return Anzahl fehlgeschlagener Schreibvorgänge
+     */
+    public long getFailed() {
+        return failed.get();
+    }
+
+    /**
+     * @return durchschnittliche Schreibdauer in Mikrosekunden
+     */
+    public double getAverageWriteMicros() {
+        long count = written.get() + failed.get();
+        return count == 0 ? 0.0 : totalWriteNanos.get() / 1000.0 / count;
+    }
+
+    /**
+     * @return längste Schreibdauer in Mikrosekunden
+     */
+    public double getMaxWriteMicros() {
+        return maxWriteNanos.get() / 1000.0;
+    }
+
+    /**
+     * Gibt die Statistik des automatischen Speicherns aus.
+     *
+     * @param out Ziel der Ausgabe
+     */
+    public void printStats(PrintStream out) {
+        out.printf("Autosave: %d snapshots, %d written, %d coalesced, %d failed, avg %.0f us, max %.0f us%n",
+                getSubmitted(), getWritten(), getCoalesced(), getFailed(),
+                getAverageWriteMicros(), getMaxWriteMicros());
+    }
+}
@@ -0,0 +1,89 @@
+package app;
+
+import model.AlienArchetype;
+import model.HTWRoom;
+import model.SpawnTable;
+
+/**
+ * Die Ereignisse des ursprünglichen Spiels; ihre Gewichte stehen in der
+ * {@link SpawnTable} des Raums.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public enum BuiltInEncounter implements EncounterType {
+    /**
+     * Nichts passiert.
+     */
+    NOTHING("nothing") {
+        @Override
+        public int getWeight(SpawnTable table) {
+            return table.getNothing();
+        }
+
+        @Override
+        public void encounter(EscapeGame game, HTWRoom room) {
+            GameMetrics.count(GameCounter.QUIET_ROOMS);
+            game.getOutput().println("Nothing unusual happens. You continue your exploration.");
+        }
+    },
+    /**
+     * Begegnung mit einem freundlichen Alien.
+     */
+    FRIENDLY_ALIEN("friendly-alien") {
+        @Override
+        public int getWeight(SpawnTable table) {
+            return table.getFriendly();
+        }
+
+        @Override
+        public void encounter(EscapeGame game, HTWRoom room) {
+            game.handleAlienEncounter(AlienArchetype.FRIENDLY);
+        }
+    },
+    /**
+     * Begegnung mit einem feindlichen Alien.
+     */
+    HOSTILE_ALIEN("hostile-alien") {
+        @Override
+        public int getWeight(SpawnTable table) {
+            return table.getHostile();
+        }
+
+        @Override
+        public void encounter(EscapeGame game, HTWRoom room) {
+            game.handleAlienEncounter(AlienArchetype.HOSTILE);
+        }
+    },
+    /**
+     * Treffen der Übungsleitung des Raums.
+     */
+    LECTURER("lecturer") {
+        @Override
+        public int getWeight(SpawnTable table) {
+            return table.getLecturer();
+        }
+
+        @Override
+        public void encounter(EscapeGame game, HTWRoom room) {
+            game.handleLecturerEncounter(room);
+        }
+    };
+
+    /**
+     * Name der Ereignisart.
+     */
+    private final String name;
+
+    /**
+     * @param name Name der Ereignisart
+     */
+    BuiltInEncounter(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
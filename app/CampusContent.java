@@ -0,0 +1,1059 @@
+package app;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import model.HTWRoom;
+import model.Lecturer;
+import model.Question;
+import model.SpawnTable;
+
+/**
+ * Fester Inhalt des Campus: Übungsleitungen, Räume und die Fragen von
+ * Professorin Majuntke.
+ *
+ * Räume sind über Gänge verbunden ({@link CampusGraph}); gehören sie zu
+ * Gebäuden und Stockwerken, steht das mit am Raum, ebenso die Tabelle, nach
+ * der dort Ereignisse auftreten ({@link SpawnTable}).
+ *
+ * Der Inhalt wird aus einer Datei in einem kompakten, indizierten
+ * Binärformat gelesen und nur gelesen, daher teilen sich alle Spiele einer
+ * JVM ein Exemplar ({@link #shared()}). Die Datei wird in den Speicher
+ * abgebildet; Texte stehen genau einmal in einer Texttabelle, Einträge
+ * verweisen über ihre Nummer darauf. Räume, Übungsleitungen und Fragen
+ * werden erst beim ersten Zugriff erzeugt, so bleiben auch Campusse mit
+ * tausenden Räumen und Fragenkataloge mit zehntausenden Fragen klein.
+ *
+ * Aufbau der Datei (alle Zahlen als {@code int}, wenn nicht anders angegeben):
+ * <pre>
+ * Kennung, Version (short), Anzahl Übungsleitungen, Räume, Fragen, Texte, Nachbarn, Ereignistabellen
+ * Textanfänge (Anzahl Texte + 1 Byte-Positionen im Textblock)
+ * Übungsleitungen: Name
+ * Ereignistabellen: Gewichte für nichts, freundliches Alien, feindliches Alien, Übungsleitung
+ * Räume:           Bezeichner, Beschreibung, Übungsleitung oder -1, Gebäude, Stockwerk,
+ *                  Ereignistabelle oder -1 für {@link SpawnTable#DEFAULT}
+ * Gänge:           Beginn der Nachbarn je Raum (Anzahl Räume + 1), Nachbarn aufsteigend
+ * Fragen:          Frage, vier Antworten, Thema,
+ *                  richtige Antwort (Bits 0..7) und Schwierigkeit (Bits 8..15)
+ * Textblock (UTF-8)
+ * </pre>
+ * Dateien werden mit {@link Builder} oder aus einer Textdatei mit
+ * {@link #main(String[])} erzeugt, sehr große Campusse abschnittsweise mit
+ * {@link CampusWriter}. Fehlt die Datei, wird der eingebaute
+ * Campus verwendet.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public final class CampusContent {
+    /**
+     * Standard-Dateiname des Campus.
+     */
+    public static final String DEFAULT_FILE_NAME = "campus.dat";
+    /**
+     * Kennung am Anfang der Datei ("HTWC").
+     */
+    public static final int MAGIC = 0x48545743;
+    /**
+     * Aktuelle Version des Formats.
+     */
+    public static final short VERSION = 4;
+    /**
+     * Höchstzahl an Übungsleitungen, da der Laufzettel des Helden nur so viele
+     * Unterschriften fasst.
+     */
+    public static final int MAX_LECTURERS = PackedGameState.SIGNATURE_BITS;
+    /**
+     * Höchstzahl an Räumen, die ein gepackter Spielzustand darstellen kann.
+     */
+    public static final int MAX_ROOMS = PackedGameState.MAX_ROOMS;
+
+    /**
+     * Größe des Kopfs in Bytes.
+     */
+    static final int HEADER_SIZE = 4 + 2 + 6 * 4;
+    /**
+     * Größe eines Übungsleitungs-Eintrags in Bytes.
+     */
+    private static final int LECTURER_SIZE = 4;
+    /**
+     * Größe eines Ereignistabellen-Eintrags in Bytes.
+     */
+    private static final int SPAWN_TABLE_SIZE = 4 * 4;
+    /**
+     * Größe eines Raum-Eintrags in Bytes.
+     */
+    private static final int ROOM_SIZE = 6 * 4;
+    /**
+     * Größe eines Fragen-Eintrags in Bytes.
+     */
+    private static final int QUESTION_SIZE = 7 * 4;
+
+    /**
+     * Gemeinsam genutzter Inhalt aller Spiele (null, solange nicht geladen).
+     */
+    private static CampusContent shared;
+
+    /**
+     * Inhalt der Datei (nur lesend).
+     */
+    private final ByteBuffer data;
+    /**
+     * Anzahl der Übungsleitungen.
+     */
+    private final int lecturerCount;
+    /**
+     * Anzahl der Räume.
+     */
+    private final int roomCount;
+    /**
+     * Anzahl der Fragen.
+     */
+    private final int questionCount;
+    /**
+     * Position der Übungsleitungs-Einträge.
+     */
+    private final int lecturerBase;
+    /**
+     * Position der Ereignistabellen.
+     */
+    private final int spawnTableBase;
+    /**
+     * Position der Raum-Einträge.
+     */
+    private final int roomBase;
+    /**
+     * Position der Gänge.
+     */
+    private final int corridorBase;
+    /**
+     * Anzahl der Einträge in der Nachbarliste (jeder Gang zählt in beide Richtungen).
+     */
+    private final int adjacencyCount;
+    /**
+     * Position der Fragen-Einträge.
+     */
+    private final int questionBase;
+    /**
+     * Position des Textblocks.
+     */
+    private final int textBase;
+    /**
+     * Bereits gelesene Texte, damit gleiche Texte nur einmal im Speicher liegen.
+     */
+    private final AtomicReferenceArray<String> strings;
+    /**
+     * Bereits erzeugte Übungsleitungen.
+     */
+    private final AtomicReferenceArray<Lecturer> lecturers;
+    /**
+     * Bereits erzeugte Ereignistabellen.
+     */
+    private final AtomicReferenceArray<SpawnTable> spawnTables;
+    /**
+     * Bereits erzeugte Räume.
+     */
+    private final AtomicReferenceArray<HTWRoom> rooms;
+    /**
+     * Bereits erzeugte Fragen.
+     */
+    private final AtomicReferenceArray<Question> questions;
+    /**
+     * Index der Fragen nach Thema und Schwierigkeit (null, solange nicht benötigt).
+     */
+    private volatile QuestionBank questionBank;
+    /**
+     * Wegenetz der Räume (null, solange nicht benötigt).
+     */
+    private volatile CampusGraph graph;
+
+    /**
+     * Liest Kopf und Indexbereiche, die Einträge selbst erst bei Bedarf.
+     *
+     * @param data Inhalt der Datei
+     * @throws IOException wenn der Inhalt kein gültiger Campus ist
+     */
+    private CampusContent(ByteBuffer data) throws IOException {
+        if (data.remaining() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+            throw new IOException("Not a HTW escape campus file");
+        }
+        short version = data.getShort(4);
+        if (version != VERSION) {
+            throw new IOException("Unsupported campus file version " + version);
+        }
+        this.data = data;
+        this.lecturerCount = data.getInt(6);
+        this.roomCount = data.getInt(10);
+        this.questionCount = data.getInt(14);
+        int stringCount = data.getInt(18);
+        this.adjacencyCount = data.getInt(22);
+        int spawnTableCount = data.getInt(26);
+        if (lecturerCount < 0 || lecturerCount > MAX_LECTURERS || roomCount <= 0 || roomCount > MAX_ROOMS
+                || questionCount <= 0 || stringCount < 0 || adjacencyCount < 0 || spawnTableCount < 0) {
+            throw new IOException("Campus file has invalid counts");
+        }
+        long lecturerBase = HEADER_SIZE + (stringCount + 1L) * 4;
+        long spawnTableBase = lecturerBase + (long) lecturerCount * LECTURER_SIZE;
+        long roomBase = spawnTableBase + (long) spawnTableCount * SPAWN_TABLE_SIZE;
+        long corridorBase = roomBase + (long) roomCount * ROOM_SIZE;
+        long questionBase = corridorBase + (roomCount + 1L + adjacencyCount) * 4;
+        long textBase = questionBase + (long) questionCount * QUESTION_SIZE;
+        if (textBase > data.limit() || textBase + data.getInt(HEADER_SIZE + stringCount * 4) != data.limit()) {
+            throw new IOException("Campus file is truncated");
+        }
+        this.lecturerBase = (int) lecturerBase;
+        this.spawnTableBase = (int) spawnTableBase;
+        this.roomBase = (int) roomBase;
+        this.corridorBase = (int) corridorBase;
+        this.questionBase = (int) questionBase;
+        this.textBase = (int) textBase;
+        this.strings = new AtomicReferenceArray<>(stringCount);
+        this.lecturers = new AtomicReferenceArray<>(lecturerCount);
+        this.spawnTables = new AtomicReferenceArray<>(spawnTableCount);
+        this.rooms = new AtomicReferenceArray<>(roomCount);
+        this.questions = new AtomicReferenceArray<>(questionCount);
+    }
+
+    /**
+     * Liefert den gemeinsamen Inhalt aus {@link #DEFAULT_FILE_NAME} oder den
+     * eingebauten Campus, wenn die Datei fehlt.
+     *
+     * @return Inhalt für alle Spiele dieser JVM
+     * @throws UncheckedIOException wenn die Datei vorhanden, aber nicht lesbar ist
+     */
+    public static synchronized CampusContent shared() {
+        if (shared == null) {
+            Path file = Paths.get(DEFAULT_FILE_NAME);
+            try {
+                shared = Files.exists(file) ? load(file) : builtIn();
+            } catch (IOException ex) {
+                throw new UncheckedIOException("Campus file " + file + " is not readable", ex);
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Bildet eine Campus-Datei in den Speicher ab.
+     *
+     * @param file Datei im Binärformat
+     * @return Inhalt der Datei
+     * @throws IOException bei Lesefehlern oder ungültigem Format
+     */
+    public static CampusContent load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new CampusContent(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Liest einen Campus aus dem Binärformat im Speicher.
+     *
+     * @param bytes Inhalt im Binärformat
+     * @return Inhalt
+     * @throws IOException bei ungültigem Format
+     */
+    public static CampusContent read(byte[] bytes) throws IOException {
+        return new CampusContent(ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+    }
+
+    /**
+     * Erzeugt den eingebauten Campus mit fünf Räumen, fünf Übungsleitungen und
+     * den drei Fragen von Professorin Majuntke.
+     *
+     * @return eingebauter Inhalt
+     */
+    public static CampusContent builtIn() {
+        Builder builder = new Builder();
+        // Übungsleitungen, jede sitzt im Raum mit dem gleichen Index
+        int l1 = builder.addLecturer("Frau Gärtner");
+        int l2 = builder.addLecturer("Herr Gnaoui");
+        int l3 = builder.addLecturer("Herr Poeser");
+        int l4 = builder.addLecturer("Frau Safitri");
+        int l5 = builder.addLecturer("Frau Vaseva");
+
+        // ohne eigene Gänge sind die Räume im Kreis verbunden
+        builder.addRoom("A214", "Medienunterrichtsraum", l1, "A", 2);
+        builder.addRoom("A143", "Medienunterrichtsraum", l2, "A", 1);
+        builder.addRoom("A142", "Medienunterrichtsraum", l3, "A", 1);
+        builder.addRoom("A143", "Medienunterrichtsraum", l4, "A", 1);
+        builder.addRoom("A236", "Medienunterrichtsraum", l5, "A", 2);
+
+        builder.addQuestion(
+            "Which data type would you use to store a phone number (+49 ...)?",
+            "(A) int",
+            "(B) String",
+            "(C) char",
+            "(D) float",
+            2, // Index 2 ist korrekt (dritte Antwort)
+            "data types", 1
+        );
+        builder.addQuestion(
+            "Which statement about one-dimenstional arrays is correct?",
+            "(A) An array can only contain elements from the same data type",
+            "(B) The size of an array can be changed all the time",
+            "(C) Arrays can only save integers",
+            "(D) An Array gets initialized with random values",
+            2, // Index 2 ist korrekt (dritte Antwort)
+            "arrays", 1
+        );
+        builder.addQuestion(
+            "What is recursion in programming?",
+            "(A) A function that calls itself",
+            "(B) A loop that runs backwards",
+            "(C) A variable declared multiple times",
+            "(D) A method that can only be called once",
+            0, // Index 0 ist korrekt (erste Antwort)
+            "recursion", 2
+        );
+        return builder.build();
+    }
+
+    /**
+     * Übersetzt eine Textdatei in das Binärformat.
+     *
+     * Jede Zeile beschreibt einen Eintrag, Felder werden durch {@code |}
+     * getrennt, leere Zeilen und Zeilen mit {@code #} am Anfang werden
+     * übersprungen. Ohne {@code corridor}-Zeilen sind die Räume in ihrer
+     * Reihenfolge im Kreis verbunden:
+     * <pre>
+     * lecturer|Name
+     * spawn|Gewicht nichts|freundliches Alien|feindliches Alien|Übungsleitung
+     * room|Bezeichner|Beschreibung|Nummer der Übungsleitung (ab 0) oder -[|Gebäude|Stockwerk[|Nummer der Ereignistabelle (ab 0)]]
+     * corridor|Nummer des ersten Raums (ab 0)|Nummer des zweiten Raums
+     * question|Frage|Antwort 1|Antwort 2|Antwort 3|Antwort 4|richtige Antwort (1-4)[|Thema|Schwierigkeit (1-5)]
+     * </pre>
+     *
+     * Aufruf: {@code java app.CampusContent [Textdatei] [Binärdatei]}.
+     *
+     * @param args [Textdatei (Standard: data/campus.txt)] [Binärdatei (Standard: {@link #DEFAULT_FILE_NAME})]
+     * @throws IOException wenn eine Datei nicht gelesen oder geschrieben werden kann
+     */
+    public static void main(String[] args) throws IOException {
+        Path source = Paths.get(args.length > 0 ? args[0] : "data/campus.txt");
+        Path target = Paths.get(args.length > 1 ? args[1] : DEFAULT_FILE_NAME);
+
+        Builder builder;
+        try (BufferedReader reader = Files.newBufferedReader(source, StandardCharsets.UTF_8)) {
+            builder = parse(reader);
+        }
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(target))) {
+            builder.write(out);
+        }
+        CampusContent content = load(target);
+        System.out.println("Wrote " + target + ": " + content.getLecturerCount() + " lecturers, "
+                + content.getRoomCount() + " rooms, " + content.adjacencyCount / 2 + " corridors, "
+                + content.getQuestionCount() + " questions, " + Files.size(target) + " bytes");
+    }
+
+    /**
+     * Liest die Einträge einer Textdatei (Format siehe {@link #main(String[])}).
+     *
+     * @param reader Quelle der Textdatei
+     * @return Builder mit allen Einträgen
+     * @throws IOException bei Lesefehlern oder ungültigen Zeilen
+     */
+    public static Builder parse(BufferedReader reader) throws IOException {
+        Builder builder = new Builder();
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split("\\|", -1);
+            try {
+                switch (fields[0]) {
+                    case "lecturer":
+                        expectFields(fields, 2);
+                        builder.addLecturer(fields[1]);
+                        break;
+                    case "spawn":
+                        expectFields(fields, 5);
+                        builder.addSpawnTable(new SpawnTable(Integer.parseInt(fields[1]),
+                                Integer.parseInt(fields[2]), Integer.parseInt(fields[3]),
+                                Integer.parseInt(fields[4])));
+                        break;
+                    case "room":
+                        if (fields.length == 4) {
+                            builder.addRoom(fields[1], fields[2], parseLecturer(fields[3]));
+                        } else if (fields.length == 6) {
+                            builder.addRoom(fields[1], fields[2], parseLecturer(fields[3]),
+                                    fields[4], Integer.parseInt(fields[5]));
+                        } else {
+                            expectFields(fields, 7);
+                            builder.addRoom(fields[1], fields[2], parseLecturer(fields[3]),
+                                    fields[4], Integer.parseInt(fields[5]), Integer.parseInt(fields[6]));
+                        }
+                        break;
+                    case "corridor":
+                        expectFields(fields, 3);
+                        builder.addCorridor(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]));
+                        break;
+                    case "question":
+                        if (fields.length == 7) {
+                            builder.addQuestion(fields[1], fields[2], fields[3], fields[4], fields[5],
+                                    Integer.parseInt(fields[6]) - 1);
+                        } else {
+                            expectFields(fields, 9);
+                            builder.addQuestion(fields[1], fields[2], fields[3], fields[4], fields[5],
+                                    Integer.parseInt(fields[6]) - 1, fields[7], Integer.parseInt(fields[8]));
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown entry type \"" + fields[0] + "\"");
+                }
+            } catch (IllegalArgumentException ex) {
+                throw new IOException("Line " + lineNumber + ": " + ex.getMessage(), ex);
+            }
+        }
+        return builder;
+    }
+
+    /**
+     * @param field Nummer der Übungsleitung oder {@code -}
+     * @return Index der Übungsleitung oder -1
+     */
+    private static int parseLecturer(String field) {
+        return field.equals("-") ? -1 : Integer.parseInt(field);
+    }
+
+    /**
+     * @param fields Felder einer Zeile
+     * @param count  erwartete Anzahl
+     * @throws IllegalArgumentException wenn die Anzahl nicht stimmt
+     */
+    private static void expectFields(String[] fields, int count) {
+        if (fields.length != count) {
+            throw new IllegalArgumentException("expected " + count + " fields but got " + fields.length);
+        }
+    }
+
+    /**
+     * @return Anzahl der Übungsleitungen
+     */
+    public int getLecturerCount() {
+        return lecturerCount;
+    }
+
+    /**
+     * @return Anzahl der Räume
+     */
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    /**
+     * @return Anzahl der Fragen
+     */
+    public int getQuestionCount() {
+        return questionCount;
+    }
+
+    /**
+     * Liefert eine Übungsleitung. Ihr Index entspricht der Position.
+     *
+     * @param index Position (0 bis {@link #getLecturerCount()} - 1)
+     * @return Übungsleitung
+     */
+    public Lecturer getLecturer(int index) {
+        Lecturer lecturer = lecturers.get(index);
+        if (lecturer == null) {
+            lecturer = new Lecturer(string(data.getInt(lecturerBase + index * LECTURER_SIZE)), index);
+            if (!lecturers.compareAndSet(index, null, lecturer)) {
+                lecturer = lecturers.get(index);
+            }
+        }
+        return lecturer;
+    }
+
+    /**
+     * Liefert einen Raum.
+     *
+     * @param index Position (0 bis {@link #getRoomCount()} - 1)
+     * @return Raum
+     */
+    public HTWRoom getRoom(int index) {
+        HTWRoom room = rooms.get(index);
+        if (room == null) {
+            int entry = roomBase + index * ROOM_SIZE;
+            int lecturer = roomLecturer(index);
+            room = new HTWRoom(string(data.getInt(entry)), string(data.getInt(entry + 4)),
+                    lecturer < 0 ? null : getLecturer(lecturer));
+            if (!rooms.compareAndSet(index, null, room)) {
+                room = rooms.get(index);
+            }
+        }
+        return room;
+    }
+
+    /**
+     * Liefert das Gebäude eines Raums, ohne den Raum zu erzeugen.
+     *
+     * @param index Position des Raums
+     * @return Gebäude
+     */
+    public String getRoomBuilding(int index) {
+        return string(data.getInt(roomBase + index * ROOM_SIZE + 12));
+    }
+
+    /**
+     * Liefert das Stockwerk eines Raums, ohne den Raum zu erzeugen.
+     *
+     * @param index Position des Raums
+     * @return Stockwerk
+     */
+    public int getRoomFloor(int index) {
+        return data.getInt(roomBase + index * ROOM_SIZE + 16);
+    }
+
+    /**
+     * Liefert die Ereignistabelle eines Raums.
+     *
+     * @param index Position des Raums
+     * @return Ereignistabelle, {@link SpawnTable#DEFAULT} wenn der Raum keine eigene hat
+     */
+    public SpawnTable getSpawnTable(int index) {
+        int table = data.getInt(roomBase + index * ROOM_SIZE + 20);
+        if (table < 0) {
+            return SpawnTable.DEFAULT;
+        }
+        SpawnTable spawnTable = spawnTables.get(table);
+        if (spawnTable == null) {
+            int entry = spawnTableBase + table * SPAWN_TABLE_SIZE;
+            spawnTable = new SpawnTable(data.getInt(entry), data.getInt(entry + 4),
+                    data.getInt(entry + 8), data.getInt(entry + 12));
+            if (!spawnTables.compareAndSet(table, null, spawnTable)) {
+                spawnTable = spawnTables.get(table);
+            }
+        }
+        return spawnTable;
+    }
+
+    /**
+     * Liefert die Übungsleitung eines Raums, ohne den Raum zu erzeugen.
+     *
+     * @param index Position des Raums
+     * @return Index der Übungsleitung oder -1
+     */
+    int roomLecturer(int index) {
+        return data.getInt(roomBase + index * ROOM_SIZE + 8);
+    }
+
+    /**
+     * Liefert das Wegenetz der Räume. Es wird beim ersten Aufruf aufgebaut und
+     * danach von allen Spielen geteilt.
+     *
+     * @return Wegenetz
+     */
+    public CampusGraph getGraph() {
+        CampusGraph result = graph;
+        if (result == null) {
+            synchronized (this) {
+                result = graph;
+                if (result == null) {
+                    int[] start = new int[roomCount + 1];
+                    int[] neighbours = new int[adjacencyCount];
+                    for (int i = 0; i <= roomCount; i++) {
+                        start[i] = data.getInt(corridorBase + i * 4);
+                    }
+                    int targets = corridorBase + (roomCount + 1) * 4;
+                    for (int i = 0; i < adjacencyCount; i++) {
+                        neighbours[i] = data.getInt(targets + i * 4);
+                    }
+                    result = new CampusGraph(this, start, neighbours);
+                    graph = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Liefert eine Frage.
+     *
+     * @param index Position (0 bis {@link #getQuestionCount()} - 1)
+     * @return Frage
+     */
+    public Question getQuestion(int index) {
+        Question question = questions.get(index);
+        if (question == null) {
+            int entry = questionBase + index * QUESTION_SIZE;
+            int flags = data.getInt(entry + 24);
+            question = new Question(string(data.getInt(entry)), string(data.getInt(entry + 4)),
+                    string(data.getInt(entry + 8)), string(data.getInt(entry + 12)),
+                    string(data.getInt(entry + 16)), flags & 0xFF, string(data.getInt(entry + 20)),
+                    flags >>> 8);
+            if (!questions.compareAndSet(index, null, question)) {
+                question = questions.get(index);
+            }
+        }
+        return question;
+    }
+
+    /**
+     * Liefert den Index der Fragen nach Thema und Schwierigkeit. Er wird beim
+     * ersten Aufruf aufgebaut und danach von allen Spielen geteilt.
+     *
+     * @return Fragenkatalog
+     */
+    public QuestionBank getQuestionBank() {
+        QuestionBank bank = questionBank;
+        if (bank == null) {
+            synchronized (this) {
+                bank = questionBank;
+                if (bank == null) {
+                    bank = new QuestionBank(this);
+                    questionBank = bank;
+                }
+            }
+        }
+        return bank;
+    }
+
+    /**
+     * Liefert das Thema einer Frage, ohne die Frage zu erzeugen.
+     *
+     * @param index Position der Frage
+     * @return Nummer des Themas in der Texttabelle
+     */
+    int questionTopicId(int index) {
+        return data.getInt(questionBase + index * QUESTION_SIZE + 20);
+    }
+
+    /**
+     * Liefert die Schwierigkeit einer Frage, ohne die Frage zu erzeugen.
+     *
+     * @param index Position der Frage
+     * @return Schwierigkeitsgrad
+     */
+    int questionDifficulty(int index) {
+        return data.getInt(questionBase + index * QUESTION_SIZE + 24) >>> 8;
+    }
+
+    /**
+     * Liefert einen Text aus der Texttabelle.
+     *
+     * @param id Nummer des Texts
+     * @return Text
+     */
+    String string(int id) {
+        String value = strings.get(id);
+        if (value == null) {
+            int start = data.getInt(HEADER_SIZE + id * 4);
+            int end = data.getInt(HEADER_SIZE + (id + 1) * 4);
+            byte[] bytes = new byte[end - start];
+            data.get(textBase + start, bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            if (!strings.compareAndSet(id, null, value)) {
+                value = strings.get(id);
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Schreibt den Kopf einer Campus-Datei.
+     *
+     * @param out         Ziel
+     * @param lecturers   Anzahl der Übungsleitungen
+     * @param rooms       Anzahl der Räume
+     * @param questions   Anzahl der Fragen
+     * @param strings     Anzahl der Texte
+     * @param adjacency   Anzahl der Einträge in der Nachbarliste
+     * @param spawnTables Anzahl der Ereignistabellen
+     * @throws IOException bei Schreibfehlern
+     */
+    static void writeHeader(DataOutputStream out, int lecturers, int rooms, int questions, int strings,
+            int adjacency, int spawnTables) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(lecturers);
+        out.writeInt(rooms);
+        out.writeInt(questions);
+        out.writeInt(strings);
+        out.writeInt(adjacency);
+        out.writeInt(spawnTables);
+    }
+
+    /**
+     * Sammelt Einträge und schreibt sie im Binärformat. Gleiche Texte werden
+     * nur einmal gespeichert.
+     */
+    public static final class Builder {
+        /**
+         * Nummer jedes bisher gesehenen Texts.
+         */
+        private final Map<String, Integer> stringIds = new HashMap<>();
+        /**
+         * Texte in der Reihenfolge ihrer Nummern.
+         */
+        private final List<String> strings = new ArrayList<>();
+        /**
+         * Einträge der Übungsleitungen.
+         */
+        private final IntList lecturers = new IntList();
+        /**
+         * Gewichte der Ereignistabellen.
+         */
+        private final IntList spawnTables = new IntList();
+        /**
+         * Einträge der Räume.
+         */
+        private final IntList rooms = new IntList();
+        /**
+         * Gänge als Paare von Räumen.
+         */
+        private final IntList corridors = new IntList();
+        /**
+         * Einträge der Fragen.
+         */
+        private final IntList questions = new IntList();
+
+        /**
+         * Fügt eine Übungsleitung hinzu.
+         *
+         * @param name Name
+         * @return Index der Übungsleitung
+         * @throws IllegalArgumentException wenn der Laufzettel keinen Platz mehr hat
+         */
+        public int addLecturer(String name) {
+            if (lecturers.size() >= MAX_LECTURERS) {
+                throw new IllegalArgumentException("At most " + MAX_LECTURERS + " lecturers are supported");
+            }
+            lecturers.add(intern(name));
+            return lecturers.size() - 1;
+        }
+
+        /**
+         * Fügt einen Raum ohne Gebäude im Erdgeschoss hinzu.
+         *
+         * @param identifier  Bezeichner des Raums
+         * @param description Beschreibung
+         * @param lecturer    Index der Übungsleitung im Raum oder -1
+         * @return Index des Raums
+         * @throws IllegalArgumentException wenn die Übungsleitung unbekannt ist
+         */
+        public int addRoom(String identifier, String description, int lecturer) {
+            return addRoom(identifier, description, lecturer, "", 0);
+        }
+
+        /**
+         * Fügt eine Ereignistabelle hinzu, auf die Räume verweisen können.
+         *
+         * @param table Gewichte der Ereignisse
+         * @return Index der Tabelle
+         */
+        public int addSpawnTable(SpawnTable table) {
+            spawnTables.add(table.getNothing());
+            spawnTables.add(table.getFriendly());
+            spawnTables.add(table.getHostile());
+            spawnTables.add(table.getLecturer());
+            return spawnTables.size() / 4 - 1;
+        }
+
+        /**
+         * Fügt einen Raum mit der Standard-Ereignistabelle hinzu.
+         *
+         * @param identifier  Bezeichner des Raums
+         * @param description Beschreibung
+         * @param lecturer    Index der Übungsleitung im Raum oder -1
+         * @param building    Gebäude
+         * @param floor       Stockwerk
+         * @return Index des Raums
+         * @throws IllegalArgumentException wenn die Übungsleitung unbekannt ist
+         */
+        public int addRoom(String identifier, String description, int lecturer, String building, int floor) {
+            return addRoom(identifier, description, lecturer, building, floor, -1);
+        }
+
+        /**
+         * Fügt einen Raum hinzu.
+         *
+         * @param identifier  Bezeichner des Raums
+         * @param description Beschreibung
+         * @param lecturer    Index der Übungsleitung im Raum oder -1
+         * @param building    Gebäude
+         * @param floor       Stockwerk
+         * @param spawnTable  Index der Ereignistabelle oder -1 für {@link SpawnTable#DEFAULT}
+         * @return Index des Raums
+         * @throws IllegalArgumentException wenn Übungsleitung oder Ereignistabelle unbekannt sind
+         */
+        public int addRoom(String identifier, String description, int lecturer, String building, int floor,
+                int spawnTable) {
+            if (lecturer < -1 || lecturer >= lecturers.size()) {
+                throw new IllegalArgumentException("Unknown lecturer " + lecturer);
+            }
+            if (spawnTable < -1 || spawnTable >= spawnTables.size() / 4) {
+                throw new IllegalArgumentException("Unknown spawn table " + spawnTable);
+            }
+            if (roomCount() >= MAX_ROOMS) {
+                throw new IllegalArgumentException("At most " + MAX_ROOMS + " rooms are supported");
+            }
+            rooms.add(intern(identifier));
+            rooms.add(intern(description));
+            rooms.add(lecturer);
+            rooms.add(intern(building));
+            rooms.add(floor);
+            rooms.add(spawnTable);
+            return roomCount() - 1;
+        }
+
+        /**
+         * Verbindet zwei Räume mit einem Gang, der in beide Richtungen begehbar ist.
+         * Doppelte Gänge werden beim Schreiben zusammengefasst.
+         *
+         * @param from Index des ersten Raums
+         * @param to   Index des zweiten Raums
+         * @throws IllegalArgumentException wenn ein Raum unbekannt ist oder beide gleich sind
+         */
+        public void addCorridor(int from, int to) {
+            if (from < 0 || from >= roomCount() || to < 0 || to >= roomCount()) {
+                throw new IllegalArgumentException("Unknown room in corridor " + from + "-" + to);
+            }
+            if (from == to) {
+                throw new IllegalArgumentException("Corridor must connect two different rooms");
+            }
+            corridors.add(from);
+            corridors.add(to);
+        }
+
+        /**
+         * @return Anzahl der bisher hinzugefügten Räume
+         */
+        private int roomCount() {
+            return rooms.size() / 6;
+        }
+
+        /**
+         * Fügt eine Frage ohne Thema mit niedrigster Schwierigkeit hinzu.
+         *
+         * @param question           Frage
+         * @param answer1            erste Antwort
+         * @param answer2            zweite Antwort
+         * @param answer3            dritte Antwort
+         * @param answer4            vierte Antwort
+         * @param correctAnswerIndex Index der richtigen Antwort (0-3)
+         * @return Index der Frage
+         * @throws IllegalArgumentException wenn der Index der Antwort ungültig ist
+         */
+        public int addQuestion(String question, String answer1, String answer2, String answer3,
+                String answer4, int correctAnswerIndex) {
+            return addQuestion(question, answer1, answer2, answer3, answer4, correctAnswerIndex,
+                    Question.DEFAULT_TOPIC, Question.MIN_DIFFICULTY);
+        }
+
+        /**
+         * Fügt eine Frage hinzu.
+         *
+         * @param question           Frage
+         * @param answer1            erste Antwort
+         * @param answer2            zweite Antwort
+         * @param answer3            dritte Antwort
+         * @param answer4            vierte Antwort
+         * @param correctAnswerIndex Index der richtigen Antwort (0-3)
+         * @param topic              Thema
+         * @param difficulty         Schwierigkeitsgrad (1-5)
+         * @return Index der Frage
+         * @throws IllegalArgumentException wenn Antwort oder Schwierigkeit ungültig sind
+         */
+        public int addQuestion(String question, String answer1, String answer2, String answer3,
+                String answer4, int correctAnswerIndex, String topic, int difficulty) {
+            if (correctAnswerIndex < 0 || correctAnswerIndex >= Question.ANSWER_COUNT) {
+                throw new IllegalArgumentException("Correct answer must be between 1 and 4");
+            }
+            if (difficulty < Question.MIN_DIFFICULTY || difficulty > Question.MAX_DIFFICULTY) {
+                throw new IllegalArgumentException("Difficulty must be between " + Question.MIN_DIFFICULTY
+                        + " and " + Question.MAX_DIFFICULTY);
+            }
+            questions.add(intern(question));
+            questions.add(intern(answer1));
+            questions.add(intern(answer2));
+            questions.add(intern(answer3));
+            questions.add(intern(answer4));
+            questions.add(intern(topic));
+            questions.add(correctAnswerIndex | difficulty << 8);
+            return questions.size() / 7 - 1;
+        }
+
+        /**
+         * @param value Text
+         * @return Nummer des Texts in der Texttabelle
+         */
+        private int intern(String value) {
+            Integer id = stringIds.get(value);
+            if (id == null) {
+                id = strings.size();
+                stringIds.put(value, id);
+                strings.add(value);
+            }
+            return id;
+        }
+
+        /**
+         * Schreibt die Einträge im Binärformat.
+         *
+         * @param out Ziel
+         * @throws IOException bei Schreibfehlern
+         */
+        public void write(OutputStream out) throws IOException {
+            byte[][] encoded = new byte[strings.size()][];
+            for (int i = 0; i < encoded.length; i++) {
+                encoded[i] = strings.get(i).getBytes(StandardCharsets.UTF_8);
+            }
+
+            DataOutputStream data = new DataOutputStream(out);
+            int[][] adjacency = adjacency();
+            writeHeader(data, lecturers.size(), roomCount(), questions.size() / 7, encoded.length,
+                    adjacency[1].length, spawnTables.size() / 4);
+            int offset = 0;
+            for (byte[] bytes : encoded) {
+                data.writeInt(offset);
+                offset += bytes.length;
+            }
+            data.writeInt(offset);
+            lecturers.writeTo(data);
+            spawnTables.writeTo(data);
+            rooms.writeTo(data);
+            for (int[] part : adjacency) {
+                for (int value : part) {
+                    data.writeInt(value);
+                }
+            }
+            questions.writeTo(data);
+            for (byte[] bytes : encoded) {
+                data.write(bytes);
+            }
+            data.flush();
+        }
+
+        /**
+         * Ordnet die Gänge nach Räumen (Beginn je Raum und aufsteigende
+         * Nachbarn). Ohne Gänge werden die Räume im Kreis verbunden.
+         *
+         * @return Beginn je Raum und Nachbarn
+         */
+        private int[][] adjacency() {
+            int count = roomCount();
+            IntList pairs = corridors;
+            if (pairs.size() == 0 && count > 1) {
+                pairs = new IntList();
+                for (int i = 0; i < count; i++) {
+                    pairs.add(i);
+                    pairs.add((i + 1) % count);
+                }
+            }
+            // je Raum die Nachbarn sammeln, sortieren und Doppelte entfernen
+            int[] degree = new int[count + 1];
+            for (int i = 0; i < pairs.size(); i++) {
+                degree[pairs.get(i) + 1]++;
+            }
+            for (int i = 1; i <= count; i++) {
+                degree[i] += degree[i - 1];
+            }
+            int[] targets = new int[pairs.size()];
+            int[] next = degree.clone();
+            for (int i = 0; i < pairs.size(); i += 2) {
+                targets[next[pairs.get(i)]++] = pairs.get(i + 1);
+                targets[next[pairs.get(i + 1)]++] = pairs.get(i);
+            }
+            int[] start = new int[count + 1];
+            int size = 0;
+            for (int room = 0; room < count; room++) {
+                start[room] = size;
+                Arrays.sort(targets, degree[room], degree[room + 1]);
+                for (int i = degree[room]; i < degree[room + 1]; i++) {
+                    if (size == start[room] || targets[size - 1] != targets[i]) {
+                        targets[size++] = targets[i];
+                    }
+                }
+            }
+            start[count] = size;
+            return new int[][] {start, Arrays.copyOf(targets, size)};
+        }
+
+        /**
+         * Erzeugt den Inhalt im Speicher.
+         *
+         * @return Inhalt mit allen Einträgen
+         * @throws IllegalStateException wenn Räume oder Fragen fehlen
+         */
+        public CampusContent build() {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try {
+                write(bytes);
+                return read(bytes.toByteArray());
+            } catch (IOException ex) {
+                throw new IllegalStateException("Campus needs at least one room and one question", ex);
+            }
+        }
+    }
+
+    /**
+     * Wachsende Liste von {@code int}-Werten ohne Boxing.
+     */
+    static final class IntList {
+        /**
+         * Werte der Liste.
+         */
+        private int[] values = new int[16];
+        /**
+         * Anzahl der Werte.
+         */
+        private int size;
+
+        /**
+         * @param value anzuhängender Wert
+         */
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        /**
+         * @param index Position
+         * @return Wert an der Position
+         */
+        int get(int index) {
+            return values[index];
+        }
+
+        /**
+         * @return Anzahl der Werte
+         */
+        int size() {
+            return size;
+        }
+
+        /**
+         * @param out Ziel
+         * @throws IOException bei Schreibfehlern
+         */
+        void writeTo(DataOutputStream out) throws IOException {
+            for (int i = 0; i < size; i++) {
+                out.writeInt(values[i]);
+            }
+        }
+    }
+}
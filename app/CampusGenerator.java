@@ -0,0 +1,370 @@
+package app;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+
+import model.Question;
+import model.SpawnTable;
+
+/**
+ * Erzeugt aus einem Startwert einen beliebig großen Campus: Gebäude mit
+ * Stockwerken und Räumen, die Plätze der Übungsleitungen und eine
+ * Ereignistabelle je Gebäude.
+ *
+ * Jede Eigenschaft eines Raums wird allein aus Startwert und Index
+ * berechnet, ohne die übrigen Räume zu kennen. Die Räume werden deshalb der
+ * Reihe nach in einen {@link CampusWriter} gestreamt und nie alle zugleich
+ * angelegt; beim Spielen liest {@link CampusContent} sie ebenfalls erst bei
+ * Bedarf aus der Datei.
+ *
+ * Wegenetz: Die Räume eines Stockwerks liegen an einem Flur, das letzte
+ * Zimmer führt per Treppe ins nächste Stockwerk, das letzte Zimmer eines
+ * Gebäudes ins nächste Gebäude und der letzte Raum zurück zum ersten. Dazu
+ * verbindet eine Treppe die ersten Räume übereinanderliegender Stockwerke
+ * und ein Weg die Eingänge benachbarter Gebäude. „Erkunden“ ohne Auswahl
+ * läuft so einmal durch den ganzen Campus.
+ *
+ * Aufruf: {@code java app.CampusGenerator Räume [Startwert] [Datei] [Stockwerke] [Räume je Stockwerk]}.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public final class CampusGenerator {
+    /**
+     * Standardanzahl der Stockwerke je Gebäude.
+     */
+    public static final int DEFAULT_FLOORS = 5;
+    /**
+     * Standardanzahl der Räume je Stockwerk.
+     */
+    public static final int DEFAULT_ROOMS_PER_FLOOR = 40;
+    /**
+     * Anzahl der Ereignistabellen, auf die die Gebäude verteilt werden.
+     */
+    public static final int SPAWN_TABLES = 8;
+    /**
+     * Höchstzahl an Nachbarn eines Raums.
+     */
+    public static final int MAX_NEIGHBOURS = 6;
+    /**
+     * Beschreibungen, aus denen für jeden Raum eine gewählt wird.
+     */
+    private static final String[] DESCRIPTIONS = {
+        "Medienunterrichtsraum", "Seminarraum", "Hörsaal", "Labor", "PC-Pool", "Büro", "Lernraum", "Bibliothek"
+    };
+
+    /**
+     * Startwert.
+     */
+    private final long seed;
+    /**
+     * Anzahl der Räume.
+     */
+    private final int roomCount;
+    /**
+     * Stockwerke je Gebäude.
+     */
+    private final int floors;
+    /**
+     * Räume je Stockwerk.
+     */
+    private final int roomsPerFloor;
+    /**
+     * Räume je Gebäude.
+     */
+    private final int roomsPerBuilding;
+    /**
+     * Raum jeder Übungsleitung.
+     */
+    private final int[] lecturerRooms;
+
+    /**
+     * Erzeugt einen Generator mit Standardgebäuden.
+     *
+     * @param seed      Startwert
+     * @param roomCount Anzahl der Räume
+     */
+    public CampusGenerator(long seed, int roomCount) {
+        this(seed, roomCount, DEFAULT_FLOORS, DEFAULT_ROOMS_PER_FLOOR);
+    }
+
+    /**
+     * @param seed          Startwert
+     * @param roomCount     Anzahl der Räume (1 bis {@link CampusContent#MAX_ROOMS})
+     * @param floors        Stockwerke je Gebäude
+     * @param roomsPerFloor Räume je Stockwerk
+     * @throws IllegalArgumentException wenn eine Anzahl ungültig ist
+     */
+    public CampusGenerator(long seed, int roomCount, int floors, int roomsPerFloor) {
+        if (roomCount < 1 || roomCount > CampusContent.MAX_ROOMS || floors < 1 || roomsPerFloor < 1
+                || (long) floors * roomsPerFloor > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid campus size " + roomCount + " rooms, " + floors
+                    + " floors, " + roomsPerFloor + " rooms per floor");
+        }
+        this.seed = seed;
+        this.roomCount = roomCount;
+        this.floors = floors;
+        this.roomsPerFloor = roomsPerFloor;
+        this.roomsPerBuilding = floors * roomsPerFloor;
+
+        // jede Übungsleitung sitzt in einem eigenen Abschnitt des Campus
+        int lecturerCount = Math.min(CampusContent.MAX_LECTURERS, roomCount);
+        this.lecturerRooms = new int[lecturerCount];
+        for (int i = 0; i < lecturerCount; i++) {
+            long from = (long) roomCount * i / lecturerCount;
+            long to = (long) roomCount * (i + 1) / lecturerCount;
+            lecturerRooms[i] = (int) (from + Long.remainderUnsigned(hash(-1 - i), to - from));
+        }
+    }
+
+    /**
+     * @return Anzahl der Räume
+     */
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    /**
+     * @return Anzahl der Gebäude
+     */
+    public int getBuildingCount() {
+        return (roomCount - 1) / roomsPerBuilding + 1;
+    }
+
+    /**
+     * @param room Index des Raums
+     * @return Index des Gebäudes
+     */
+    public int buildingOf(int room) {
+        return room / roomsPerBuilding;
+    }
+
+    /**
+     * @param room Index des Raums
+     * @return Stockwerk (ab 0)
+     */
+    public int floorOf(int room) {
+        return room % roomsPerBuilding / roomsPerFloor;
+    }
+
+    /**
+     * Benennt Gebäude wie Tabellenspalten: A bis Z, dann AA, AB und so weiter.
+     *
+     * @param building Index des Gebäudes
+     * @return Name des Gebäudes
+     */
+    public String buildingName(int building) {
+        StringBuilder name = new StringBuilder();
+        for (int rest = building + 1; rest > 0; rest = (rest - 1) / 26) {
+            name.append((char) ('A' + (rest - 1) % 26));
+        }
+        return name.reverse().toString();
+    }
+
+    /**
+     * Bildet den Bezeichner eines Raums aus Gebäude, Stockwerk und Raumnummer, z. B. "C2.017".
+     *
+     * @param room Index des Raums
+     * @return Bezeichner
+     */
+    public String identifier(int room) {
+        int number = room % roomsPerFloor + 1;
+        String digits = Integer.toString(number);
+        int width = Integer.toString(roomsPerFloor).length();
+        StringBuilder identifier = new StringBuilder(buildingName(buildingOf(room))).append(floorOf(room)).append('.');
+        for (int i = digits.length(); i < Math.max(3, width); i++) {
+            identifier.append('0');
+        }
+        return identifier.append(digits).toString();
+    }
+
+    /**
+     * @param room Index des Raums
+     * @return Beschreibung
+     */
+    public String description(int room) {
+        return DESCRIPTIONS[(int) Long.remainderUnsigned(hash(room), DESCRIPTIONS.length)];
+    }
+
+    /**
+     * @param room Index des Raums
+     * @return Index der Übungsleitung im Raum oder -1
+     */
+    public int lecturerAt(int room) {
+        for (int i = 0; i < lecturerRooms.length; i++) {
+            if (lecturerRooms[i] == room) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param room Index des Raums
+     * @return Index der Ereignistabelle seines Gebäudes
+     */
+    public int spawnTableOf(int room) {
+        return (int) Long.remainderUnsigned(hash(Long.MIN_VALUE + buildingOf(room)), SPAWN_TABLES);
+    }
+
+    /**
+     * Liefert eine Ereignistabelle. Tabelle 0 ist {@link SpawnTable#DEFAULT},
+     * die übrigen streuen um deren Gewichte.
+     *
+     * @param table Index der Tabelle (0 bis {@link #SPAWN_TABLES} - 1)
+     * @return Ereignistabelle
+     */
+    public SpawnTable spawnTable(int table) {
+        if (table == 0) {
+            return SpawnTable.DEFAULT;
+        }
+        long bits = hash(Long.MAX_VALUE - table);
+        return new SpawnTable(10 + (int) (bits & 0x1F) % 21, 15 + (int) (bits >>> 8 & 0x1F) % 21,
+                15 + (int) (bits >>> 16 & 0x1F) % 21, 20 + (int) (bits >>> 24 & 0x1F) % 17);
+    }
+
+    /**
+     * Berechnet die Nachbarn eines Raums.
+     *
+     * @param room Index des Raums
+     * @param into Ziel mit Platz für {@link #MAX_NEIGHBOURS} Einträge
+     * @return Anzahl der Nachbarn, aufsteigend in {@code into}
+     */
+    public int neighbours(int room, int[] into) {
+        int count = 0;
+        if (roomCount > 1) {
+            into[count++] = room > 0 ? room - 1 : roomCount - 1;
+            into[count++] = room + 1 < roomCount ? room + 1 : 0;
+        }
+        if (room % roomsPerFloor == 0) {
+            // Treppe zwischen den ersten Räumen der Stockwerke
+            if (floorOf(room) > 0) {
+                into[count++] = room - roomsPerFloor;
+            }
+            if (floorOf(room) + 1 < floors && room + roomsPerFloor < roomCount) {
+                into[count++] = room + roomsPerFloor;
+            }
+            // Weg zwischen den Eingängen benachbarter Gebäude
+            if (room % roomsPerBuilding == 0) {
+                if (room > 0) {
+                    into[count++] = room - roomsPerBuilding;
+                }
+                if ((long) room + roomsPerBuilding < roomCount) {
+                    into[count++] = room + roomsPerBuilding;
+                }
+            }
+        }
+        Arrays.sort(into, 0, count);
+        int size = 0;
+        for (int i = 0; i < count; i++) {
+            if (into[i] != room && (size == 0 || into[size - 1] != into[i])) {
+                into[size++] = into[i];
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Schreibt den Campus samt Übungsleitungen und Fragen des eingebauten
+     * Campus. Die Räume werden einzeln erzeugt und sofort weitergegeben.
+     *
+     * @param writer Ziel
+     * @throws IOException bei Schreibfehlern
+     */
+    public void write(CampusWriter writer) throws IOException {
+        CampusContent template = CampusContent.builtIn();
+        for (int i = 0; i < lecturerRooms.length; i++) {
+            writer.addLecturer(template.getLecturer(i).getName());
+        }
+        for (int i = 0; i < SPAWN_TABLES; i++) {
+            writer.addSpawnTable(spawnTable(i));
+        }
+        int[] neighbours = new int[MAX_NEIGHBOURS];
+        String building = null;
+        for (int room = 0; room < roomCount; room++) {
+            if (room % roomsPerBuilding == 0) {
+                building = buildingName(buildingOf(room));
+            }
+            int count = neighbours(room, neighbours);
+            writer.addRoom(identifier(room), description(room), lecturerAt(room), building, floorOf(room),
+                    spawnTableOf(room), neighbours, count);
+        }
+        for (int i = 0; i < template.getQuestionCount(); i++) {
+            Question question = template.getQuestion(i);
+            writer.addQuestion(question.getQuestion(), question.getAnswers(), question.getCorrectAnswerIndex(),
+                    question.getTopic(), question.getDifficulty());
+        }
+    }
+
+    /**
+     * Streut Startwert und Schlüssel (Mischfunktion von SplitMix64).
+     *
+     * @param key Schlüssel, z. B. Index eines Raums
+     * @return Zufallsbits
+     */
+    private long hash(long key) {
+        long z = seed + (key + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Erzeugt eine Campus-Datei und gibt Dauer und Speicherbedarf je Raum aus.
+     *
+     * @param args Räume [Startwert] [Datei (Standard: {@link CampusContent#DEFAULT_FILE_NAME})]
+     *             [Stockwerke] [Räume je Stockwerk]
+     * @throws IOException wenn die Datei nicht geschrieben werden kann
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java app.CampusGenerator rooms [seed] [file] [floors] [roomsPerFloor]");
+            System.exit(1);
+            return;
+        }
+        int rooms = Integer.parseInt(args[0]);
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1;
+        Path target = Paths.get(args.length > 2 ? args[2] : CampusContent.DEFAULT_FILE_NAME);
+        int floors = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_FLOORS;
+        int roomsPerFloor = args.length > 4 ? Integer.parseInt(args[4]) : DEFAULT_ROOMS_PER_FLOOR;
+        CampusGenerator generator = new CampusGenerator(seed, rooms, floors, roomsPerFloor);
+
+        long heapBefore = usedHeap();
+        long start = System.nanoTime();
+        long size;
+        try (CampusWriter writer = new CampusWriter(target)) {
+            generator.write(writer);
+            size = writer.finish();
+        }
+        long generated = System.nanoTime() - start;
+        long heapGenerated = usedHeap();
+
+        start = System.nanoTime();
+        CampusContent content = CampusContent.load(target);
+        CampusGraph graph = content.getGraph();
+        int nearest = graph.nearestUnsignedLecturer(0, 0);
+        long loaded = System.nanoTime() - start;
+        long heapLoaded = usedHeap();
+
+        System.out.println("Generated " + target + " (seed " + seed + "): " + rooms + " rooms in "
+                + generator.getBuildingCount() + " buildings, " + Files.size(target) + " bytes");
+        System.out.printf("Generation: %d ms, %.0f ns/room, %.1f file bytes/room, %.2f heap bytes/room retained%n",
+                generated / 1_000_000, (double) generated / rooms, (double) size / rooms,
+                (double) Math.max(0, heapGenerated - heapBefore) / rooms);
+        System.out.printf("Loading with routing: %d ms, %.1f heap bytes/room (nearest lecturer %d rooms away)%n",
+                loaded / 1_000_000, (double) Math.max(0, heapLoaded - heapGenerated) / rooms,
+                graph.distanceToLecturer(0, nearest));
+    }
+
+    /**
+     * @return belegter Heap nach einer Speicherbereinigung in Bytes
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,297 @@
+package app;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Wegenetz der Räume eines Campus.
+ *
+ * Die Gänge liegen als Nachbarlisten in zwei {@code int}-Arrays (Beginn je
+ * Raum und aufsteigend sortierte Nachbarn), wie sie in der Campus-Datei
+ * stehen. Eine Tabelle aller Entfernungen würde bei 10.000 Räumen 400 MB
+ * belegen; stattdessen werden Entfernungen per Breitensuche berechnet und
+ * gemerkt: die Felder zu einzelnen Zielräumen in einem kleinen LRU-Cache,
+ * die Felder zu den Räumen jeder Übungsleitung dauerhaft, da sie in jeder
+ * Runde gebraucht werden. Eine Abfrage „nächste fehlende Unterschrift“
+ * liest danach nur noch je Übungsleitung einen Eintrag.
+ *
+ * Das Wegenetz ist unveränderlich und threadsicher.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public final class CampusGraph {
+    /**
+     * Entfernung zu Räumen, die nicht erreichbar sind.
+     */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    /**
+     * Anzahl der Entfernungsfelder zu einzelnen Räumen, die gemerkt werden.
+     */
+    private static final int CACHED_TARGETS = 16;
+
+    /**
+     * Inhalt mit den Räumen.
+     */
+    private final CampusContent content;
+    /**
+     * Beginn der Nachbarn jedes Raums in {@link #neighbours}; der letzte
+     * Eintrag ist die Anzahl aller Nachbarn.
+     */
+    private final int[] start;
+    /**
+     * Nachbarn aller Räume, je Raum aufsteigend sortiert.
+     */
+    private final int[] neighbours;
+    /**
+     * Entfernungen zu den zuletzt abgefragten Zielräumen.
+     */
+    private final Map<Integer, int[]> distanceCache;
+    /**
+     * Entfernungen zum nächsten Raum jeder Übungsleitung (null, solange nicht benötigt).
+     */
+    private final AtomicReferenceArray<int[]> lecturerDistances;
+
+    /**
+     * @param content    Inhalt mit den Räumen
+     * @param start      Beginn der Nachbarn je Raum (Anzahl Räume + 1)
+     * @param neighbours Nachbarn aller Räume
+     */
+    CampusGraph(CampusContent content, int[] start, int[] neighbours) {
+        this.content = content;
+        this.start = start;
+        this.neighbours = neighbours;
+        this.distanceCache = new LinkedHashMap<>(CACHED_TARGETS * 2, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, int[]> eldest) {
+                return size() > CACHED_TARGETS;
+            }
+        };
+        this.lecturerDistances = new AtomicReferenceArray<>(content.getLecturerCount());
+    }
+
+    /**
+     * @return Anzahl der Räume
+     */
+    public int getRoomCount() {
+        return start.length - 1;
+    }
+
+    /**
+     * @param room Index des Raums
+     * @return Anzahl der direkt verbundenen Räume
+     */
+    public int getNeighbourCount(int room) {
+        return start[room + 1] - start[room];
+    }
+
+    /**
+     * @param room Index des Raums
+     * @param i    Nummer des Nachbarn (0 bis {@link #getNeighbourCount(int)} - 1)
+     * @return Index des Nachbarraums
+     */
+    public int getNeighbour(int room, int i) {
+        return neighbours[start[room] + i];
+    }
+
+    /**
+     * Prüft, ob zwei Räume durch einen Gang verbunden sind.
+     *
+     * @param from Index des ersten Raums
+     * @param to   Index des zweiten Raums
+     * @return wahr, wenn ein Gang existiert
+     */
+    public boolean isAdjacent(int from, int to) {
+        return Arrays.binarySearch(neighbours, start[from], start[from + 1], to) >= 0;
+    }
+
+    /**
+     * Liefert den Raum, in den „Erkunden“ ohne Auswahl führt: den Nachbarn
+     * mit dem nächsthöheren Index, sonst den mit dem kleinsten. Auf dem
+     * eingebauten Rundgang ist das der nächste Raum im Kreis.
+     *
+     * @param room Index des aktuellen Raums oder -1 vor dem ersten Raum
+     * @return Index des nächsten Raums
+     */
+    public int defaultNext(int room) {
+        if (room < 0) {
+            return 0;
+        }
+        int from = start[room];
+        int to = start[room + 1];
+        if (from == to) {
+            return room;
+        }
+        int position = Arrays.binarySearch(neighbours, from, to, room + 1);
+        if (position < 0) {
+            position = -position - 1;
+        }
+        return position < to ? neighbours[position] : neighbours[from];
+    }
+
+    /**
+     * Liefert die Entfernung aller Räume zu einem Zielraum. Das Feld wird
+     * geteilt und darf nicht verändert werden.
+     *
+     * @param target Index des Zielraums
+     * @return Anzahl Gänge je Raum bis zum Ziel oder {@link #UNREACHABLE}
+     */
+    public int[] distancesTo(int target) {
+        synchronized (distanceCache) {
+            int[] distances = distanceCache.get(target);
+            if (distances != null) {
+                return distances;
+            }
+        }
+        int[] distances = breadthFirst(new int[] {target}, 1);
+        synchronized (distanceCache) {
+            distanceCache.put(target, distances);
+        }
+        return distances;
+    }
+
+    /**
+     * @param from Index des Startraums
+     * @param to   Index des Zielraums
+     * @return Anzahl Gänge auf dem kürzesten Weg oder {@link #UNREACHABLE}
+     */
+    public int distance(int from, int to) {
+        return distancesTo(to)[from];
+    }
+
+    /**
+     * Liefert den ersten Schritt auf einem kürzesten Weg.
+     *
+     * @param from Index des Startraums
+     * @param to   Index des Zielraums
+     * @return Index des nächsten Raums, {@code from} selbst am Ziel oder -1, wenn das Ziel unerreichbar ist
+     */
+    public int nextStep(int from, int to) {
+        return downhill(distancesTo(to), from);
+    }
+
+    /**
+     * Sucht die nächste Übungsleitung, deren Unterschrift noch fehlt.
+     *
+     * @param from       Index des aktuellen Raums
+     * @param signedMask bereits vorhandene Unterschriften als Bitmaske
+     * @return Index der Übungsleitung oder -1, wenn keine fehlende erreichbar ist
+     */
+    public int nearestUnsignedLecturer(int from, int signedMask) {
+        int best = -1;
+        int bestDistance = UNREACHABLE;
+        for (int lecturer = 0; lecturer < lecturerDistances.length(); lecturer++) {
+            if ((signedMask & (1 << lecturer)) == 0) {
+                int distance = lecturerDistances(lecturer)[from];
+                if (distance < bestDistance) {
+                    best = lecturer;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @param from     Index des Startraums
+     * @param lecturer Index der Übungsleitung
+     * @return Anzahl Gänge bis zum nächsten Raum der Übungsleitung oder {@link #UNREACHABLE}
+     */
+    public int distanceToLecturer(int from, int lecturer) {
+        return lecturerDistances(lecturer)[from];
+    }
+
+    /**
+     * Liefert den ersten Schritt auf dem kürzesten Weg zur Übungsleitung.
+     *
+     * @param from     Index des Startraums
+     * @param lecturer Index der Übungsleitung
+     * @return Index des nächsten Raums, {@code from} selbst am Ziel oder -1, wenn sie unerreichbar ist
+     */
+    public int stepTowardLecturer(int from, int lecturer) {
+        return downhill(lecturerDistances(lecturer), from);
+    }
+
+    /**
+     * @param distances Entfernungen zum Ziel
+     * @param from      Index des Startraums
+     * @return Nachbar mit der kleinsten Entfernung, {@code from} am Ziel oder -1
+     */
+    private int downhill(int[] distances, int from) {
+        int distance = distances[from];
+        if (distance == 0) {
+            return from;
+        }
+        if (distance == UNREACHABLE) {
+            return -1;
+        }
+        for (int i = start[from]; i < start[from + 1]; i++) {
+            if (distances[neighbours[i]] == distance - 1) {
+                return neighbours[i];
+            }
+        }
+        throw new IllegalStateException("Distance field is inconsistent");
+    }
+
+    /**
+     * Liefert die Entfernungen zum nächsten Raum einer Übungsleitung und
+     * berechnet sie beim ersten Aufruf.
+     *
+     * @param lecturer Index der Übungsleitung
+     * @return Entfernung je Raum
+     */
+    private int[] lecturerDistances(int lecturer) {
+        int[] distances = lecturerDistances.get(lecturer);
+        if (distances == null) {
+            int[] sources = new int[getRoomCount()];
+            int count = 0;
+            for (int room = 0; room < sources.length; room++) {
+                if (content.roomLecturer(room) == lecturer) {
+                    sources[count++] = room;
+                }
+            }
+            distances = breadthFirst(sources, count);
+            if (!lecturerDistances.compareAndSet(lecturer, null, distances)) {
+                distances = lecturerDistances.get(lecturer);
+            }
+        }
+        return distances;
+    }
+
+    /**
+     * Breitensuche von mehreren Startfeldern aus; die Warteschlange ist ein
+     * einziges {@code int}-Array.
+     *
+     * @param sources Startfelder (die ersten {@code count} Einträge)
+     * @param count   Anzahl der Startfelder
+     * @return Entfernung jedes Raums zum nächsten Startfeld
+     */
+    private int[] breadthFirst(int[] sources, int count) {
+        int[] distances = new int[getRoomCount()];
+        Arrays.fill(distances, UNREACHABLE);
+        int[] queue = new int[distances.length];
+        int tail = 0;
+        for (int i = 0; i < count; i++) {
+            if (distances[sources[i]] != 0) {
+                distances[sources[i]] = 0;
+                queue[tail++] = sources[i];
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            int room = queue[head];
+            int next = distances[room] + 1;
+            for (int i = start[room]; i < start[room + 1]; i++) {
+                int neighbour = neighbours[i];
+                if (distances[neighbour] == UNREACHABLE) {
+                    distances[neighbour] = next;
+                    queue[tail++] = neighbour;
+                }
+            }
+        }
+        return distances;
+    }
+}
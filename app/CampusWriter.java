@@ -0,0 +1,329 @@
+package app;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import model.Question;
+import model.SpawnTable;
+
+/**
+ * Schreibt eine Campus-Datei abschnittsweise, ohne alle Räume im Speicher
+ * zu halten.
+ *
+ * Im Gegensatz zu {@link CampusContent.Builder} werden Räume samt ihrer
+ * Nachbarn in Indexreihenfolge übergeben und sofort in Zwischendateien neben
+ * der Zieldatei geschrieben (Räume, Gänge, Texte). {@link #finish()} fügt
+ * die Abschnitte zum Format von {@link CampusContent} zusammen. Im Speicher
+ * bleiben nur Übungsleitungen, Ereignistabellen, Fragen und die zuletzt
+ * benutzten Texte, damit sich wiederholende Texte (Beschreibungen, Gebäude)
+ * nur einmal gespeichert werden. So lassen sich auch Campusse mit einer
+ * Million Räumen mit konstantem Speicher erzeugen.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public final class CampusWriter implements Closeable {
+    /**
+     * Anzahl der Texte, die für die Wiederverwendung gemerkt werden.
+     */
+    private static final int CACHED_STRINGS = 4096;
+    /**
+     * Puffergröße der Zwischendateien in Bytes.
+     */
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    /**
+     * Zieldatei.
+     */
+    private final Path target;
+    /**
+     * Zwischendateien: Textanfänge, Textblock, Räume, Beginn der Nachbarn, Nachbarn.
+     */
+    private final Path[] parts = new Path[5];
+    /**
+     * Ströme in die Zwischendateien, in derselben Reihenfolge.
+     */
+    private final DataOutputStream[] streams = new DataOutputStream[5];
+    /**
+     * Nummer der zuletzt benutzten Texte.
+     */
+    private final Map<String, Integer> recentStrings;
+    /**
+     * Einträge der Übungsleitungen.
+     */
+    private final CampusContent.IntList lecturers = new CampusContent.IntList();
+    /**
+     * Gewichte der Ereignistabellen.
+     */
+    private final CampusContent.IntList spawnTables = new CampusContent.IntList();
+    /**
+     * Einträge der Fragen.
+     */
+    private final CampusContent.IntList questions = new CampusContent.IntList();
+    /**
+     * Anzahl der geschriebenen Texte.
+     */
+    private int stringCount;
+    /**
+     * Länge des Textblocks in Bytes.
+     */
+    private int textSize;
+    /**
+     * Anzahl der geschriebenen Räume.
+     */
+    private int roomCount;
+    /**
+     * Anzahl der geschriebenen Nachbarn.
+     */
+    private int adjacencyCount;
+    /**
+     * Größter Nachbar, auf den ein Raum verweist.
+     */
+    private int maxNeighbour = -1;
+    /**
+     * Ob die Datei bereits zusammengefügt wurde.
+     */
+    private boolean finished;
+
+    /**
+     * Legt die Zwischendateien im Verzeichnis der Zieldatei an.
+     *
+     * @param target Zieldatei
+     * @throws IOException wenn die Zwischendateien nicht angelegt werden können
+     */
+    public CampusWriter(Path target) throws IOException {
+        this.target = target;
+        this.recentStrings = new LinkedHashMap<>(CACHED_STRINGS * 2, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Integer> eldest) {
+                return size() > CACHED_STRINGS;
+            }
+        };
+        Path directory = target.toAbsolutePath().getParent();
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                parts[i] = Files.createTempFile(directory, target.getFileName().toString(), ".part");
+                streams[i] = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(parts[i]), CHUNK_SIZE));
+            }
+        } catch (IOException ex) {
+            close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Fügt eine Übungsleitung hinzu.
+     *
+     * @param name Name
+     * @return Index der Übungsleitung
+     * @throws IOException wenn der Text nicht geschrieben werden kann
+     * @throws IllegalArgumentException wenn der Laufzettel keinen Platz mehr hat
+     */
+    public int addLecturer(String name) throws IOException {
+        if (lecturers.size() >= CampusContent.MAX_LECTURERS) {
+            throw new IllegalArgumentException("At most " + CampusContent.MAX_LECTURERS + " lecturers are supported");
+        }
+        lecturers.add(intern(name));
+        return lecturers.size() - 1;
+    }
+
+    /**
+     * Fügt eine Ereignistabelle hinzu, auf die Räume verweisen können.
+     *
+     * @param table Gewichte der Ereignisse
+     * @return Index der Tabelle
+     */
+    public int addSpawnTable(SpawnTable table) {
+        spawnTables.add(table.getNothing());
+        spawnTables.add(table.getFriendly());
+        spawnTables.add(table.getHostile());
+        spawnTables.add(table.getLecturer());
+        return spawnTables.size() / 4 - 1;
+    }
+
+    /**
+     * Schreibt den nächsten Raum mit seinen Nachbarn. Jeder Gang muss bei
+     * beiden Räumen angegeben werden; geprüft wird das nicht.
+     *
+     * @param identifier     Bezeichner des Raums
+     * @param description    Beschreibung
+     * @param lecturer       Index der Übungsleitung im Raum oder -1
+     * @param building       Gebäude
+     * @param floor          Stockwerk
+     * @param spawnTable     Index der Ereignistabelle oder -1 für {@link SpawnTable#DEFAULT}
+     * @param neighbours     Nachbarn, streng aufsteigend
+     * @param neighbourCount Anzahl der Nachbarn in {@code neighbours}
+     * @return Index des Raums
+     * @throws IOException bei Schreibfehlern
+     * @throws IllegalArgumentException wenn ein Verweis ungültig ist
+     */
+    public int addRoom(String identifier, String description, int lecturer, String building, int floor,
+            int spawnTable, int[] neighbours, int neighbourCount) throws IOException {
+        if (lecturer < -1 || lecturer >= lecturers.size()) {
+            throw new IllegalArgumentException("Unknown lecturer " + lecturer);
+        }
+        if (spawnTable < -1 || spawnTable >= spawnTables.size() / 4) {
+            throw new IllegalArgumentException("Unknown spawn table " + spawnTable);
+        }
+        if (roomCount >= CampusContent.MAX_ROOMS) {
+            throw new IllegalArgumentException("At most " + CampusContent.MAX_ROOMS + " rooms are supported");
+        }
+        int previous = -1;
+        for (int i = 0; i < neighbourCount; i++) {
+            if (neighbours[i] <= previous || neighbours[i] == roomCount) {
+                throw new IllegalArgumentException("Neighbours of room " + roomCount
+                        + " must be ascending and must not contain the room itself");
+            }
+            previous = neighbours[i];
+        }
+
+        DataOutputStream rooms = streams[2];
+        rooms.writeInt(intern(identifier));
+        rooms.writeInt(intern(description));
+        rooms.writeInt(lecturer);
+        rooms.writeInt(intern(building));
+        rooms.writeInt(floor);
+        rooms.writeInt(spawnTable);
+        streams[3].writeInt(adjacencyCount);
+        for (int i = 0; i < neighbourCount; i++) {
+            streams[4].writeInt(neighbours[i]);
+        }
+        adjacencyCount += neighbourCount;
+        maxNeighbour = Math.max(maxNeighbour, previous);
+        return roomCount++;
+    }
+
+    /**
+     * Fügt eine Frage hinzu.
+     *
+     * @param question           Frage
+     * @param answers            vier Antworten
+     * @param correctAnswerIndex Index der richtigen Antwort (0-3)
+     * @param topic              Thema
+     * @param difficulty         Schwierigkeitsgrad (1-5)
+     * @return Index der Frage
+     * @throws IOException wenn die Texte nicht geschrieben werden können
+     * @throws IllegalArgumentException wenn Antworten oder Schwierigkeit ungültig sind
+     */
+    public int addQuestion(String question, String[] answers, int correctAnswerIndex, String topic,
+            int difficulty) throws IOException {
+        if (answers.length != Question.ANSWER_COUNT || correctAnswerIndex < 0
+                || correctAnswerIndex >= Question.ANSWER_COUNT) {
+            throw new IllegalArgumentException("Question needs 4 answers and a correct answer between 1 and 4");
+        }
+        if (difficulty < Question.MIN_DIFFICULTY || difficulty > Question.MAX_DIFFICULTY) {
+            throw new IllegalArgumentException("Difficulty must be between " + Question.MIN_DIFFICULTY
+                    + " and " + Question.MAX_DIFFICULTY);
+        }
+        questions.add(intern(question));
+        for (String answer : answers) {
+            questions.add(intern(answer));
+        }
+        questions.add(intern(topic));
+        questions.add(correctAnswerIndex | difficulty << 8);
+        return questions.size() / 7 - 1;
+    }
+
+    /**
+     * @return Anzahl der bisher geschriebenen Räume
+     */
+    public int getRoomCount() {
+        return roomCount;
+    }
+
+    /**
+     * Fügt die Abschnitte zur Zieldatei zusammen und löscht die Zwischendateien.
+     *
+     * @return Größe der Zieldatei in Bytes
+     * @throws IOException bei Schreibfehlern
+     * @throws IllegalStateException wenn Räume oder Fragen fehlen oder ein Nachbar nicht existiert
+     */
+    public long finish() throws IOException {
+        if (finished) {
+            throw new IllegalStateException("Campus file has already been written");
+        }
+        if (roomCount == 0 || questions.size() == 0) {
+            throw new IllegalStateException("Campus needs at least one room and one question");
+        }
+        if (maxNeighbour >= roomCount) {
+            throw new IllegalStateException("Room " + maxNeighbour + " is a neighbour but was never added");
+        }
+        streams[0].writeInt(textSize);
+        streams[3].writeInt(adjacencyCount);
+        for (DataOutputStream stream : streams) {
+            stream.close();
+        }
+
+        try (OutputStream file = Files.newOutputStream(target);
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, CHUNK_SIZE))) {
+            CampusContent.writeHeader(out, lecturers.size(), roomCount, questions.size() / 7, stringCount,
+                    adjacencyCount, spawnTables.size() / 4);
+            Files.copy(parts[0], out);
+            lecturers.writeTo(out);
+            spawnTables.writeTo(out);
+            Files.copy(parts[2], out);
+            Files.copy(parts[3], out);
+            Files.copy(parts[4], out);
+            questions.writeTo(out);
+            Files.copy(parts[1], out);
+        }
+        finished = true;
+        close();
+        return Files.size(target);
+    }
+
+    /**
+     * Schließt die Zwischendateien und löscht sie. Ohne {@link #finish()}
+     * entsteht keine Zieldatei.
+     *
+     * @throws IOException wenn eine Zwischendatei nicht gelöscht werden kann
+     */
+    @Override
+    public void close() throws IOException {
+        for (int i = 0; i < parts.length; i++) {
+            if (streams[i] != null) {
+                streams[i].close();
+                streams[i] = null;
+            }
+            if (parts[i] != null) {
+                Files.deleteIfExists(parts[i]);
+                parts[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Liefert die Nummer eines Texts und schreibt ihn, wenn er nicht unter
+     * den zuletzt benutzten ist.
+     *
+     * @param value Text
+     * @return Nummer des Texts in der Texttabelle
+     * @throws IOException bei Schreibfehlern
+     * @throws IllegalStateException wenn der Writer bereits geschlossen ist
+     */
+    private int intern(String value) throws IOException {
+        if (streams[0] == null) {
+            throw new IllegalStateException("Campus writer is closed");
+        }
+        Integer id = recentStrings.get(value);
+        if (id == null) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            streams[0].writeInt(textSize);
+            streams[1].write(bytes);
+            textSize += bytes.length;
+            id = stringCount++;
+            recentStrings.put(value, id);
+        }
+        return id;
+    }
+}
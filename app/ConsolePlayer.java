@@ -0,0 +1,97 @@
+package app;
+
+import model.GameOutput;
+import model.HostileAlien;
+import model.Question;
+
+/**
+ * Interaktiver Spieler, der alle Entscheidungen zeilenweise einliest, von
+ * der Konsole, aus einer Netzwerksitzung oder aus einer Skriptdatei.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class ConsolePlayer implements PlayerStrategy {
+    /**
+     * Quelle der Eingaben.
+     */
+    private final GameInput in;
+    /**
+     * Ausgabe, die vor jedem Lesen geleert wird, damit die Eingabeaufforderung sichtbar ist.
+     */
+    private final GameOutput out;
+    /**
+     * Aufzeichnung, an die jede gelesene Zeile angehängt wird (null, wenn nicht aufgezeichnet wird).
+     */
+    private GameRecording recording;
+
+    /**
+     * Erstellt einen Spieler, der von der Konsole liest.
+     */
+    public ConsolePlayer() {
+        this(ReaderInput.console(), WriterOutput.console());
+    }
+
+    /**
+     * Erstellt einen Spieler mit eigener Ein- und Ausgabe (z. B. für eine
+     * Netzwerksitzung oder ein Skript).
+     *
+     * @param in  Quelle der Eingaben
+     * @param out Ausgabe, die vor jedem Lesen geleert wird
+     */
+    public ConsolePlayer(GameInput in, GameOutput out) {
+        this.in = in;
+        this.out = out;
+    }
+
+    @Override
+    public String chooseMenuAction(EscapeGame game) {
+        return readLine();
+    }
+
+    @Override
+    public String chooseRestType(EscapeGame game) {
+        return readLine();
+    }
+
+    @Override
+    public String chooseFightAction(EscapeGame game, HostileAlien alien) {
+        return readLine();
+    }
+
+    @Override
+    public String answerQuestion(EscapeGame game, Question question) {
+        return readLine();
+    }
+
+    /**
+     * @return Quelle der Eingaben
+     */
+    public GameInput getInput() {
+        return in;
+    }
+
+    /**
+     * Liest eine komplette Zeile.
+     *
+     * @return Eingabe des Nutzers
+     * @throws java.io.UncheckedIOException wenn die Eingabe zu Ende ist oder nicht lesbar ist
+     */
+    public String readLine() {
+        out.flush();
+        String line = in.readLine();
+        if (recording != null) {
+            recording.add(line);
+        }
+        return line;
+    }
+
+    /**
+     * Legt fest, wohin die folgenden Zeilen aufgezeichnet werden.
+     *
+     * @param recording Aufzeichnung oder null, um nicht mehr aufzuzeichnen
+     */
+    public void setRecording(GameRecording recording) {
+        this.recording = recording;
+    }
+}
@@ -0,0 +1,217 @@
+package app;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import model.GameRandom;
+import model.SpawnTable;
+
+/**
+ * Gewichtete Auswahl der Ereignisse beim Betreten eines Raums.
+ *
+ * Gezogen wird mit der Alias-Methode von Walker (in der stabilen Variante
+ * von Vose): Jede Ereignisart bekommt eine Spalte mit einer Schwelle und
+ * einem Alias. Eine Zufallszahl wählt die Spalte und entscheidet zugleich,
+ * ob die Art der Spalte oder ihr Alias gilt. Eine Ziehung kostet damit
+ * unabhängig von der Anzahl der Arten eine Zufallszahl und zwei
+ * Array-Zugriffe. Die Spalten werden mit ganzzahligen Gewichten aufgebaut,
+ * damit sich keine Rundungsfehler aufsummieren.
+ *
+ * Für jede {@link SpawnTable} gibt es eine gemeinsame Tabelle ({@link #of(SpawnTable)})
+ * über alle registrierten Arten: die eingebauten und alle Plugins.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public final class EncounterTable {
+    /**
+     * Tabellen je Ereignistabelle eines Raums.
+     */
+    private static final Map<SpawnTable, EncounterTable> TABLES = new ConcurrentHashMap<>();
+    /**
+     * Eingebaute und als Plugin gefundene Arten (null, solange nicht geladen).
+     */
+    private static List<EncounterType> registered;
+
+    /**
+     * Ereignisarten je Spalte.
+     */
+    private final EncounterType[] types;
+    /**
+     * Gewicht jeder Art.
+     */
+    private final int[] weights;
+    /**
+     * Summe der Gewichte.
+     */
+    private final long total;
+    /**
+     * Schwelle je Spalte: darunter gilt die Art der Spalte, sonst ihr Alias.
+     */
+    private final double[] threshold;
+    /**
+     * Alias je Spalte.
+     */
+    private final int[] alias;
+
+    /**
+     * Baut die Spalten der Alias-Methode auf.
+     *
+     * @param types   Ereignisarten
+     * @param weights Gewicht je Art
+     * @throws IllegalArgumentException wenn die Längen nicht passen, ein Gewicht negativ ist oder alle null sind
+     */
+    public EncounterTable(EncounterType[] types, int[] weights) {
+        if (types.length != weights.length || types.length == 0) {
+            throw new IllegalArgumentException("Every encounter type needs exactly one weight");
+        }
+        int n = types.length;
+        long sum = 0;
+        for (int weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Encounter weights must not be negative");
+            }
+            sum += weight;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("At least one encounter weight must be positive");
+        }
+        this.types = types.clone();
+        this.weights = weights.clone();
+        this.total = sum;
+        this.threshold = new double[n];
+        this.alias = new int[n];
+
+        // Gewichte mal n: eine volle Spalte entspricht genau der Summe
+        long[] scaled = new long[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+        for (int i = 0; i < n; i++) {
+            scaled[i] = (long) weights[i] * n;
+            if (scaled[i] < total) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+            threshold[less] = (double) scaled[less] / total;
+            alias[less] = more;
+            // der Rest der Spalte wird von der größeren Art aufgefüllt
+            scaled[more] -= total - scaled[less];
+            if (scaled[more] < total) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+        while (largeCount > 0) {
+            int full = large[--largeCount];
+            threshold[full] = 1.0;
+            alias[full] = full;
+        }
+        while (smallCount > 0) {
+            // bei ganzzahligen Gewichten nicht erreichbar, nur zur Sicherheit
+            int full = small[--smallCount];
+            threshold[full] = 1.0;
+            alias[full] = full;
+        }
+    }
+
+    /**
+     * Liefert die gemeinsame Tabelle für Räume mit der angegebenen Ereignistabelle.
+     *
+     * @param spawns Ereignistabelle des Raums
+     * @return Tabelle über alle registrierten Arten
+     */
+    public static EncounterTable of(SpawnTable spawns) {
+        EncounterTable table = TABLES.get(spawns);
+        if (table == null) {
+            table = TABLES.computeIfAbsent(spawns, EncounterTable::build);
+        }
+        return table;
+    }
+
+    /**
+     * @param spawns Ereignistabelle des Raums
+     * @return neue Tabelle über alle registrierten Arten
+     */
+    private static EncounterTable build(SpawnTable spawns) {
+        List<EncounterType> all = registeredTypes();
+        EncounterType[] types = all.toArray(new EncounterType[0]);
+        int[] weights = new int[types.length];
+        for (int i = 0; i < types.length; i++) {
+            weights[i] = types[i].getWeight(spawns);
+        }
+        return new EncounterTable(types, weights);
+    }
+
+    /**
+     * Liefert die eingebauten Arten und alle Plugins, die beim ersten Aufruf
+     * über {@link ServiceLoader} gefunden werden.
+     *
+     * @return unveränderliche Liste der Arten
+     * @throws IllegalStateException wenn zwei Arten denselben Namen haben
+     */
+    public static synchronized List<EncounterType> registeredTypes() {
+        if (registered == null) {
+            List<EncounterType> types = new ArrayList<>(List.of(BuiltInEncounter.values()));
+            for (EncounterType plugin : ServiceLoader.load(EncounterType.class)) {
+                types.add(plugin);
+            }
+            Set<String> names = new HashSet<>();
+            for (EncounterType type : types) {
+                if (!names.add(type.getName())) {
+                    throw new IllegalStateException("Encounter type " + type.getName() + " is registered twice");
+                }
+            }
+            registered = Collections.unmodifiableList(types);
+        }
+        return registered;
+    }
+
+    /**
+     * Zieht eine Ereignisart mit einer Zufallszahl.
+     *
+     * @param random Zufallsquelle des Spiels
+     * @return gezogene Art
+     */
+    public EncounterType sample(GameRandom random) {
+        double column = random.nextDouble() * types.length;
+        int i = Math.min((int) column, types.length - 1);
+        return column - i < threshold[i] ? types[i] : types[alias[i]];
+    }
+
+    /**
+     * @return Anzahl der Ereignisarten
+     */
+    public int size() {
+        return types.length;
+    }
+
+    /**
+     * @param i Nummer der Art
+     * @return Ereignisart
+     */
+    public EncounterType getType(int i) {
+        return types[i];
+    }
+
+    /**
+     * @param i Nummer der Art
+     * @return Wahrscheinlichkeit, mit der die Art gezogen wird
+     */
+    public double getProbability(int i) {
+        return (double) weights[i] / total;
+    }
+}
@@ -0,0 +1,42 @@
+package app;
+
+import model.HTWRoom;
+import model.SpawnTable;
+
+/**
+ * Art eines Ereignisses beim Betreten eines Raums.
+ *
+ * Neben den eingebauten Arten ({@link BuiltInEncounter}) werden weitere als
+ * Plugins über {@link java.util.ServiceLoader} gefunden: Eine JAR-Datei im
+ * Klassenpfad nennt ihre Klassen in
+ * {@code META-INF/services/app.EncounterType}; jede braucht einen
+ * öffentlichen Konstruktor ohne Parameter. Wie oft eine Art vorkommt, legt
+ * ihr Gewicht je Ereignistabelle fest ({@link EncounterTable}).
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public interface EncounterType {
+
+    /**
+     * @return eindeutiger Name der Ereignisart (z. B. "hostile-alien")
+     */
+    String getName();
+
+    /**
+     * Liefert das Gewicht dieser Art in Räumen mit der angegebenen
+     * Ereignistabelle. 0 bedeutet, dass sie dort nie vorkommt.
+     *
+     * @param table Ereignistabelle des Raums
+     * @return nicht negatives Gewicht
+     */
+    int getWeight(SpawnTable table);
+
+    /**
+     * Führt das Ereignis aus.
+     *
+     * @param game laufendes Spiel
+     * @param room betretener Raum
+     */
+    void encounter(EscapeGame game, HTWRoom room);
+}
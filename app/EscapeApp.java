@@ -2,10 +2,17 @@ package app;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Paths;
+import java.util.List;
+
+import model.GameOutput;
+import model.GameRandom;
+import model.HTWRoom;
+import model.Hero;
+import model.Lecturer;
 
 /**
  * Start und UI-Klasse der Anwendung.
@@ -19,77 +26,308 @@ import java.util.Scanner;
  */
 public class EscapeApp {
     /**
-     * Dateiname für den Speicherstand.
+     * Dateiname des alten Einzel-Speicherstands (wird beim Start in den
+     * Slot-Speicher übernommen).
      */
     public static final String SAVE_FILE_NAME = "save";
+    /**
+     * Dateiname des Slot-Speichers mit allen Spielständen.
+     */
+    public static final String SAVE_STORE_FILE_NAME = "saves.db";
+    /**
+     * Dateiname des automatischen Spielstands (Option {@code --autosave}).
+     */
+    public static final String AUTOSAVE_FILE_NAME = "autosave";
+    /**
+     * Name des Slots, in den ein vorhandener automatischer Spielstand beim
+     * Start übernommen wird.
+     */
+    public static final String AUTOSAVE_SLOT = "autosave";
+    /**
+     * Basisname der Journal-Dateien (Option {@code --journal}).
+     */
+    public static final String JOURNAL_FILE_NAME = "journal";
+    /**
+     * Name des Slots, in den ein vorhandenes Journal beim Start übernommen wird.
+     */
+    public static final String JOURNAL_SLOT = "journal";
+    /**
+     * Datei, an die {@link GameMetrics} regelmäßig angehängt werden (Option {@code --metrics}).
+     */
+    public static final String METRICS_FILE_NAME = "metrics.log";
+    /**
+     * Verzeichnis der {@link Leaderboard} mit den Ergebnissen aller beendeten Spiele.
+     */
+    public static final String LEADERBOARD_DIRECTORY_NAME = "leaderboard";
+    /**
+     * Archiv der {@link GameRecording}s aller Spiele (Option {@code --record}).
+     */
+    public static final String RECORDINGS_FILE_NAME = "recordings.dat";
     /**
      * Aktuelle Spielinstanz.
      */
     private EscapeGame game;
+    /**
+     * Speicher aller Spielstände (null, wenn er nicht geöffnet werden konnte).
+     */
+    private SaveSlotStore saveStore;
+    /**
+     * Bestenliste aller beendeten Spiele (null, wenn sie nicht geöffnet werden konnte).
+     */
+    private Leaderboard leaderboard;
+    /**
+     * Archiv, in das jedes Spiel aufgezeichnet wird (null, wenn nicht aufgezeichnet wird).
+     */
+    private RecordingArchive archive;
+    /**
+     * Aufzeichnung des aktuellen Spiels (null ohne Archiv).
+     */
+    private GameRecording recording;
+    /**
+     * Speichert nach jedem Zug im Hintergrund (null, wenn nicht aktiviert).
+     */
+    private AutoSaver autoSaver;
+    /**
+     * Zeichnet das laufende Spiel als Journal auf (null, wenn nicht aktiviert).
+     */
+    private GameJournal journal;
+    /**
+     * Fester Startwert für neue Spiele (null bedeutet zufällig).
+     */
+    private Long seed;
+    /**
+     * Liest die Eingaben des Nutzers (Konsole oder Netzwerksitzung).
+     */
+    private final ConsolePlayer player;
+    /**
+     * Ziel aller Ausgaben.
+     */
+    private final GameOutput out;
+    /**
+     * Ziel der Fehlermeldungen. Wird nach jeder Meldung geleert.
+     */
+    private final GameOutput err;
+    /**
+     * Wird beim Beenden (Option 6) auf falsch gesetzt.
+     */
+    private boolean running = true;
+
+    /**
+     * Erstellt die Anwendung für die Konsole.
+     */
+    public EscapeApp() {
+        this(ReaderInput.console(), WriterOutput.console(),
+                new WriterOutput(System.err, Charset.defaultCharset(), 256));
+    }
+
+    /**
+     * Erstellt die Anwendung für eine Sitzung mit eigener Ein- und Ausgabe,
+     * z. B. eine Netzwerkverbindung von {@link GameServer}.
+     *
+     * @param in          Quelle der Eingaben
+     * @param out         Ziel aller Ausgaben und Fehlermeldungen
+     * @param saveStore   gemeinsamer Speicher der Spielstände oder null
+     * @param leaderboard gemeinsame Bestenliste oder null
+     * @param archive     gemeinsames Archiv der Aufzeichnungen oder null
+     */
+    public EscapeApp(GameInput in, GameOutput out, SaveSlotStore saveStore, Leaderboard leaderboard,
+            RecordingArchive archive) {
+        this(in, out, out);
+        this.saveStore = saveStore;
+        this.leaderboard = leaderboard;
+        this.archive = archive;
+    }
+
+    /**
+     * Erstellt die Anwendung mit getrennter Ausgabe für Fehlermeldungen.
+     *
+     * @param in  Quelle der Eingaben
+     * @param out Ziel aller Ausgaben
+     * @param err Ziel der Fehlermeldungen
+     */
+    private EscapeApp(GameInput in, GameOutput out, GameOutput err) {
+        this.player = new ConsolePlayer(in, out);
+        this.out = out;
+        this.err = err;
+    }
 
     /**
      * Einstiegspunkt der Anwendung. Zeigt das Hauptmenü in einer Schleife an und
      * verarbeitet Nutzereingaben.
      * 
-     * @param args nicht verwendet
+     * @param args optional {@code --seed <Zahl>} für reproduzierbare Spiele,
+     *             {@code --autosave} für automatisches Speichern nach jedem Zug,
+     *             {@code --journal} für ein Journal aller Spielereignisse,
+     *             {@code --script <Datei>} für Befehle aus einer Datei,
+     *             {@code --metrics <Sekunden>} für eine regelmäßige Ausgabe
+     *             der {@link GameMetrics},
+     *             {@code --record} für eine Aufzeichnung jedes Spiels in
+     *             {@link #RECORDINGS_FILE_NAME} und
+     *             {@code --quiet} um die Spielausgabe zu verwerfen
+     * @throws IOException wenn die Skriptdatei nicht geöffnet werden kann
      */
-    public static void main(String[] args) {
-        System.out.println("Welcome to the HTW escape");
-        System.out.println("========================================\n");
+    public static void main(String[] args) throws IOException {
+        EscapeApp app = createApp(args);
+        app.openSaveStore();
+        app.openLeaderboard();
+        GameMetrics.registerMBeans();
+        for (int i = 0; i < args.length; i++) {
+            if ("--seed".equals(args[i]) && i + 1 < args.length) {
+                app.seed = Long.parseLong(args[i + 1]);
+            } else if ("--autosave".equals(args[i])) {
+                app.autoSaver = new AutoSaver(Paths.get(AUTOSAVE_FILE_NAME));
+            } else if ("--journal".equals(args[i])) {
+                app.journal = new GameJournal(Paths.get(JOURNAL_FILE_NAME), GameJournal.DEFAULT_SNAPSHOT_INTERVAL);
+            } else if ("--metrics".equals(args[i]) && i + 1 < args.length) {
+                GameMetrics.startDump(Paths.get(METRICS_FILE_NAME), Long.parseLong(args[i + 1]) * 1000L);
+            } else if ("--record".equals(args[i])) {
+                app.openArchive();
+            }
+        }
 
-        EscapeApp app = new EscapeApp();
+        long start = System.nanoTime();
+        try {
+            app.run();
+        } catch (UncheckedIOException ex) {
+            app.printError("Input ended: " + ex.getCause().getMessage());
+        }
+        if (app.player.getInput() instanceof ScriptedInput) {
+            ScriptedInput script = (ScriptedInput) app.player.getInput();
+            System.out.printf("Script: %d commands in %.1f ms%n",
+                    script.getCommands(), (System.nanoTime() - start) / 1e6);
+        }
 
-        while (true) {
-            app.showMainMenu();
-            String choice = app.readUserInput();
-            app.handleUserInput(choice);
-            System.out.println("====================");
+        if (app.autoSaver != null) {
+            app.autoSaver.close();
+            app.autoSaver.printStats(System.out);
+        }
+        app.closeJournal();
+        app.closeSaveStore();
+        app.closeLeaderboard();
+        if (app.archive != null) {
+            app.archive.close();
         }
     }
 
+    /**
+     * Erstellt die Anwendung passend zu den Optionen: Eingabe von der Konsole
+     * oder aus einer Skriptdatei, Ausgabe auf die Konsole oder verworfen.
+     *
+     * @param args Kommandozeilenoptionen (siehe {@link #main(String[])})
+     * @return neue Anwendung
+     * @throws IOException wenn die Skriptdatei nicht geöffnet werden kann
+     */
+    private static EscapeApp createApp(String[] args) throws IOException {
+        String script = null;
+        boolean quiet = false;
+        for (int i = 0; i < args.length; i++) {
+            if ("--script".equals(args[i]) && i + 1 < args.length) {
+                script = args[i + 1];
+            } else if ("--quiet".equals(args[i])) {
+                quiet = true;
+            }
+        }
+        GameOutput out = quiet ? new NullOutput() : WriterOutput.console();
+        GameInput in = script == null ? ReaderInput.console()
+                : new ScriptedInput(Paths.get(script), quiet ? null : out);
+        return new EscapeApp(in, out, new WriterOutput(System.err, Charset.defaultCharset(), 256));
+    }
+
+    /**
+     * Zeigt das Hauptmenü in einer Schleife an und verarbeitet die Eingaben,
+     * bis der Nutzer das Programm beendet.
+     */
+    public void run() {
+        out.println("Welcome to the HTW escape");
+        out.println("========================================\n");
+
+        try {
+            while (running) {
+                showMainMenu();
+                String choice = readUserInput();
+                handleUserInput(choice);
+                out.println("====================");
+            }
+        } finally {
+            // auch ein unterbrochenes Spiel landet im Archiv
+            archiveRecording();
+        }
+        out.flush();
+    }
+
+    /**
+     * Spielt eine Aufzeichnung so schnell wie möglich nach: dieselben Menüs
+     * und Eingaben wie in {@link #resumeGame()}, aber ohne Slot-Speicher,
+     * Bestenliste, Journal und Archiv. Das Hauptmenü wird übersprungen, da
+     * es den Spielstand nicht verändert.
+     *
+     * @param recording  Aufzeichnung
+     * @param untilRound Runde, ab der keine Züge mehr gespielt werden
+     *                   ({@link Integer#MAX_VALUE} für die ganze Aufzeichnung)
+     * @param out        Ziel der Spielausgaben, z. B. {@link NullOutput}
+     * @return nachgespieltes Spiel
+     * @throws IOException wenn der geladene Spielstand der Aufzeichnung nicht lesbar ist
+     */
+    public static EscapeGame replay(GameRecording recording, int untilRound, GameOutput out) throws IOException {
+        GameRecording.Playback input = recording.playback();
+        EscapeApp app = new EscapeApp(input, out, out);
+        app.game = recording.startGame(app.player, out);
+        try {
+            while (input.hasNext() && !app.game.isGameFinished() && app.game.getCurrentRound() < untilRound) {
+                app.game.setGameRunning(true);
+                app.game.checkIfGameOver();
+                app.game.printMenu();
+                app.handleMenuChoice(app.readUserInput());
+                out.println();
+            }
+        } catch (UncheckedIOException ex) {
+            // Aufzeichnung endet mitten im Zug, z. B. nach einem Verbindungsabbruch
+        }
+        out.flush();
+        return app.game;
+    }
+
     /**
      * Darstellung des Hauptmenüs mit Auswahlmöglichkeiten.
      * Zeigt nur die verfügbaren Optionen basierend auf dem aktuellen Spielzustand an.
      */
     private void showMainMenu() {
-        System.out.println("You're in the main menu");
-        System.out.println("What do you want to do next?");
-        System.out.println("(1) Start new game");
+        out.println("You're in the main menu");
+        out.println("What do you want to do next?");
+        out.println("(1) Start new game");
 
         // Option 2: Nur anzeigen, wenn ein Spiel gestartet wurde UND nicht beendet ist
         if (isGameRunning() && !isGameFinished()) {
-            System.out.println("(2) Resume game");
+            out.println("(2) Resume game");
         }
 
         // Option 3: Nur anzeigen, wenn ein gespeichertes Spiel vorhanden ist
         if (hasSavedGame() && !isGameFinished()) {
-            System.out.println("(3) Load game");
+            out.println("(3) Load game");
         }
 
         // Option 4: Nur anzeigen, wenn ein Spiel gestartet wurde
         if (isGameRunning()) {
-            System.out.println("(4) Save game");
+            out.println("(4) Save game");
         }
 
         // Option 5: Nur anzeigen, wenn ein gespeichertes Spiel vorhanden ist
         if (hasSavedGame()) {
-            System.out.println("(5) Delete game");
+            out.println("(5) Delete game");
         }
 
-        System.out.println("(6) Quit");
-        System.out.println("");
-        System.out.println("Please choose a number between 1 and 6: ");
+        out.println("(6) Quit");
+        out.println("");
+        out.println("Please choose a number between 1 and 6: ");
     }
 
     /**
-     * Liest eine komplette Zeile von der Standard-Eingabe.
+     * Liest eine komplette Zeile von der Eingabe dieser Sitzung.
      * 
      * @return Eingabe, das der Nutzer in die Konsole eingetippt hat
      */
     private String readUserInput() {
-        Scanner scanner = new Scanner(System.in);
-        String userInput = scanner.nextLine();
-        return userInput;
+        return player.readLine();
     }
 
     /**
@@ -109,36 +347,36 @@ public class EscapeApp {
                 if (isGameRunning() && !isGameFinished()) {
                     this.resumeGame();
                 } else {
-                    System.out.println("Invalid input. Please choose a correct number between 1 and 6");
+                    out.println("Invalid input. Please choose a correct number between 1 and 6");
                 }
                 break;
             case "3":
                 if (hasSavedGame() && !isGameFinished()) {
                     this.loadGame();
                 } else {
-                    System.out.println("Invalid input. Please choose a correct number between 1 and 6");
+                    out.println("Invalid input. Please choose a correct number between 1 and 6");
                 }
                 break;
             case "4":
                 if (isGameRunning()) {
                     this.saveGame();
                 } else {
-                    System.out.println("Invalid input. Please choose a correct number between 1 and 6");
+                    out.println("Invalid input. Please choose a correct number between 1 and 6");
                 }
                 break;
             case "5":
                 if (hasSavedGame()) {
                     this.deleteGame();
                 } else {
-                    System.out.println("Invalid input. Please choose a correct number between 1 and 6");
+                    out.println("Invalid input. Please choose a correct number between 1 and 6");
                 }
                 break;
             case "6":
-                System.out.println("Goodbye!");
-                System.exit(0);
+                out.println("Goodbye!");
+                running = false;
                 break;
             default:
-                System.out.println("Invalid input. Please choose a correct number between 1 and 6");
+                out.println("Invalid input. Please choose a correct number between 1 and 6");
                 break;
         }
     }
@@ -146,7 +384,7 @@ public class EscapeApp {
     /**
      * Verarbeitet eine Auswahl innerhalb des Spielmenüs (während ein Spiel läuft).
      * 
-     * @param choice die ausgewählte Option ("1" bis "5")
+     * @param choice die ausgewählte Option ("1" bis "7")
      */
     public void handleMenuChoice(String choice) {
         switch (choice) {
@@ -163,12 +401,18 @@ public class EscapeApp {
                 handleRest();
                 break;
             case "5":
-                System.out.println("Exiting game.");
+                out.println("Exiting game.");
                 // gameFinished = true;
                 this.game.setGameRunning(false);
                 break;
+            case "6":
+                showHint();
+                break;
+            case "7":
+                chooseRoom();
+                break;
             default:
-                System.out.println("Invalid input. Please choose between 1 and 5.");
+                out.println("Invalid input. Please choose between 1 and 7.");
                 break;
         }
     }
@@ -178,11 +422,17 @@ public class EscapeApp {
      * und übergibt diesen an die Spiel-Logik.
      */
     private void startGame() {
-        this.game = new EscapeGame();
-        System.out.println("Game started!");
-        System.out.println("Choose a name for your hero:");
+        archiveRecording();
+        GameRandom random = seed == null ? new GameRandom() : new GameRandom(seed);
+        this.game = new EscapeGame(player, out, random);
+        out.println("Game started! (seed " + random.getInitialSeed() + ")");
+        out.println("Choose a name for your hero:");
         String heroName = readUserInput();
+        if (archive != null) {
+            this.recording = GameRecording.newGame(random.getInitialSeed(), heroName);
+        }
         this.game.run(heroName);
+        startJournal();
         resumeGame();
     }
 
@@ -192,62 +442,438 @@ public class EscapeApp {
      */
     private void resumeGame() {
         if (this.game != null) {
+            player.setRecording(recording);
             this.game.setGameRunning(true);
             while (this.game.isGameRunning()) {
                 this.game.checkIfGameOver();
                 this.game.printMenu();
                 String choice = readUserInput();
+                // gemessen wird ab der Eingabe, ohne die Bedenkzeit des Spielers
+                FlightEvents.Turn turn = FlightEvents.beginTurn();
                 this.handleMenuChoice(choice);
-                System.out.println();
+                if (autoSaver != null) {
+                    autoSaver.submit(this.game);
+                }
+                if (journal != null) {
+                    journal.endTurn();
+                }
+                out.println();
+                out.flush();
+                if (turn != null && turn.shouldCommit()) {
+                    turn.choice = choice;
+                    turn.round = game.getCurrentRound();
+                    turn.healthPoints = game.getHero() != null ? game.getHero().getHealthPoints() : 0;
+                    turn.commit();
+                }
+            }
+            player.setRecording(null);
+            if (this.game.isGameFinished()) {
+                recordResult();
+                archiveRecording();
+                if (autoSaver != null) {
+                    autoSaver.discard();
+                }
+                discardJournal();
+            }
+        }
+    }
+
+    /**
+     * Öffnet die Bestenliste ({@link #LEADERBOARD_DIRECTORY_NAME}).
+     */
+    private void openLeaderboard() {
+        try {
+            this.leaderboard = new Leaderboard(Paths.get(LEADERBOARD_DIRECTORY_NAME));
+        } catch (IOException ex) {
+            printError("The leaderboard is not available: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Trägt das gerade beendete Spiel in die Bestenliste ein.
+     */
+    private void recordResult() {
+        if (leaderboard == null || game.getHero() == null) {
+            return;
+        }
+        try {
+            leaderboard.record(game);
+        } catch (IOException ex) {
+            printError("Something went wrong while recording the result: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Öffnet den Slot-Speicher ({@link #SAVE_STORE_FILE_NAME}) und übernimmt
+     * einen vorhandenen alten Einzel-Speicherstand ({@link #SAVE_FILE_NAME})
+     * in einen Slot mit dem Namen des Helden.
+     */
+    private void openSaveStore() {
+        try {
+            this.saveStore = new SaveSlotStore(new File(SAVE_STORE_FILE_NAME));
+        } catch (IOException ex) {
+            printError("Save games are not available: " + ex.getMessage());
+            return;
+        }
+
+        importAutosave();
+        importJournal();
+
+        File legacyFile = new File(SAVE_FILE_NAME);
+        if (!legacyFile.exists()) {
+            return;
+        }
+        try (FileInputStream fis = new FileInputStream(legacyFile)) {
+            EscapeGame legacyGame = SaveGameCodec.read(fis, player, out);
+            String slot = legacyGame.getHero() != null ? legacyGame.getHero().getName() : SAVE_FILE_NAME;
+            if (!saveStore.contains(slot)) {
+                saveStore.save(slot, legacyGame);
+            }
+        } catch (Exception ex) {
+            printError("Could not import the old save file: " + ex.getMessage());
+            return;
+        }
+        if (legacyFile.renameTo(new File(SAVE_FILE_NAME + ".imported"))) {
+            out.println("Imported old save file into the save slots.");
+        }
+    }
+
+    /**
+     * Übernimmt einen vorhandenen automatischen Spielstand (z. B. nach einem
+     * Absturz) in den Slot {@link #AUTOSAVE_SLOT}, damit er geladen werden kann,
+     * und löscht danach die Datei.
+     */
+    private void importAutosave() {
+        File autosaveFile = new File(AUTOSAVE_FILE_NAME);
+        if (!autosaveFile.exists()) {
+            return;
+        }
+        try (FileInputStream fis = new FileInputStream(autosaveFile)) {
+            saveStore.save(AUTOSAVE_SLOT, SaveGameCodec.read(fis, player, out));
+        } catch (Exception ex) {
+            printError("Could not restore the autosave: " + ex.getMessage());
+            return;
+        }
+        if (!autosaveFile.delete()) {
+            printError("Could not delete the imported autosave file.");
+        }
+    }
+
+    /**
+     * Stellt ein vorhandenes Journal (z. B. nach einem Absturz) wieder her,
+     * übernimmt den Stand in den Slot {@link #JOURNAL_SLOT} und löscht danach
+     * die Dateien des Journals.
+     */
+    private void importJournal() {
+        if (!GameJournal.exists(Paths.get(JOURNAL_FILE_NAME))) {
+            return;
+        }
+        try {
+            saveStore.save(JOURNAL_SLOT, GameJournal.recover(Paths.get(JOURNAL_FILE_NAME), player, out));
+        } catch (Exception ex) {
+            printError("Could not restore the journal: " + ex.getMessage());
+            return;
+        }
+        try {
+            GameJournal.delete(Paths.get(JOURNAL_FILE_NAME));
+        } catch (IOException ex) {
+            printError("Could not delete the imported journal: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Beginnt ein neues Journal für das aktuelle Spiel, falls aktiviert.
+     */
+    private void startJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.start(this.game);
+        } catch (IOException ex) {
+            printError("Could not start the journal: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Löscht das Journal des beendeten Spiels, falls aktiviert.
+     */
+    private void discardJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.discard();
+        } catch (IOException ex) {
+            printError("Something went wrong while deleting the journal: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Schließt das Journal, falls aktiviert.
+     */
+    private void closeJournal() {
+        if (journal == null) {
+            return;
+        }
+        try {
+            journal.close();
+        } catch (IOException ex) {
+            printError("Something went wrong while closing the journal: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Öffnet das Archiv der Aufzeichnungen ({@link #RECORDINGS_FILE_NAME}).
+     */
+    private void openArchive() {
+        try {
+            this.archive = new RecordingArchive(Paths.get(RECORDINGS_FILE_NAME));
+        } catch (IOException ex) {
+            printError("Games are not recorded: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Hängt die Aufzeichnung des aktuellen Spiels an das Archiv an und
+     * beendet sie.
+     */
+    private void archiveRecording() {
+        if (recording == null) {
+            return;
+        }
+        recording.finish(game);
+        try {
+            archive.append(recording);
+        } catch (IOException ex) {
+            printError("Something went wrong while archiving the recording: " + ex.getMessage());
+        }
+        recording = null;
+    }
+
+    /**
+     * Schließt die Bestenliste.
+     */
+    private void closeLeaderboard() {
+        if (leaderboard == null) {
+            return;
+        }
+        try {
+            leaderboard.close();
+        } catch (IOException ex) {
+            printError("Something went wrong while closing the leaderboard: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Schließt den Slot-Speicher.
+     */
+    private void closeSaveStore() {
+        if (saveStore == null) {
+            return;
+        }
+        try {
+            saveStore.close();
+        } catch (IOException ex) {
+            printError("Something went wrong while closing the save games: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Zeigt alle Slots nummeriert an und lässt den Nutzer einen auswählen.
+     * 
+     * @return Name des gewählten Slots oder null bei ungültiger Eingabe
+     */
+    private String chooseSaveSlot() {
+        List<String> slots = saveStore.listSlots();
+        out.println("Choose a save slot:");
+        for (int i = 0; i < slots.size(); i++) {
+            out.println("(" + (i + 1) + ") " + slots.get(i));
+        }
+        String input = readUserInput().trim();
+        try {
+            int index = Integer.parseInt(input) - 1;
+            if (index >= 0 && index < slots.size()) {
+                return slots.get(index);
+            }
+        } catch (NumberFormatException e) {
+            // keine Nummer: Eingabe als Name des Slots verwenden
+            if (!input.isEmpty() && saveStore.contains(input)) {
+                return input;
             }
         }
+        out.println("No such save slot.");
+        return null;
     }
 
     /**
-     * Löscht den vorhandenen Speicherstand ({@link #SAVE_FILE_NAME}).
+     * Löscht einen vom Nutzer gewählten Slot.
      * Gibt das Ergebnis der Operation auf der Konsole aus.
      */
     private void deleteGame() {
-        if (new File(SAVE_FILE_NAME).delete()) {
-            System.out.println("Deleted save file");
+        String slot = chooseSaveSlot();
+        if (slot == null) {
+            return;
+        }
+        if (saveStore.delete(slot)) {
+            out.println("Deleted save slot " + slot);
         } else {
-            System.out.println("No save file found to delete");
+            out.println("No save slot found to delete");
         }
     }
 
     /**
-     * Speichert den aktuellen Stand des Spiels in eine Datei ({@link #SAVE_FILE_NAME})
-     * mittels Java-Serialisierung.
+     * Speichert den aktuellen Stand des Spiels in einen Slot. Ohne Eingabe wird
+     * der Name des Helden als Slotname verwendet; ein vorhandener Slot wird
+     * überschrieben.
      */
     private void saveGame() {
         if (this.game == null) {
-            System.out.println("No game to save!");
+            out.println("No game to save!");
             return;
         }
+        if (saveStore == null) {
+            out.println("Save games are not available.");
+            return;
+        }
+
+        String defaultSlot = game.getHero() != null ? game.getHero().getName() : SAVE_FILE_NAME;
+        out.println("Name of the save slot (empty for \"" + defaultSlot + "\"):");
+        String slot = readUserInput().trim();
+        if (slot.isEmpty()) {
+            slot = defaultSlot;
+        }
 
-        try (FileOutputStream fos = new FileOutputStream(SAVE_FILE_NAME);
-             ObjectOutputStream oos = new ObjectOutputStream(fos)) {
-            oos.writeObject(game);
-            oos.flush();
-            System.out.println("Save game file");
+        long start = System.nanoTime();
+        try {
+            saveStore.save(slot, game);
+            GameMetrics.SAVE_LATENCY.record(System.nanoTime() - start);
+            out.println("Saved game in slot " + slot);
         } catch (Exception ex) {
-            System.err.println("Something went wrong while saving the game: " + ex.getMessage());
+            GameMetrics.count(GameCounter.SAVE_FAILURES);
+            printError("Something went wrong while saving the game: " + ex.getMessage());
         }
     }
 
     /**
-     * Lädt den Spielstand aus der Datei ({@link #SAVE_FILE_NAME}) mittels
-     * Java-Deserialisierung und stellt die Spielinstanz wieder her.
+     * Lädt den Spielstand aus einem vom Nutzer gewählten Slot und stellt die
+     * Spielinstanz wieder her.
      */
     private void loadGame() {
-        try (FileInputStream fis = new FileInputStream(SAVE_FILE_NAME);
-             ObjectInputStream ois = new ObjectInputStream(fis)) {
-            this.game = (EscapeGame) ois.readObject();
-            System.out.println("Load save file");
+        String slot = chooseSaveSlot();
+        if (slot == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            EscapeGame loaded = saveStore.load(slot, player, out);
+            GameMetrics.LOAD_LATENCY.record(System.nanoTime() - start);
+            archiveRecording();
+            this.game = loaded;
+            if (archive != null) {
+                this.recording = GameRecording.fromSnapshot(loaded);
+            }
+            out.println("Loaded save slot " + slot);
+            startJournal();
         } catch (Exception ex) {
-            System.err.println("Something went wrong while loading the game: " + ex.getMessage());
+            GameMetrics.count(GameCounter.LOAD_FAILURES);
+            printError("Something went wrong while loading the game: " + ex.getMessage());
+            return;
+        }
+    }
+
+    /**
+     * Zeigt den besten nächsten Zug laut {@link GamePolicy} an.
+     */
+    private void showHint() {
+        GamePolicy policy = GamePolicy.shared();
+        if (policy == null) {
+            out.println("No hints available. Create them with: java sim.PolicySolver");
+            return;
+        }
+        int index = GamePolicy.index(game);
+        if (index < 0) {
+            out.println("No hint for this situation.");
             return;
         }
+        if (game.getSignedMask() == GamePolicy.ALL_SIGNED) {
+            out.println("Hint: explore the campus, Professor Majuntke is waiting.");
+            return;
+        }
+
+        String action;
+        switch (policy.action(index)) {
+            case GamePolicy.LONG_REST:
+                action = "take a long rest";
+                break;
+            case GamePolicy.SHORT_REST:
+                action = "take a short rest";
+                break;
+            default:
+                action = "explore the campus";
+                break;
+        }
+        out.println("Hint: " + action + " (win chance " + Math.round(policy.winProbability(index) * 100) + " %)");
+
+        Hero hero = game.getHero();
+        int nextRound = game.getCurrentRound() + 1;
+        if (policy.action(index) == GamePolicy.EXPLORE && nextRound < GamePolicy.ROUNDS) {
+            int next = GamePolicy.index(nextRound, hero.getHealthPoints(), hero.getExperiencePoints(),
+                    game.getSignedMask(), game.isSmallRestUsed(), game.getDefaultNextRoom());
+            out.println("If a hostile alien appears: " + (policy.shouldFlee(next) ? "flee" : "attack"));
+        }
+    }
+
+    /**
+     * Zeigt die Gänge des aktuellen Raums samt Übungsleitungen und den Weg zur
+     * nächsten fehlenden Unterschrift und erkundet den gewählten Nachbarraum.
+     */
+    private void chooseRoom() {
+        CampusContent content = game.getContent();
+        CampusGraph graph = game.getGraph();
+        int current = game.getCurrentRoomIndex();
+        if (current < 0 || current >= graph.getRoomCount()) {
+            out.println("You are still at the entrance. Explore the university to enter the first room.");
+            return;
+        }
+        int signedMask = game.getSignedMask();
+        out.println("Corridors from room " + content.getRoom(current).getIdentifier() + ":");
+        for (int i = 0; i < graph.getNeighbourCount(current); i++) {
+            HTWRoom room = content.getRoom(graph.getNeighbour(current, i));
+            String line = "(" + (i + 1) + ") " + room.getIdentifier() + ": " + room.getDescription();
+            Lecturer lecturer = room.getLecturer();
+            if (lecturer != null) {
+                line += " - " + lecturer.getName()
+                        + ((signedMask & (1 << lecturer.getIndex())) != 0 ? " (signed)" : "");
+            }
+            out.println(line);
+        }
+
+        int lecturer = graph.nearestUnsignedLecturer(current, signedMask);
+        if (lecturer >= 0) {
+            String name = content.getLecturer(lecturer).getName();
+            int steps = graph.distanceToLecturer(current, lecturer);
+            if (steps == 0) {
+                out.println("Nearest missing signature: " + name + " is in this room.");
+            } else {
+                String next = content.getRoom(graph.stepTowardLecturer(current, lecturer)).getIdentifier();
+                out.println("Nearest missing signature: " + name + ", " + steps + " room(s) away via " + next + ".");
+            }
+        }
+        out.println();
+
+        String input = readUserInput();
+        int choice;
+        try {
+            choice = Integer.parseInt(input);
+        } catch (NumberFormatException ex) {
+            choice = 0;
+        }
+        if (choice < 1 || choice > graph.getNeighbourCount(current)) {
+            out.println("Invalid room choice.");
+            return;
+        }
+        game.exploreCampus(graph.getNeighbour(current, choice - 1));
     }
 
     /**
@@ -255,14 +881,25 @@ public class EscapeApp {
      * ("1" bedeutet lange Verschnaufpause, "2" bedeutet kurze Verschnaufpause).
      */
     private void handleRest() {
-        System.out.println("Choose rest type:");
-        System.out.println("(1) Long rest");
-        System.out.println("(2) Short rest");
-        System.out.println();
+        out.println("Choose rest type:");
+        out.println("(1) Long rest");
+        out.println("(2) Short rest");
+        out.println();
         String restChoice = readUserInput();
         this.game.takeRest(restChoice);
     }
 
+    /**
+     * Gibt eine Fehlermeldung aus und leert die Fehlerausgabe sofort.
+     *
+     * @param message Fehlermeldung
+     */
+    private void printError(String message) {
+        out.flush();
+        err.println(message);
+        err.flush();
+    }
+
     /**
      * Prüft, ob es eine aktive Spielinstanz gibt.
      * 
@@ -283,12 +920,13 @@ public class EscapeApp {
 
 
     /**
-     * Prüft, ob ein Speicherstand vorhanden ist.
+     * Prüft, ob ein Speicherstand vorhanden ist. Liest nur den Zähler im
+     * Kopf des Slot-Speichers, ohne Zugriff auf das Dateisystem.
      * 
      * @return wahr, wenn ein Speicherstand vorhanden ist, sonst falsch
      */
     private boolean hasSavedGame() {
-        return new File(SAVE_FILE_NAME).exists();
+        return saveStore != null && saveStore.size() > 0;
     }
 
 }
\ No newline at end of file
@@ -3,13 +3,23 @@ package app;
 import model.Hero;
 import model.HostileAlien;
 import model.Alien;
-import model.FriendlyAlien;
+import model.AlienArchetype;
+import model.CombatCalculator;
+import model.CombatEngine;
+import model.CombatListener;
+import model.GameEventListener;
+import model.GameEventType;
+import model.GameOutput;
+import model.GameRandom;
 import model.HTWRoom;
 import model.Lecturer;
 import model.Question;
+import model.SpawnTable;
 
-import java.util.Random;
-import java.util.Scanner;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 
 /**
@@ -26,9 +36,10 @@ public class EscapeGame implements Serializable {
      */
     private Hero hero;
     /**
-     * Die Raeume des Spiels. Es gibt im Spiel genau fuenf Raeume.
+     * Räume, Übungsleitungen und Fragen des Spiels. Der Inhalt wird von allen
+     * Spielen der JVM geteilt und nicht gespeichert.
      */
-    private final HTWRoom[] rooms = new HTWRoom[5];
+    private transient CampusContent content;
     /**
      * Gibt an, ob das Spiel momentan laeuft.
      */
@@ -46,34 +57,512 @@ public class EscapeGame implements Serializable {
      */
     private static final int MAXROUNDS = 24;
     /**
-     * Index des aktuellen Raums (0..rooms.length-1). Start ist bei -1, aufgrund des Zugriffs
+     * Beim Erkunden passiert nichts, wenn die Zufallszahl darunter liegt
+     * (Räume mit {@link SpawnTable#DEFAULT}).
+     */
+    public static final double NOTHING_LIMIT = 0.20;
+    /**
+     * Beim Erkunden erscheint ein Alien, wenn die Zufallszahl zwischen
+     * {@link #NOTHING_LIMIT} und diesem Wert liegt, sonst eine Übungsleitung.
+     */
+    public static final double ALIEN_LIMIT = 0.72;
+    /**
+     * Index des aktuellen Raums (0..Anzahl der Räume-1). Start ist bei -1, aufgrund des Zugriffs
      * auf Indizes (z.B. room[-1+1=0]).
      */
     private int currentRoomIndex = -1;
     /**
-     * alle Übungsleiterinstanzen
+     * alle Übungsleiterinstanzen (aus {@link #content}, Index entspricht der Position)
      */
-    private Lecturer[] allLecturers;
+    private transient Lecturer[] allLecturers;
     /**
         * Markiert, ob die kleine Verschnaufpause bereits genutzt wurde:
         * 0 bedeutet nein, 1 bedeutet ja.
      */
     private int smallRestUsed;
-    /**
-     * Array mit den Fragen von Professorin Majuntke
-     */
-    private Question[] professorQuestions;
     /**
      * Markiert, ob Professorin Majuntke bereits getroffen wurde (Quiz abgeschlossen)
      */
     private boolean professorAlreadyMet = false;
+    /**
+     * Ausgang des Spiels (solange es läuft {@link GameOutcome#RUNNING}).
+     */
+    private GameOutcome outcome = GameOutcome.RUNNING;
+    /**
+     * Quelle der Spielerentscheidungen (Konsole oder automatische Strategie).
+     * Wird nicht gespeichert und nach dem Laden auf die Konsole zurückgesetzt.
+     */
+    private transient PlayerStrategy player;
+    /**
+     * Ziel aller Spielausgaben. Wird nicht gespeichert.
+     */
+    private transient GameOutput out;
+    /**
+     * Zufallsquelle des Spiels. Wird mit dem Helden geteilt und mitgespeichert,
+     * damit ein Spiel bei gleichem Startwert reproduzierbar ist.
+     */
+    private GameRandom random;
+    /**
+     * Empfänger für Zustandsänderungen (null, wenn niemand zuhört). Wird nicht gespeichert.
+     */
+    private transient GameEventListener listener;
+    /**
+     * Löst die Kämpfe auf (wird beim ersten Kampf angelegt). Wird nicht gespeichert.
+     */
+    private transient CombatEngine combat;
+    /**
+     * Gibt die Schläge der Kämpfe aus. Wird nicht gespeichert.
+     */
+    private transient CombatOutput combatOutput;
+    /**
+     * Feindliches Alien der Begegnungen (wird bei der ersten angelegt und
+     * danach wiederverwendet). Wird nicht gespeichert.
+     */
+    private transient HostileAlien encounterAlien;
 
     /**
      * Konstruktor der Spielumgebung.
      * Initialisiert das Spiel und erstellt einen neuen Spielcharakter.
      */
     public EscapeGame() {
+        this(new ConsolePlayer(), WriterOutput.console());
+    }
+
+    /**
+     * Konstruktor für Spiele mit eigener Entscheidungsquelle und Ausgabe,
+     * z. B. für die Simulation ohne Konsole.
+     *
+     * @param player Quelle der Spielerentscheidungen
+     * @param out    Ziel der Spielausgaben
+     */
+    public EscapeGame(PlayerStrategy player, GameOutput out) {
+        this(player, out, new GameRandom());
+    }
+
+    /**
+     * Konstruktor für Spiele mit fester Zufallsquelle, z. B. um ein Spiel
+     * mit einem bestimmten Startwert zu wiederholen.
+     *
+     * @param player Quelle der Spielerentscheidungen
+     * @param out    Ziel der Spielausgaben
+     * @param random Zufallsquelle des Spiels
+     */
+    public EscapeGame(PlayerStrategy player, GameOutput out, GameRandom random) {
+        this(player, out, random, CampusContent.shared());
+    }
+
+    /**
+     * Konstruktor für Spiele auf einem bestimmten Campus.
+     *
+     * @param player  Quelle der Spielerentscheidungen
+     * @param out     Ziel der Spielausgaben
+     * @param random  Zufallsquelle des Spiels
+     * @param content Räume, Übungsleitungen und Fragen
+     */
+    public EscapeGame(PlayerStrategy player, GameOutput out, GameRandom random, CampusContent content) {
         this.hero = null;
+        this.player = player;
+        this.out = out;
+        this.random = random;
+        setContent(content);
+    }
+
+    /**
+     * Setzt den Inhalt des Campus und übernimmt dessen Übungsleitungen.
+     *
+     * @param content Räume, Übungsleitungen und Fragen
+     */
+    private void setContent(CampusContent content) {
+        this.content = content;
+        this.allLecturers = new Lecturer[content.getLecturerCount()];
+        for (int i = 0; i < allLecturers.length; i++) {
+            allLecturers[i] = content.getLecturer(i);
+        }
+    }
+
+    /**
+     * Stellt nach dem Laden die nicht gespeicherten Felder wieder her.
+     *
+     * @param in Eingabestrom der Deserialisierung
+     * @throws IOException            bei Lesefehlern
+     * @throws ClassNotFoundException wenn eine Klasse nicht gefunden wird
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // ältere Spielstände enthalten eigene Übungsleitungen, der Laufzettel
+        // verweist danach auf die gemeinsamen
+        setContent(CampusContent.shared());
+        if (this.hero != null) {
+            this.hero.restoreSignatures(this.allLecturers);
+        }
+        this.player = new ConsolePlayer();
+        this.out = WriterOutput.console();
+        if (this.outcome == null) {
+            this.outcome = GameOutcome.RUNNING;
+        }
+        // ältere Spielstände enthalten noch keine Zufallsquelle
+        if (this.random == null) {
+            this.random = new GameRandom();
+            if (this.hero != null) {
+                this.hero.setRandom(this.random);
+            }
+        }
+    }
+
+    /**
+     * Schreibt den veränderlichen Spielzustand in das Binärformat des
+     * Spielstands. Räume, Übungsleitungen und Fragen sind fester Inhalt und
+     * werden beim Laden neu erzeugt.
+     *
+     * @param out Ziel
+     * @throws IOException bei Schreibfehlern
+     */
+    void writeState(DataOutput out) throws IOException {
+        out.writeBoolean(hero != null);
+        if (hero != null) {
+            hero.writeState(out, allLecturers);
+        }
+        out.writeInt(currentRound);
+        out.writeInt(currentRoomIndex);
+        out.writeByte(smallRestUsed);
+        out.writeBoolean(professorAlreadyMet);
+        out.writeBoolean(gameFinished);
+        out.writeByte(outcome.ordinal());
+        random.writeState(out);
+    }
+
+    /**
+     * Liest einen mit {@link #writeState(DataOutput)} geschriebenen Spielzustand.
+     *
+     * @param in      Quelle
+     * @param version Version des Formats ({@link SaveGameCodec#VERSION})
+     * @param player  Quelle der Spielerentscheidungen
+     * @param out     Ziel der Spielausgaben
+     * @return Spiel im gespeicherten Zustand
+     * @throws IOException bei Lesefehlern, ungültigen Werten oder wenn der Spielstand nicht zum Campus passt
+     */
+    static EscapeGame readState(DataInput in, short version, PlayerStrategy player, GameOutput out)
+            throws IOException {
+        EscapeGame game = new EscapeGame(player, out, null);
+        boolean hasHero = in.readBoolean();
+        // der Held wird erst gelesen, die Zufallsquelle steht aber am Ende
+        Hero hero = hasHero ? Hero.readState(in, game.allLecturers, null) : null;
+        game.currentRound = in.readInt();
+        game.currentRoomIndex = in.readInt();
+        game.smallRestUsed = in.readByte();
+        if (game.smallRestUsed != 0 && game.smallRestUsed != 1) {
+            throw new IOException("Invalid small rest flag " + game.smallRestUsed);
+        }
+        game.professorAlreadyMet = in.readBoolean();
+        game.gameFinished = in.readBoolean();
+        game.outcome = GameOutcome.fromOrdinal(in.readByte());
+        if (version == 1) {
+            // zusätzliche Bitmaske der Unterschriften, die bereits im Laufzettel des Helden stehen
+            in.readInt();
+        }
+        game.random = GameRandom.readState(in);
+        if (hero != null) {
+            hero.setRandom(game.random);
+        }
+        game.hero = hero;
+        return game;
+    }
+
+    /**
+     * Setzt den Empfänger für Zustandsänderungen von Spiel und Held.
+     *
+     * @param listener Empfänger oder null
+     */
+    public void setEventListener(GameEventListener listener) {
+        this.listener = listener;
+        if (hero != null) {
+            hero.setEventListener(listener);
+        }
+    }
+
+    /**
+     * Meldet eine Zustandsänderung an den Empfänger, falls vorhanden.
+     *
+     * @param type  Art des Ereignisses
+     * @param value Wert des Ereignisses
+     */
+    private void emit(GameEventType type, long value) {
+        if (listener != null) {
+            listener.onEvent(type, value);
+        }
+    }
+
+    /**
+     * Wendet ein zuvor gemeldetes Ereignis erneut auf das Spiel an, z. B. beim
+     * Wiederherstellen aus einem Journal. Reine Protokollereignisse
+     * (Schaden am Alien, Quizantworten) verändern den Zustand nicht.
+     *
+     * @param type  Art des Ereignisses
+     * @param value Wert des Ereignisses
+     */
+    void applyEvent(GameEventType type, long value) {
+        switch (type) {
+            case ROOM_ENTERED:
+                currentRound = (int) (value >>> 32);
+                currentRoomIndex = (int) value;
+                break;
+            case HERO_DAMAGED:
+                hero.takeDamage((int) value);
+                break;
+            case EXPERIENCE_GAINED:
+                hero.addExperiencePoints((int) value);
+                break;
+            case HERO_REGENERATED:
+                hero.regenerate(value != 0);
+                break;
+            case SIGNATURE_GAINED:
+                hero.signExerciseLeader(allLecturers[(int) value]);
+                break;
+            case REST_TAKEN:
+                if (value != 0) {
+                    currentRound++;
+                } else {
+                    smallRestUsed = 1;
+                }
+                break;
+            case PROFESSOR_MET:
+                professorAlreadyMet = true;
+                break;
+            case GAME_FINISHED:
+                outcome = GameOutcome.values()[(int) value];
+                gameFinished = true;
+                gameRunning = false;
+                break;
+            case TURN_END:
+                random.setState(value);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Beendet das Spiel mit dem angegebenen Ausgang.
+     *
+     * @param result Ausgang des Spiels
+     */
+    private void finishGame(GameOutcome result) {
+        outcome = result;
+        setGameFinished(true);
+        setGameRunning(false);
+        emit(GameEventType.GAME_FINISHED, result.ordinal());
+        GameMetrics.count(result == GameOutcome.WON ? GameCounter.GAMES_WON : GameCounter.GAMES_LOST);
+    }
+
+    /**
+     * Liefert das Ziel der Spielausgaben, z. B. für Ereignisse aus Plugins.
+     *
+     * @return Ausgabe des Spiels
+     */
+    public GameOutput getOutput() {
+        return out;
+    }
+
+    /**
+     * Liefert die Zufallsquelle des Spiels.
+     *
+     * @return Zufallsquelle
+     */
+    public GameRandom getRandom() {
+        return random;
+    }
+
+    /**
+     * Verbindet ein geladenes Spiel mit Spieler und Ausgabe.
+     *
+     * @param player Quelle der Spielerentscheidungen
+     * @param out    Ziel der Spielausgaben
+     */
+    void attach(PlayerStrategy player, GameOutput out) {
+        this.player = player;
+        this.out = out;
+    }
+
+    /**
+     * Liefert die Quelle der Spielerentscheidungen.
+     *
+     * @return aktueller Spieler
+     */
+    public PlayerStrategy getPlayer() {
+        return player;
+    }
+
+    /**
+     * Liefert die aktuelle Runde.
+     *
+     * @return aktuelle Runde (0 bis {@link #getMaxRounds()})
+     */
+    public int getCurrentRound() {
+        return currentRound;
+    }
+
+    /**
+     * Liefert die maximale Anzahl an Runden.
+     *
+     * @return maximale Rundenanzahl
+     */
+    public static int getMaxRounds() {
+        return MAXROUNDS;
+    }
+
+    /**
+     * Prüft, ob die kleine Verschnaufpause bereits genutzt wurde.
+     *
+     * @return wahr, wenn die kleine Verschnaufpause genutzt wurde
+     */
+    public boolean isSmallRestUsed() {
+        return smallRestUsed == 1;
+    }
+
+    /**
+     * Prüft, ob Professorin Majuntke bereits getroffen wurde.
+     *
+     * @return wahr, wenn das Quiz bereits stattgefunden hat
+     */
+    public boolean isProfessorAlreadyMet() {
+        return professorAlreadyMet;
+    }
+
+    /**
+     * Liefert den Ausgang des Spiels.
+     *
+     * @return Ausgang oder {@link GameOutcome#RUNNING}, solange das Spiel läuft
+     */
+    public GameOutcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * Liefert den Index des aktuellen Raums.
+     *
+     * @return Index in den Räumen oder -1, wenn noch kein Raum betreten wurde
+     */
+    public int getCurrentRoomIndex() {
+        return currentRoomIndex;
+    }
+
+    /**
+     * Liefert die unterschriebenen Übungsleitungen als Bitmaske.
+     *
+     * @return Bit {@code i} ist gesetzt, wenn die Übungsleitung im Raum {@code i} unterschrieben hat
+     */
+    public int getSignedMask() {
+        return hero == null ? 0 : hero.getSignedMask();
+    }
+
+    /**
+     * Packt den veränderlichen Spielzustand ohne Zufallsquelle in einen Wert
+     * (siehe {@link PackedGameState}). Der Zustand der Zufallsquelle liefert
+     * {@link GameRandom#getState()}.
+     *
+     * @return gepackter Zustand
+     */
+    public long packState() {
+        if (hero == null) {
+            return PackedGameState.pack(false, 0, 0, currentRound, currentRoomIndex, smallRestUsed == 1,
+                    false, professorAlreadyMet, gameFinished, gameRunning, outcome, 0);
+        }
+        return PackedGameState.pack(true, hero.getHealthPoints(), hero.getExperiencePoints(), currentRound,
+                currentRoomIndex, smallRestUsed == 1, hero.isSmallRestUsed(), professorAlreadyMet,
+                gameFinished, gameRunning, outcome, hero.getSignedMask());
+    }
+
+    /**
+     * Setzt das Spiel auf einen mit {@link #packState()} gepackten Zustand
+     * zurück, ohne Objekte anzulegen. Der Name des Helden gehört nicht zum
+     * Zustand und bleibt erhalten.
+     *
+     * @param state gepackter Zustand
+     * @throws IllegalStateException wenn der Zustand einen Helden enthält, das Spiel aber keinen hat
+     */
+    public void unpackState(long state) {
+        if (PackedGameState.hasHero(state)) {
+            if (hero == null) {
+                throw new IllegalStateException("No hero to restore the packed state into");
+            }
+            hero.restoreState(PackedGameState.healthPoints(state), PackedGameState.experiencePoints(state),
+                    PackedGameState.heroSmallRestUsed(state), PackedGameState.signedMask(state),
+                    allLecturers);
+        } else {
+            hero = null;
+        }
+        currentRound = PackedGameState.round(state);
+        currentRoomIndex = PackedGameState.roomIndex(state);
+        smallRestUsed = PackedGameState.gameSmallRestUsed(state) ? 1 : 0;
+        professorAlreadyMet = PackedGameState.professorMet(state);
+        gameFinished = PackedGameState.finished(state);
+        gameRunning = PackedGameState.running(state);
+        outcome = PackedGameState.outcome(state);
+    }
+
+    /**
+     * Setzt Spiel und Zufallsquelle auf einen gepackten Zustand zurück.
+     *
+     * @param state       gepackter Zustand aus {@link #packState()}
+     * @param randomState Zustand der Zufallsquelle aus {@link GameRandom#getState()}
+     */
+    public void unpackState(long state, long randomState) {
+        unpackState(state);
+        random.setState(randomState);
+    }
+
+    /**
+     * Liefert den Inhalt des Campus.
+     *
+     * @return Räume, Übungsleitungen und Fragen des Spiels
+     */
+    public CampusContent getContent() {
+        return content;
+    }
+
+    /**
+     * Liefert das Wegenetz des Campus.
+     *
+     * @return Gänge zwischen den Räumen
+     */
+    public CampusGraph getGraph() {
+        return content.getGraph();
+    }
+
+    /**
+     * Liefert den Raum, den „Erkunden“ ohne Auswahl betritt. Zu Beginn ist
+     * das der erste Raum.
+     *
+     * @return Index des nächsten Raums
+     */
+    public int getDefaultNextRoom() {
+        CampusGraph graph = content.getGraph();
+        // ältere Spielstände können auf einen Raum außerhalb des Campus zeigen
+        return currentRoomIndex < graph.getRoomCount() ? graph.defaultNext(currentRoomIndex) : 0;
+    }
+
+    /**
+     * Prüft, ob ein Raum mit dem nächsten Erkunden betreten werden kann.
+     *
+     * @param room Index des Raums
+     * @return wahr für den Standardraum und alle Nachbarn des aktuellen Raums
+     */
+    public boolean canEnter(int room) {
+        if (room == getDefaultNextRoom()) {
+            return true;
+        }
+        CampusGraph graph = content.getGraph();
+        return currentRoomIndex >= 0 && currentRoomIndex < graph.getRoomCount()
+                && room >= 0 && room < graph.getRoomCount() && graph.isAdjacent(currentRoomIndex, room);
+    }
+
+    /**
+     * Liefert die Anzahl der gesammelten Unterschriften.
+     *
+     * @return Anzahl der unterschriebenen Übungsleitungen
+     */
+    public int getSignatureCount() {
+        return countSignatures();
     }
 
     /**
@@ -123,11 +612,11 @@ public class EscapeGame implements Serializable {
                 heroName = "Hero";
             }
             // neuen Helden erstellen.
-            this.hero = new Hero(heroName.trim());
+            this.hero = new Hero(heroName.trim(), random);
+            this.hero.setEventListener(listener);
             // Ausgabe zur Bestätigung der Heldenerstellung
-            System.out.println("Hero " + hero.getName() + " created.\n");
+            out.println("Hero " + hero.getName() + " created.\n");
         }
-        initializeRooms();
     }
 
     /**
@@ -143,12 +632,14 @@ public class EscapeGame implements Serializable {
      * Zeigt das Spielmenue an.
      */
     public void printMenu() {
-        System.out.println("=== Gamemenu (Round " + currentRound + " / " + MAXROUNDS + ") ===");
-        System.out.println("(1) Explore the university");
-        System.out.println("(2) Show hero status");
-        System.out.println("(3) Show signed slip");
-        System.out.println("(4) Take a rest");
-        System.out.println("(5) Exit game");
+        out.println("=== Gamemenu (Round " + currentRound + " / " + MAXROUNDS + ") ===");
+        out.println("(1) Explore the university");
+        out.println("(2) Show hero status");
+        out.println("(3) Show signed slip");
+        out.println("(4) Take a rest");
+        out.println("(5) Exit game");
+        out.println("(6) Show hint");
+        out.println("(7) Choose next room");
     }
 
     /**
@@ -156,12 +647,12 @@ public class EscapeGame implements Serializable {
      */
     public void showHeroStatus() {
         if (hero == null) {
-            System.out.println("No Hero available.");
+            out.println("No Hero available.");
             return;
         }
-        System.out.println("Hero: " + hero.getName());
-        System.out.println("Health: " + hero.getHealthPoints());
-        System.out.println("Experience: " + hero.getExperiencePoints());
+        out.println("Hero: " + hero.getName());
+        out.println("Health: " + hero.getHealthPoints());
+        out.println("Experience: " + hero.getExperiencePoints());
     }
 
     /**
@@ -169,32 +660,17 @@ public class EscapeGame implements Serializable {
      */
     public void showSignedSlip() {
         if (hero == null) {
-            System.out.println("No Hero available.");
+            out.println("No Hero available.");
             return;
         }
 
-        /** Ein Array mit den unterschriebenen Übungsleitungen des Helden abrufen
-         * getSignedExerciseLecturers liefert eine Kopie des Arrays zurück, die 
-         * nur die unterschriebenen Übungsleitungen enthält 
-         */
-        Lecturer[] signedLecturers = hero.getSignedExerciseLecturers();
-
         // Alle Übungsleitungen durchgehen und anzeigen, ob sie unterschrieben wurden
         for (Lecturer lecturer : allLecturers) {
-            // Standardmäßig davon ausgehen, dass die Übungsleitung nicht unterschrieben wurde
-            boolean signed = false;
-            // Prüfen, ob die aktuelle Übungsleitung im Array der unterschriebenen ist
-            for (Lecturer signedLecturer : signedLecturers) {
-                // Wenn die Übungsleitung unterschrieben wurde, markieren wir sie als "signed"
-                if (signedLecturer != null && signedLecturer.equals(lecturer)) {
-                    signed = true;
-                    break;
-                }
-            }
+            boolean signed = hero.hasSignature(lecturer);
 
             // Anzeige der Übungsleitung mit einem Häkchen, wenn sie unterschrieben wurde
             String checkbox = signed ? "[x]" : "[ ]";
-            System.out.println(checkbox + " " + lecturer.getName());
+            out.println(checkbox + " " + lecturer.getName());
         }
     }
 
@@ -206,7 +682,7 @@ public class EscapeGame implements Serializable {
      */
     public void takeRest(String choice) {
         if (hero == null) {
-            System.out.println("No Hero available.");
+            out.println("No Hero available.");
             return;
         }
 
@@ -215,140 +691,101 @@ public class EscapeGame implements Serializable {
             case "1":
                 hero.regenerate(true);
                 currentRound ++;
+                emit(GameEventType.REST_TAKEN, 1);
+                GameMetrics.count(GameCounter.LONG_RESTS);
                 if (checkIfGameOver()) {
                     return;
                 }
-                System.out.println("You took a long rest. Health is now: " + hero.getHealthPoints());
-                System.out.println("Current round is now: " + currentRound);
+                out.println("You took a long rest. Health is now: " + hero.getHealthPoints());
+                out.println("Current round is now: " + currentRound);
                 break;
             // Fall: kurze Verschnaufpause
             case "2":
                 if (smallRestUsed == 1) {
-                    System.out.println("Small rest already used. Choose long rest instead.");
+                    out.println("Small rest already used. Choose long rest instead.");
                     return;
                 }
                  hero.regenerate(false);
                  smallRestUsed = 1;
-                 System.out.println("You took a small rest. Health is now: " + hero.getHealthPoints());
+                 emit(GameEventType.REST_TAKEN, 0);
+                 GameMetrics.count(GameCounter.SHORT_RESTS);
+                 out.println("You took a small rest. Health is now: " + hero.getHealthPoints());
                  break;
             // Fall: ungültige Eingabe
             default:
-                System.out.println("Invalid rest choice.");
+                out.println("Invalid rest choice.");
                 break;
         }
     }
 
+    /**
+     * Erkundet den Campus in Richtung des Standardraums
+     * ({@link #getDefaultNextRoom()}).
+     */
+    public void exploreCampus() {
+        exploreCampus(getDefaultNextRoom());
+    }
+
     /**
      * Erkundet den Campus und behandelt zufällige Ereignisse:
      * nichts, Begegnung mit Alien oder Treffen einer Übungsleitung.
-     * Nach 5 Unterschriften kann Professorin Majuntke getroffen werden.
+     * Nach allen Unterschriften kann Professorin Majuntke getroffen werden.
+     *
+     * @param room Index des Raums, der über einen Gang betreten wird
+     * @throws IllegalArgumentException wenn der Raum vom aktuellen Raum aus nicht erreichbar ist
      */
-    public void exploreCampus() {
-        // Prüfe, ob der Spieler alle 5 Unterschriften hat
-        if (countSignatures() >= 5 && !professorAlreadyMet) {
+    public void exploreCampus(int room) {
+        if (!canEnter(room)) {
+            throw new IllegalArgumentException("Room " + room + " is not reachable from room " + currentRoomIndex);
+        }
+        FlightEvents.Explore event = FlightEvents.beginExplore();
+        // Prüfe, ob der Spieler alle Unterschriften hat
+        if (countSignatures() >= allLecturers.length && !professorAlreadyMet) {
             handleProfessorMajuntkeEncounter();
             professorAlreadyMet = true;
+            emit(GameEventType.PROFESSOR_MET, 0);
+            commitExplore(event, "professor");
             return;
         }
         
         currentRound++;
-        System.out.println("----------------------------------");
-        System.out.println("You explore the campus.");
+        out.println("----------------------------------");
+        out.println("You explore the campus.");
 
         /**
-         * Wechselt zum nächsten Raum im Kreis und
+         * Wechselt in den gewählten Raum und
          * gibt die Raumbeschreibung aus.
          */
-        currentRoomIndex = (currentRoomIndex + 1) % rooms.length;
-        HTWRoom current = rooms[currentRoomIndex];
-        System.out.println("You enter room " + current.getIdentifier() + ": " + current.getDescription());
+        currentRoomIndex = room;
+        HTWRoom current = content.getRoom(currentRoomIndex);
+        emit(GameEventType.ROOM_ENTERED, ((long) currentRound << 32) | currentRoomIndex);
+        GameMetrics.count(GameCounter.ROOMS_EXPLORED);
+        out.println("You enter room " + current.getIdentifier() + ": " + current.getDescription());
 
         /**
-         * Bestimmt ein zufälliges Ereignis:
-         * die Zufallszahl zwischen 0.0 und 1.0 entscheidet über das Ereignis.
+         * Bestimmt ein zufälliges Ereignis nach den Gewichten des Raums
+         * (Standard: 20 % nichts, 26 % freundliches Alien, 26 % feindliches
+         * Alien, 28 % Übungsleitung) und führt es aus.
          */
-        Random random = new Random();
-        double r = random.nextDouble();
-
-        // wenn r < 0.20: nichts passiert
-        if (r < 0.20) {
-            System.out.println("Nothing unusual happens. You continue your exploration.");
-            return;
-            // wenn 0.20 <= r < 0.72: Begegnung mit Alien
-        } else if (r < 0.72) {
-            handleAlienEncounter();
-            return;
-            // wenn r >= 0.72: Treffen einer Übungsleitung
-        } else {
-            handleLecturerEncounter(current);
-            return;
-        }
+        EncounterType encounter = EncounterTable.of(content.getSpawnTable(currentRoomIndex)).sample(random);
+        encounter.encounter(this, current);
+        commitExplore(event, encounter.getName());
     }
 
     /**
-     * Initialisiert fünf Räume mit Übungsleitungs-Instanzen, falls noch nicht vorhanden.
+     * Schließt das Flight-Recorder-Ereignis einer Erkundung ab, falls es aufgezeichnet wird.
+     *
+     * @param event     gestartetes Ereignis oder null
+     * @param encounter Name des Ereignisses im Raum
      */
-    private void initializeRooms() {
-        if (rooms[0] != null && rooms[0].getIdentifier() != null) {
-            return;
+    private void commitExplore(FlightEvents.Explore event, String encounter) {
+        if (event != null && event.shouldCommit()) {
+            event.round = currentRound;
+            event.room = currentRoomIndex >= 0 && currentRoomIndex < content.getRoomCount()
+                    ? content.getRoom(currentRoomIndex).getIdentifier() : null;
+            event.encounter = encounter;
+            event.commit();
         }
-
-        // Erstellen der Übungsleitungs-Instanzen
-        Lecturer l1 = new Lecturer("Frau Gärtner");
-        Lecturer l2 = new Lecturer("Herr Gnaoui");
-        Lecturer l3 = new Lecturer("Herr Poeser");
-        Lecturer l4 = new Lecturer("Frau Safitri");
-        Lecturer l5 = new Lecturer("Frau Vaseva");
-
-        // Speichern aller Übungsleitungs-Instanzen im Spiel
-        this.allLecturers = new Lecturer[] {l1, l2, l3, l4, l5};
-
-        // Initialisieren der Räume mit den Übungsleitungs-Instanzen
-        rooms[0] = new HTWRoom("A214", "Medienunterrichtsraum", l1);
-        rooms[1] = new HTWRoom("A143", "Medienunterrichtsraum", l2);
-        rooms[2] = new HTWRoom("A142", "Medienunterrichtsraum", l3);
-        rooms[3] = new HTWRoom("A143", "Medienunterrichtsraum", l4);
-        rooms[4] = new HTWRoom("A236", "Medienunterrichtsraum", l5);
-        
-        // Initialisierung der Fragen für Professorin Majuntke
-        initializeQuestions();
-    }
-    
-    /**
-     * Initialisiert die drei Fragen für Professorin Majuntke.
-     */
-    private void initializeQuestions() {
-        professorQuestions = new Question[3];
-        
-        // Frage 1
-        professorQuestions[0] = new Question(
-            "Which data type would you use to store a phone number (+49 ...)?",
-            "(A) int",
-            "(B) String",
-            "(C) char",
-            "(D) float",
-            2  // Index 2 ist korrekt (dritte Antwort)
-        );
-        
-        // Frage 2
-        professorQuestions[1] = new Question(
-            "Which statement about one-dimenstional arrays is correct?",
-            "(A) An array can only contain elements from the same data type",
-            "(B) The size of an array can be changed all the time",
-            "(C) Arrays can only save integers",
-            "(D) An Array gets initialized with random values",
-            2  // Index 2 ist korrekt (dritte Antwort)
-        );
-        
-        // Frage 3
-        professorQuestions[2] = new Question(
-            "What is recursion in programming?",
-            "(A) A function that calls itself",
-            "(B) A loop that runs backwards",
-            "(C) A variable declared multiple times",
-            "(D) A method that can only be called once",
-            0  // Index 0 ist korrekt (erste Antwort)
-        );
     }
 
     /**
@@ -356,52 +793,92 @@ public class EscapeGame implements Serializable {
      * 
      * @param room aktueller Raum der Begegnung
      */
-    private void handleLecturerEncounter(HTWRoom room) {
+    void handleLecturerEncounter(HTWRoom room) {
         // Übungsleitungs-Instanz aus dem Raum abrufen
         Lecturer lecturer = room.getLecturer();
         if (lecturer == null) {
-            System.out.println("No one is here to sign your slip.");
+            out.println("No one is here to sign your slip.");
             return;
         }
 
-        System.out.println("You meet " + lecturer.getName() + ".");
-        if (lecturer.isReadyToSign()) {
+        GameMetrics.count(GameCounter.LECTURER_ENCOUNTERS);
+        out.println("You meet " + lecturer.getName() + ".");
+        if (!hero.hasSignature(lecturer)) {
             // Übungsleitung unterschreibt den Laufzettel
             hero.signExerciseLeader(lecturer);
-            // Übungsleitung als unterschrieben markieren
-            lecturer.sign();
-            System.out.println(lecturer.getName() + " signs your slip. Well done!");
+            emit(GameEventType.SIGNATURE_GAINED, lecturer.getIndex());
+            out.println(lecturer.getName() + " signs your slip. Well done!");
             // Erfahrungspunkte vergeben
             hero.addExperiencePoints(2);
-            System.out.println("You gain 2 experience points.");
+            out.println("You gain 2 experience points.");
         } else {
-            System.out.println(lecturer.getName() + " already signed earlier.");
+            out.println(lecturer.getName() + " already signed earlier.");
         }
     }
 
     /**
-     * Behandelt eine Begegnung mit einem Alien (freundlich oder feindlich)
-     * und vergibt ggf. Erfahrungspunkte.
+     * Behandelt eine Begegnung mit einem zufälligen Alien (freundlich oder
+     * feindlich nach der Ereignistabelle des Raums).
      */
-    private void handleAlienEncounter() {
-        Alien alien;
-        Random random = new Random();
-        if (random.nextBoolean()) {
-            alien = new FriendlyAlien();
-        } else {
-            alien = new HostileAlien();
+    public void handleAlienEncounter() {
+        SpawnTable spawns = currentRoomIndex >= 0 && currentRoomIndex < content.getRoomCount()
+                ? content.getSpawnTable(currentRoomIndex) : SpawnTable.DEFAULT;
+        handleAlienEncounter(spawns.rollFriendly(random) ? AlienArchetype.FRIENDLY : AlienArchetype.HOSTILE);
+    }
+
+    /**
+     * Behandelt eine Begegnung mit einem Alien der angegebenen Art. Für
+     * freundliche Aliens wird kein Objekt angelegt, für feindliche wird
+     * {@link #encounterAlien} wiederverwendet.
+     *
+     * @param archetype Art des Aliens, dem der Held begegnet
+     */
+    public void handleAlienEncounter(AlienArchetype archetype) {
+        if (archetype.isFriendly()) {
+            meetFriendlyAlien(archetype);
+            return;
         }
-        alien.setGreetingText("Hello");
-        System.out.println("You encounter an alien: " + alien.getName() + ". " + alien.greeting(hero.getName()));
+        if (encounterAlien == null) {
+            encounterAlien = new HostileAlien();
+        }
+        encounterAlien.reset(archetype);
+        handleAlienEncounter(encounterAlien);
+    }
 
+    /**
+     * Begrüßt den Helden und vergibt Erfahrungspunkte für ein freundliches Alien.
+     *
+     * @param archetype Art des Aliens
+     */
+    private void meetFriendlyAlien(AlienArchetype archetype) {
+        GameMetrics.count(GameCounter.FRIENDLY_ALIENS);
+        out.println("You encounter an alien: " + archetype.getName() + ". " + archetype.greeting(hero.getName()));
         //wenn das Alien freundlich ist, passiert nichts feindliches
+        out.println("The alien seems friendly. Nothing hostile happens.");
+        // Erfahrungspunkte vergeben
+        hero.addExperiencePoints(3);
+        out.println("You feel inspired and gain 3 experience points.");
+    }
+
+    /**
+     * Behandelt eine Begegnung mit einem Alien (freundlich oder feindlich)
+     * und vergibt ggf. Erfahrungspunkte. Ein feindliches Alien, das kein
+     * {@link HostileAlien} ist (z. B. aus einem Plugin), kämpft als
+     * wiederverwendetes Alien seines Archetyps.
+     *
+     * @param alien Alien, dem der Held begegnet
+     */
+    public void handleAlienEncounter(Alien alien) {
         if (alien.isFriendly()) {
-            System.out.println("The alien seems friendly. Nothing hostile happens.");
-            // Erfahrungspunkte vergeben
-            hero.addExperiencePoints(3);
-            System.out.println("You feel inspired and gain 3 experience points.");
+            meetFriendlyAlien(alien.getArchetype());
             return;
         }
+        if (!(alien instanceof HostileAlien)) {
+            handleAlienEncounter(alien.getArchetype());
+            return;
+        }
+        GameMetrics.count(GameCounter.HOSTILE_ALIENS);
+        out.println("You encounter an alien: " + alien.getName() + ". " + alien.greeting(hero.getName()));
 
         /**
          * Begegnung mit feindlichem Alien
@@ -409,101 +886,117 @@ public class EscapeGame implements Serializable {
          * eine HostileAlien-Instanz umwandeln, um auf spezifische Methoden zugreifen zu können.
          */
         HostileAlien hostile = (HostileAlien) alien;
-        Scanner scanner = new Scanner(System.in);
 
         /**
          * Kampf- und Fluchtlogik:
          * Der Spieler kann wählen zu kämpfen oder zu fliehen.
          */
         while (true) {
-            System.out.println("A hostile alien approaches! What do you do?");
-            System.out.println("(1) Attack");
-            System.out.println("(2) Flee");
-            String choice = scanner.nextLine();
+            out.println("A hostile alien approaches! What do you do?");
+            if (CombatCalculator.supports(hostile.getArchetype())) {
+                out.println("Fight preview: " + CombatCalculator.odds(hero, hostile));
+            }
+            out.println("(1) Attack");
+            out.println("(2) Flee");
+            String choice = player.chooseFightAction(this, hostile);
 
             // Spieler wählt zu kämpfen oder zu fliehen
             if ("1".equals(choice)) {
-                // solange kämpfen, bis einer besiegt ist
-                while (!hostile.isDefeated() && hero.isOperational()) {
-                    // Held greift an
-                    int damage = hero.attack();
-                    System.out.println("You attack and deal " + damage + " damage.");
-                    // Alien nimmt Schaden
-                    hostile.takeDamage(damage);
-                    // wenn Alien besiegt ist, Erfahrungspunkte vergeben
-                    if (hostile.isDefeated()) {
-                        System.out.println("You defeated the hostile alien!");
-                        hero.addExperiencePoints(5);
-                        System.out.println("You gain 5 experience points.");
-                        return;
-                    }
-
-                    // in dieser variable wird der schaden des aliens gespeichert
-                    // und zufällig zwischen 5 und 10 bestimmt
-                    int alienDamage = 5 + new Random().nextInt(6); // 5..10 Schaden
-                    System.out.println("The alien strikes back and hits you for " + alienDamage + ".");
-                    // Held nimmt Schaden
-                    hero.takeDamage(alienDamage);
-                    System.out.println("Your health is now: " + hero.getHealthPoints());
-                    // wenn Held besiegt ist, Erfahrungspunkte vergeben
-                    if (!hero.isOperational()) {
-                        System.out.println("You have been defeated by the hostile alien.");
-                        hero.addExperiencePoints(1);
-                        System.out.println("You gain 1 experience point for the encounter.");
-                        return;
-                    }
-                }
+                fight(hostile);
                 return;
 
                 // weenn der Spieler fliehen möchte
             } else if ("2".equals(choice)) {
                 // Versuch zu fliehen.
                 boolean escaped = hero.flee();
+                GameMetrics.count(escaped ? GameCounter.FLEES_SUCCEEDED : GameCounter.FLEES_FAILED);
                 if (escaped) {
-                    System.out.println("You successfully fled from the hostile alien.");
+                    out.println("You successfully fled from the hostile alien.");
                     return; // Flucht erfolgreich, Begegnung beendet
                 } else {
-                    System.out.println("Your escape failed! The alien forces you to fight.");
-                    // solange kämpfen, bis einer besiegt ist
-                    while (!hostile.isDefeated() && hero.isOperational()) {
-                        int damage = hero.attack();
-                        System.out.println("You attack and deal " + damage + " damage.");
-                        // Alien nimmt Schaden
-                        hostile.takeDamage(damage);
-                        // wenn Alien besiegt ist, Erfahrungspunkte vergeben
-                        if (hostile.isDefeated()) {
-                            System.out.println("You defeated the hostile alien!");
-                            hero.addExperiencePoints(5);
-                            System.out.println("You gain 5 experience points.");
-                            return;
-                        }
-
-                        // in dieser variable wird der schaden des aliens gespeichert
-                        // und zufällig zwischen 5 und 10 bestimmt
-                        int alienDamage = 5 + new Random().nextInt(6); // 5..10 Schaden
-                        System.out.println("The alien strikes back and hits you for " + alienDamage + ".");
-                        
-                        // Held nimmt Schaden
-                        hero.takeDamage(alienDamage);
-                        System.out.println("Your health is now: " + hero.getHealthPoints());
-                        
-                        // wenn Held besiegt ist, Erfahrungspunkte vergeben
-                        if (!hero.isOperational()) {
-                            System.out.println("You have been defeated by the hostile alien.");
-                            hero.addExperiencePoints(1);
-                            System.out.println("You gain 1 experience point for the encounter.");
-                            return;
-                        }
-                    }
+                    out.println("Your escape failed! The alien forces you to fight.");
+                    fight(hostile);
                     return;
                 }
             } else {
                 // ungültige Eingabe
-                System.out.println("Invalid choice. Please select 1 or 2.");
+                out.println("Invalid choice. Please select 1 or 2.");
             }
         }
     }
 
+    /**
+     * Kämpft, bis einer besiegt ist. Die Runden löst die {@link CombatEngine}
+     * auf; jeder Schlag wird über {@link #combatOutput} ausgegeben und auf
+     * Held und Alien übertragen.
+     *
+     * @param hostile feindliches Alien
+     */
+    private void fight(HostileAlien hostile) {
+        if (combat == null) {
+            combat = new CombatEngine(random);
+            combatOutput = new CombatOutput();
+        }
+        FlightEvents.Combat event = FlightEvents.beginCombat();
+        combatOutput.alien = hostile;
+        int heroHpBefore = hero.getHealthPoints();
+        int alienHpBefore = hostile.getLifePoints();
+        AlienArchetype archetype = hostile.getArchetype();
+        combat.start(heroHpBefore, hero.getExperiencePoints(), alienHpBefore,
+                archetype.getMinDamage(), archetype.getMaxDamage());
+        int result = combat.resolve(combatOutput);
+        combatOutput.alien = null;
+        if (event != null && event.shouldCommit()) {
+            event.alien = archetype.getName();
+            event.rounds = combat.getRounds();
+            event.damageDealt = alienHpBefore - combat.getAlienHp();
+            event.damageTaken = heroHpBefore - combat.getHeroHp();
+            event.heroWon = result == CombatEngine.HERO_WON;
+            event.commit();
+        }
+
+        GameMetrics.count(result == CombatEngine.HERO_WON ? GameCounter.FIGHTS_WON : GameCounter.FIGHTS_LOST);
+        if (result == CombatEngine.HERO_WON) {
+            // wenn Alien besiegt ist, Erfahrungspunkte vergeben
+            out.println("You defeated the hostile alien!");
+            hero.addExperiencePoints(5);
+            out.println("You gain 5 experience points.");
+        } else {
+            // wenn Held besiegt ist, Erfahrungspunkte vergeben
+            out.println("You have been defeated by the hostile alien.");
+            hero.addExperiencePoints(1);
+            out.println("You gain 1 experience point for the encounter.");
+        }
+    }
+
+    /**
+     * Gibt die Schläge eines Kampfes aus und überträgt den Schaden auf Held
+     * und Alien. Wird einmal pro Spiel angelegt und für jeden Kampf
+     * wiederverwendet.
+     */
+    private class CombatOutput implements CombatListener {
+        /**
+         * Alien des laufenden Kampfes.
+         */
+        private HostileAlien alien;
+
+        @Override
+        public void onHeroAttack(int damage, int alienHp) {
+            out.println("You attack and deal " + damage + " damage.");
+            // Alien nimmt Schaden
+            alien.takeDamage(damage, out);
+            emit(GameEventType.DAMAGE_DEALT, damage);
+        }
+
+        @Override
+        public void onAlienStrike(int damage, int heroHp) {
+            out.println("The alien strikes back and hits you for " + damage + ".");
+            // Held nimmt Schaden
+            hero.takeDamage(damage);
+            out.println("Your health is now: " + hero.getHealthPoints());
+        }
+    }
+
     /**
      * Prüft, ob das Spiel vorbei ist (Held besiegt oder Rundenlimit erreicht).
      * 
@@ -511,20 +1004,18 @@ public class EscapeGame implements Serializable {
      */
     public boolean checkIfGameOver() {
         if (hero.getHealthPoints() <= 0) {
-            System.out.println("--------------------------------------------------");
-            System.out.println("Your hero has been defeated. Game over.");
-            setGameFinished(true);
-            setGameRunning(false);
+            out.println("--------------------------------------------------");
+            out.println("Your hero has been defeated. Game over.");
+            finishGame(GameOutcome.DEFEATED);
             return true;
         }
         else if (currentRound >= MAXROUNDS) {
-            System.out.println("--------------------------------------------------");
-            System.out.println("\nYou've exceeded the number of rounds (maximum 24)! Game over.");
-            System.out.println("Professor Majuntke goes in her spaceship...");
-            System.out.println("Have fun with programming - or maybe not...\n");
-            System.out.println("'The spaceship flies away ...'\n");
-            setGameFinished(true);
-            setGameRunning(false);
+            out.println("--------------------------------------------------");
+            out.println("\nYou've exceeded the number of rounds (maximum 24)! Game over.");
+            out.println("Professor Majuntke goes in her spaceship...");
+            out.println("Have fun with programming - or maybe not...\n");
+            out.println("'The spaceship flies away ...'\n");
+            finishGame(GameOutcome.OUT_OF_ROUNDS);
             return true;
         }
         return false;
@@ -536,105 +1027,121 @@ public class EscapeGame implements Serializable {
      */
     public void handleProfessorMajuntkeEncounter() {
         if (professorAlreadyMet) {
-            System.out.println("Professor Majuntke is already gone.");
+            out.println("Professor Majuntke is already gone.");
             return;
         }
 
-        System.out.println("=== Professor Majuntke ===");
-        System.out.println("\nSuddenly, Professor Majuntke appears!");
-        System.out.println("Congratulations! You have collected all the signatures.");
-        System.out.println("Now you must answer a question about \"Fundamentals of Programming\".");
-        System.out.println("If you answer correctly, you will receive a certificate and can leave the HTW.");
+        GameMetrics.count(GameCounter.PROFESSOR_ENCOUNTERS);
+        out.println("=== Professor Majuntke ===");
+        out.println("\nSuddenly, Professor Majuntke appears!");
+        out.println("Congratulations! You have collected all the signatures.");
+        out.println("Now you must answer a question about \"Fundamentals of Programming\".");
+        out.println("If you answer correctly, you will receive a certificate and can leave the HTW.");
         
+        // Fragen ohne Zurücklegen ziehen, damit die zweite Chance eine neue Frage bringt
+        QuestionDraw questions = content.getQuestionBank().draw(random.nextLong());
+
         // Erste Chance
-        boolean firstAttemptCorrect = askQuestion();
+        boolean firstAttemptCorrect = askQuestion(questions);
         
         if (firstAttemptCorrect) {
-            System.out.println("That's correct! Here is your certificate!");
-            System.out.println("___________________________\n" + //
+            out.println("That's correct! Here is your certificate!");
+            out.println("___________________________\n" + //
                                 "| ===== CERTIFICATE ===== |\n" + //
                                 "| Congratulations!        |\n" + //
                                 "| You finished the quiz!  |\n" + //
                                 "|_________________________|\n" + //
                                 "I need to go now! Have a great time!");
-            System.out.println("The doors of the HTW open ...");
-            System.out.println("\nCONGRATULATIONS! You have won the game!\n");
+            out.println("The doors of the HTW open ...");
+            out.println("\nCONGRATULATIONS! You have won the game!\n");
             hero.addExperiencePoints(10);
-            setGameFinished(true);
-            setGameRunning(false);
+            finishGame(GameOutcome.WON);
             return;
         }
         
         // Zweite Chance
-        System.out.println("=== Professor Majuntke ===");
-        System.out.println("\nUnforunately, the answer was not correct.");
-        System.out.println("You have a second chance!\n");
+        out.println("=== Professor Majuntke ===");
+        out.println("\nUnforunately, the answer was not correct.");
+        out.println("You have a second chance!\n");
         
-        boolean secondAttemptCorrect = askQuestion();
+        boolean secondAttemptCorrect = askQuestion(questions);
         
         if (secondAttemptCorrect) {
-            System.out.println("That's correct! Here is your certificate!");
-            System.out.println("___________________________\n" + //
+            out.println("That's correct! Here is your certificate!");
+            out.println("___________________________\n" + //
                                 "| ===== CERTIFICATE ===== |\n" + //
                                 "| Congratulations!        |\n" + //
                                 "| You finished the quiz!  |\n" + //
                                 "|_________________________|\n" + //
                                 "I need to go now! Have a great time!");
-            System.out.println("The doors of the HTW open ...");
-            System.out.println("\nCONGRATULATIONS! You have won the game!\n");
+            out.println("The doors of the HTW open ...");
+            out.println("\nCONGRATULATIONS! You have won the game!\n");
             hero.addExperiencePoints(10);
-            setGameFinished(true);
-            setGameRunning(false);
+            finishGame(GameOutcome.WON);
             return;
         }
         
         // Beide Chancen vorbei
-        System.out.println("\nProfessor Majuntke looks sadly at you.");
-        System.out.println("That was your last chance.");
-        System.out.println("She gets into her spaceship and flies away...");
-        System.out.println("'Programming is not for everyone. See you later!'");
-        System.out.println("\nGAME OVER - You failed the quiz.\n");
-        setGameFinished(true);
-        setGameRunning(false);
+        out.println("\nProfessor Majuntke looks sadly at you.");
+        out.println("That was your last chance.");
+        out.println("She gets into her spaceship and flies away...");
+        out.println("'Programming is not for everyone. See you later!'");
+        out.println("\nGAME OVER - You failed the quiz.\n");
+        finishGame(GameOutcome.QUIZ_FAILED);
     }
     
     /**
-     * Stellt eine zufällig ausgewählte Frage und verarbeitet die Antwort.
+     * Stellt die nächste Frage und fragt so lange nach, bis eine gültige
+     * Antwort eingegeben wurde.
      * 
+     * @param questions Ziehung der Fragen dieses Quiz
      * @return true, wenn die Antwort korrekt ist, sonst false
      */
-    private boolean askQuestion() {
-        Random random = new Random();
-        Question question = professorQuestions[random.nextInt(professorQuestions.length)];
+    private boolean askQuestion(QuestionDraw questions) {
+        FlightEvents.Quiz event = FlightEvents.beginQuiz();
+        int invalidInputs = 0;
+        Question question = questions.next();
         
-        System.out.println("Question: " + question.getQuestion());
+        out.println("Question: " + question.getQuestion());
         String[] answers = question.getAnswers();
         for (int i = 0; i < answers.length; i++) {
-            System.out.println(answers[i]);
+            out.println(answers[i]);
         }
         
-        System.out.print("Your answer (1-4): ");
-        Scanner scanner = new Scanner(System.in);
-        String userInput = scanner.nextLine();
-        
-        try {
-            int answerIndex = Integer.parseInt(userInput) - 1;
-            
-            if (answerIndex < 0 || answerIndex > 3) {
-                System.out.println("Invalid input! Please choose 1-4.");
-                return askQuestion();
+        while (true) {
+            out.print("Your answer (1-4): ");
+            String userInput = player.answerQuestion(this, question);
+
+            int answerIndex;
+            try {
+                answerIndex = Integer.parseInt(userInput) - 1;
+            } catch (NumberFormatException e) {
+                out.println("Invalid input! Please choose a number between 1 and 4.");
+                invalidInputs++;
+                continue;
+            }
+            if (answerIndex < 0 || answerIndex >= Question.ANSWER_COUNT) {
+                out.println("Invalid input! Please choose 1-4.");
+                invalidInputs++;
+                continue;
             }
-            
+            if (event != null && event.shouldCommit()) {
+                event.topic = question.getTopic();
+                event.difficulty = question.getDifficulty();
+                event.invalidInputs = invalidInputs;
+                event.correct = question.isCorrect(answerIndex);
+                event.commit();
+            }
+
+            emit(GameEventType.QUIZ_ANSWERED, question.isCorrect(answerIndex) ? 1 : 0);
+            GameMetrics.count(question.isCorrect(answerIndex) ? GameCounter.QUIZ_CORRECT : GameCounter.QUIZ_WRONG);
             if (question.isCorrect(answerIndex)) {
-                System.out.println("Correct! The correct answer is: " + question.getCorrectAnswer());
+                out.println("Correct! The correct answer is: " + question.getCorrectAnswer());
                 return true;
             } else {
-                System.out.println("Incorrect! The correct answer would be: " + question.getCorrectAnswer());
+                out.println("Incorrect! The correct answer would be: " + question.getCorrectAnswer());
                 return false;
             }
-        } catch (NumberFormatException e) {
-            System.out.println("Invalid input! Please choose a number between 1 and 4.");
-            return askQuestion();
         }
     }
     
@@ -644,16 +1151,6 @@ public class EscapeGame implements Serializable {
      * @return Anzahl der unterschriebenen Übungsleitungen
      */
     private int countSignatures() { 
-        if (hero == null) {
-            return 0;
-        }
-        Lecturer[] signedLecturers = hero.getSignedExerciseLecturers();
-        int count = 0;
-        for (Lecturer lecturer : signedLecturers) {
-            if (lecturer != null) {
-                count++;
-            }
-        }
-        return count;
+        return Integer.bitCount(getSignedMask());
     }
 }
\ No newline at end of file
@@ -0,0 +1,289 @@
+package app;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Eigene Ereignisse für den JDK Flight Recorder, damit sich Spielphasen in
+ * einer Aufzeichnung neben GC und CPU-Samples zeigen.
+ *
+ * Jedes Ereignis wird vor der Phase mit einer {@code begin...}-Methode
+ * gestartet und nur abgeschlossen, wenn {@code shouldCommit()} wahr ist.
+ * Solange in der JVM kein Flight Recorder läuft, liefern diese Methoden
+ * null: Dann wird keine Ereignisklasse geladen, was sonst beim ersten
+ * Ereignis einige hundert Millisekunden für die Instrumentierung kostet,
+ * und jede Phase kostet nur eine Abfrage. Die passenden Einstellungen
+ * stehen in {@code data/escape.jfc}:
+ *
+ * <pre>
+ * java -XX:StartFlightRecording:settings=default,settings=data/escape.jfc,filename=escape.jfr app.EscapeApp
+ * </pre>
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public final class FlightEvents {
+    /**
+     * Kategorie aller Ereignisse in JDK Mission Control.
+     */
+    private static final String CATEGORY = "HTW Escape";
+
+    /**
+     * Keine Instanzen, nur die Ereignisklassen.
+     */
+    private FlightEvents() {
+    }
+
+    /**
+     * @return true, wenn in dieser JVM ein Flight Recorder gestartet wurde
+     */
+    static boolean isRecording() {
+        return FlightRecorder.isInitialized();
+    }
+
+    /**
+     * Startet das Ereignis für einen Zug.
+     *
+     * @return gestartetes Ereignis oder null, wenn nicht aufgezeichnet wird
+     */
+    static Turn beginTurn() {
+        if (!isRecording()) {
+            return null;
+        }
+        Turn event = new Turn();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Startet das Ereignis für eine Erkundung.
+     *
+     * @return gestartetes Ereignis oder null, wenn nicht aufgezeichnet wird
+     */
+    static Explore beginExplore() {
+        if (!isRecording()) {
+            return null;
+        }
+        Explore event = new Explore();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Startet das Ereignis für einen Kampf.
+     *
+     * @return gestartetes Ereignis oder null, wenn nicht aufgezeichnet wird
+     */
+    static Combat beginCombat() {
+        if (!isRecording()) {
+            return null;
+        }
+        Combat event = new Combat();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Startet das Ereignis für eine Frage im Quiz.
+     *
+     * @return gestartetes Ereignis oder null, wenn nicht aufgezeichnet wird
+     */
+    static Quiz beginQuiz() {
+        if (!isRecording()) {
+            return null;
+        }
+        Quiz event = new Quiz();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Startet das Ereignis für das Speichern.
+     *
+     * @return gestartetes Ereignis oder null, wenn nicht aufgezeichnet wird
+     */
+    static Save beginSave() {
+        if (!isRecording()) {
+            return null;
+        }
+        Save event = new Save();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Startet das Ereignis für das Laden.
+     *
+     * @return gestartetes Ereignis oder null, wenn nicht aufgezeichnet wird
+     */
+    static Load beginLoad() {
+        if (!isRecording()) {
+            return null;
+        }
+        Load event = new Load();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ein Zug im Spielmenü, von der Eingabe bis zur fertigen Ausgabe.
+     */
+    @Name("htw.escape.Turn")
+    @Label("Turn")
+    @Category(CATEGORY)
+    @Description("Handling of one game menu choice")
+    public static final class Turn extends Event {
+        /**
+         * Gewählter Menüpunkt.
+         */
+        @Label("Choice")
+        public String choice;
+        /**
+         * Runde nach dem Zug.
+         */
+        @Label("Round")
+        public int round;
+        /**
+         * Lebenspunkte des Helden nach dem Zug.
+         */
+        @Label("Health Points")
+        public int healthPoints;
+    }
+
+    /**
+     * Erkunden eines Raums samt dem gezogenen Ereignis.
+     */
+    @Name("htw.escape.Explore")
+    @Label("Explore")
+    @Category(CATEGORY)
+    @Description("Entering a room and resolving its encounter")
+    public static final class Explore extends Event {
+        /**
+         * Runde der Erkundung.
+         */
+        @Label("Round")
+        public int round;
+        /**
+         * Bezeichnung des betretenen Raums.
+         */
+        @Label("Room")
+        public String room;
+        /**
+         * Name der gezogenen Ereignisart (siehe {@link EncounterType#getName()}).
+         */
+        @Label("Encounter")
+        public String encounter;
+    }
+
+    /**
+     * Kampf gegen ein feindliches Alien.
+     */
+    @Name("htw.escape.Combat")
+    @Label("Combat")
+    @Category(CATEGORY)
+    @Description("A fight between the hero and a hostile alien")
+    public static final class Combat extends Event {
+        /**
+         * Art des Aliens.
+         */
+        @Label("Alien")
+        public String alien;
+        /**
+         * Anzahl der Angriffe des Helden.
+         */
+        @Label("Rounds")
+        public int rounds;
+        /**
+         * Schaden, den der Held verursacht hat.
+         */
+        @Label("Damage Dealt")
+        public int damageDealt;
+        /**
+         * Schaden, den der Held erlitten hat.
+         */
+        @Label("Damage Taken")
+        public int damageTaken;
+        /**
+         * Gibt an, ob der Held gewonnen hat.
+         */
+        @Label("Hero Won")
+        public boolean heroWon;
+    }
+
+    /**
+     * Eine Frage im Quiz, vom Stellen bis zur gültigen Antwort.
+     */
+    @Name("htw.escape.Quiz")
+    @Label("Quiz Attempt")
+    @Category(CATEGORY)
+    @Description("One quiz question until a valid answer was given")
+    public static final class Quiz extends Event {
+        /**
+         * Thema der Frage.
+         */
+        @Label("Topic")
+        public String topic;
+        /**
+         * Schwierigkeit der Frage.
+         */
+        @Label("Difficulty")
+        public int difficulty;
+        /**
+         * Anzahl ungültiger Eingaben vor der Antwort.
+         */
+        @Label("Invalid Inputs")
+        public int invalidInputs;
+        /**
+         * Gibt an, ob die Antwort richtig war.
+         */
+        @Label("Correct")
+        public boolean correct;
+    }
+
+    /**
+     * Speichern eines Spiels in einen Slot.
+     */
+    @Name("htw.escape.Save")
+    @Label("Save Game")
+    @Category(CATEGORY)
+    @Description("Encoding a game and writing it to a save slot")
+    public static final class Save extends Event {
+        /**
+         * Name des Slots.
+         */
+        @Label("Slot")
+        public String slot;
+        /**
+         * Größe des Spielstands.
+         */
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+    }
+
+    /**
+     * Laden eines Spiels aus einem Slot.
+     */
+    @Name("htw.escape.Load")
+    @Label("Load Game")
+    @Category(CATEGORY)
+    @Description("Reading a save slot and decoding the game")
+    public static final class Load extends Event {
+        /**
+         * Name des Slots.
+         */
+        @Label("Slot")
+        public String slot;
+        /**
+         * Größe des Spielstands (0, wenn der Slot nicht existiert).
+         */
+        @Label("Bytes")
+        @DataAmount
+        public long bytes;
+    }
+}
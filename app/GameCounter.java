@@ -0,0 +1,102 @@
+package app;
+
+/**
+ * Zähler der {@link GameMetrics}. Der Name einer Konstante ist zugleich der
+ * Name des Attributs in JMX und in der Textausgabe.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public enum GameCounter {
+    /**
+     * Betretene Räume.
+     */
+    ROOMS_EXPLORED("Rooms entered while exploring the campus"),
+    /**
+     * Räume ohne Ereignis.
+     */
+    QUIET_ROOMS("Rooms in which nothing happened"),
+    /**
+     * Begegnungen mit freundlichen Aliens.
+     */
+    FRIENDLY_ALIENS("Encounters with friendly aliens"),
+    /**
+     * Begegnungen mit feindlichen Aliens.
+     */
+    HOSTILE_ALIENS("Encounters with hostile aliens"),
+    /**
+     * Gewonnene Kämpfe.
+     */
+    FIGHTS_WON("Fights won by the hero"),
+    /**
+     * Verlorene Kämpfe.
+     */
+    FIGHTS_LOST("Fights lost by the hero"),
+    /**
+     * Gelungene Fluchtversuche.
+     */
+    FLEES_SUCCEEDED("Successful escapes from hostile aliens"),
+    /**
+     * Misslungene Fluchtversuche.
+     */
+    FLEES_FAILED("Failed escapes from hostile aliens"),
+    /**
+     * Treffen mit Übungsleitungen.
+     */
+    LECTURER_ENCOUNTERS("Encounters with exercise leaders"),
+    /**
+     * Treffen mit Professorin Majuntke.
+     */
+    PROFESSOR_ENCOUNTERS("Encounters with Professor Majuntke"),
+    /**
+     * Richtige Antworten im Quiz.
+     */
+    QUIZ_CORRECT("Correct quiz answers"),
+    /**
+     * Falsche Antworten im Quiz.
+     */
+    QUIZ_WRONG("Wrong quiz answers"),
+    /**
+     * Lange Verschnaufpausen.
+     */
+    LONG_RESTS("Long rests taken"),
+    /**
+     * Kurze Verschnaufpausen.
+     */
+    SHORT_RESTS("Short rests taken"),
+    /**
+     * Gewonnene Spiele.
+     */
+    GAMES_WON("Games won with the certificate"),
+    /**
+     * Verlorene Spiele (besiegt, Rundenlimit oder Quiz nicht bestanden).
+     */
+    GAMES_LOST("Games lost"),
+    /**
+     * Fehlgeschlagene Speichervorgänge.
+     */
+    SAVE_FAILURES("Save attempts that failed"),
+    /**
+     * Fehlgeschlagene Ladevorgänge.
+     */
+    LOAD_FAILURES("Load attempts that failed");
+
+    /**
+     * Beschreibung für JMX.
+     */
+    private final String description;
+
+    /**
+     * @param description Beschreibung für JMX
+     */
+    GameCounter(String description) {
+        this.description = description;
+    }
+
+    /**
+     * @return Beschreibung für JMX
+     */
+    public String getDescription() {
+        return description;
+    }
+}
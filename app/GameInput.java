@@ -0,0 +1,22 @@
+package app;
+
+/**
+ * Quelle der Nutzereingaben einer Sitzung.
+ *
+ * Pro Sitzung gibt es genau eine Eingabe, die von Hauptmenü und Spiel
+ * gemeinsam verwendet wird, damit keine gepufferten Zeilen verloren gehen.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public interface GameInput {
+
+    /**
+     * Liest die nächste Zeile.
+     *
+     * @return Eingabe ohne Zeilenumbruch
+     * @throws java.io.UncheckedIOException wenn die Eingabe zu Ende ist oder
+     *                                      nicht gelesen werden kann
+     */
+    String readLine();
+}
@@ -0,0 +1,300 @@
+package app;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import model.GameEventListener;
+import model.GameEventType;
+import model.GameOutput;
+
+/**
+ * Journal eines Spiels aus Ereignissen und regelmäßigen Momentaufnahmen.
+ *
+ * Jede Zustandsänderung von {@link EscapeGame} und {@link model.Hero} wird als
+ * Datensatz fester Länge (Art und Wert) an die Datei {@code <basis>.log}
+ * angehängt. Am Ende jedes Zugs folgt ein {@link GameEventType#TURN_END} mit dem
+ * Zustand der Zufallsquelle. Alle {@code snapshotInterval} Züge wird eine
+ * Momentaufnahme im Format von {@link SaveGameCodec} zusammen mit der
+ * Position im Journal nach {@code <basis>.snap} geschrieben.
+ *
+ * Das Speichern eines Zugs kostet damit nur die Ereignisse dieses Zugs. Beim
+ * Wiederherstellen wird die letzte Momentaufnahme geladen und das Journal ab
+ * ihrer Position bis zum letzten vollständigen Zug erneut angewendet. Bis
+ * zum Ende des Spiels bleibt das Journal vollständig erhalten und
+ * dokumentiert den ganzen Spielverlauf. Nach einem beendeten Spiel und beim
+ * Schließen werden die Dateien gelöscht, sodass ein vorhandenes Journal beim
+ * Start immer einen Absturz bedeutet.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class GameJournal implements GameEventListener, Closeable {
+    /**
+     * Standardabstand zwischen zwei Momentaufnahmen in Zügen.
+     */
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 10;
+    /**
+     * Größe eines Datensatzes im Journal: Art (1 Byte) und Wert (8 Bytes).
+     */
+    private static final int RECORD_SIZE = 9;
+
+    /**
+     * Datei mit den Ereignissen.
+     */
+    private final Path logFile;
+    /**
+     * Datei mit der letzten Momentaufnahme.
+     */
+    private final Path snapshotFile;
+    /**
+     * Temporäre Datei für das atomare Ersetzen der Momentaufnahme.
+     */
+    private final Path snapshotTemp;
+    /**
+     * Abstand zwischen zwei Momentaufnahmen in Zügen.
+     */
+    private final int snapshotInterval;
+
+    /**
+     * Aufgezeichnetes Spiel (null, solange keins gestartet wurde).
+     */
+    private EscapeGame game;
+    /**
+     * Offenes Journal.
+     */
+    private DataOutputStream log;
+    /**
+     * Anzahl der bisher ins Journal geschriebenen Bytes.
+     */
+    private long logOffset;
+    /**
+     * Züge seit der letzten Momentaufnahme.
+     */
+    private int turnsSinceSnapshot;
+    /**
+     * Erster Schreibfehler (null, solange alles funktioniert).
+     */
+    private IOException failure;
+
+    /**
+     * Erstellt ein Journal mit den Dateien {@code <basis>.log} und {@code <basis>.snap}.
+     *
+     * @param base             Basisname der Dateien
+     * @param snapshotInterval Abstand zwischen zwei Momentaufnahmen in Zügen
+     */
+    public GameJournal(Path base, int snapshotInterval) {
+        this.logFile = base.resolveSibling(base.getFileName() + ".log");
+        this.snapshotFile = base.resolveSibling(base.getFileName() + ".snap");
+        this.snapshotTemp = base.resolveSibling(base.getFileName() + ".snap.tmp");
+        this.snapshotInterval = Math.max(1, snapshotInterval);
+    }
+
+    /**
+     * Beginnt ein neues Journal für das Spiel. Ein vorhandenes Journal wird
+     * verworfen, und eine erste Momentaufnahme wird geschrieben.
+     *
+     * @param game aufzuzeichnendes Spiel
+     * @throws IOException wenn das Journal nicht angelegt werden kann
+     */
+    public void start(EscapeGame game) throws IOException {
+        stop();
+        this.log = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(logFile,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)));
+        this.logOffset = 0;
+        this.failure = null;
+        this.game = game;
+        writeSnapshot();
+        game.setEventListener(this);
+    }
+
+    /**
+     * Hängt ein Ereignis an das Journal an.
+     *
+     * @param type  Art des Ereignisses
+     * @param value Wert des Ereignisses
+     */
+    @Override
+    public void onEvent(GameEventType type, long value) {
+        if (log == null || failure != null) {
+            return;
+        }
+        try {
+            log.writeByte(type.ordinal());
+            log.writeLong(value);
+            logOffset += RECORD_SIZE;
+        } catch (IOException ex) {
+            fail(ex);
+        }
+    }
+
+    /**
+     * Schließt einen Zug ab: schreibt den Zustand der Zufallsquelle, leert den
+     * Puffer des Journals und legt bei Bedarf eine Momentaufnahme an.
+     */
+    public void endTurn() {
+        if (game == null || failure != null) {
+            return;
+        }
+        onEvent(GameEventType.TURN_END, game.getRandom().getState());
+        try {
+            log.flush();
+            if (++turnsSinceSnapshot >= snapshotInterval) {
+                writeSnapshot();
+            }
+        } catch (IOException ex) {
+            fail(ex);
+        }
+    }
+
+    /**
+     * Schreibt eine Momentaufnahme mit der aktuellen Position im Journal.
+     *
+     * @throws IOException bei Schreibfehlern
+     */
+    private void writeSnapshot() throws IOException {
+        log.flush();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeLong(logOffset);
+        SaveGameCodec.write(game, data);
+        AutoSaver.writeAtomically(snapshotFile, snapshotTemp, bytes.toByteArray());
+        turnsSinceSnapshot = 0;
+    }
+
+    /**
+     * Merkt sich einen Schreibfehler und beendet die Aufzeichnung.
+     *
+     * @param ex aufgetretener Fehler
+     */
+    private void fail(IOException ex) {
+        failure = ex;
+        System.err.println("Journal disabled: " + ex.getMessage());
+    }
+
+    /**
+     * Beendet die Aufzeichnung des aktuellen Spiels.
+     *
+     * @throws IOException beim Schließen des Journals
+     */
+    private void stop() throws IOException {
+        if (game != null) {
+            game.setEventListener(null);
+            game = null;
+        }
+        if (log != null) {
+            log.close();
+            log = null;
+        }
+    }
+
+    /**
+     * Beendet die Aufzeichnung und löscht die Dateien des Journals, z. B.
+     * weil das Spiel beendet ist.
+     *
+     * @throws IOException beim Schließen oder Löschen des Journals
+     */
+    public void discard() throws IOException {
+        stop();
+        deleteFiles(snapshotTemp, snapshotFile, logFile);
+    }
+
+    /**
+     * Beendet die Aufzeichnung, schließt das Journal und löscht seine Dateien.
+     *
+     * @throws IOException beim Schließen oder Löschen des Journals
+     */
+    @Override
+    public void close() throws IOException {
+        discard();
+    }
+
+    /**
+     * Löscht die Dateien eines Journals, z. B. nachdem es wiederhergestellt wurde.
+     *
+     * @param base Basisname der Dateien
+     * @throws IOException wenn eine Datei nicht gelöscht werden kann
+     */
+    public static void delete(Path base) throws IOException {
+        deleteFiles(base.resolveSibling(base.getFileName() + ".snap.tmp"),
+                base.resolveSibling(base.getFileName() + ".snap"),
+                base.resolveSibling(base.getFileName() + ".log"));
+    }
+
+    /**
+     * @param files zu löschende Dateien in dieser Reihenfolge; die Momentaufnahme
+     *              kommt vor dem Log, da sie das Vorhandensein des Journals anzeigt
+     * @throws IOException wenn eine Datei nicht gelöscht werden kann
+     */
+    private static void deleteFiles(Path... files) throws IOException {
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Prüft, ob unter dem Basisnamen ein Journal existiert.
+     *
+     * @param base Basisname der Dateien
+     * @return wahr, wenn eine Momentaufnahme vorhanden ist
+     */
+    public static boolean exists(Path base) {
+        return Files.exists(base.resolveSibling(base.getFileName() + ".snap"));
+    }
+
+    /**
+     * Stellt ein Spiel aus Momentaufnahme und Journal wieder her. Ereignisse
+     * nach dem letzten vollständigen Zug (z. B. nach einem Absturz mitten im
+     * Zug) werden verworfen.
+     *
+     * @param base   Basisname der Dateien
+     * @param player Quelle der Spielerentscheidungen für das Spiel
+     * @param output Ziel der Spielausgaben für das Spiel
+     * @return wiederhergestelltes Spiel
+     * @throws IOException wenn Momentaufnahme oder Journal nicht lesbar sind
+     */
+    public static EscapeGame recover(Path base, PlayerStrategy player, GameOutput output) throws IOException {
+        byte[] snapshot = Files.readAllBytes(base.resolveSibling(base.getFileName() + ".snap"));
+        DataInputStream snapshotData = new DataInputStream(new ByteArrayInputStream(snapshot));
+        long offset = snapshotData.readLong();
+        EscapeGame game = SaveGameCodec.read(snapshotData, player, output);
+
+        Path logFile = base.resolveSibling(base.getFileName() + ".log");
+        if (!Files.exists(logFile)) {
+            return game;
+        }
+        byte[] log = Files.readAllBytes(logFile);
+        GameEventType[] types = GameEventType.values();
+
+        // Ende des letzten vollständigen Zugs suchen
+        int end = (int) offset;
+        for (int pos = (int) offset; pos + RECORD_SIZE <= log.length; pos += RECORD_SIZE) {
+            if (log[pos] == GameEventType.TURN_END.ordinal()) {
+                end = pos + RECORD_SIZE;
+            }
+        }
+
+        DataInputStream events = new DataInputStream(new ByteArrayInputStream(log, (int) offset, end - (int) offset));
+        for (int pos = (int) offset; pos < end; pos += RECORD_SIZE) {
+            GameEventType type = types[events.readUnsignedByte()];
+            long value = events.readLong();
+            if (type == GameEventType.SIGNATURE_GAINED
+                    && (value < 0 || value >= game.getContent().getLecturerCount())) {
+                throw new IOException("Journal does not match campus: lecturer " + value);
+            }
+            if (type == GameEventType.GAME_FINISHED) {
+                // wirft bei einem unbekannten Ausgang
+                GameOutcome.fromOrdinal(value);
+            }
+            game.applyEvent(type, value);
+        }
+        return game;
+    }
+}
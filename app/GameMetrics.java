@@ -0,0 +1,229 @@
+package app;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.ReflectionException;
+
+/**
+ * Zähler und Dauern aller Spiele im Prozess, z. B. aller Sitzungen des
+ * {@link GameServer}.
+ *
+ * Jeder {@link GameCounter} ist ein {@link LongAdder}: Ein Zählen kostet
+ * ohne Konkurrenz eine Addition, bei vielen Threads verteilt er sich auf
+ * eigene Zellen statt auf eine umkämpfte Speicherstelle. Dauern werden nur
+ * für Speichern und Laden gemessen, damit der Spielzug selbst keine
+ * Zeitmessung braucht.
+ *
+ * Sichtbar sind die Werte über JMX ({@link #registerMBeans()}, z. B. in
+ * JConsole unter {@code htw.escape}) und als Text ({@link #format()},
+ * {@link #startDump(Path, long)}).
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public final class GameMetrics implements DynamicMBean {
+    /**
+     * Domäne der MBeans.
+     */
+    public static final String DOMAIN = "htw.escape";
+    /**
+     * Dauer des Speicherns in einen Slot.
+     */
+    public static final LatencyHistogram SAVE_LATENCY = new LatencyHistogram("save");
+    /**
+     * Dauer des Ladens aus einem Slot.
+     */
+    public static final LatencyHistogram LOAD_LATENCY = new LatencyHistogram("load");
+
+    /**
+     * Alle Zähler, indiziert über {@link GameCounter#ordinal()}.
+     */
+    private static final GameCounter[] COUNTERS = GameCounter.values();
+    /**
+     * Wert je Zähler.
+     */
+    private static final LongAdder[] VALUES = new LongAdder[COUNTERS.length];
+    /**
+     * Zeitstempel der Textausgabe.
+     */
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    /**
+     * Gibt an, ob die MBeans bereits angemeldet sind.
+     */
+    private static boolean registered;
+
+    static {
+        for (int i = 0; i < VALUES.length; i++) {
+            VALUES[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Nur für JMX; die Werte sind statisch.
+     */
+    private GameMetrics() {
+    }
+
+    /**
+     * Zählt einen Zähler um eins hoch.
+     *
+     * @param counter Zähler
+     */
+    public static void count(GameCounter counter) {
+        VALUES[counter.ordinal()].increment();
+    }
+
+    /**
+     * @param counter Zähler
+     * @return aktueller Wert
+     */
+    public static long get(GameCounter counter) {
+        return VALUES[counter.ordinal()].sum();
+    }
+
+    /**
+     * Meldet die Zähler und Dauern beim MBean-Server der Plattform an.
+     * Weitere Aufrufe tun nichts.
+     *
+     * @throws IllegalStateException wenn JMX die Anmeldung ablehnt
+     */
+    public static synchronized void registerMBeans() {
+        if (registered) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            server.registerMBean(new GameMetrics(), new ObjectName(DOMAIN + ":type=Counters"));
+            for (LatencyHistogram histogram : new LatencyHistogram[] {SAVE_LATENCY, LOAD_LATENCY}) {
+                server.registerMBean(histogram,
+                        new ObjectName(DOMAIN + ":type=Latency,name=" + histogram.getName()));
+            }
+        } catch (JMException ex) {
+            throw new IllegalStateException("Could not register the game metrics", ex);
+        }
+        registered = true;
+    }
+
+    /**
+     * Liefert alle Werte als Text: eine Zeile mit den Zählern, je eine mit
+     * den Dauern.
+     *
+     * @return Text ohne abschließenden Zeilenumbruch
+     */
+    public static String format() {
+        StringBuilder text = new StringBuilder(LocalDateTime.now().format(TIMESTAMP));
+        for (GameCounter counter : COUNTERS) {
+            text.append(' ').append(counter.name().toLowerCase()).append('=').append(get(counter));
+        }
+        text.append(System.lineSeparator()).append("  ").append(SAVE_LATENCY);
+        text.append(System.lineSeparator()).append("  ").append(LOAD_LATENCY);
+        return text.toString();
+    }
+
+    /**
+     * Gibt alle Werte aus.
+     *
+     * @param out Ziel der Ausgabe
+     */
+    public static void print(PrintStream out) {
+        out.println(format());
+    }
+
+    /**
+     * Hängt die Werte in festen Abständen an eine Datei an, bis der Prozess
+     * endet.
+     *
+     * @param file           Zieldatei
+     * @param intervalMillis Abstand der Ausgaben in Millisekunden
+     * @return gestarteter Daemon-Thread
+     */
+    public static Thread startDump(Path file, long intervalMillis) {
+        Thread dumper = new Thread(() -> {
+            while (true) {
+                try {
+                    Thread.sleep(intervalMillis);
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                try {
+                    Files.write(file, (format() + System.lineSeparator()).getBytes(StandardCharsets.UTF_8),
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                } catch (IOException ex) {
+                    System.err.println("Could not write metrics: " + ex.getMessage());
+                    return;
+                }
+            }
+        }, "metrics-dump");
+        dumper.setDaemon(true);
+        dumper.start();
+        return dumper;
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        for (GameCounter counter : COUNTERS) {
+            if (counter.name().equals(attribute)) {
+                return get(counter);
+            }
+        }
+        throw new AttributeNotFoundException(attribute);
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Game metrics are read-only");
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            try {
+                list.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException ex) {
+                // unbekannte Attribute werden laut JMX ausgelassen
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        // keine Operationen; so meldet JMX eine unbekannte Operation
+        throw new ReflectionException(new NoSuchMethodException(actionName), "Game metrics have no operations");
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[COUNTERS.length];
+        for (int i = 0; i < COUNTERS.length; i++) {
+            attributes[i] = new MBeanAttributeInfo(COUNTERS[i].name(), "long",
+                    COUNTERS[i].getDescription(), true, false, false);
+        }
+        return new MBeanInfo(GameMetrics.class.getName(), "Counters of all games in this process",
+                attributes, null, null, null);
+    }
+}
@@ -0,0 +1,51 @@
+package app;
+
+import java.io.IOException;
+
+/**
+ * Ausgang eines Spiels.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public enum GameOutcome {
+    /**
+     * Spiel läuft noch.
+     */
+    RUNNING,
+    /**
+     * Quiz bestanden, Zertifikat erhalten.
+     */
+    WON,
+    /**
+     * Held wurde besiegt (Lebenspunkte auf 0).
+     */
+    DEFEATED,
+    /**
+     * Rundenlimit erreicht.
+     */
+    OUT_OF_ROUNDS,
+    /**
+     * Beide Quizversuche bei Professorin Majuntke falsch beantwortet.
+     */
+    QUIZ_FAILED;
+
+    /**
+     * Alle Ausgänge in der Reihenfolge ihrer Nummern.
+     */
+    private static final GameOutcome[] VALUES = values();
+
+    /**
+     * Liefert den Ausgang zu einer gespeicherten Nummer.
+     *
+     * @param ordinal gespeicherte Nummer ({@link #ordinal()})
+     * @return Ausgang
+     * @throws IOException wenn es keinen Ausgang mit dieser Nummer gibt
+     */
+    public static GameOutcome fromOrdinal(long ordinal) throws IOException {
+        if (ordinal < 0 || ordinal >= VALUES.length) {
+            throw new IOException("Unknown game outcome " + ordinal);
+        }
+        return VALUES[(int) ordinal];
+    }
+}
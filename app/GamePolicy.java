@@ -0,0 +1,275 @@
+package app;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+import model.CombatCalculator;
+import model.Hero;
+
+/**
+ * Optimale Spielweise für jeden Spielzustand, berechnet von
+ * {@code sim.PolicySolver} und als Datei gespeichert.
+ *
+ * Ein Zustand besteht aus Runde, Lebenspunkten, Erfahrung (ab
+ * {@link CombatCalculator#getMaxTableExperience()} zusammengefasst),
+ * unterschriebenen Übungsleitungen, kleiner Pause und Raum. Jeder Zustand
+ * belegt zwei Bytes: beste Menüaktion, ob bei einem feindlichen Alien in
+ * diesem Zustand geflohen werden sollte, und die Siegwahrscheinlichkeit.
+ * Die Datei wird in den Speicher abgebildet; eine Abfrage ist ein
+ * einzelner Zugriff über {@link #index(int, int, int, int, boolean, int)}.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public final class GamePolicy {
+    /**
+     * Standard-Dateiname der Spielweise.
+     */
+    public static final String DEFAULT_FILE_NAME = "policy.bin";
+    /**
+     * Kennung am Anfang der Datei ("HTWP").
+     */
+    public static final int MAGIC = 0x48545750;
+    /**
+     * Aktuelle Version des Formats.
+     */
+    public static final short VERSION = 1;
+    /**
+     * Beste Aktion: Campus erkunden.
+     */
+    public static final int EXPLORE = 0;
+    /**
+     * Beste Aktion: lange Verschnaufpause.
+     */
+    public static final int LONG_REST = 1;
+    /**
+     * Beste Aktion: kurze Verschnaufpause.
+     */
+    public static final int SHORT_REST = 2;
+
+    /**
+     * Anzahl Runden, in denen noch gespielt wird.
+     */
+    public static final int ROUNDS = EscapeGame.getMaxRounds();
+    /**
+     * Anzahl möglicher Lebenspunkte (0 bis Maximum).
+     */
+    public static final int HEALTH_VALUES = Hero.getMaxHealth() + 1;
+    /**
+     * Anzahl unterschiedener Erfahrungsstufen.
+     */
+    public static final int EXPERIENCE_VALUES = CombatCalculator.getMaxTableExperience() + 1;
+    /**
+     * Anzahl Räume bzw. Übungsleitungen.
+     */
+    public static final int ROOMS = 5;
+    /**
+     * Bitmaske, wenn alle Übungsleitungen unterschrieben haben.
+     */
+    public static final int ALL_SIGNED = (1 << ROOMS) - 1;
+
+    /**
+     * Bits für die Aktion im gepackten Eintrag.
+     */
+    private static final int ACTION_MASK = 0x3;
+    /**
+     * Bit für "bei feindlichem Alien fliehen".
+     */
+    private static final int FLEE_BIT = 0x4;
+    /**
+     * Größter Wert der Siegwahrscheinlichkeit in den oberen 13 Bits.
+     */
+    private static final int WIN_SCALE = (1 << 13) - 1;
+    /**
+     * Größe des Kopfs in Bytes.
+     */
+    private static final int HEADER_SIZE = 4 + 2 + 8 + 4;
+
+    /**
+     * Gemeinsam genutzte Spielweise aller Sitzungen (null, solange nicht geladen).
+     */
+    private static GamePolicy shared;
+
+    /**
+     * Gepackte Einträge aller Zustände.
+     */
+    private final ShortBuffer entries;
+    /**
+     * Trefferquote im Quiz, mit der die Spielweise berechnet wurde.
+     */
+    private final double quizSkill;
+
+    /**
+     * @param entries   gepackte Einträge
+     * @param quizSkill Trefferquote im Quiz
+     */
+    private GamePolicy(ShortBuffer entries, double quizSkill) {
+        this.entries = entries;
+        this.quizSkill = quizSkill;
+    }
+
+    /**
+     * Liefert die gemeinsame Spielweise aus {@link #DEFAULT_FILE_NAME}. Fehlt
+     * die Datei, wird es beim nächsten Aufruf erneut versucht.
+     *
+     * @return Spielweise oder null, wenn keine Datei vorhanden oder lesbar ist
+     */
+    public static synchronized GamePolicy shared() {
+        if (shared == null) {
+            Path file = Paths.get(DEFAULT_FILE_NAME);
+            if (!Files.exists(file)) {
+                return null;
+            }
+            try {
+                shared = load(file);
+            } catch (IOException ex) {
+                return null;
+            }
+        }
+        return shared;
+    }
+
+    /**
+     * Lädt eine Spielweise, indem die Datei in den Speicher abgebildet wird.
+     *
+     * @param file Datei der Spielweise
+     * @return Spielweise
+     * @throws IOException bei Lesefehlern oder unpassendem Format
+     */
+    public static GamePolicy load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a HTW escape policy file");
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported policy file version " + version);
+            }
+            double quizSkill = buffer.getDouble();
+            int count = buffer.getInt();
+            if (count != size() || buffer.remaining() < count * 2) {
+                throw new IOException("Policy file does not match the game rules");
+            }
+            return new GamePolicy(buffer.slice().asShortBuffer(), quizSkill);
+        }
+    }
+
+    /**
+     * Schreibt eine Spielweise.
+     *
+     * @param file      Ziel
+     * @param entries   gepackte Einträge ({@link #pack(int, boolean, double)})
+     * @param quizSkill Trefferquote im Quiz, mit der gerechnet wurde
+     * @throws IOException bei Schreibfehlern
+     */
+    public static void write(Path file, short[] entries, double quizSkill) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeDouble(quizSkill);
+            out.writeInt(entries.length);
+            for (short entry : entries) {
+                out.writeShort(entry);
+            }
+        }
+    }
+
+    /**
+     * @return Anzahl aller Zustände
+     */
+    public static int size() {
+        return ROUNDS * HEALTH_VALUES * EXPERIENCE_VALUES * (ALL_SIGNED + 1) * 2 * (ROOMS + 1);
+    }
+
+    /**
+     * Liefert die Position eines Zustands.
+     *
+     * @param round            Runde (0 bis {@link #ROUNDS} - 1)
+     * @param healthPoints     Lebenspunkte
+     * @param experiencePoints Erfahrungspunkte (größere Werte werden zusammengefasst)
+     * @param signedMask       unterschriebene Übungsleitungen als Bitmaske
+     * @param smallRestUsed    ob die kleine Pause verbraucht ist
+     * @param roomIndex        aktueller Raum (-1 vor dem ersten Raum)
+     * @return Position des Zustands
+     */
+    public static int index(int round, int healthPoints, int experiencePoints, int signedMask,
+            boolean smallRestUsed, int roomIndex) {
+        int xp = Math.min(experiencePoints, EXPERIENCE_VALUES - 1);
+        int index = round * HEALTH_VALUES + healthPoints;
+        index = index * EXPERIENCE_VALUES + xp;
+        index = index * (ALL_SIGNED + 1) + signedMask;
+        index = index * 2 + (smallRestUsed ? 1 : 0);
+        return index * (ROOMS + 1) + roomIndex + 1;
+    }
+
+    /**
+     * Packt einen Eintrag in zwei Bytes.
+     *
+     * @param action         beste Menüaktion
+     * @param flee           ob bei einem feindlichen Alien geflohen werden sollte
+     * @param winProbability Siegwahrscheinlichkeit
+     * @return gepackter Eintrag
+     */
+    public static short pack(int action, boolean flee, double winProbability) {
+        int win = (int) Math.round(Math.max(0.0, Math.min(1.0, winProbability)) * WIN_SCALE);
+        return (short) ((win << 3) | (flee ? FLEE_BIT : 0) | action);
+    }
+
+    /**
+     * @param index Position des Zustands
+     * @return beste Menüaktion
+     */
+    public int action(int index) {
+        return entries.get(index) & ACTION_MASK;
+    }
+
+    /**
+     * @param index Position des Zustands
+     * @return ob bei einem feindlichen Alien in diesem Zustand geflohen werden sollte
+     */
+    public boolean shouldFlee(int index) {
+        return (entries.get(index) & FLEE_BIT) != 0;
+    }
+
+    /**
+     * @param index Position des Zustands
+     * @return Siegwahrscheinlichkeit bei optimaler Spielweise
+     */
+    public double winProbability(int index) {
+        return ((entries.get(index) & 0xFFFF) >>> 3) / (double) WIN_SCALE;
+    }
+
+    /**
+     * Liefert die Position des aktuellen Zustands eines laufenden Spiels.
+     *
+     * @param game Spiel
+     * @return Position oder -1, wenn der Zustand nicht in der Tabelle liegt
+     *         oder das Spiel nicht auf einem Campus mit {@link #ROOMS} Räumen läuft
+     */
+    public static int index(EscapeGame game) {
+        Hero hero = game.getHero();
+        if (hero == null || game.getCurrentRound() >= ROUNDS || !hero.isOperational()
+                || game.getContent().getRoomCount() != ROOMS || game.getContent().getLecturerCount() != ROOMS) {
+            return -1;
+        }
+        return index(game.getCurrentRound(), hero.getHealthPoints(), hero.getExperiencePoints(),
+                game.getSignedMask(), game.isSmallRestUsed(), game.getCurrentRoomIndex());
+    }
+
+    /**
+     * @return Trefferquote im Quiz, mit der die Spielweise berechnet wurde
+     */
+    public double getQuizSkill() {
+        return quizSkill;
+    }
+}
@@ -0,0 +1,367 @@
+package app;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import model.GameOutput;
+import model.GameRandom;
+import model.Hero;
+
+/**
+ * Aufzeichnung eines Spiels: Startwert der Zufallsquelle und Name des Helden
+ * (bzw. der geladene Spielstand) sowie jede Zeile, die während des Spiels
+ * gelesen wurde.
+ *
+ * Da das Spiel außer diesen Eingaben nur die Zufallsquelle verwendet, lässt
+ * es sich damit exakt nachspielen ({@link EscapeApp#replay(GameRecording, int, GameOutput)}).
+ * Zusätzlich wird der Stand am Ende der Aufzeichnung festgehalten, damit
+ * ein Nachspielen mit geänderten Regeln Abweichungen erkennen kann.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public final class GameRecording {
+    /**
+     * Art des Anfangs: neues Spiel aus Startwert und Name.
+     */
+    private static final byte NEW_GAME = 0;
+    /**
+     * Art des Anfangs: geladener Spielstand im Format von {@link SaveGameCodec}.
+     */
+    private static final byte SNAPSHOT = 1;
+
+    /**
+     * Startwert der Zufallsquelle.
+     */
+    private final long seed;
+    /**
+     * Eingegebener Name des Helden (null bei einem geladenen Spielstand).
+     */
+    private final String heroName;
+    /**
+     * Geladener Spielstand (null bei einem neuen Spiel).
+     */
+    private final byte[] snapshot;
+    /**
+     * Gelesene Zeilen in ihrer Reihenfolge.
+     */
+    private String[] lines;
+    /**
+     * Anzahl belegter Plätze in {@link #lines}.
+     */
+    private int lineCount;
+    /**
+     * Ausgang am Ende der Aufzeichnung.
+     */
+    private GameOutcome outcome = GameOutcome.RUNNING;
+    /**
+     * Runde am Ende der Aufzeichnung.
+     */
+    private int rounds;
+    /**
+     * Lebenspunkte des Helden am Ende der Aufzeichnung.
+     */
+    private int healthPoints;
+    /**
+     * Erfahrungspunkte des Helden am Ende der Aufzeichnung.
+     */
+    private int experiencePoints;
+
+    /**
+     * @param seed     Startwert der Zufallsquelle
+     * @param heroName eingegebener Name des Helden oder null
+     * @param snapshot geladener Spielstand oder null
+     * @param lines    Platz für die Zeilen
+     */
+    private GameRecording(long seed, String heroName, byte[] snapshot, String[] lines) {
+        this.seed = seed;
+        this.heroName = heroName;
+        this.snapshot = snapshot;
+        this.lines = lines;
+    }
+
+    /**
+     * Beginnt die Aufzeichnung eines neuen Spiels.
+     *
+     * @param seed     Startwert der Zufallsquelle ({@link GameRandom#getInitialSeed()})
+     * @param heroName eingegebener Name des Helden, unverändert
+     * @return leere Aufzeichnung
+     */
+    public static GameRecording newGame(long seed, String heroName) {
+        return new GameRecording(seed, heroName, null, new String[64]);
+    }
+
+    /**
+     * Beginnt die Aufzeichnung eines geladenen Spiels mit dessen aktuellem
+     * Stand als Anfang.
+     *
+     * @param game geladenes Spiel
+     * @return leere Aufzeichnung
+     */
+    public static GameRecording fromSnapshot(EscapeGame game) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try {
+            SaveGameCodec.write(game, bytes);
+        } catch (IOException ex) {
+            // ByteArrayOutputStream wirft keine IOException
+            throw new IllegalStateException(ex);
+        }
+        return new GameRecording(game.getRandom().getInitialSeed(), null, bytes.toByteArray(), new String[64]);
+    }
+
+    /**
+     * Hängt eine gelesene Zeile an.
+     *
+     * @param line Zeile ohne Zeilenumbruch
+     */
+    public void add(String line) {
+        if (lineCount == lines.length) {
+            lines = Arrays.copyOf(lines, lines.length * 2);
+        }
+        lines[lineCount++] = line;
+    }
+
+    /**
+     * Hält den Stand des Spiels am Ende der Aufzeichnung fest.
+     *
+     * @param game aufgezeichnetes Spiel
+     */
+    public void finish(EscapeGame game) {
+        Hero hero = game.getHero();
+        this.outcome = game.getOutcome();
+        this.rounds = game.getCurrentRound();
+        this.healthPoints = hero != null ? hero.getHealthPoints() : 0;
+        this.experiencePoints = hero != null ? hero.getExperiencePoints() : 0;
+    }
+
+    /**
+     * Prüft, ob ein nachgespieltes Spiel beim selben Stand endet wie die
+     * Aufzeichnung.
+     *
+     * @param game nachgespieltes Spiel
+     * @return wahr, wenn Ausgang, Runde, Lebens- und Erfahrungspunkte übereinstimmen
+     */
+    public boolean matches(EscapeGame game) {
+        Hero hero = game.getHero();
+        return game.getOutcome() == outcome && game.getCurrentRound() == rounds
+                && (hero != null ? hero.getHealthPoints() : 0) == healthPoints
+                && (hero != null ? hero.getExperiencePoints() : 0) == experiencePoints;
+    }
+
+    /**
+     * Erstellt das Spiel am Anfang der Aufzeichnung.
+     *
+     * @param player Quelle der Spielerentscheidungen
+     * @param out    Ziel der Spielausgaben
+     * @return neues Spiel mit Held bzw. geladener Spielstand
+     * @throws IOException wenn der Spielstand nicht gelesen werden kann
+     */
+    public EscapeGame startGame(PlayerStrategy player, GameOutput out) throws IOException {
+        if (snapshot != null) {
+            return SaveGameCodec.read(new ByteArrayInputStream(snapshot), player, out);
+        }
+        EscapeGame game = new EscapeGame(player, out, new GameRandom(seed));
+        game.run(heroName);
+        return game;
+    }
+
+    /**
+     * @return neue Eingabe, die die aufgezeichneten Zeilen der Reihe nach liefert
+     */
+    public Playback playback() {
+        return new Playback();
+    }
+
+    /**
+     * Schreibt die Aufzeichnung. Name und Zeilen werden mit ihrer Länge in
+     * UTF-8 geschrieben und dürfen daher beliebig lang sein.
+     *
+     * @param out Ziel
+     * @throws IOException bei Schreibfehlern
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeLong(seed);
+        if (snapshot != null) {
+            out.writeByte(SNAPSHOT);
+            out.writeInt(snapshot.length);
+            out.write(snapshot);
+        } else {
+            out.writeByte(NEW_GAME);
+            writeString(out, heroName);
+        }
+        out.writeByte(outcome.ordinal());
+        out.writeInt(rounds);
+        out.writeInt(healthPoints);
+        out.writeInt(experiencePoints);
+        out.writeInt(lineCount);
+        for (int i = 0; i < lineCount; i++) {
+            writeString(out, lines[i]);
+        }
+    }
+
+    /**
+     * Liest eine mit {@link #write(DataOutput)} geschriebene Aufzeichnung.
+     *
+     * @param in      Quelle
+     * @param version Version des Archivs; Version 1 schrieb Name und Zeilen mit {@code writeUTF}
+     * @param limit   Größe des Eintrags in Bytes; keine Länge darin kann größer sein
+     * @return gelesene Aufzeichnung
+     * @throws IOException bei Lesefehlern, unbekanntem Format oder beschädigtem Eintrag
+     */
+    public static GameRecording read(DataInput in, int version, int limit) throws IOException {
+        long seed = in.readLong();
+        byte kind = in.readByte();
+        GameRecording recording;
+        if (kind == SNAPSHOT) {
+            byte[] snapshot = new byte[checkLength(in.readInt(), limit)];
+            in.readFully(snapshot);
+            recording = new GameRecording(seed, null, snapshot, null);
+        } else if (kind == NEW_GAME) {
+            recording = new GameRecording(seed, readString(in, version, limit), null, null);
+        } else {
+            throw new IOException("Unknown recording start " + kind);
+        }
+        recording.outcome = GameOutcome.fromOrdinal(in.readByte());
+        recording.rounds = in.readInt();
+        recording.healthPoints = in.readInt();
+        recording.experiencePoints = in.readInt();
+        recording.lineCount = checkLength(in.readInt(), limit);
+        recording.lines = new String[Math.max(recording.lineCount, 1)];
+        for (int i = 0; i < recording.lineCount; i++) {
+            recording.lines[i] = readString(in, version, limit);
+        }
+        return recording;
+    }
+
+    /**
+     * @param out   Ziel
+     * @param value Text
+     * @throws IOException bei Schreibfehlern
+     */
+    private static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * @param in      Quelle
+     * @param version Version des Archivs
+     * @param limit   Größe des Eintrags in Bytes
+     * @return gelesener Text
+     * @throws IOException bei Lesefehlern oder beschädigter Länge
+     */
+    private static String readString(DataInput in, int version, int limit) throws IOException {
+        if (version == 1) {
+            return in.readUTF();
+        }
+        byte[] bytes = new byte[checkLength(in.readInt(), limit)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @param length gelesene Länge oder Anzahl
+     * @param limit  Größe des Eintrags in Bytes
+     * @return die Länge, wenn sie in den Eintrag passt
+     * @throws IOException wenn die Länge negativ oder größer als der Eintrag ist
+     */
+    private static int checkLength(int length, int limit) throws IOException {
+        if (length < 0 || length > limit) {
+            throw new IOException("Damaged recording: length " + length + " in an entry of " + limit + " bytes");
+        }
+        return length;
+    }
+
+    /**
+     * @return Startwert der Zufallsquelle
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return eingegebener Name des Helden oder null bei einem geladenen Spielstand
+     */
+    public String getHeroName() {
+        return heroName;
+    }
+
+    /**
+     * @return wahr, wenn die Aufzeichnung mit einem geladenen Spielstand beginnt
+     */
+    public boolean hasSnapshot() {
+        return snapshot != null;
+    }
+
+    /**
+     * @return Anzahl der aufgezeichneten Zeilen
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * @param index Nummer der Zeile ab 0
+     * @return aufgezeichnete Zeile
+     */
+    public String getLine(int index) {
+        if (index < 0 || index >= lineCount) {
+            throw new IndexOutOfBoundsException("Line " + index + " of " + lineCount);
+        }
+        return lines[index];
+    }
+
+    /**
+     * @return Ausgang am Ende der Aufzeichnung
+     */
+    public GameOutcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * @return Runde am Ende der Aufzeichnung
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
+    @Override
+    public String toString() {
+        return (heroName != null ? heroName : "loaded game") + " (seed " + seed + "): " + outcome
+                + " after " + rounds + " rounds, " + healthPoints + " HP, " + experiencePoints + " XP, "
+                + lineCount + " inputs";
+    }
+
+    /**
+     * Eingabe, die die aufgezeichneten Zeilen der Reihe nach liefert.
+     */
+    public final class Playback implements GameInput {
+        /**
+         * Nummer der nächsten Zeile.
+         */
+        private int next;
+
+        /**
+         * @return wahr, wenn noch Zeilen übrig sind
+         */
+        public boolean hasNext() {
+            return next < lineCount;
+        }
+
+        @Override
+        public String readLine() {
+            if (next >= lineCount) {
+                throw new UncheckedIOException(new EOFException("End of recording after " + lineCount + " inputs"));
+            }
+            return lines[next++];
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package app;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TCP-Server, der viele Spiele gleichzeitig anbietet.
+ *
+ * Jede Verbindung ist eine eigene Sitzung mit eigener {@link EscapeApp},
+ * eigenem Spieler und eigener Ausgabe. Alle Sitzungen teilen sich nur den
+ * Slot-Speicher. Jede Sitzung läuft in einem eigenen Thread; wenn die
+ * Laufzeitumgebung virtuelle Threads kennt (ab Java 21), werden diese
+ * verwendet, sonst Plattform-Threads mit kleinem Stack.
+ *
+ * Der Server nimmt standardmäßig nur Verbindungen vom eigenen Rechner an, da
+ * jeder Spieler alle Slots lesen, überschreiben und löschen kann. Andere
+ * Adressen müssen ausdrücklich mit {@code --bind} gewählt werden.
+ *
+ * Aufruf: {@code java app.GameServer [Port] [Statistik-Intervall in Sekunden] [--bind Adresse]},
+ * danach z. B. {@code nc localhost 4242}.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class GameServer {
+    /**
+     * Standard-Port des Servers.
+     */
+    public static final int DEFAULT_PORT = 4242;
+    /**
+     * Stackgröße der Plattform-Threads, falls keine virtuellen Threads verfügbar sind.
+     */
+    private static final long PLATFORM_THREAD_STACK_SIZE = 256 * 1024;
+    /**
+     * Puffergröße pro Sitzung und Richtung in Zeichen bzw. Bytes.
+     */
+    private static final int SESSION_BUFFER_SIZE = 1024;
+
+    /**
+     * Port, auf dem Verbindungen angenommen werden.
+     */
+    private final int port;
+    /**
+     * Adresse, auf der Verbindungen angenommen werden.
+     */
+    private final InetAddress bindAddress;
+    /**
+     * Gemeinsamer Speicher der Spielstände (null, wenn nicht verfügbar).
+     */
+    private final SaveSlotStore saveStore;
+    /**
+     * Gemeinsame Bestenliste (null, wenn nicht verfügbar).
+     */
+    private final Leaderboard leaderboard;
+    /**
+     * Gemeinsames Archiv der Aufzeichnungen (null, wenn nicht aufgezeichnet wird).
+     */
+    private final RecordingArchive archive;
+    /**
+     * Führt die Sitzungen aus.
+     */
+    private final ExecutorService sessions;
+    /**
+     * Anzahl aktiver Sitzungen.
+     */
+    private final AtomicInteger activeSessions = new AtomicInteger();
+    /**
+     * Anzahl aller bisher angenommenen Sitzungen.
+     */
+    private final AtomicLong totalSessions = new AtomicLong();
+
+    /**
+     * Erstellt den Server.
+     *
+     * @param port        Port, auf dem Verbindungen angenommen werden
+     * @param bindAddress Adresse, auf der Verbindungen angenommen werden
+     *                    (z. B. {@link InetAddress#getLoopbackAddress()})
+     * @param saveStore   gemeinsamer Speicher der Spielstände oder null
+     * @param leaderboard gemeinsame Bestenliste oder null
+     * @param archive     gemeinsames Archiv der Aufzeichnungen oder null
+     */
+    public GameServer(int port, InetAddress bindAddress, SaveSlotStore saveStore, Leaderboard leaderboard,
+            RecordingArchive archive) {
+        this.port = port;
+        this.bindAddress = bindAddress;
+        this.saveStore = saveStore;
+        this.leaderboard = leaderboard;
+        this.archive = archive;
+        this.sessions = newSessionExecutor();
+    }
+
+    /**
+     * Startet den Server.
+     *
+     * @param args [Port] [Statistik-Intervall in Sekunden, 0 = aus] [record, um jedes Spiel
+     *             in {@link EscapeApp#RECORDINGS_FILE_NAME} aufzuzeichnen], optional
+     *             {@code --bind <Adresse>} (z. B. {@code 0.0.0.0}) statt nur lokaler Verbindungen
+     * @throws IOException wenn der Port nicht geöffnet werden kann
+     */
+    public static void main(String[] args) throws IOException {
+        InetAddress bindAddress = InetAddress.getLoopbackAddress();
+        List<String> positional = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if ("--bind".equals(args[i]) && i + 1 < args.length) {
+                bindAddress = InetAddress.getByName(args[++i]);
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        int port = positional.size() > 0 ? Integer.parseInt(positional.get(0)) : DEFAULT_PORT;
+        int statsSeconds = positional.size() > 1 ? Integer.parseInt(positional.get(1)) : 10;
+        boolean record = positional.size() > 2 && "record".equals(positional.get(2));
+
+        SaveSlotStore saveStore = null;
+        try {
+            saveStore = new SaveSlotStore(new File(EscapeApp.SAVE_STORE_FILE_NAME));
+        } catch (IOException ex) {
+            System.err.println("Save games are not available: " + ex.getMessage());
+        }
+        Leaderboard leaderboard = null;
+        try {
+            leaderboard = new Leaderboard(Paths.get(EscapeApp.LEADERBOARD_DIRECTORY_NAME));
+        } catch (IOException ex) {
+            System.err.println("The leaderboard is not available: " + ex.getMessage());
+        }
+        RecordingArchive archive = null;
+        if (record) {
+            try {
+                archive = new RecordingArchive(Paths.get(EscapeApp.RECORDINGS_FILE_NAME));
+            } catch (IOException ex) {
+                System.err.println("Games are not recorded: " + ex.getMessage());
+            }
+        }
+
+        GameMetrics.registerMBeans();
+        GameServer server = new GameServer(port, bindAddress, saveStore, leaderboard, archive);
+        if (statsSeconds > 0) {
+            server.startStatsPrinter(statsSeconds * 1000L);
+        }
+        server.serve();
+    }
+
+    /**
+     * Nimmt Verbindungen an, bis der Prozess beendet wird.
+     *
+     * @throws IOException wenn der Port nicht geöffnet werden kann
+     */
+    public void serve() throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(port, 1024, bindAddress)) {
+            System.out.println("HTW escape server listening on " + bindAddress.getHostAddress() + " port " + port
+                    + (isVirtual() ? " (virtual threads)" : " (platform threads)"));
+            while (true) {
+                Socket socket = serverSocket.accept();
+                totalSessions.incrementAndGet();
+                sessions.execute(() -> runSession(socket));
+            }
+        } finally {
+            sessions.shutdown();
+        }
+    }
+
+    /**
+     * Führt eine Sitzung aus, bis der Spieler beendet oder die Verbindung abbricht.
+     *
+     * @param socket Verbindung des Spielers
+     */
+    private void runSession(Socket socket) {
+        activeSessions.incrementAndGet();
+        try (socket) {
+            socket.setTcpNoDelay(true);
+            new EscapeApp(ReaderInput.forSocket(socket, SESSION_BUFFER_SIZE),
+                    WriterOutput.forSocket(socket, SESSION_BUFFER_SIZE), saveStore, leaderboard, archive).run();
+        } catch (UncheckedIOException | IOException ex) {
+            // Verbindung vom Spieler geschlossen
+        } finally {
+            activeSessions.decrementAndGet();
+        }
+    }
+
+    /**
+     * Gibt in festen Abständen die Anzahl der Sitzungen, den belegten Heap
+     * und die {@link GameMetrics} aus.
+     *
+     * @param intervalMillis Abstand der Ausgaben in Millisekunden
+     */
+    private void startStatsPrinter(long intervalMillis) {
+        Thread printer = new Thread(() -> {
+            Runtime runtime = Runtime.getRuntime();
+            while (true) {
+                try {
+                    Thread.sleep(intervalMillis);
+                } catch (InterruptedException ex) {
+                    return;
+                }
+                long usedBytes = runtime.totalMemory() - runtime.freeMemory();
+                int active = activeSessions.get();
+                System.out.printf("Sessions: %d active, %d total, heap %d MB (%d KB per session)%n",
+                        active, totalSessions.get(), usedBytes >> 20,
+                        active == 0 ? 0 : (usedBytes >> 10) / active);
+                GameMetrics.print(System.out);
+            }
+        }, "server-stats");
+        printer.setDaemon(true);
+        printer.start();
+    }
+
+    /**
+     * @return Anzahl aktiver Sitzungen
+     */
+    public int getActiveSessions() {
+        return activeSessions.get();
+    }
+
+    /**
+     * @return wahr, wenn die Sitzungen in virtuellen Threads laufen
+     */
+    private boolean isVirtual() {
+        return !(sessions instanceof ThreadPoolExecutor);
+    }
+
+    /**
+     * Erstellt einen Executor mit einem virtuellen Thread pro Sitzung. Da das
+     * Projekt noch mit Java 17 übersetzt wird, geschieht das per Reflection;
+     * fehlen virtuelle Threads, werden Plattform-Threads mit kleinem Stack
+     * verwendet.
+     *
+     * @return Executor für die Sitzungen
+     */
+    private static ExecutorService newSessionExecutor() {
+        try {
+            return (ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null);
+        } catch (ReflectiveOperationException ex) {
+            AtomicInteger count = new AtomicInteger();
+            ThreadFactory factory = task -> {
+                Thread thread = new Thread(null, task, "session-" + count.incrementAndGet(),
+                        PLATFORM_THREAD_STACK_SIZE);
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newCachedThreadPool(factory);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package app;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Verteilung von Dauern in Nanosekunden, z. B. für Speichern und Laden.
+ *
+ * Die Eimer sind logarithmisch mit vier Unterteilungen je Zweierpotenz;
+ * ein Quantil ist damit auf etwa 25 % genau. Jeder Eimer ist ein
+ * {@link LongAdder}, Messungen aus vielen Threads blockieren sich also
+ * nicht gegenseitig. Gelesen wird ohne Sperre; während gleichzeitig
+ * gemessen wird, passen Anzahl und Eimer nicht immer exakt zusammen.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public final class LatencyHistogram implements LatencyHistogramMBean {
+    /**
+     * Unterteilungen je Zweierpotenz als Bits.
+     */
+    private static final int SUB_BITS = 2;
+    /**
+     * Unterteilungen je Zweierpotenz.
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    /**
+     * Anzahl der Eimer für alle nicht negativen long-Werte.
+     */
+    private static final int BUCKETS = (Long.SIZE - SUB_BITS) * SUB_BUCKETS;
+
+    /**
+     * Name für Ausgaben und JMX.
+     */
+    private final String name;
+    /**
+     * Anzahl der Messungen je Eimer.
+     */
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    /**
+     * Anzahl aller Messungen.
+     */
+    private final LongAdder count = new LongAdder();
+    /**
+     * Summe aller Dauern.
+     */
+    private final LongAdder sum = new LongAdder();
+    /**
+     * Längste Dauer.
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * @param name Name für Ausgaben und JMX
+     */
+    public LatencyHistogram(String name) {
+        this.name = name;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Nimmt eine Dauer auf; negative Werte zählen als 0.
+     *
+     * @param nanos Dauer in Nanosekunden
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets[bucket(value)].increment();
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * @param value nicht negative Dauer
+     * @return Nummer des Eimers
+     */
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * @param bucket Nummer des Eimers
+     * @return größte Dauer, die in den Eimer fällt
+     */
+    static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+
+    /**
+     * Liefert eine obere Schranke des Quantils.
+     *
+     * @param quantile Quantil zwischen 0 und 1
+     * @return Dauer in Nanosekunden (höchstens die längste gemessene)
+     */
+    public long quantileNanos(double quantile) {
+        long total = 0;
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * @return Name für Ausgaben und JMX
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        long n = count.sum();
+        return n == 0 ? 0 : sum.sum() / 1e6 / n;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return quantileNanos(0.5) / 1e6;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return quantileNanos(0.99) / 1e6;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return max.get() / 1e6;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s n=%d mean=%.3fms p50=%.3fms p99=%.3fms max=%.3fms",
+                name, getCount(), getMeanMillis(), getP50Millis(), getP99Millis(), getMaxMillis());
+    }
+}
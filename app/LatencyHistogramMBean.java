@@ -0,0 +1,35 @@
+package app;
+
+/**
+ * JMX-Sicht auf ein {@link LatencyHistogram}. Alle Zeiten in Millisekunden.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public interface LatencyHistogramMBean {
+
+    /**
+     * @return Anzahl der Messungen
+     */
+    long getCount();
+
+    /**
+     * @return mittlere Dauer
+     */
+    double getMeanMillis();
+
+    /**
+     * @return Median der Dauer
+     */
+    double getP50Millis();
+
+    /**
+     * @return 99-%-Quantil der Dauer
+     */
+    double getP99Millis();
+
+    /**
+     * @return längste Dauer
+     */
+    double getMaxMillis();
+}
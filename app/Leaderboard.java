@@ -0,0 +1,1503 @@
+package app;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.LockSupport;
+
+import model.Hero;
+
+/**
+ * Bestenliste aller beendeten Spiele in einem Verzeichnis.
+ *
+ * Sortiert wird nach Ausgang (gewonnen vor verloren), dann nach
+ * Erfahrungspunkten und zuletzt nach möglichst wenigen Runden. Die Liste ist
+ * wie ein LSM-Baum aufgebaut:
+ * <pre>
+ * pending.log   neueste Ergebnisse in Eingangsreihenfolge (höchstens memtableCapacity)
+ * *.run         unveränderliche, absteigend sortierte Läufe älterer Ergebnisse
+ * lock          Sperrdatei, damit nur ein Prozess die Liste öffnet
+ * </pre>
+ * Neue Ergebnisse werden an das Log angehängt und zusätzlich sortiert im
+ * Speicher gehalten. Ist dieser Teil voll, wird er als Lauf geschrieben;
+ * Hintergrund-Threads verschmelzen je MERGE_FAN_IN benachbarte Läufe derselben
+ * Größenstufe (ein Faktor MERGE_FAN_IN je Stufe). Es gibt daher nur wenige
+ * Läufe je Stufe, und jedes Ergebnis wird nur einmal je Stufe umkopiert.
+ *
+ * Ein Lauf besteht aus Kopf, Einträgen (RECORD_SIZE Bytes, absteigend nach
+ * Wertung) und einem Namensindex (INDEX_SIZE Bytes, nach Hash des Namens).
+ * Läufe werden in den Speicher abgebildet und von Abfragen nie ganz gelesen: Die besten
+ * k Einträge stehen am Anfang jedes Laufs, der Rang einer Wertung ist eine
+ * binäre Suche je Lauf, der beste Eintrag eines Spielers eine binäre Suche
+ * im Namensindex.
+ *
+ * Jeder Eintrag hat eine fortlaufende Nummer; ein Lauf deckt immer einen
+ * zusammenhängenden Nummernbereich ab. Nach einem Absturz werden Läufe, deren
+ * Bereich in einem anderen enthalten ist, und bereits geschriebene Einträge
+ * des Logs verworfen. Beim Öffnen wird jeder Lauf einmal geprüft; ein
+ * beschädigter Lauf wird als {@code *.run.damaged} beiseitegelegt.
+ *
+ * Schreibende Methoden sind synchronisiert; Abfragen halten die Sperre nur
+ * für den Teil im Speicher, damit sich viele Sitzungen eine Liste teilen
+ * können.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class Leaderboard implements Closeable {
+    /**
+     * Kennung am Anfang eines Laufs ("HTWL").
+     */
+    private static final int MAGIC = 0x4854574C;
+    /**
+     * Version des Dateiformats.
+     */
+    private static final short VERSION = 1;
+    /**
+     * Standardanzahl der Ergebnisse im Speicher, bevor ein Lauf geschrieben wird.
+     */
+    public static final int DEFAULT_MEMTABLE_CAPACITY = 16384;
+    /**
+     * Maximale Länge eines Namens in Bytes (UTF-8); längere Namen werden gekürzt.
+     */
+    public static final int MAX_NAME_BYTES = 38;
+
+    /**
+     * Größe des Kopfs eines Laufs in Bytes.
+     */
+    private static final int HEADER_SIZE = 64;
+    /**
+     * Größe eines Eintrags in Bytes.
+     */
+    private static final int RECORD_SIZE = 64;
+    /**
+     * Größe eines Eintrags im Namensindex in Bytes.
+     */
+    private static final int INDEX_SIZE = 32;
+    /**
+     * Größe eines abgebildeten Abschnitts als Zweierpotenz (1 GiB). Einträge
+     * liegen nie auf einer Abschnittsgrenze.
+     */
+    private static final int CHUNK_BITS = 30;
+    /**
+     * Anzahl benachbarter Läufe gleicher Größenstufe, die zusammen
+     * verschmolzen werden.
+     */
+    private static final int MERGE_FAN_IN = 4;
+    /**
+     * Größe des Schreibpuffers für Läufe.
+     */
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+
+    // Positionen im Kopf eines Laufs
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_COUNT = 8;
+    private static final int HEADER_FIRST_SEQUENCE = 16;
+    private static final int HEADER_LAST_SEQUENCE = 24;
+
+    // Positionen innerhalb eines Eintrags (auch im Log)
+    private static final int RECORD_SCORE = 0;
+    private static final int RECORD_SEQUENCE = 8;
+    private static final int RECORD_TIMESTAMP = 16;
+    private static final int RECORD_OUTCOME = 24;
+    private static final int RECORD_NAME_LENGTH = 25;
+    private static final int RECORD_NAME = 26;
+
+    // Positionen innerhalb eines Eintrags im Namensindex
+    private static final int INDEX_HASH = 0;
+    private static final int INDEX_SCORE = 8;
+    private static final int INDEX_SEQUENCE = 16;
+
+    /**
+     * Name des Logs im Verzeichnis.
+     */
+    private static final String LOG_FILE_NAME = "pending.log";
+    /**
+     * Name der Sperrdatei im Verzeichnis.
+     */
+    private static final String LOCK_FILE_NAME = "lock";
+    /**
+     * Endung eines Laufs.
+     */
+    private static final String RUN_SUFFIX = ".run";
+    /**
+     * Endung eines noch nicht fertig geschriebenen Laufs.
+     */
+    private static final String TEMP_SUFFIX = ".tmp";
+    /**
+     * Endung eines beim Öffnen als beschädigt erkannten, beiseitegelegten Laufs.
+     */
+    private static final String DAMAGED_SUFFIX = ".damaged";
+
+    /**
+     * Reihenfolge der Bestenliste: höhere Wertung zuerst, bei gleicher
+     * Wertung das frühere Ergebnis.
+     */
+    private static final Comparator<Entry> RANKING = (a, b) -> a.score != b.score
+            ? Long.compare(b.score, a.score) : Long.compare(a.sequence, b.sequence);
+    /**
+     * Reihenfolge des Namensindex: nach Hash, dann wie die Bestenliste.
+     */
+    private static final Comparator<Entry> BY_NAME = (a, b) -> a.hash != b.hash
+            ? Long.compare(a.hash, b.hash) : RANKING.compare(a, b);
+
+    /**
+     * Verzeichnis der Bestenliste.
+     */
+    private final Path directory;
+    /**
+     * Sperrdatei, solange die Liste geöffnet ist.
+     */
+    private final FileChannel lockFile;
+    /**
+     * Sperre gegen einen zweiten Prozess.
+     */
+    private final FileLock lock;
+    /**
+     * Log der Ergebnisse im Speicher.
+     */
+    private final FileChannel log;
+    /**
+     * Anzahl der Ergebnisse im Speicher, bevor ein Lauf geschrieben wird.
+     */
+    private final int memtableCapacity;
+    /**
+     * Ergebnisse, die noch in keinem Lauf stehen, sortiert wie die Bestenliste.
+     */
+    private Entry[] memtable;
+    /**
+     * Anzahl belegter Plätze in {@link #memtable}.
+     */
+    private int memtableSize;
+    /**
+     * Bestes Ergebnis je Name in {@link #memtable}.
+     */
+    private final Map<String, Entry> memtableBest = new HashMap<>();
+    /**
+     * Nummer des nächsten Ergebnisses.
+     */
+    private long nextSequence;
+    /**
+     * Anzahl geschriebener Läufe aus dem Speicher; Abfragen erkennen daran,
+     * dass Ergebnisse vom Speicher in einen Lauf gewandert sind.
+     */
+    private long flushes;
+    /**
+     * Läufe, älteste zuerst. Wird nur unter der Sperre ersetzt, nie verändert.
+     */
+    private volatile Run[] runs;
+    /**
+     * Threads, die Läufe verschmelzen. Zwei, damit kleine Läufe nicht warten,
+     * während große verschmolzen werden.
+     */
+    private final Thread[] mergers = new Thread[2];
+    /**
+     * Läufe, die gerade verschmolzen werden (geschützt durch die Sperre).
+     */
+    private final Set<Run> merging = Collections.newSetFromMap(new IdentityHashMap<>());
+    /**
+     * Wird beim Schließen auf falsch gesetzt.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Öffnet die Bestenliste mit der Standardgröße für den Speicherteil.
+     *
+     * @param directory Verzeichnis der Bestenliste; wird angelegt, falls es fehlt
+     * @throws IOException wenn das Verzeichnis nicht gelesen werden kann oder
+     *                     die Liste in einem anderen Prozess geöffnet ist
+     */
+    public Leaderboard(Path directory) throws IOException {
+        this(directory, DEFAULT_MEMTABLE_CAPACITY);
+    }
+
+    /**
+     * Öffnet die Bestenliste.
+     *
+     * @param directory        Verzeichnis der Bestenliste; wird angelegt, falls es fehlt
+     * @param memtableCapacity Anzahl der Ergebnisse im Speicher, bevor ein Lauf geschrieben wird
+     * @throws IOException wenn das Verzeichnis nicht gelesen werden kann oder
+     *                     die Liste in einem anderen Prozess geöffnet ist
+     */
+    public Leaderboard(Path directory, int memtableCapacity) throws IOException {
+        if (memtableCapacity < 1) {
+            throw new IllegalArgumentException("memtableCapacity must be positive: " + memtableCapacity);
+        }
+        this.directory = directory;
+        this.memtableCapacity = memtableCapacity;
+        Files.createDirectories(directory);
+        this.lockFile = FileChannel.open(directory.resolve(LOCK_FILE_NAME),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            this.lock = tryLock(lockFile);
+            if (lock == null) {
+                throw new IOException("Leaderboard is already open: " + directory);
+            }
+            this.runs = openRuns();
+            this.log = FileChannel.open(directory.resolve(LOG_FILE_NAME),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            replayLog();
+        } catch (IOException | RuntimeException ex) {
+            lockFile.close();
+            throw ex;
+        }
+        for (int i = 0; i < mergers.length; i++) {
+            mergers[i] = new Thread(this::mergeLoop, "leaderboard-merge-" + i);
+            mergers[i].setDaemon(true);
+            mergers[i].start();
+        }
+    }
+
+    /**
+     * @param lockFile Sperrdatei
+     * @return Sperre oder null, wenn die Liste schon geöffnet ist
+     * @throws IOException wenn die Sperrdatei nicht gesperrt werden kann
+     */
+    private static FileLock tryLock(FileChannel lockFile) throws IOException {
+        try {
+            return lockFile.tryLock();
+        } catch (OverlappingFileLockException ex) {
+            // in diesem Prozess bereits geöffnet
+            return null;
+        }
+    }
+
+    /**
+     * Liest alle Läufe und entfernt halb geschriebene sowie bereits
+     * verschmolzene Läufe eines Absturzes.
+     *
+     * @return Läufe, älteste zuerst
+     * @throws IOException wenn ein Lauf nicht gelesen werden kann
+     */
+    private Run[] openRuns() throws IOException {
+        List<Run> found = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    Files.delete(file);
+                } else if (name.endsWith(RUN_SUFFIX)) {
+                    Run run = openChecked(file);
+                    if (run != null) {
+                        found.add(run);
+                    }
+                }
+            }
+        }
+        found.sort(Comparator.comparingLong((Run run) -> run.firstSequence)
+                .thenComparing(Comparator.comparingLong((Run run) -> run.lastSequence).reversed()));
+        List<Run> result = new ArrayList<>();
+        for (Run run : found) {
+            Run previous = result.isEmpty() ? null : result.get(result.size() - 1);
+            if (previous != null && run.lastSequence <= previous.lastSequence) {
+                // schon im vorherigen, größeren Lauf enthalten
+                Files.deleteIfExists(run.file);
+            } else if (previous != null && run.firstSequence <= previous.lastSequence) {
+                throw new IOException("Overlapping leaderboard runs: " + previous.file + ", " + run.file);
+            } else {
+                result.add(run);
+            }
+        }
+        return result.toArray(new Run[0]);
+    }
+
+    /**
+     * Öffnet einen Lauf und prüft alle Einträge. Ein beschädigter Lauf wird
+     * mit der Endung {@link #DAMAGED_SUFFIX} beiseitegelegt, damit die übrigen
+     * Ergebnisse verfügbar bleiben und Abfragen nicht an ihm scheitern.
+     *
+     * @param file Datei des Laufs
+     * @return geöffneter Lauf oder null, wenn er beschädigt ist
+     * @throws IOException wenn der beschädigte Lauf nicht beiseitegelegt werden kann
+     */
+    private static Run openChecked(Path file) throws IOException {
+        try {
+            Run run = Run.open(file);
+            run.check();
+            return run;
+        } catch (IOException ex) {
+            Path damaged = file.resolveSibling(file.getFileName() + DAMAGED_SUFFIX);
+            Files.move(file, damaged, StandardCopyOption.REPLACE_EXISTING);
+            System.err.println(ex.getMessage() + ", moved to " + damaged.getFileName());
+            return null;
+        }
+    }
+
+    /**
+     * Übernimmt die Ergebnisse aus dem Log, die noch in keinem Lauf stehen.
+     * Ein am Ende abgeschnittener Eintrag wird verworfen.
+     *
+     * @throws IOException wenn das Log nicht gelesen werden kann
+     */
+    private void replayLog() throws IOException {
+        long lastInRuns = runs.length == 0 ? 0 : runs[runs.length - 1].lastSequence;
+        long records = log.size() / RECORD_SIZE;
+        List<Entry> pending = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        for (long i = 0; i < records; i++) {
+            buffer.clear();
+            while (buffer.hasRemaining()) {
+                if (log.read(buffer, i * RECORD_SIZE + buffer.position()) < 0) {
+                    throw new IOException("Unexpected end of leaderboard log");
+                }
+            }
+            Entry entry = Entry.read(buffer, 0);
+            if (entry.sequence > lastInRuns) {
+                pending.add(entry);
+            }
+        }
+        this.nextSequence = lastInRuns + 1;
+        this.memtable = new Entry[Math.max(memtableCapacity, pending.size())];
+        for (Entry entry : pending) {
+            nextSequence = Math.max(nextSequence, entry.sequence + 1);
+            insert(entry);
+        }
+        if (pending.size() != records || log.size() != records * RECORD_SIZE) {
+            rewriteLog();
+        }
+        if (memtableSize >= memtableCapacity) {
+            flush();
+        }
+    }
+
+    /**
+     * Schreibt das Log neu mit genau den Ergebnissen im Speicher.
+     *
+     * @throws IOException bei Schreibfehlern
+     */
+    private void rewriteLog() throws IOException {
+        log.truncate(0);
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        for (int i = 0; i < memtableSize; i++) {
+            buffer.clear();
+            memtable[i].write(buffer, 0);
+            writeFully(log, buffer, (long) i * RECORD_SIZE);
+        }
+        log.force(false);
+    }
+
+    /**
+     * Trägt das Ergebnis eines beendeten Spiels ein.
+     *
+     * @param game beendetes Spiel
+     * @return neuer Eintrag
+     * @throws IOException wenn das Log nicht geschrieben werden kann
+     */
+    public Entry record(EscapeGame game) throws IOException {
+        Hero hero = game.getHero();
+        if (hero == null) {
+            throw new IllegalArgumentException("Game has no hero");
+        }
+        return record(hero.getName(), hero.getExperiencePoints(), game.getCurrentRound(), game.getOutcome());
+    }
+
+    /**
+     * Trägt ein Ergebnis ein.
+     *
+     * @param name             Name des Helden (wird auf {@link #MAX_NAME_BYTES} gekürzt)
+     * @param experiencePoints Erfahrungspunkte am Ende des Spiels
+     * @param rounds           gespielte Runden
+     * @param outcome          Ausgang des Spiels (nicht {@link GameOutcome#RUNNING})
+     * @return neuer Eintrag
+     * @throws IOException wenn das Log nicht geschrieben werden kann
+     */
+    public synchronized Entry record(String name, int experiencePoints, int rounds, GameOutcome outcome)
+            throws IOException {
+        if (outcome == GameOutcome.RUNNING) {
+            throw new IllegalArgumentException("Game is still running");
+        }
+        if (!running) {
+            throw new IOException("Leaderboard is closed");
+        }
+        Entry entry = new Entry(encodeName(name), score(outcome, experiencePoints, rounds), nextSequence,
+                System.currentTimeMillis(), outcome);
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE);
+        entry.write(buffer, 0);
+        writeFully(log, buffer, (long) memtableSize * RECORD_SIZE);
+        nextSequence++;
+        insert(entry);
+        if (memtableSize >= memtableCapacity) {
+            flush();
+        }
+        return entry;
+    }
+
+    /**
+     * Sortiert ein Ergebnis in den Speicherteil ein.
+     *
+     * @param entry neues Ergebnis
+     */
+    private void insert(Entry entry) {
+        int low = 0;
+        int high = memtableSize;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (RANKING.compare(memtable[middle], entry) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        if (memtableSize == memtable.length) {
+            // nur wenn ein Lauf nicht geschrieben werden konnte
+            memtable = Arrays.copyOf(memtable, memtable.length * 2);
+        }
+        System.arraycopy(memtable, low, memtable, low + 1, memtableSize - low);
+        memtable[low] = entry;
+        memtableSize++;
+        Entry best = memtableBest.get(entry.name);
+        if (best == null || RANKING.compare(entry, best) < 0) {
+            memtableBest.put(entry.name, entry);
+        }
+    }
+
+    /**
+     * Schreibt den Speicherteil als neuen Lauf und leert danach das Log.
+     *
+     * @throws IOException bei Schreibfehlern
+     */
+    private void flush() throws IOException {
+        if (memtableSize == 0) {
+            return;
+        }
+        Entry[] sorted = Arrays.copyOf(memtable, memtableSize);
+        Entry[] byName = sorted.clone();
+        Arrays.sort(byName, BY_NAME);
+        long first = sorted[0].sequence;
+        long last = sorted[0].sequence;
+        for (Entry entry : sorted) {
+            first = Math.min(first, entry.sequence);
+            last = Math.max(last, entry.sequence);
+        }
+        Run run;
+        try (RunWriter writer = new RunWriter(directory, first, last)) {
+            for (Entry entry : sorted) {
+                writer.putRecord(entry);
+            }
+            for (Entry entry : byName) {
+                writer.putIndex(entry.hash, entry.score, entry.sequence);
+            }
+            run = writer.finish();
+        }
+
+        Run[] current = runs;
+        Run[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = run;
+        runs = next;
+        flushes++;
+        Arrays.fill(memtable, 0, memtableSize, null);
+        memtableSize = 0;
+        memtableBest.clear();
+        log.truncate(0);
+        for (Thread merger : mergers) {
+            LockSupport.unpark(merger);
+        }
+    }
+
+    /**
+     * Liefert die besten Ergebnisse.
+     *
+     * @param k Anzahl der gewünschten Ergebnisse
+     * @return höchstens k Ergebnisse, bestes zuerst
+     */
+    public List<Entry> topK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        Run[] snapshot;
+        Entry[] newest;
+        synchronized (this) {
+            snapshot = runs;
+            newest = Arrays.copyOf(memtable, Math.min(k, memtableSize));
+        }
+        // k-Wege-Mischen der Anfänge aller Läufe und des Speicherteils
+        long[] positions = new long[snapshot.length];
+        int newestPosition = 0;
+        List<Entry> result = new ArrayList<>(Math.min(k, 1024));
+        while (result.size() < k) {
+            int bestRun = -1;
+            long bestScore = 0;
+            long bestSequence = 0;
+            for (int r = 0; r < snapshot.length; r++) {
+                if (positions[r] < snapshot[r].count) {
+                    long score = snapshot[r].score(positions[r]);
+                    long sequence = snapshot[r].sequence(positions[r]);
+                    if (bestRun < 0 || score > bestScore || score == bestScore && sequence < bestSequence) {
+                        bestRun = r;
+                        bestScore = score;
+                        bestSequence = sequence;
+                    }
+                }
+            }
+            if (newestPosition < newest.length) {
+                Entry entry = newest[newestPosition];
+                if (bestRun < 0 || entry.score > bestScore
+                        || entry.score == bestScore && entry.sequence < bestSequence) {
+                    result.add(entry);
+                    newestPosition++;
+                    continue;
+                }
+            }
+            if (bestRun < 0) {
+                break;
+            }
+            result.add(snapshot[bestRun].entry(positions[bestRun]++));
+        }
+        return result;
+    }
+
+    /**
+     * Liefert das beste Ergebnis eines Spielers.
+     *
+     * @param name Name des Helden
+     * @return bestes Ergebnis oder null, wenn der Spieler kein Ergebnis hat
+     */
+    public Entry bestOf(String name) {
+        byte[] nameBytes = encodeName(name);
+        String key = new String(nameBytes, StandardCharsets.UTF_8);
+        Run[] snapshot;
+        Entry best;
+        synchronized (this) {
+            snapshot = runs;
+            best = memtableBest.get(key);
+        }
+        return better(best, bestInRuns(snapshot, nameBytes));
+    }
+
+    /**
+     * Liefert den Platz des besten Ergebnisses eines Spielers. Gleiche
+     * Wertungen teilen sich einen Platz.
+     *
+     * @param name Name des Helden
+     * @return Platz ab 1 oder 0, wenn der Spieler kein Ergebnis hat
+     */
+    public long rankOf(String name) {
+        byte[] nameBytes = encodeName(name);
+        String key = new String(nameBytes, StandardCharsets.UTF_8);
+        while (true) {
+            Run[] snapshot;
+            long flushesBefore;
+            Entry best;
+            synchronized (this) {
+                snapshot = runs;
+                flushesBefore = flushes;
+                best = memtableBest.get(key);
+            }
+            best = better(best, bestInRuns(snapshot, nameBytes));
+            if (best == null) {
+                return 0;
+            }
+            long greater = 0;
+            for (Run run : snapshot) {
+                greater += run.countGreater(best.score);
+            }
+            synchronized (this) {
+                // ist der Speicherteil inzwischen in einen Lauf gewandert, neu zählen
+                if (flushes == flushesBefore) {
+                    return 1 + greater + countGreaterInMemtable(best.score);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param score Wertung
+     * @return Anzahl der Ergebnisse im Speicherteil mit höherer Wertung
+     */
+    private int countGreaterInMemtable(long score) {
+        int low = 0;
+        int high = memtableSize;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (memtable[middle].score > score) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @param snapshot  Läufe
+     * @param nameBytes gekürzter Name als UTF-8
+     * @return bestes Ergebnis des Namens in den Läufen oder null
+     */
+    private static Entry bestInRuns(Run[] snapshot, byte[] nameBytes) {
+        long hash = hash(nameBytes);
+        Entry best = null;
+        for (Run run : snapshot) {
+            best = better(best, run.bestOf(nameBytes, hash));
+        }
+        return best;
+    }
+
+    /**
+     * @param a Ergebnis oder null
+     * @param b Ergebnis oder null
+     * @return das bessere der beiden Ergebnisse
+     */
+    private static Entry better(Entry a, Entry b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || RANKING.compare(a, b) <= 0 ? a : b;
+    }
+
+    /**
+     * @return Anzahl aller Ergebnisse
+     */
+    public synchronized long size() {
+        long size = memtableSize;
+        for (Run run : runs) {
+            size += run.count;
+        }
+        return size;
+    }
+
+    /**
+     * @return aktuelle Anzahl der Läufe auf der Festplatte
+     */
+    public int getRunCount() {
+        return runs.length;
+    }
+
+    /**
+     * Verschmilzt Läufe, bis keine Stufe mehr {@link #MERGE_FAN_IN} benachbarte
+     * Läufe hat, und wartet dann auf den nächsten geschriebenen Lauf.
+     */
+    private void mergeLoop() {
+        while (running) {
+            Run[] group = claimGroup();
+            if (group == null) {
+                LockSupport.park(this);
+                continue;
+            }
+            try {
+                Run merged = merge(group);
+                if (merged != null) {
+                    replace(group, merged);
+                }
+            } catch (IOException ex) {
+                System.err.println("Leaderboard merge failed: " + ex.getMessage());
+                LockSupport.park(this);
+            } finally {
+                synchronized (this) {
+                    merging.removeAll(Arrays.asList(group));
+                }
+            }
+        }
+    }
+
+    /**
+     * Sucht {@link #MERGE_FAN_IN} benachbarte Läufe gleicher Stufe, die noch
+     * nicht verschmolzen werden, und reserviert sie.
+     *
+     * @return Läufe, älteste zuerst, oder null, wenn nichts zu tun ist
+     */
+    private synchronized Run[] claimGroup() {
+        Run[] snapshot = runs;
+        // Gruppen benachbarter Läufe gleicher Stufe, kleinste (neueste) zuerst
+        int end = snapshot.length;
+        while (end > 0) {
+            if (merging.contains(snapshot[end - 1])) {
+                end--;
+                continue;
+            }
+            int tier = tier(snapshot[end - 1]);
+            int begin = end - 1;
+            while (begin > 0 && !merging.contains(snapshot[begin - 1]) && tier(snapshot[begin - 1]) == tier) {
+                begin--;
+            }
+            if (end - begin >= MERGE_FAN_IN) {
+                // die ältesten der Gruppe, damit die Stufen von alt nach neu fallen
+                Run[] group = Arrays.copyOfRange(snapshot, begin, begin + MERGE_FAN_IN);
+                merging.addAll(Arrays.asList(group));
+                return group;
+            }
+            end = begin;
+        }
+        return null;
+    }
+
+    /**
+     * @param run Lauf
+     * @return Größenstufe: 0 unter MERGE_FAN_IN vollen Speicherteilen, dann
+     *         eins mehr je Faktor MERGE_FAN_IN
+     */
+    private int tier(Run run) {
+        int tier = 0;
+        for (long size = (long) memtableCapacity * MERGE_FAN_IN; run.count >= size; size *= MERGE_FAN_IN) {
+            tier++;
+        }
+        return tier;
+    }
+
+    /**
+     * Verschmilzt benachbarte Läufe zu einem neuen.
+     *
+     * @param group Läufe, älteste zuerst
+     * @return neuer Lauf oder null, wenn die Liste währenddessen geschlossen wurde
+     * @throws IOException bei Lese- oder Schreibfehlern
+     */
+    private Run merge(Run[] group) throws IOException {
+        Run first = group[0];
+        Run last = group[group.length - 1];
+        try (RunWriter writer = new RunWriter(directory, first.firstSequence, last.lastSequence)) {
+            long[] positions = new long[group.length];
+            long total = 0;
+            for (Run run : group) {
+                total += run.count;
+            }
+            // bei gleicher Wertung gewinnt der ältere Lauf, also die kleinere Nummer
+            for (long written = 0; written < total; written++) {
+                int best = -1;
+                long bestScore = 0;
+                for (int r = 0; r < group.length; r++) {
+                    if (positions[r] < group[r].count) {
+                        long score = group[r].score(positions[r]);
+                        if (best < 0 || score > bestScore) {
+                            best = r;
+                            bestScore = score;
+                        }
+                    }
+                }
+                writer.copyRecord(group[best], positions[best]++);
+                if ((written & 0xFFFF) == 0 && !running) {
+                    return null;
+                }
+            }
+            Arrays.fill(positions, 0);
+            for (long written = 0; written < total; written++) {
+                int best = -1;
+                long bestHash = 0;
+                long bestScore = 0;
+                for (int r = 0; r < group.length; r++) {
+                    if (positions[r] < group[r].count) {
+                        long hash = group[r].indexHash(positions[r]);
+                        long score = group[r].indexScore(positions[r]);
+                        if (best < 0 || hash < bestHash || hash == bestHash && score > bestScore) {
+                            best = r;
+                            bestHash = hash;
+                            bestScore = score;
+                        }
+                    }
+                }
+                long i = positions[best]++;
+                writer.putIndex(bestHash, bestScore, group[best].indexSequence(i));
+            }
+            return writer.finish();
+        }
+    }
+
+    /**
+     * Ersetzt benachbarte Läufe durch ihren verschmolzenen Lauf und löscht
+     * die alten Dateien.
+     *
+     * @param group  verschmolzene Läufe, älteste zuerst
+     * @param merged neuer Lauf
+     * @throws IOException wenn eine alte Datei nicht gelöscht werden kann
+     */
+    private void replace(Run[] group, Run merged) throws IOException {
+        synchronized (this) {
+            Run[] current = runs;
+            List<Run> next = new ArrayList<>(current.length);
+            for (Run run : current) {
+                if (run == group[0]) {
+                    next.add(merged);
+                } else if (!Arrays.asList(group).contains(run)) {
+                    next.add(run);
+                }
+            }
+            runs = next.toArray(new Run[0]);
+        }
+        // laufende Abfragen lesen weiter aus der Abbildung der gelöschten Dateien
+        for (Run run : group) {
+            Files.deleteIfExists(run.file);
+        }
+    }
+
+    /**
+     * Beendet das Verschmelzen und schließt die Liste. Ergebnisse im Speicher
+     * bleiben im Log und werden beim nächsten Öffnen übernommen.
+     *
+     * @throws IOException wenn das Log nicht geschlossen werden kann
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+        }
+        for (Thread merger : mergers) {
+            LockSupport.unpark(merger);
+        }
+        try {
+            for (Thread merger : mergers) {
+                merger.join();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            log.force(false);
+            log.close();
+        } finally {
+            lockFile.close();
+        }
+    }
+
+    /**
+     * Berechnet die Wertung: Bit 62 für gewonnen, darunter die
+     * Erfahrungspunkte und in den unteren 32 Bit die nicht gebrauchten Runden.
+     *
+     * @param outcome          Ausgang des Spiels
+     * @param experiencePoints Erfahrungspunkte
+     * @param rounds           gespielte Runden
+     * @return Wertung, höher ist besser
+     */
+    static long score(GameOutcome outcome, int experiencePoints, int rounds) {
+        long won = outcome == GameOutcome.WON ? 1L << 62 : 0;
+        long experience = Math.min(Math.max(experiencePoints, 0), (1 << 30) - 1);
+        long unusedRounds = 0xFFFFFFFFL - Math.max(rounds, 0);
+        return won | experience << 32 | unusedRounds;
+    }
+
+    /**
+     * Kodiert einen Namen als UTF-8 und kürzt ihn, ohne ein Zeichen zu teilen.
+     *
+     * @param name Name des Helden
+     * @return höchstens {@link #MAX_NAME_BYTES} Bytes
+     */
+    static byte[] encodeName(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_NAME_BYTES) {
+            return bytes;
+        }
+        int length = MAX_NAME_BYTES;
+        while (length > 0 && (bytes[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        return Arrays.copyOf(bytes, length);
+    }
+
+    /**
+     * @param nameBytes Name als UTF-8
+     * @return 64-Bit-Hash des Namens (FNV-1a mit abschließendem Mischen)
+     */
+    static long hash(byte[] nameBytes) {
+        long hash = 0xCBF29CE484222325L;
+        for (byte b : nameBytes) {
+            hash = (hash ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        hash = (hash ^ (hash >>> 33)) * 0xFF51AFD7ED558CCDL;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Schreibt einen Puffer vollständig an eine Position.
+     *
+     * @param channel  Ziel
+     * @param buffer   Daten ab Position 0
+     * @param position Position in der Datei
+     * @throws IOException bei Schreibfehlern
+     */
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * Zeigt die Bestenliste an.
+     *
+     * @param args [Verzeichnis] [k] [Name]
+     * @throws IOException wenn die Liste nicht geöffnet werden kann
+     */
+    public static void main(String[] args) throws IOException {
+        Path directory = Paths.get(args.length > 0 ? args[0] : EscapeApp.LEADERBOARD_DIRECTORY_NAME);
+        int k = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        try (Leaderboard leaderboard = new Leaderboard(directory)) {
+            List<Entry> top = leaderboard.topK(k);
+            System.out.println("Top " + top.size() + " of " + leaderboard.size() + ":");
+            for (int i = 0; i < top.size(); i++) {
+                System.out.printf("%3d. %s%n", i + 1, top.get(i));
+            }
+            if (args.length > 2) {
+                long rank = leaderboard.rankOf(args[2]);
+                System.out.println(rank == 0 ? args[2] + " has no result"
+                        : args[2] + " is on rank " + rank + ": " + leaderboard.bestOf(args[2]));
+            }
+        }
+    }
+
+    /**
+     * Ein Ergebnis der Bestenliste.
+     */
+    public static final class Entry {
+        /**
+         * Anzeige des Zeitpunkts.
+         */
+        private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm")
+                .withZone(ZoneId.systemDefault());
+
+        /**
+         * Name des Helden.
+         */
+        private final String name;
+        /**
+         * Name als UTF-8.
+         */
+        private final byte[] nameBytes;
+        /**
+         * Hash des Namens.
+         */
+        private final long hash;
+        /**
+         * Wertung (siehe {@link Leaderboard#score(GameOutcome, int, int)}).
+         */
+        private final long score;
+        /**
+         * Fortlaufende Nummer.
+         */
+        private final long sequence;
+        /**
+         * Zeitpunkt in Millisekunden seit 1970.
+         */
+        private final long timestamp;
+        /**
+         * Ausgang des Spiels.
+         */
+        private final GameOutcome outcome;
+
+        /**
+         * @param nameBytes Name als UTF-8
+         * @param score     Wertung
+         * @param sequence  fortlaufende Nummer
+         * @param timestamp Zeitpunkt in Millisekunden seit 1970
+         * @param outcome   Ausgang des Spiels
+         */
+        private Entry(byte[] nameBytes, long score, long sequence, long timestamp, GameOutcome outcome) {
+            this.name = new String(nameBytes, StandardCharsets.UTF_8);
+            this.nameBytes = nameBytes;
+            this.hash = hash(nameBytes);
+            this.score = score;
+            this.sequence = sequence;
+            this.timestamp = timestamp;
+            this.outcome = outcome;
+        }
+
+        /**
+         * Liest einen Eintrag.
+         *
+         * @param buffer   Quelle
+         * @param position Beginn des Eintrags
+         * @return gelesener Eintrag
+         */
+        static Entry read(ByteBuffer buffer, int position) {
+            byte[] nameBytes = new byte[buffer.get(position + RECORD_NAME_LENGTH)];
+            for (int i = 0; i < nameBytes.length; i++) {
+                nameBytes[i] = buffer.get(position + RECORD_NAME + i);
+            }
+            return new Entry(nameBytes, buffer.getLong(position + RECORD_SCORE),
+                    buffer.getLong(position + RECORD_SEQUENCE), buffer.getLong(position + RECORD_TIMESTAMP),
+                    GameOutcome.values()[buffer.get(position + RECORD_OUTCOME)]);
+        }
+
+        /**
+         * Schreibt den Eintrag; ungenutzte Bytes des Namens werden genullt.
+         *
+         * @param buffer   Ziel
+         * @param position Beginn des Eintrags
+         */
+        void write(ByteBuffer buffer, int position) {
+            buffer.putLong(position + RECORD_SCORE, score);
+            buffer.putLong(position + RECORD_SEQUENCE, sequence);
+            buffer.putLong(position + RECORD_TIMESTAMP, timestamp);
+            buffer.put(position + RECORD_OUTCOME, (byte) outcome.ordinal());
+            buffer.put(position + RECORD_NAME_LENGTH, (byte) nameBytes.length);
+            for (int i = 0; i < MAX_NAME_BYTES; i++) {
+                buffer.put(position + RECORD_NAME + i, i < nameBytes.length ? nameBytes[i] : 0);
+            }
+        }
+
+        /**
+         * @return Name des Helden (ggf. gekürzt)
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return Erfahrungspunkte am Ende des Spiels
+         */
+        public int getExperiencePoints() {
+            return (int) (score >>> 32) & ((1 << 30) - 1);
+        }
+
+        /**
+         * @return gespielte Runden
+         */
+        public int getRounds() {
+            return (int) (0xFFFFFFFFL - (score & 0xFFFFFFFFL));
+        }
+
+        /**
+         * @return Ausgang des Spiels
+         */
+        public GameOutcome getOutcome() {
+            return outcome;
+        }
+
+        /**
+         * @return Zeitpunkt in Millisekunden seit 1970
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public String toString() {
+            return name + " - " + outcome + ", " + getExperiencePoints() + " XP, " + getRounds() + " rounds ("
+                    + TIMESTAMP.format(Instant.ofEpochMilli(timestamp)) + ")";
+        }
+    }
+
+    /**
+     * Ein unveränderlicher, in den Speicher abgebildeter Lauf.
+     */
+    private static final class Run {
+        /**
+         * Datei des Laufs.
+         */
+        private final Path file;
+        /**
+         * Abgebildete Abschnitte der Datei zu je 2^CHUNK_BITS Bytes.
+         */
+        private final ByteBuffer[] chunks;
+        /**
+         * Anzahl der Einträge.
+         */
+        private final long count;
+        /**
+         * Kleinste enthaltene Nummer.
+         */
+        private final long firstSequence;
+        /**
+         * Größte enthaltene Nummer.
+         */
+        private final long lastSequence;
+        /**
+         * Beginn des Namensindex in der Datei.
+         */
+        private final long indexOffset;
+
+        /**
+         * @param file   Datei des Laufs
+         * @param chunks abgebildete Abschnitte
+         * @throws IOException wenn die Datei kein gültiger Lauf ist
+         */
+        private Run(Path file, ByteBuffer[] chunks) throws IOException {
+            this.file = file;
+            this.chunks = chunks;
+            if (chunks.length == 0 || chunks[0].capacity() < HEADER_SIZE || chunks[0].getInt(HEADER_MAGIC) != MAGIC) {
+                throw new IOException("Not a leaderboard run: " + file);
+            }
+            if (chunks[0].getShort(HEADER_VERSION) != VERSION) {
+                throw new IOException("Unsupported leaderboard run version: " + file);
+            }
+            this.count = chunks[0].getLong(HEADER_COUNT);
+            this.firstSequence = chunks[0].getLong(HEADER_FIRST_SEQUENCE);
+            this.lastSequence = chunks[0].getLong(HEADER_LAST_SEQUENCE);
+            this.indexOffset = HEADER_SIZE + count * RECORD_SIZE;
+        }
+
+        /**
+         * Bildet einen Lauf in den Speicher ab.
+         *
+         * @param file Datei des Laufs
+         * @return geöffneter Lauf
+         * @throws IOException wenn die Datei kein gültiger Lauf ist
+         */
+        static Run open(Path file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                ByteBuffer[] chunks = new ByteBuffer[(int) ((size + (1L << CHUNK_BITS) - 1) >>> CHUNK_BITS)];
+                for (int i = 0; i < chunks.length; i++) {
+                    long start = (long) i << CHUNK_BITS;
+                    chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                            Math.min(1L << CHUNK_BITS, size - start));
+                }
+                Run run = new Run(file, chunks);
+                if (size != run.indexOffset + run.count * INDEX_SIZE) {
+                    throw new IOException("Truncated leaderboard run: " + file);
+                }
+                return run;
+            }
+        }
+
+        /**
+         * Prüft Ausgang und Namenslänge aller Einträge. Wird nur beim Öffnen
+         * der Bestenliste aufgerufen, da neu geschriebene Läufe aus bereits
+         * geprüften Einträgen entstehen.
+         *
+         * @throws IOException bei einem beschädigten Eintrag
+         */
+        void check() throws IOException {
+            int outcomes = GameOutcome.values().length;
+            for (long i = 0; i < count; i++) {
+                long position = record(i);
+                ByteBuffer chunk = chunks[(int) (position >>> CHUNK_BITS)];
+                int offset = (int) (position & ((1L << CHUNK_BITS) - 1));
+                int outcome = chunk.get(offset + RECORD_OUTCOME);
+                int nameLength = chunk.get(offset + RECORD_NAME_LENGTH);
+                if (outcome < 0 || outcome >= outcomes || nameLength < 0 || nameLength > MAX_NAME_BYTES) {
+                    throw new IOException("Damaged leaderboard run " + file + " at entry " + i);
+                }
+            }
+        }
+
+        /**
+         * @param position Position in der Datei
+         * @return long an dieser Position
+         */
+        private long getLong(long position) {
+            return chunks[(int) (position >>> CHUNK_BITS)].getLong((int) (position & ((1L << CHUNK_BITS) - 1)));
+        }
+
+        /**
+         * @param i Nummer des Eintrags
+         * @return Position des Eintrags in der Datei
+         */
+        private long record(long i) {
+            return HEADER_SIZE + i * RECORD_SIZE;
+        }
+
+        /**
+         * @param i Nummer des Eintrags
+         * @return Wertung des Eintrags
+         */
+        long score(long i) {
+            return getLong(record(i) + RECORD_SCORE);
+        }
+
+        /**
+         * @param i Nummer des Eintrags
+         * @return fortlaufende Nummer des Eintrags
+         */
+        long sequence(long i) {
+            return getLong(record(i) + RECORD_SEQUENCE);
+        }
+
+        /**
+         * @param j Nummer im Namensindex
+         * @return Hash des Namens
+         */
+        long indexHash(long j) {
+            return getLong(indexOffset + j * INDEX_SIZE + INDEX_HASH);
+        }
+
+        /**
+         * @param j Nummer im Namensindex
+         * @return Wertung des zugehörigen Eintrags
+         */
+        long indexScore(long j) {
+            return getLong(indexOffset + j * INDEX_SIZE + INDEX_SCORE);
+        }
+
+        /**
+         * @param j Nummer im Namensindex
+         * @return fortlaufende Nummer des zugehörigen Eintrags
+         */
+        long indexSequence(long j) {
+            return getLong(indexOffset + j * INDEX_SIZE + INDEX_SEQUENCE);
+        }
+
+        /**
+         * @param i Nummer des Eintrags
+         * @return gelesener Eintrag
+         */
+        Entry entry(long i) {
+            long position = record(i);
+            return Entry.read(chunks[(int) (position >>> CHUNK_BITS)],
+                    (int) (position & ((1L << CHUNK_BITS) - 1)));
+        }
+
+        /**
+         * @param score Wertung
+         * @return Anzahl der Einträge mit höherer Wertung
+         */
+        long countGreater(long score) {
+            long low = 0;
+            long high = count;
+            while (low < high) {
+                long middle = (low + high) >>> 1;
+                if (score(middle) > score) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Sucht einen Eintrag über Wertung und Nummer.
+         *
+         * @param score    Wertung
+         * @param sequence Nummer
+         * @return Nummer des Eintrags oder -1
+         */
+        long find(long score, long sequence) {
+            long low = 0;
+            long high = count;
+            while (low < high) {
+                long middle = (low + high) >>> 1;
+                long s = score(middle);
+                if (s > score || s == score && sequence(middle) < sequence) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low < count && score(low) == score && sequence(low) == sequence ? low : -1;
+        }
+
+        /**
+         * @param nameBytes gekürzter Name als UTF-8
+         * @param hash      Hash des Namens
+         * @return bestes Ergebnis des Namens in diesem Lauf oder null
+         */
+        Entry bestOf(byte[] nameBytes, long hash) {
+            long low = 0;
+            long high = count;
+            while (low < high) {
+                long middle = (low + high) >>> 1;
+                if (indexHash(middle) < hash) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            // gleicher Hash: bestes Ergebnis zuerst, der Name entscheidet bei Kollisionen
+            for (long j = low; j < count && indexHash(j) == hash; j++) {
+                long i = find(indexScore(j), indexSequence(j));
+                if (i >= 0 && hasName(i, nameBytes)) {
+                    return entry(i);
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @param i         Nummer des Eintrags
+         * @param nameBytes Name als UTF-8
+         * @return true, wenn der Eintrag diesen Namen hat
+         */
+        private boolean hasName(long i, byte[] nameBytes) {
+            long position = record(i);
+            ByteBuffer chunk = chunks[(int) (position >>> CHUNK_BITS)];
+            int offset = (int) (position & ((1L << CHUNK_BITS) - 1));
+            if (chunk.get(offset + RECORD_NAME_LENGTH) != nameBytes.length) {
+                return false;
+            }
+            for (int k = 0; k < nameBytes.length; k++) {
+                if (chunk.get(offset + RECORD_NAME + k) != nameBytes[k]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Schreibt einen Lauf in eine temporäre Datei und verschiebt sie nach
+     * dem Abschluss atomar an ihren Namen.
+     */
+    private static final class RunWriter implements Closeable {
+        /**
+         * Temporäre Datei.
+         */
+        private final Path temp;
+        /**
+         * Endgültige Datei.
+         */
+        private final Path target;
+        /**
+         * Geöffnete temporäre Datei.
+         */
+        private final FileChannel channel;
+        /**
+         * Schreibpuffer.
+         */
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+        /**
+         * Kleinste enthaltene Nummer.
+         */
+        private final long firstSequence;
+        /**
+         * Größte enthaltene Nummer.
+         */
+        private final long lastSequence;
+        /**
+         * Anzahl geschriebener Einträge.
+         */
+        private long records;
+        /**
+         * Anzahl geschriebener Einträge im Namensindex.
+         */
+        private long indexEntries;
+        /**
+         * Gibt an, ob der Lauf fertig und verschoben ist.
+         */
+        private boolean finished;
+
+        /**
+         * @param directory     Verzeichnis der Bestenliste
+         * @param firstSequence kleinste enthaltene Nummer
+         * @param lastSequence  größte enthaltene Nummer
+         * @throws IOException wenn die Datei nicht angelegt werden kann
+         */
+        RunWriter(Path directory, long firstSequence, long lastSequence) throws IOException {
+            String name = String.format("%016x-%016x", firstSequence, lastSequence);
+            this.temp = directory.resolve(name + TEMP_SUFFIX);
+            this.target = directory.resolve(name + RUN_SUFFIX);
+            this.firstSequence = firstSequence;
+            this.lastSequence = lastSequence;
+            this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            buffer.position(HEADER_SIZE);
+        }
+
+        /**
+         * @param entry nächster Eintrag in der Reihenfolge der Bestenliste
+         * @throws IOException bei Schreibfehlern
+         */
+        void putRecord(Entry entry) throws IOException {
+            ensure(RECORD_SIZE);
+            entry.write(buffer, buffer.position());
+            buffer.position(buffer.position() + RECORD_SIZE);
+            records++;
+        }
+
+        /**
+         * @param run Quelle
+         * @param i   Nummer des Eintrags in der Quelle
+         * @throws IOException bei Schreibfehlern
+         */
+        void copyRecord(Run run, long i) throws IOException {
+            ensure(RECORD_SIZE);
+            long position = run.record(i);
+            for (int offset = 0; offset < RECORD_SIZE; offset += Long.BYTES) {
+                buffer.putLong(run.getLong(position + offset));
+            }
+            records++;
+        }
+
+        /**
+         * @param hash     Hash des Namens
+         * @param score    Wertung des Eintrags
+         * @param sequence Nummer des Eintrags
+         * @throws IOException bei Schreibfehlern
+         */
+        void putIndex(long hash, long score, long sequence) throws IOException {
+            ensure(INDEX_SIZE);
+            buffer.putLong(hash).putLong(score).putLong(sequence).putLong(0);
+            indexEntries++;
+        }
+
+        /**
+         * Leert den Puffer, falls nicht genug Platz frei ist.
+         *
+         * @param bytes benötigter Platz
+         * @throws IOException bei Schreibfehlern
+         */
+        private void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                drain();
+            }
+        }
+
+        /**
+         * Schreibt den Puffer in die Datei.
+         *
+         * @throws IOException bei Schreibfehlern
+         */
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        /**
+         * Schreibt den Kopf, sichert die Datei und verschiebt sie an ihren Namen.
+         *
+         * @return geöffneter Lauf
+         * @throws IOException bei Schreibfehlern
+         */
+        Run finish() throws IOException {
+            if (records != indexEntries) {
+                throw new IllegalStateException("Index does not match the records of the run");
+            }
+            drain();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(HEADER_MAGIC, MAGIC);
+            header.putShort(HEADER_VERSION, VERSION);
+            header.putLong(HEADER_COUNT, records);
+            header.putLong(HEADER_FIRST_SEQUENCE, firstSequence);
+            header.putLong(HEADER_LAST_SEQUENCE, lastSequence);
+            writeFully(channel, header, 0);
+            channel.force(true);
+            channel.close();
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            finished = true;
+            return Run.open(target);
+        }
+
+        /**
+         * Schließt die Datei und löscht sie, wenn der Lauf nicht fertig wurde.
+         *
+         * @throws IOException wenn die Datei nicht gelöscht werden kann
+         */
+        @Override
+        public void close() throws IOException {
+            channel.close();
+            if (!finished) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+}
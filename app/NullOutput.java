@@ -0,0 +1,52 @@
+package app;
+
+import model.GameOutput;
+
+/**
+ * Verwirft alle Spielausgaben und zählt nur Zeilen und Zeichen, z. B. für
+ * die Simulation und Benchmarks ohne Konsole. Nicht threadsicher; jedes
+ * Spiel bzw. jeder Thread braucht eine eigene Instanz.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class NullOutput implements GameOutput {
+    /**
+     * Anzahl geschriebener Zeilen.
+     */
+    private long lines;
+    /**
+     * Anzahl geschriebener Zeichen (ohne Zeilenumbrüche).
+     */
+    private long chars;
+
+    @Override
+    public void print(String text) {
+        chars += text.length();
+    }
+
+    @Override
+    public void println(String text) {
+        chars += text.length();
+        lines++;
+    }
+
+    @Override
+    public void flush() {
+        // nichts zu tun
+    }
+
+    /**
+     * @return Anzahl geschriebener Zeilen
+     */
+    public long getLines() {
+        return lines;
+    }
+
+    /**
+     * @return Anzahl geschriebener Zeichen
+     */
+    public long getChars() {
+        return chars;
+    }
+}
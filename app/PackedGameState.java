@@ -0,0 +1,281 @@
+package app;
+
+/**
+ * Gepackte Darstellung des veränderlichen Spielzustands in einem {@code long}.
+ *
+ * Enthalten sind Lebenspunkte, Erfahrung, Runde, Raum, beide
+ * Pausenmarkierungen, das Treffen mit der Professorin, Spielende, Ausgang und
+ * die Unterschriften als Bitmaske. Zusammen mit dem Zustand der Zufallsquelle
+ * ({@link model.GameRandom#getState()}) beschreiben die beiden Werte ein Spiel
+ * vollständig. Sie lassen sich ohne Objekte kopieren, vergleichen und als
+ * Schlüssel einer Transpositionstabelle verwenden.
+ *
+ * Aufbau (niedrigstes Bit zuerst):
+ * <pre>
+ *  0..7   Lebenspunkte            8..19  Erfahrungspunkte
+ * 20..27  Runde                  28..47  Raumindex + 1
+ * 48      kleine Pause (Spiel)   49      kleine Pause (Held)
+ * 50      Professorin getroffen  51      Spiel beendet
+ * 52      Spiel läuft            53..55  Ausgang
+ * 56..60  Unterschriften         61      Held vorhanden
+ * </pre>
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public final class PackedGameState {
+    /**
+     * Erstes Bit der Lebenspunkte.
+     */
+    private static final int HEALTH_SHIFT = 0;
+    /**
+     * Erstes Bit der Erfahrungspunkte.
+     */
+    private static final int EXPERIENCE_SHIFT = 8;
+    /**
+     * Erstes Bit der Runde.
+     */
+    private static final int ROUND_SHIFT = 20;
+    /**
+     * Erstes Bit des Raumindex (um eins verschoben, damit -1 passt).
+     */
+    private static final int ROOM_SHIFT = 28;
+    /**
+     * Bit für die kleine Pause laut Spiel.
+     */
+    private static final int GAME_SMALL_REST_BIT = 48;
+    /**
+     * Bit für die kleine Pause laut Held.
+     */
+    private static final int HERO_SMALL_REST_BIT = 49;
+    /**
+     * Bit für das Treffen mit der Professorin.
+     */
+    private static final int PROFESSOR_MET_BIT = 50;
+    /**
+     * Bit für das Spielende.
+     */
+    private static final int FINISHED_BIT = 51;
+    /**
+     * Bit für das laufende Spiel.
+     */
+    private static final int RUNNING_BIT = 52;
+    /**
+     * Erstes Bit des Ausgangs.
+     */
+    private static final int OUTCOME_SHIFT = 53;
+    /**
+     * Erstes Bit der Unterschriften.
+     */
+    private static final int SIGNED_SHIFT = 56;
+    /**
+     * Bit, das angibt, ob bereits ein Held existiert.
+     */
+    private static final int HERO_BIT = 61;
+    /**
+     * Alle Ausgänge, einmal angelegt, damit das Entpacken nichts alloziert.
+     */
+    private static final GameOutcome[] OUTCOMES = GameOutcome.values();
+    /**
+     * Bits für den Raumindex.
+     */
+    private static final int ROOM_MASK = 0xFFFFF;
+
+    /**
+     * Größte darstellbare Lebenspunkte.
+     */
+    public static final int MAX_HEALTH = 0xFF;
+    /**
+     * Größte darstellbare Erfahrungspunkte.
+     */
+    public static final int MAX_EXPERIENCE = 0xFFF;
+    /**
+     * Größte darstellbare Runde.
+     */
+    public static final int MAX_ROUND = 0xFF;
+    /**
+     * Größte darstellbare Anzahl an Räumen.
+     */
+    public static final int MAX_ROOMS = ROOM_MASK - 1;
+    /**
+     * Anzahl der Übungsleitungen, deren Unterschrift Platz findet.
+     */
+    public static final int SIGNATURE_BITS = 5;
+
+    /**
+     * Keine Instanzen, nur statische Hilfsmethoden.
+     */
+    private PackedGameState() {
+    }
+
+    /**
+     * Packt einen Spielzustand.
+     *
+     * @param hasHero           ob bereits ein Held existiert
+     * @param healthPoints      Lebenspunkte des Helden
+     * @param experiencePoints  Erfahrungspunkte des Helden
+     * @param round             aktuelle Runde
+     * @param roomIndex         Index des aktuellen Raums oder -1
+     * @param gameSmallRestUsed kleine Pause laut Spiel genutzt
+     * @param heroSmallRestUsed kleine Pause laut Held genutzt
+     * @param professorMet      Professorin bereits getroffen
+     * @param finished          Spiel beendet
+     * @param running           Spiel läuft
+     * @param outcome           Ausgang des Spiels
+     * @param signedMask        Unterschriften als Bitmaske
+     * @return gepackter Zustand
+     * @throws IllegalArgumentException wenn ein Wert nicht in sein Feld passt
+     */
+    public static long pack(boolean hasHero, int healthPoints, int experiencePoints, int round,
+            int roomIndex, boolean gameSmallRestUsed, boolean heroSmallRestUsed, boolean professorMet,
+            boolean finished, boolean running, GameOutcome outcome, int signedMask) {
+        if ((healthPoints & ~MAX_HEALTH) != 0 || (experiencePoints & ~MAX_EXPERIENCE) != 0
+                || (round & ~MAX_ROUND) != 0 || roomIndex < -1 || roomIndex >= MAX_ROOMS
+                || (signedMask >>> SIGNATURE_BITS) != 0) {
+            throw new IllegalArgumentException("Game state does not fit into a packed state");
+        }
+        return (long) healthPoints << HEALTH_SHIFT
+                | (long) experiencePoints << EXPERIENCE_SHIFT
+                | (long) round << ROUND_SHIFT
+                | (long) (roomIndex + 1) << ROOM_SHIFT
+                | flag(gameSmallRestUsed, GAME_SMALL_REST_BIT)
+                | flag(heroSmallRestUsed, HERO_SMALL_REST_BIT)
+                | flag(professorMet, PROFESSOR_MET_BIT)
+                | flag(finished, FINISHED_BIT)
+                | flag(running, RUNNING_BIT)
+                | (long) outcome.ordinal() << OUTCOME_SHIFT
+                | (long) signedMask << SIGNED_SHIFT
+                | flag(hasHero, HERO_BIT);
+    }
+
+    /**
+     * @param value gesetzt oder nicht
+     * @param bit   Position des Bits
+     * @return Bit an der Position oder 0
+     */
+    private static long flag(boolean value, int bit) {
+        return value ? 1L << bit : 0L;
+    }
+
+    /**
+     * @param state gepackter Zustand
+     * @param bit   Position des Bits
+     * @return wahr, wenn das Bit gesetzt ist
+     */
+    private static boolean isSet(long state, int bit) {
+        return (state & (1L << bit)) != 0;
+    }
+
+    /**
+     * @param state gepackter Zustand
+     * @return ob bereits ein Held existiert
+     */
+    public static boolean hasHero(long state) {
+        return isSet(state, HERO_BIT);
+    }
+
+    /**
+     * @param state gepackter Zustand
+     * @return Lebenspunkte des Helden
+     */
+    public static int healthPoints(long state) {
+        return (int) (state >>> HEALTH_SHIFT) & MAX_HEALTH;
+    }
+
+    /**
+     * @param state gepackter Zustand
+     * @return Erfahrungspunkte des Helden
+     */
+    public static int experiencePoints(long state) {
+        return (int) (state >>> EXPERIENCE_SHIFT) & MAX_EXPERIENCE;
+    }
+
+    /**
+     * @param state gepackter Zustand
+     * @return aktuelle Runde
+     */
+    public static int round(long state) {
+        return (int) (state >>> ROUND_SHIFT) & MAX_ROUND;
+    }
+
+    /**
+     * @param state gepackter Zustand
+     * @return Index des aktuellen Raums oder -1
+     */
+    public static int roomIndex(long state) {
+        return ((int) (state >>> ROOM_SHIFT) & ROOM_MASK) - 1;
+    }
+
+    /**
+     * @param state gepackter Zustand
+     * @return ob die kleine Pause laut Spiel genutzt wurde
+     */
+    public static boolean gameSmallRestUsed(long state) {
+        return isSet(state, GAME_SMALL_REST_BIT);
+    }
+
+    /**
+     * @param state gepackter Zustand
+     * @return ob die kleine Pause laut Held genutzt wurde
+     */
+    public static boolean heroSmallRestUsed(long state) {
+        return isSet(state, HERO_SMALL_REST_BIT);
+    }
+
+    /**
+     * @param state gepackter Zustand
+     * @return ob die Professorin bereits getroffen wurde
+     */
+    public static boolean professorMet(long state) {
+        return isSet(state, PROFESSOR_MET_BIT);
+    }
+
+    /**
+     * @param state gepackter Zustand
+     * @return ob das Spiel beendet ist
+     */
+    public static boolean finished(long state) {
+        return isSet(state, FINISHED_BIT);
+    }
+
+    /**
+     * @param state gepackter Zustand
+     * @return ob das Spiel läuft
+     */
+    public static boolean running(long state) {
+        return isSet(state, RUNNING_BIT);
+    }
+
+    /**
+     * @param state gepackter Zustand
+     * @return Ausgang des Spiels
+     */
+    public static GameOutcome outcome(long state) {
+        return OUTCOMES[(int) (state >>> OUTCOME_SHIFT) & 0x7];
+    }
+
+    /**
+     * @param state gepackter Zustand
+     * @return Unterschriften als Bitmaske
+     */
+    public static int signedMask(long state) {
+        return (int) (state >>> SIGNED_SHIFT) & ((1 << SIGNATURE_BITS) - 1);
+    }
+
+    /**
+     * Liefert den Eintrag von {@link GamePolicy} für einen gepackten Zustand,
+     * ohne ihn zu entpacken.
+     *
+     * @param state gepackter Zustand
+     * @return Index in der Spielweise oder -1, wenn der Zustand nicht enthalten ist
+     */
+    public static int policyIndex(long state) {
+        int round = round(state);
+        int healthPoints = healthPoints(state);
+        if (!hasHero(state) || round >= GamePolicy.ROUNDS || healthPoints == 0) {
+            return -1;
+        }
+        return GamePolicy.index(round, healthPoints, experiencePoints(state), signedMask(state),
+                gameSmallRestUsed(state), roomIndex(state));
+    }
+}
@@ -0,0 +1,53 @@
+package app;
+
+import model.HostileAlien;
+import model.Question;
+
+/**
+ * Entscheidungsquelle für alle Eingaben, die das Spiel vom Spieler benötigt.
+ *
+ * Die interaktive Variante ({@link ConsolePlayer}) liest von der Konsole,
+ * automatische Strategien (siehe Paket {@code sim}) treffen die Entscheidungen
+ * selbst. Rückgabewerte entsprechen dabei genau den Konsoleneingaben
+ * (z. B. "1" für Angriff), damit die Spielregeln in {@link EscapeGame}
+ * unverändert bleiben.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public interface PlayerStrategy {
+
+    /**
+     * Wählt die nächste Aktion im Spielmenü.
+     *
+     * @param game aktuelles Spiel
+     * @return "1" bis "5" wie im Spielmenü
+     */
+    String chooseMenuAction(EscapeGame game);
+
+    /**
+     * Wählt die Art der Verschnaufpause.
+     *
+     * @param game aktuelles Spiel
+     * @return "1" für lange, "2" für kurze Verschnaufpause
+     */
+    String chooseRestType(EscapeGame game);
+
+    /**
+     * Entscheidet bei einem feindlichen Alien zwischen Kampf und Flucht.
+     *
+     * @param game  aktuelles Spiel
+     * @param alien das feindliche Alien
+     * @return "1" für Angriff, "2" für Flucht
+     */
+    String chooseFightAction(EscapeGame game, HostileAlien alien);
+
+    /**
+     * Beantwortet eine Frage von Professorin Majuntke.
+     *
+     * @param game     aktuelles Spiel
+     * @param question die gestellte Frage
+     * @return Antwort "1" bis "4"
+     */
+    String answerQuestion(EscapeGame game, Question question);
+}
@@ -0,0 +1,204 @@
+package app;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import model.Question;
+
+/**
+ * Index der Quizfragen eines Campus nach Thema und Schwierigkeit.
+ *
+ * Die Fragen selbst bleiben in {@link CampusContent}; hier liegen nur ihre
+ * Positionen in zwei sortierten {@code int}-Arrays: einmal nach Thema und
+ * darin nach Schwierigkeit, einmal nur nach Schwierigkeit. Jede Auswahl
+ * (ein Thema und/oder ein Bereich von Schwierigkeiten) ist damit ein
+ * zusammenhängender Abschnitt eines Arrays. Der Index ist unveränderlich
+ * und wird von allen Spielen geteilt; gezogen wird mit einem eigenen
+ * {@link QuestionDraw} je Quiz.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public final class QuestionBank {
+    /**
+     * Anzahl der Schwierigkeitsstufen je Thema.
+     */
+    private static final int LEVELS = Question.MAX_DIFFICULTY - Question.MIN_DIFFICULTY + 1;
+
+    /**
+     * Inhalt mit den Fragen.
+     */
+    private final CampusContent content;
+    /**
+     * Namen der Themen in der Reihenfolge ihrer Nummern.
+     */
+    private final String[] topics;
+    /**
+     * Nummer jedes Themas.
+     */
+    private final Map<String, Integer> topicNumbers;
+    /**
+     * Positionen der Fragen, sortiert nach Thema und Schwierigkeit.
+     */
+    private final int[] byTopic;
+    /**
+     * Beginn jeder Gruppe (Thema, Schwierigkeit) in {@link #byTopic}; der
+     * letzte Eintrag ist die Anzahl der Fragen.
+     */
+    private final int[] topicStart;
+    /**
+     * Positionen der Fragen, sortiert nach Schwierigkeit.
+     */
+    private final int[] byDifficulty;
+    /**
+     * Beginn jeder Schwierigkeit in {@link #byDifficulty}.
+     */
+    private final int[] difficultyStart;
+
+    /**
+     * Baut den Index mit zwei Zählsortierungen auf, ohne Fragen zu erzeugen.
+     *
+     * @param content Inhalt mit den Fragen
+     */
+    QuestionBank(CampusContent content) {
+        this.content = content;
+        int count = content.getQuestionCount();
+
+        // Themen nummerieren, in der Reihenfolge ihres ersten Auftretens
+        Map<Integer, Integer> numberOfString = new HashMap<>();
+        int[] topicOf = new int[count];
+        int[] levelOf = new int[count];
+        for (int i = 0; i < count; i++) {
+            Integer number = numberOfString.get(content.questionTopicId(i));
+            if (number == null) {
+                number = numberOfString.size();
+                numberOfString.put(content.questionTopicId(i), number);
+            }
+            topicOf[i] = number;
+            levelOf[i] = content.questionDifficulty(i) - Question.MIN_DIFFICULTY;
+        }
+        this.topics = new String[numberOfString.size()];
+        this.topicNumbers = new HashMap<>();
+        for (Map.Entry<Integer, Integer> entry : numberOfString.entrySet()) {
+            topics[entry.getValue()] = content.string(entry.getKey());
+            topicNumbers.put(topics[entry.getValue()], entry.getValue());
+        }
+
+        this.topicStart = new int[topics.length * LEVELS + 1];
+        this.difficultyStart = new int[LEVELS + 1];
+        for (int i = 0; i < count; i++) {
+            topicStart[topicOf[i] * LEVELS + levelOf[i] + 1]++;
+            difficultyStart[levelOf[i] + 1]++;
+        }
+        for (int i = 1; i < topicStart.length; i++) {
+            topicStart[i] += topicStart[i - 1];
+        }
+        for (int i = 1; i < difficultyStart.length; i++) {
+            difficultyStart[i] += difficultyStart[i - 1];
+        }
+
+        this.byTopic = new int[count];
+        this.byDifficulty = new int[count];
+        int[] nextTopic = topicStart.clone();
+        int[] nextDifficulty = difficultyStart.clone();
+        for (int i = 0; i < count; i++) {
+            byTopic[nextTopic[topicOf[i] * LEVELS + levelOf[i]]++] = i;
+            byDifficulty[nextDifficulty[levelOf[i]]++] = i;
+        }
+    }
+
+    /**
+     * @return Inhalt mit den Fragen
+     */
+    public CampusContent getContent() {
+        return content;
+    }
+
+    /**
+     * @return Anzahl aller Fragen
+     */
+    public int size() {
+        return byTopic.length;
+    }
+
+    /**
+     * @return Anzahl der Themen
+     */
+    public int getTopicCount() {
+        return topics.length;
+    }
+
+    /**
+     * @param number Nummer des Themas
+     * @return Name des Themas
+     */
+    public String getTopic(int number) {
+        return topics[number];
+    }
+
+    /**
+     * Zählt die Fragen einer Auswahl.
+     *
+     * @param topic         Thema oder null für alle Themen
+     * @param minDifficulty niedrigste Schwierigkeit
+     * @param maxDifficulty höchste Schwierigkeit
+     * @return Anzahl passender Fragen
+     */
+    public int count(String topic, int minDifficulty, int maxDifficulty) {
+        int[] range = range(topic, minDifficulty, maxDifficulty);
+        return range[1] - range[0];
+    }
+
+    /**
+     * Beginnt ein Quiz über alle Fragen.
+     *
+     * @param seed Startwert der Reihenfolge
+     * @return Ziehung ohne Zurücklegen
+     */
+    public QuestionDraw draw(long seed) {
+        return new QuestionDraw(content, byTopic, 0, byTopic.length, seed);
+    }
+
+    /**
+     * Beginnt ein Quiz über die Fragen eines Themas und Schwierigkeitsbereichs.
+     *
+     * @param topic         Thema oder null für alle Themen
+     * @param minDifficulty niedrigste Schwierigkeit
+     * @param maxDifficulty höchste Schwierigkeit
+     * @param seed          Startwert der Reihenfolge
+     * @return Ziehung ohne Zurücklegen
+     * @throws IllegalArgumentException wenn keine Frage passt
+     */
+    public QuestionDraw draw(String topic, int minDifficulty, int maxDifficulty, long seed) {
+        int[] range = range(topic, minDifficulty, maxDifficulty);
+        if (range[0] == range[1]) {
+            throw new IllegalArgumentException("No questions for topic " + topic + " and difficulty "
+                    + minDifficulty + "-" + maxDifficulty);
+        }
+        return new QuestionDraw(content, topic == null ? byDifficulty : byTopic, range[0], range[1] - range[0], seed);
+    }
+
+    /**
+     * Bestimmt den Abschnitt einer Auswahl.
+     *
+     * @param topic         Thema oder null für alle Themen
+     * @param minDifficulty niedrigste Schwierigkeit
+     * @param maxDifficulty höchste Schwierigkeit
+     * @return Beginn und Ende (exklusiv) im passenden Array
+     */
+    private int[] range(String topic, int minDifficulty, int maxDifficulty) {
+        int min = Math.max(minDifficulty, Question.MIN_DIFFICULTY) - Question.MIN_DIFFICULTY;
+        int max = Math.min(maxDifficulty, Question.MAX_DIFFICULTY) - Question.MIN_DIFFICULTY;
+        if (min > max) {
+            return new int[] {0, 0};
+        }
+        if (topic == null) {
+            return new int[] {difficultyStart[min], difficultyStart[max + 1]};
+        }
+        Integer number = topicNumbers.get(topic);
+        if (number == null) {
+            return new int[] {0, 0};
+        }
+        return new int[] {topicStart[number * LEVELS + min], topicStart[number * LEVELS + max + 1]};
+    }
+}
@@ -0,0 +1,141 @@
+package app;
+
+import model.Question;
+
+/**
+ * Zieht Fragen aus einem Abschnitt der {@link QuestionBank} ohne
+ * Zurücklegen: Jede Frage kommt genau einmal vor, bevor sich eine
+ * wiederholt.
+ *
+ * Statt die Positionen zu mischen, wird der Zähler mit einer verschlüsselten
+ * Permutation (Feistel-Netz über die nächste Zweierpotenz, Werte außerhalb
+ * des Abschnitts werden übersprungen) auf eine Position abgebildet. Eine
+ * Ziehung braucht daher nur wenige Felder, egal wie groß der Katalog ist,
+ * und tausende gleichzeitige Quizze teilen sich denselben Index. Sind alle
+ * Fragen gezogen, beginnt eine neue Runde mit neuer Reihenfolge.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public final class QuestionDraw {
+    /**
+     * Anzahl der Feistel-Runden.
+     */
+    private static final int ROUNDS = 4;
+
+    /**
+     * Inhalt mit den Fragen.
+     */
+    private final CampusContent content;
+    /**
+     * Positionen der Fragen (geteilt, nur lesend).
+     */
+    private final int[] pool;
+    /**
+     * Beginn des Abschnitts in {@link #pool}.
+     */
+    private final int from;
+    /**
+     * Anzahl der Fragen im Abschnitt.
+     */
+    private final int size;
+    /**
+     * Bits je Hälfte der Permutation.
+     */
+    private final int halfBits;
+    /**
+     * Maske einer Hälfte.
+     */
+    private final int halfMask;
+    /**
+     * Schlüssel der aktuellen Runde.
+     */
+    private long key;
+    /**
+     * Nächster Wert, der permutiert wird.
+     */
+    private int counter;
+
+    /**
+     * @param content Inhalt mit den Fragen
+     * @param pool    Positionen der Fragen
+     * @param from    Beginn des Abschnitts
+     * @param size    Anzahl der Fragen im Abschnitt (mindestens 1)
+     * @param seed    Startwert der Reihenfolge
+     */
+    QuestionDraw(CampusContent content, int[] pool, int from, int size, long seed) {
+        this.content = content;
+        this.pool = pool;
+        this.from = from;
+        this.size = size;
+        int bits = Math.max(2, 32 - Integer.numberOfLeadingZeros(size - 1));
+        this.halfBits = (bits + 1) / 2;
+        this.halfMask = (1 << halfBits) - 1;
+        this.key = seed;
+    }
+
+    /**
+     * @return Anzahl der Fragen, aus denen gezogen wird
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Zieht die nächste Frage.
+     *
+     * @return Frage
+     */
+    public Question next() {
+        return content.getQuestion(nextIndex());
+    }
+
+    /**
+     * Zieht die Position der nächsten Frage.
+     *
+     * @return Position der Frage in {@link CampusContent}
+     */
+    public int nextIndex() {
+        int domain = 1 << (2 * halfBits);
+        while (true) {
+            if (counter == domain) {
+                // alle Fragen gezogen: neue Runde mit neuer Reihenfolge
+                counter = 0;
+                key = mix(key + 0x9E3779B97F4A7C15L);
+            }
+            int position = permute(counter++);
+            if (position < size) {
+                return pool[from + position];
+            }
+        }
+    }
+
+    /**
+     * Bildet einen Wert bijektiv auf einen anderen im selben Bereich ab.
+     *
+     * @param value Wert zwischen 0 und {@code 2^(2*halfBits)-1}
+     * @return permutierter Wert im selben Bereich
+     */
+    private int permute(int value) {
+        int left = value >>> halfBits;
+        int right = value & halfMask;
+        for (int round = 0; round < ROUNDS; round++) {
+            int next = left ^ ((int) mix(key + round * 0x632BE59BD9B4E019L + right) & halfMask);
+            left = right;
+            right = next;
+        }
+        return (left << halfBits) | right;
+    }
+
+    /**
+     * Mischfunktion von SplitMix64.
+     *
+     * @param z Eingabe
+     * @return gemischter Wert
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,140 @@
+package app;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Eingabe aus einem gepufferten Zeichenstrom (Konsole oder Netzwerksitzung).
+ *
+ * Zeilen werden zeichenweise bis zu einer Höchstlänge gelesen, damit eine
+ * Verbindung ohne Zeilenende nicht den ganzen Speicher belegen kann. Längere
+ * Zeilen beenden die Eingabe mit einem Fehler.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class ReaderInput implements GameInput {
+    /**
+     * Höchstlänge einer Zeile einer Netzwerksitzung in Zeichen.
+     */
+    public static final int MAX_SOCKET_LINE_LENGTH = 1024;
+
+    /**
+     * Gemeinsame Eingabe von der Konsole. Es darf nur eine geben, sonst
+     * verschluckt ein Puffer Eingaben, die für einen anderen bestimmt sind.
+     */
+    private static ReaderInput console;
+
+    /**
+     * Quelle der Eingaben.
+     */
+    private final BufferedReader reader;
+    /**
+     * Höchstlänge einer Zeile in Zeichen.
+     */
+    private final int maxLineLength;
+    /**
+     * Puffer der aktuellen Zeile.
+     */
+    private final StringBuilder line = new StringBuilder();
+    /**
+     * Wahr, wenn die letzte Zeile mit '\r' endete und ein folgendes '\n' dazugehört.
+     */
+    private boolean skipLineFeed;
+
+    /**
+     * Erstellt eine Eingabe aus dem Strom ohne Begrenzung der Zeilenlänge.
+     *
+     * @param reader Quelle der Eingaben
+     */
+    public ReaderInput(BufferedReader reader) {
+        this(reader, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Erstellt eine Eingabe aus dem Strom.
+     *
+     * @param reader        Quelle der Eingaben
+     * @param maxLineLength Höchstlänge einer Zeile in Zeichen
+     */
+    public ReaderInput(BufferedReader reader, int maxLineLength) {
+        this.reader = reader;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * Liefert die gemeinsame Eingabe von {@code System.in}.
+     *
+     * @return Eingabe von der Konsole
+     */
+    public static synchronized ReaderInput console() {
+        if (console == null) {
+            console = new ReaderInput(new BufferedReader(new InputStreamReader(System.in)));
+        }
+        return console;
+    }
+
+    /**
+     * Erstellt die Eingabe einer Netzwerksitzung (UTF-8) mit Zeilen von
+     * höchstens {@link #MAX_SOCKET_LINE_LENGTH} Zeichen.
+     *
+     * @param socket     Verbindung des Spielers
+     * @param bufferSize Puffergröße in Zeichen
+     * @return Eingabe von der Verbindung
+     * @throws IOException wenn die Verbindung bereits geschlossen ist
+     */
+    public static ReaderInput forSocket(Socket socket, int bufferSize) throws IOException {
+        return new ReaderInput(new BufferedReader(
+                new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8), bufferSize),
+                MAX_SOCKET_LINE_LENGTH);
+    }
+
+    /**
+     * Liest eine Zeile; wie bei {@link BufferedReader#readLine()} beendet
+     * '\n', '\r' oder "\r\n" die Zeile.
+     *
+     * @return Zeile ohne Zeilenende
+     * @throws UncheckedIOException am Ende der Eingabe, bei Lesefehlern oder
+     *                              wenn die Zeile zu lang ist
+     */
+    @Override
+    public String readLine() {
+        try {
+            line.setLength(0);
+            while (true) {
+                int c = reader.read();
+                if (c == -1) {
+                    if (line.length() == 0) {
+                        throw new EOFException("Input closed");
+                    }
+                    break;
+                }
+                if (skipLineFeed) {
+                    skipLineFeed = false;
+                    if (c == '\n') {
+                        continue;
+                    }
+                }
+                if (c == '\n') {
+                    break;
+                }
+                if (c == '\r') {
+                    skipLineFeed = true;
+                    break;
+                }
+                if (line.length() >= maxLineLength) {
+                    throw new IOException("Input line longer than " + maxLineLength + " characters");
+                }
+                line.append((char) c);
+            }
+            return line.toString();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package app;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Datei, an die {@link GameRecording}s angehängt werden, z. B. von allen
+ * Sitzungen des {@link GameServer}.
+ *
+ * Aufbau: Kennung und Version, danach je Aufzeichnung ihre Länge und ihre
+ * Daten. Eine Aufzeichnung wird mit einem einzigen Schreibvorgang
+ * angehängt. Ein nach einem Absturz abgeschnittener letzter Eintrag wird
+ * beim Lesen übersprungen und beim nächsten Öffnen abgeschnitten, bevor
+ * weitere Aufzeichnungen folgen.
+ *
+ * {@link #main(String[])} spielt ein ganzes Archiv ohne Ausgabe nach und
+ * meldet Spiele, die anders enden als aufgezeichnet, z. B. nach einer
+ * Regeländerung.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class RecordingArchive implements Closeable {
+    /**
+     * Kennung am Anfang der Datei ("HTWR").
+     */
+    private static final int MAGIC = 0x48545752;
+    /**
+     * Version des Dateiformats. Version 1 speicherte Name und Zeilen mit
+     * {@code writeUTF} (höchstens 65535 Bytes) und kann nur noch gelesen werden.
+     */
+    private static final short VERSION = 2;
+    /**
+     * Größe des Dateikopfs in Bytes.
+     */
+    private static final int HEADER_SIZE = 6;
+
+    /**
+     * Geöffnete Datei.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Öffnet ein Archiv zum Anhängen. Die Datei wird angelegt, falls sie nicht
+     * existiert; ein unvollständiger letzter Eintrag wird abgeschnitten.
+     *
+     * @param file Datei des Archivs
+     * @throws IOException wenn die Datei nicht geöffnet werden kann, kein Archiv
+     *                     ist oder in einer älteren Version geschrieben wurde
+     */
+    public RecordingArchive(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putShort(VERSION);
+                header.flip();
+                writeFully(header);
+            } else {
+                channel.truncate(completeLength());
+            }
+            channel.position(channel.size());
+        } catch (IOException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * Geht die Längen der Einträge durch und liefert das Ende des letzten
+     * vollständigen Eintrags.
+     *
+     * @return Länge der Datei ohne unvollständigen letzten Eintrag
+     * @throws IOException wenn die Datei nicht gelesen werden kann oder kein Archiv ist
+     */
+    private long completeLength() throws IOException {
+        long size = channel.size();
+        // nicht schließen, sonst wird auch der Kanal geschlossen
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 1 << 16));
+        if (checkHeader(in.readInt(), in.readShort()) != VERSION) {
+            throw new IOException("Recording archive has an older version and can only be read");
+        }
+        long end = HEADER_SIZE;
+        while (end + Integer.BYTES <= size) {
+            int length = in.readInt();
+            if (length < 0 || end + Integer.BYTES + length > size) {
+                break;
+            }
+            in.skipNBytes(length);
+            end += Integer.BYTES + length;
+        }
+        return end;
+    }
+
+    /**
+     * Hängt eine Aufzeichnung an.
+     *
+     * @param recording abgeschlossene Aufzeichnung
+     * @throws IOException bei Schreibfehlern
+     */
+    public void append(GameRecording recording) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream data = new DataOutputStream(bytes);
+        data.writeInt(0);
+        recording.write(data);
+        data.flush();
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        buffer.putInt(0, buffer.limit() - Integer.BYTES);
+        synchronized (this) {
+            writeFully(buffer);
+        }
+    }
+
+    /**
+     * @param buffer vollständig zu schreibende Daten
+     * @throws IOException bei Schreibfehlern
+     */
+    private void writeFully(ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Liest alle Aufzeichnungen eines Archivs nacheinander, ohne das ganze
+     * Archiv im Speicher zu halten. Ein beschädigter Eintrag wird gemeldet und
+     * übersprungen; die folgenden bleiben lesbar, da jeder Eintrag seine
+     * Länge trägt.
+     *
+     * @param file    Datei des Archivs
+     * @param action  wird für jede Aufzeichnung aufgerufen
+     * @param damaged wird für jeden beschädigten Eintrag mit seiner Nummer (ab 1) aufgerufen
+     * @return Anzahl der gelesenen Einträge einschließlich beschädigter
+     * @throws IOException wenn die Datei nicht gelesen werden kann oder kein Archiv ist
+     */
+    public static long forEach(Path file, Consumer<GameRecording> action, BiConsumer<Long, IOException> damaged)
+            throws IOException {
+        long count = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), 1 << 16)) {
+            DataInputStream data = new DataInputStream(in);
+            int version = checkHeader(data.readInt(), data.readShort());
+            while (true) {
+                byte[] entry;
+                try {
+                    int length = data.readInt();
+                    if (length < 0) {
+                        throw new IOException("Corrupt recording archive after " + count + " recordings");
+                    }
+                    entry = new byte[length];
+                    data.readFully(entry);
+                } catch (EOFException ex) {
+                    // Ende des Archivs oder abgeschnittener letzter Eintrag
+                    return count;
+                }
+                count++;
+                GameRecording recording;
+                try {
+                    recording = GameRecording.read(new DataInputStream(new ByteArrayInputStream(entry)),
+                            version, entry.length);
+                } catch (IOException ex) {
+                    damaged.accept(count, ex);
+                    continue;
+                }
+                action.accept(recording);
+            }
+        }
+    }
+
+    /**
+     * @param magic   gelesene Kennung
+     * @param version gelesene Version
+     * @return die Version, wenn sie gelesen werden kann
+     * @throws IOException wenn die Datei kein Archiv in einer bekannten Version ist
+     */
+    private static int checkHeader(int magic, short version) throws IOException {
+        if (magic != MAGIC) {
+            throw new IOException("Not a HTW escape recording archive");
+        }
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported recording archive version " + version);
+        }
+        return version;
+    }
+
+    /**
+     * Spielt alle Aufzeichnungen eines Archivs ohne Ausgabe nach und meldet
+     * jede, deren Ende nicht mehr mit der Aufzeichnung übereinstimmt. Mit
+     * einer Nummer wird nur diese Aufzeichnung mit Ausgabe nachgespielt.
+     *
+     * @param args [Archiv] [bis Runde] [Nummer ab 1]
+     * @throws IOException wenn das Archiv nicht gelesen werden kann
+     */
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get(args.length > 0 ? args[0] : EscapeApp.RECORDINGS_FILE_NAME);
+        int untilRound = args.length > 1 ? Integer.parseInt(args[1]) : Integer.MAX_VALUE;
+        long only = args.length > 2 ? Long.parseLong(args[2]) : 0;
+
+        long[] index = new long[1];
+        long[] replayed = new long[1];
+        long[] differing = new long[1];
+        long[] damagedCount = new long[1];
+        long[] replayNanos = new long[1];
+        Map<GameOutcome, Long> outcomes = new EnumMap<>(GameOutcome.class);
+        NullOutput discard = new NullOutput();
+        long count = forEach(file, recording -> {
+            index[0]++;
+            if (only != 0 && index[0] != only) {
+                return;
+            }
+            try {
+                long start = System.nanoTime();
+                EscapeGame game = EscapeApp.replay(recording, untilRound,
+                        only != 0 ? WriterOutput.console() : discard);
+                replayNanos[0] += System.nanoTime() - start;
+                replayed[0]++;
+                outcomes.merge(game.getOutcome(), 1L, Long::sum);
+                if (untilRound == Integer.MAX_VALUE && !recording.matches(game)) {
+                    differing[0]++;
+                    System.out.println("#" + index[0] + " " + recording + " now ends " + game.getOutcome()
+                            + " after " + game.getCurrentRound() + " rounds");
+                }
+            } catch (IOException ex) {
+                System.err.println("#" + index[0] + " cannot be replayed: " + ex.getMessage());
+            }
+        }, (number, ex) -> {
+            index[0] = number;
+            damagedCount[0]++;
+            System.err.println("#" + number + " is damaged: " + ex.getMessage());
+        });
+        System.out.printf("Replayed %d of %d recordings in %.1f ms (%.1f us per game), %d differ, %d damaged%n",
+                replayed[0], count, replayNanos[0] / 1e6,
+                replayed[0] == 0 ? 0 : replayNanos[0] / 1e3 / replayed[0], differing[0], damagedCount[0]);
+        System.out.println("Outcomes: " + outcomes);
+    }
+}
@@ -0,0 +1,197 @@
+package app;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+
+import model.GameOutput;
+
+/**
+ * Binärformat für Spielstände.
+ *
+ * Gespeichert wird nur der veränderliche Zustand (Held, Runde, Raum,
+ * Verschnaufpausen, Unterschriften, Zufallsquelle). Räume, Übungsleitungen und
+ * Fragen sind fester Inhalt und werden beim Laden neu erzeugt. Jeder Spielstand
+ * beginnt mit {@link #MAGIC} und der Formatversion {@link #VERSION}.
+ *
+ * Ältere Spielstände, die noch mit Java-Serialisierung geschrieben wurden,
+ * werden beim Lesen automatisch erkannt. Mit {@link #main(String[])} lassen
+ * sich solche Dateien in das neue Format umwandeln.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public final class SaveGameCodec {
+    /**
+     * Kennung am Anfang jedes Spielstands ("HTWE").
+     */
+    public static final int MAGIC = 0x48545745;
+    /**
+     * Aktuelle Version des Formats. Version 1 enthielt die Unterschriften
+     * zusätzlich als Bitmaske und wird weiterhin gelesen.
+     */
+    public static final short VERSION = 2;
+    /**
+     * Die ersten zwei Bytes eines mit Java-Serialisierung geschriebenen Stroms.
+     */
+    private static final int JAVA_SERIALIZATION_MAGIC = 0xACED;
+
+    /**
+     * Keine Instanzen, nur statische Hilfsmethoden.
+     */
+    private SaveGameCodec() {
+    }
+
+    /**
+     * Wandelt alte Spielstände in das Binärformat um.
+     *
+     * @param args Dateinamen der Spielstände (Standard: {@link EscapeApp#SAVE_FILE_NAME})
+     * @throws Exception wenn eine Datei nicht gelesen oder geschrieben werden kann
+     */
+    public static void main(String[] args) throws Exception {
+        String[] files = args.length > 0 ? args : new String[] {EscapeApp.SAVE_FILE_NAME};
+        for (String fileName : files) {
+            if (migrate(new File(fileName))) {
+                System.out.println("Migrated " + fileName);
+            } else {
+                System.out.println(fileName + " is already up to date");
+            }
+        }
+    }
+
+    /**
+     * Schreibt ein Spiel im Binärformat.
+     *
+     * @param game zu speicherndes Spiel
+     * @param out  Ziel des Spielstands
+     * @throws IOException bei Schreibfehlern
+     */
+    public static void write(EscapeGame game, OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        game.writeState(data);
+        data.flush();
+    }
+
+    /**
+     * Liest einen Spielstand im Binärformat oder im alten Format der
+     * Java-Serialisierung. Das Spiel verwendet danach die Konsole.
+     *
+     * @param in Quelle des Spielstands
+     * @return geladenes Spiel
+     * @throws IOException bei Lesefehlern oder unbekanntem Format
+     */
+    public static EscapeGame read(InputStream in) throws IOException {
+        return read(in, new ConsolePlayer(), WriterOutput.console());
+    }
+
+    /**
+     * Liest einen Spielstand im Binärformat oder im alten Format der
+     * Java-Serialisierung.
+     *
+     * @param in     Quelle des Spielstands
+     * @param player Quelle der Spielerentscheidungen für das geladene Spiel
+     * @param output Ziel der Spielausgaben für das geladene Spiel
+     * @return geladenes Spiel
+     * @throws IOException bei Lesefehlern oder unbekanntem Format
+     */
+    public static EscapeGame read(InputStream in, PlayerStrategy player, GameOutput output) throws IOException {
+        InputStream buffered = in.markSupported() ? in : new BufferedInputStream(in);
+        if (isLegacy(buffered)) {
+            EscapeGame game = readLegacy(buffered);
+            game.attach(player, output);
+            return game;
+        }
+
+        DataInputStream data = new DataInputStream(buffered);
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a HTW escape save file");
+        }
+        short version = data.readShort();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported save file version " + version);
+        }
+        return EscapeGame.readState(data, version, player, output);
+    }
+
+    /**
+     * Prüft, ob der Strom mit Java-Serialisierung geschrieben wurde, ohne
+     * Bytes zu verbrauchen.
+     *
+     * @param in Quelle mit Unterstützung für {@link InputStream#mark(int)}
+     * @return wahr, wenn es ein alter Spielstand ist
+     * @throws IOException bei Lesefehlern
+     */
+    private static boolean isLegacy(InputStream in) throws IOException {
+        in.mark(2);
+        int first = in.read();
+        int second = in.read();
+        in.reset();
+        return ((first << 8) | second) == JAVA_SERIALIZATION_MAGIC;
+    }
+
+    /**
+     * Schreibt ein Spiel im alten Format mittels Java-Serialisierung.
+     * Wird nur noch für Vergleichsmessungen benötigt.
+     *
+     * @param game zu speicherndes Spiel
+     * @param out  Ziel des Spielstands
+     * @throws IOException bei Schreibfehlern
+     */
+    public static void writeLegacy(EscapeGame game, OutputStream out) throws IOException {
+        ObjectOutputStream oos = new ObjectOutputStream(out);
+        oos.writeObject(game);
+        oos.flush();
+    }
+
+    /**
+     * Liest ein Spiel im alten Format mittels Java-Deserialisierung.
+     *
+     * @param in Quelle des Spielstands
+     * @return geladenes Spiel
+     * @throws IOException bei Lesefehlern oder unbekannten Klassen
+     */
+    public static EscapeGame readLegacy(InputStream in) throws IOException {
+        ObjectInputStream ois = new ObjectInputStream(in);
+        try {
+            return (EscapeGame) ois.readObject();
+        } catch (ClassNotFoundException | ClassCastException ex) {
+            throw new IOException("Unreadable legacy save file", ex);
+        }
+    }
+
+    /**
+     * Wandelt einen alten Spielstand in das Binärformat um.
+     *
+     * @param file Spielstand
+     * @return wahr, wenn die Datei umgewandelt wurde, falsch, wenn sie bereits
+     *         im Binärformat vorlag
+     * @throws IOException bei Lese- oder Schreibfehlern
+     */
+    public static boolean migrate(File file) throws IOException {
+        EscapeGame game;
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            if (!isLegacy(in)) {
+                return false;
+            }
+            game = readLegacy(in);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        write(game, bytes);
+        try (FileOutputStream fos = new FileOutputStream(file)) {
+            bytes.writeTo(fos);
+        }
+        return true;
+    }
+}
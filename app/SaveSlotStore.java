@@ -0,0 +1,584 @@
+package app;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import model.GameOutput;
+
+/**
+ * Speicher für viele benannte Spielstände (Slots) in einer einzigen,
+ * in den Speicher abgebildeten Datei.
+ *
+ * Aufbau der Datei:
+ * <pre>
+ * Kopf        (HEADER_SIZE Bytes): Kennung, Version, Kapazität, Slotgröße, Anzahl belegter Slots
+ * Verzeichnis (capacity * ENTRY_SIZE): Zustand, Namenslänge, Datenlänge, Zeitstempel, Name
+ * Daten       (capacity * slotDataSize): Spielstand im Format von {@link SaveGameCodec}
+ * </pre>
+ * Das Verzeichnis ist eine Hashtabelle mit linearer Sondierung. Eintrag
+ * {@code i} gehört immer zum Datenbereich {@code i}; Suchen, Laden und
+ * Überschreiben eines Slots kostet daher nur einen Hash und wenige Vergleiche,
+ * unabhängig von der Anzahl gespeicherter Spielstände. Beim Löschen rücken
+ * die folgenden Einträge der Sondierungskette nach (Backward-Shift), sodass
+ * keine Löschmarken zurückbleiben und auch erfolglose Suchen kurz bleiben.
+ *
+ * Alle Methoden sind synchronisiert, damit sich mehrere Spielsitzungen einen
+ * Speicher teilen können. Jede Änderung schreibt mit einem einzigen Aufruf
+ * nur den Bereich vom ersten bis zum letzten geänderten Byte auf die Platte,
+ * nicht die ganze Datei mit den Änderungen anderer Sitzungen.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class SaveSlotStore implements Closeable {
+    /**
+     * Kennung am Anfang der Datei ("HTWS").
+     */
+    private static final int MAGIC = 0x48545753;
+    /**
+     * Version des Dateiformats.
+     */
+    private static final short VERSION = 1;
+    /**
+     * Standardanzahl der Verzeichniseinträge (Zweierpotenz).
+     */
+    public static final int DEFAULT_CAPACITY = 8192;
+    /**
+     * Standardgröße des Datenbereichs pro Slot in Bytes.
+     */
+    public static final int DEFAULT_SLOT_DATA_SIZE = 512;
+    /**
+     * Maximale Länge eines Slotnamens in Bytes (UTF-8).
+     */
+    public static final int MAX_NAME_BYTES = 48;
+
+    /**
+     * Größe des Dateikopfs in Bytes.
+     */
+    private static final int HEADER_SIZE = 32;
+    /**
+     * Größe eines Verzeichniseintrags in Bytes.
+     */
+    private static final int ENTRY_SIZE = 64;
+
+    // Positionen im Dateikopf
+    private static final int HEADER_MAGIC = 0;
+    private static final int HEADER_VERSION = 4;
+    private static final int HEADER_CAPACITY = 8;
+    private static final int HEADER_SLOT_SIZE = 12;
+    private static final int HEADER_USED = 16;
+
+    // Positionen innerhalb eines Verzeichniseintrags
+    private static final int ENTRY_STATE = 0;
+    private static final int ENTRY_NAME_LENGTH = 1;
+    private static final int ENTRY_DATA_LENGTH = 4;
+    private static final int ENTRY_SAVED_AT = 8;
+    private static final int ENTRY_NAME = 16;
+
+    // Zustände eines Verzeichniseintrags
+    private static final byte EMPTY = 0;
+    private static final byte USED = 1;
+    /**
+     * Löschmarke älterer Dateien; wird beim Öffnen entfernt.
+     */
+    private static final byte DELETED = 2;
+
+    /**
+     * Geöffnete Datei.
+     */
+    private final RandomAccessFile file;
+    /**
+     * In den Speicher abgebildeter Inhalt der Datei.
+     */
+    private final MappedByteBuffer buffer;
+    /**
+     * Anzahl der Verzeichniseinträge.
+     */
+    private final int capacity;
+    /**
+     * Größe des Datenbereichs pro Slot in Bytes.
+     */
+    private final int slotDataSize;
+    /**
+     * Beginn des Datenbereichs in der Datei.
+     */
+    private final int dataOffset;
+
+    /**
+     * Öffnet einen Speicher. Die Datei wird angelegt, falls sie nicht existiert.
+     *
+     * @param file         Datei des Speichers
+     * @param capacity     Anzahl der Verzeichniseinträge für eine neue Datei (Zweierpotenz)
+     * @param slotDataSize Größe des Datenbereichs pro Slot für eine neue Datei
+     * @throws IOException wenn die Datei nicht geöffnet werden kann, kein Speicher ist
+     *                     oder einen beschädigten Kopf hat
+     */
+    public SaveSlotStore(File file, int capacity, int slotDataSize) throws IOException {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        if (slotDataSize <= 0 || fileSize(capacity, slotDataSize) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Slots do not fit into one mapping: " + capacity + " x " + slotDataSize);
+        }
+        boolean isNew = !file.exists() || file.length() == 0;
+        this.file = new RandomAccessFile(file, "rw");
+        try {
+            // Kopf einer vorhandenen Datei vor dem Abbilden prüfen, damit eine
+            // fremde Datei weder vergrößert noch falsch abgebildet wird
+            if (!isNew) {
+                if (this.file.length() < HEADER_SIZE || this.file.readInt() != MAGIC
+                        || this.file.readShort() != VERSION) {
+                    throw new IOException(file + " is not a HTW escape save store");
+                }
+                this.file.seek(HEADER_CAPACITY);
+                capacity = this.file.readInt();
+                slotDataSize = this.file.readInt();
+                int used = this.file.readInt();
+                long size = fileSize(capacity, slotDataSize);
+                if (capacity <= 0 || Integer.bitCount(capacity) != 1 || slotDataSize <= 0 || used < 0 || used > capacity
+                        || size > Integer.MAX_VALUE || size > this.file.length()) {
+                    throw new IOException(file + " has a damaged save store header");
+                }
+            }
+            this.capacity = capacity;
+            this.slotDataSize = slotDataSize;
+            this.dataOffset = HEADER_SIZE + capacity * ENTRY_SIZE;
+            this.buffer = this.file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+                    fileSize(capacity, slotDataSize));
+
+            if (isNew) {
+                buffer.putInt(HEADER_MAGIC, MAGIC);
+                buffer.putShort(HEADER_VERSION, VERSION);
+                buffer.putInt(HEADER_CAPACITY, capacity);
+                buffer.putInt(HEADER_SLOT_SIZE, slotDataSize);
+                buffer.putInt(HEADER_USED, 0);
+                buffer.force();
+            } else {
+                removeDeletedMarkers();
+            }
+        } catch (IOException | RuntimeException ex) {
+            this.file.close();
+            throw ex;
+        }
+    }
+
+    /**
+     * @param capacity     Anzahl der Verzeichniseinträge
+     * @param slotDataSize Größe des Datenbereichs pro Slot
+     * @return Größe der Datei in Bytes
+     */
+    private static long fileSize(int capacity, int slotDataSize) {
+        return HEADER_SIZE + (long) capacity * ENTRY_SIZE + (long) capacity * slotDataSize;
+    }
+
+    /**
+     * Öffnet einen Speicher mit Standardkapazität.
+     *
+     * @param file Datei des Speichers
+     * @throws IOException wenn die Datei nicht geöffnet werden kann
+     */
+    public SaveSlotStore(File file) throws IOException {
+        this(file, DEFAULT_CAPACITY, DEFAULT_SLOT_DATA_SIZE);
+    }
+
+    /**
+     * Liefert die Anzahl belegter Slots (aus dem Dateikopf, ohne Suche).
+     *
+     * @return Anzahl belegter Slots
+     */
+    public synchronized int size() {
+        return buffer.getInt(HEADER_USED);
+    }
+
+    /**
+     * Prüft, ob ein Slot mit dem Namen existiert.
+     *
+     * @param name Name des Slots
+     * @return wahr, wenn der Slot belegt ist
+     */
+    public synchronized boolean contains(String name) {
+        return find(lookupName(name)) >= 0;
+    }
+
+    /**
+     * Liefert die Namen aller belegten Slots, alphabetisch sortiert.
+     *
+     * @return Namen der Slots
+     */
+    public synchronized List<String> listSlots() {
+        List<String> names = new ArrayList<>(size());
+        for (int i = 0; i < capacity; i++) {
+            if (buffer.get(entryOffset(i) + ENTRY_STATE) == USED) {
+                names.add(readName(i));
+            }
+        }
+        Collections.sort(names);
+        return names;
+    }
+
+    /**
+     * Liefert den Zeitpunkt, zu dem der Slot zuletzt gespeichert wurde.
+     *
+     * @param name Name des Slots
+     * @return Zeitpunkt in Millisekunden seit 1970 oder -1, wenn der Slot nicht existiert
+     */
+    public synchronized long getSavedAt(String name) {
+        int index = find(lookupName(name));
+        return index < 0 ? -1 : buffer.getLong(entryOffset(index) + ENTRY_SAVED_AT);
+    }
+
+    /**
+     * Speichert ein Spiel in den Slot und überschreibt einen vorhandenen Stand.
+     *
+     * @param name Name des Slots
+     * @param game zu speicherndes Spiel
+     * @throws IOException wenn der Spielstand zu groß oder der Speicher voll ist
+     */
+    public void save(String name, EscapeGame game) throws IOException {
+        FlightEvents.Save event = FlightEvents.beginSave();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        SaveGameCodec.write(game, bytes);
+        byte[] data = bytes.toByteArray();
+        write(name, data);
+        if (event != null && event.shouldCommit()) {
+            event.slot = name;
+            event.bytes = data.length;
+            event.commit();
+        }
+    }
+
+    /**
+     * Lädt das Spiel aus dem Slot. Das Spiel verwendet danach die Konsole.
+     *
+     * @param name Name des Slots
+     * @return geladenes Spiel oder null, wenn der Slot nicht existiert
+     * @throws IOException wenn der Spielstand nicht gelesen werden kann
+     */
+    public EscapeGame load(String name) throws IOException {
+        return load(name, new ConsolePlayer(), WriterOutput.console());
+    }
+
+    /**
+     * Lädt das Spiel aus dem Slot.
+     *
+     * @param name   Name des Slots
+     * @param player Quelle der Spielerentscheidungen für das geladene Spiel
+     * @param output Ziel der Spielausgaben für das geladene Spiel
+     * @return geladenes Spiel oder null, wenn der Slot nicht existiert
+     * @throws IOException wenn der Spielstand nicht gelesen werden kann
+     */
+    public EscapeGame load(String name, PlayerStrategy player, GameOutput output) throws IOException {
+        FlightEvents.Load event = FlightEvents.beginLoad();
+        byte[] data = read(name);
+        EscapeGame game = data == null ? null : SaveGameCodec.read(new ByteArrayInputStream(data), player, output);
+        if (event != null && event.shouldCommit()) {
+            event.slot = name;
+            event.bytes = data == null ? 0 : data.length;
+            event.commit();
+        }
+        return game;
+    }
+
+    /**
+     * Schreibt rohe Daten in den Slot.
+     *
+     * @param name Name des Slots
+     * @param data Daten (höchstens {@code slotDataSize} Bytes)
+     * @throws IOException wenn die Daten zu groß sind oder der Speicher voll ist
+     */
+    public synchronized void write(String name, byte[] data) throws IOException {
+        if (data.length > slotDataSize) {
+            throw new IOException("Save data too large for a slot: " + data.length + " bytes");
+        }
+        byte[] encoded = encodeName(name);
+        int index = find(encoded);
+        int changedFrom = index < 0 ? 0 : entryOffset(index);
+        if (index < 0) {
+            if (size() >= capacity * 3 / 4) {
+                throw new IOException("Save store is full");
+            }
+            index = insertPosition(encoded);
+            int entry = entryOffset(index);
+            buffer.put(entry + ENTRY_NAME_LENGTH, (byte) encoded.length);
+            buffer.put(entry + ENTRY_NAME, encoded);
+            buffer.put(entry + ENTRY_STATE, USED);
+            buffer.putInt(HEADER_USED, size() + 1);
+            changedFrom = 0;
+        }
+
+        int entry = entryOffset(index);
+        buffer.put(dataOffset(index), data);
+        buffer.putInt(entry + ENTRY_DATA_LENGTH, data.length);
+        buffer.putLong(entry + ENTRY_SAVED_AT, System.currentTimeMillis());
+        int changedTo = dataOffset(index) + data.length;
+        buffer.force(changedFrom, changedTo - changedFrom);
+    }
+
+    /**
+     * Liest die rohen Daten eines Slots.
+     *
+     * @param name Name des Slots
+     * @return Kopie der Daten oder null, wenn der Slot nicht existiert
+     */
+    public synchronized byte[] read(String name) {
+        int index = find(lookupName(name));
+        if (index < 0) {
+            return null;
+        }
+        byte[] data = new byte[buffer.getInt(entryOffset(index) + ENTRY_DATA_LENGTH)];
+        buffer.get(dataOffset(index), data);
+        return data;
+    }
+
+    /**
+     * Löscht einen Slot.
+     *
+     * @param name Name des Slots
+     * @return wahr, wenn der Slot existierte
+     */
+    public synchronized boolean delete(String name) {
+        int index = find(lookupName(name));
+        if (index < 0) {
+            return false;
+        }
+        int changedTo = removeEntry(index);
+        buffer.putInt(HEADER_USED, size() - 1);
+        buffer.force(0, changedTo);
+        return true;
+    }
+
+    /**
+     * Schreibt alle Änderungen auf die Platte und schließt die Datei.
+     *
+     * @throws IOException bei Fehlern beim Schließen
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        file.close();
+    }
+
+    /**
+     * Sucht den Verzeichniseintrag mit dem Namen.
+     *
+     * @param encoded Name in UTF-8 oder null für einen ungültigen Namen
+     * @return Index des Eintrags oder -1, wenn er nicht existiert
+     */
+    private int find(byte[] encoded) {
+        if (encoded == null) {
+            return -1;
+        }
+        int mask = capacity - 1;
+        for (int i = hash(encoded) & mask, probes = 0; probes < capacity; i = (i + 1) & mask, probes++) {
+            byte state = buffer.get(entryOffset(i) + ENTRY_STATE);
+            if (state == EMPTY) {
+                return -1;
+            }
+            if (state == USED && nameEquals(i, encoded)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Entfernt einen Eintrag und rückt die folgenden Einträge seiner
+     * Sondierungskette in die Lücke nach, soweit sie dadurch nicht vor ihre
+     * Heimatposition geraten.
+     *
+     * @param index Index des zu entfernenden Eintrags
+     * @return Position hinter dem letzten geänderten Byte
+     */
+    private int removeEntry(int index) {
+        int mask = capacity - 1;
+        int hole = index;
+        int changedTo = entryOffset(index) + ENTRY_SIZE;
+        for (int i = (hole + 1) & mask; buffer.get(entryOffset(i) + ENTRY_STATE) == USED; i = (i + 1) & mask) {
+            int home = hash(readNameBytes(i)) & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                changedTo = Math.max(changedTo, moveEntry(i, hole));
+                hole = i;
+            }
+        }
+        buffer.put(entryOffset(hole) + ENTRY_STATE, EMPTY);
+        return Math.max(changedTo, entryOffset(hole) + ENTRY_SIZE);
+    }
+
+    /**
+     * Kopiert einen Verzeichniseintrag samt Daten an eine andere Position.
+     *
+     * @param from Index des Eintrags
+     * @param to   Index des Ziels
+     * @return Position hinter den kopierten Daten
+     */
+    private int moveEntry(int from, int to) {
+        byte[] data = new byte[buffer.getInt(entryOffset(from) + ENTRY_DATA_LENGTH)];
+        buffer.get(dataOffset(from), data);
+        buffer.put(dataOffset(to), data);
+        byte[] entry = new byte[ENTRY_SIZE];
+        buffer.get(entryOffset(from), entry);
+        buffer.put(entryOffset(to), entry);
+        return dataOffset(to) + data.length;
+    }
+
+    /**
+     * Sortiert das Verzeichnis einer älteren Datei mit Löschmarken neu ein,
+     * damit Suchen wieder beim ersten leeren Eintrag enden.
+     */
+    private void removeDeletedMarkers() {
+        boolean marked = false;
+        for (int i = 0; i < capacity && !marked; i++) {
+            marked = buffer.get(entryOffset(i) + ENTRY_STATE) == DELETED;
+        }
+        if (!marked) {
+            return;
+        }
+        List<byte[]> entries = new ArrayList<>();
+        List<byte[]> data = new ArrayList<>();
+        for (int i = 0; i < capacity; i++) {
+            int entry = entryOffset(i);
+            if (buffer.get(entry + ENTRY_STATE) == USED) {
+                byte[] bytes = new byte[ENTRY_SIZE];
+                buffer.get(entry, bytes);
+                entries.add(bytes);
+                byte[] slot = new byte[buffer.getInt(entry + ENTRY_DATA_LENGTH)];
+                buffer.get(dataOffset(i), slot);
+                data.add(slot);
+            }
+            buffer.put(entry + ENTRY_STATE, EMPTY);
+        }
+        for (int k = 0; k < entries.size(); k++) {
+            byte[] bytes = entries.get(k);
+            int index = insertPosition(Arrays.copyOfRange(bytes, ENTRY_NAME, ENTRY_NAME + bytes[ENTRY_NAME_LENGTH]));
+            buffer.put(dataOffset(index), data.get(k));
+            buffer.put(entryOffset(index), bytes);
+        }
+        buffer.putInt(HEADER_USED, entries.size());
+        buffer.force();
+    }
+
+    /**
+     * Liefert den ersten freien Eintrag der Sondierungskette.
+     *
+     * @param encoded Name in UTF-8
+     * @return Index des Eintrags
+     */
+    private int insertPosition(byte[] encoded) {
+        int mask = capacity - 1;
+        int i = hash(encoded) & mask;
+        while (buffer.get(entryOffset(i) + ENTRY_STATE) == USED) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * Vergleicht den Namen eines Eintrags mit dem gesuchten Namen.
+     *
+     * @param index   Index des Eintrags
+     * @param encoded gesuchter Name in UTF-8
+     * @return wahr bei Gleichheit
+     */
+    private boolean nameEquals(int index, byte[] encoded) {
+        int entry = entryOffset(index);
+        if (buffer.get(entry + ENTRY_NAME_LENGTH) != encoded.length) {
+            return false;
+        }
+        for (int i = 0; i < encoded.length; i++) {
+            if (buffer.get(entry + ENTRY_NAME + i) != encoded[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Liest den Namen eines Eintrags.
+     *
+     * @param index Index des Eintrags
+     * @return Name des Slots
+     */
+    private String readName(int index) {
+        return new String(readNameBytes(index), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Liest den Namen eines Eintrags in UTF-8.
+     *
+     * @param index Index des Eintrags
+     * @return Name in UTF-8
+     */
+    private byte[] readNameBytes(int index) {
+        int entry = entryOffset(index);
+        byte[] encoded = new byte[buffer.get(entry + ENTRY_NAME_LENGTH)];
+        buffer.get(entry + ENTRY_NAME, encoded);
+        return encoded;
+    }
+
+    /**
+     * Wandelt einen Slotnamen in UTF-8 um.
+     *
+     * @param name Name des Slots
+     * @return Name in UTF-8
+     */
+    private static byte[] encodeName(String name) {
+        byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+        if (encoded.length == 0 || encoded.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Slot name must have 1 to " + MAX_NAME_BYTES + " bytes: " + name);
+        }
+        return encoded;
+    }
+
+    /**
+     * Wandelt einen gesuchten Slotnamen in UTF-8 um. Ein Name, unter dem nie
+     * gespeichert werden kann, gilt als nicht vorhanden statt als Fehler.
+     *
+     * @param name Name des Slots
+     * @return Name in UTF-8 oder null, wenn er zu kurz oder zu lang ist
+     */
+    private static byte[] lookupName(String name) {
+        byte[] encoded = name.getBytes(StandardCharsets.UTF_8);
+        return encoded.length == 0 || encoded.length > MAX_NAME_BYTES ? null : encoded;
+    }
+
+    /**
+     * Hashwert eines Namens (FNV-1a).
+     *
+     * @param encoded Name in UTF-8
+     * @return Hashwert
+     */
+    private static int hash(byte[] encoded) {
+        int h = 0x811c9dc5;
+        for (byte b : encoded) {
+            h = (h ^ (b & 0xff)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * @param index Index des Eintrags
+     * @return Position des Verzeichniseintrags in der Datei
+     */
+    private static int entryOffset(int index) {
+        return HEADER_SIZE + index * ENTRY_SIZE;
+    }
+
+    /**
+     * @param index Index des Eintrags
+     * @return Position des Datenbereichs in der Datei
+     */
+    private int dataOffset(int index) {
+        return dataOffset + index * slotDataSize;
+    }
+}
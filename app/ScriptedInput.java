@@ -0,0 +1,90 @@
+package app;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import model.GameOutput;
+
+/**
+ * Eingabe aus einer Skriptdatei mit einem Befehl pro Zeile, z. B. für
+ * Regressions- und Dauertests ohne Nutzer.
+ *
+ * Leere Zeilen und Zeilen, die mit {@code #} beginnen, werden übersprungen;
+ * eine Zeile, die nur aus {@code .} besteht, steht für eine leere Eingabe.
+ * Auf Wunsch wird jeder gelesene Befehl auf der Spielausgabe wiederholt,
+ * damit das Protokoll wie eine echte Sitzung aussieht.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class ScriptedInput implements GameInput {
+    /**
+     * Quelle der Befehle.
+     */
+    private final BufferedReader reader;
+    /**
+     * Ausgabe, auf der gelesene Befehle wiederholt werden (null, wenn nicht).
+     */
+    private final GameOutput echo;
+    /**
+     * Anzahl bisher gelesener Befehle.
+     */
+    private long commands;
+
+    /**
+     * Öffnet eine Skriptdatei (UTF-8).
+     *
+     * @param script Skriptdatei
+     * @param echo   Ausgabe für die Wiederholung der Befehle oder null
+     * @throws IOException wenn die Datei nicht geöffnet werden kann
+     */
+    public ScriptedInput(Path script, GameOutput echo) throws IOException {
+        this(Files.newBufferedReader(script, StandardCharsets.UTF_8), echo);
+    }
+
+    /**
+     * Erstellt eine Skripteingabe aus einem Zeichenstrom.
+     *
+     * @param reader Quelle der Befehle
+     * @param echo   Ausgabe für die Wiederholung der Befehle oder null
+     */
+    public ScriptedInput(BufferedReader reader, GameOutput echo) {
+        this.reader = reader;
+        this.echo = echo;
+    }
+
+    @Override
+    public String readLine() {
+        try {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    throw new EOFException("End of script after " + commands + " commands");
+                }
+            } while (line.isBlank() || line.startsWith("#"));
+            if (".".equals(line)) {
+                line = "";
+            }
+            commands++;
+            if (echo != null) {
+                echo.println("> " + line);
+            }
+            return line;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * @return Anzahl bisher gelesener Befehle
+     */
+    public long getCommands() {
+        return commands;
+    }
+}
@@ -0,0 +1,106 @@
+package app;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import model.GameOutput;
+
+/**
+ * Gepufferte Spielausgabe auf einen Zeichenstrom (Konsole oder Netzwerksitzung).
+ *
+ * Anders als {@code System.out.println} wird nicht pro Zeile synchronisiert
+ * und geleert, sondern erst bei {@link #flush()}, also einmal pro Zug.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class WriterOutput implements GameOutput {
+    /**
+     * Puffergröße der Konsole in Zeichen.
+     */
+    private static final int CONSOLE_BUFFER_SIZE = 8192;
+    /**
+     * Zeilenumbruch des Systems (wie bei {@code System.out.println}).
+     */
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    /**
+     * Gemeinsame Ausgabe auf die Konsole. Es darf nur eine geben, sonst
+     * geraten Zeilen aus verschiedenen Puffern durcheinander.
+     */
+    private static WriterOutput console;
+
+    /**
+     * Gepuffertes Ziel der Ausgaben.
+     */
+    private final Writer writer;
+
+    /**
+     * Erstellt eine gepufferte Ausgabe auf den Strom.
+     *
+     * @param out        Ziel der Ausgaben
+     * @param charset    Zeichensatz
+     * @param bufferSize Puffergröße in Zeichen
+     */
+    public WriterOutput(OutputStream out, Charset charset, int bufferSize) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, charset), bufferSize);
+    }
+
+    /**
+     * Liefert die gemeinsame gepufferte Ausgabe auf {@code System.out}.
+     *
+     * @return Ausgabe auf die Konsole
+     */
+    public static synchronized WriterOutput console() {
+        if (console == null) {
+            console = new WriterOutput(System.out, Charset.defaultCharset(), CONSOLE_BUFFER_SIZE);
+        }
+        return console;
+    }
+
+    /**
+     * Erstellt die Ausgabe einer Netzwerksitzung (UTF-8).
+     *
+     * @param socket     Verbindung des Spielers
+     * @param bufferSize Puffergröße in Zeichen
+     * @return Ausgabe auf die Verbindung
+     * @throws IOException wenn die Verbindung bereits geschlossen ist
+     */
+    public static WriterOutput forSocket(Socket socket, int bufferSize) throws IOException {
+        return new WriterOutput(socket.getOutputStream(), StandardCharsets.UTF_8, bufferSize);
+    }
+
+    @Override
+    public void print(String text) {
+        try {
+            writer.write(text);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void println(String text) {
+        try {
+            writer.write(text);
+            writer.write(LINE_SEPARATOR);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            writer.flush();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
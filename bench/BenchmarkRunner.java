@@ -0,0 +1,217 @@
+package bench;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Kleiner Mess-Rahmen für Mikro-Benchmarks nach dem Vorbild von JMH.
+ *
+ * Jede Operation wird zuerst eine Aufwärmphase lang ausgeführt (damit der
+ * JIT-Compiler greift) und danach in mehreren Messdurchläufen gemessen.
+ * Ermittelt werden Operationen pro Sekunde und die pro Operation im
+ * aktuellen Thread angelegten Bytes (vergleichbar mit dem gc-Profiler von JMH).
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class BenchmarkRunner {
+
+    /**
+     * Eine zu messende Operation. Der Rückgabewert wird aufsummiert, damit der
+     * JIT-Compiler die Operation nicht wegoptimieren kann.
+     */
+    @FunctionalInterface
+    public interface Operation {
+        /**
+         * Führt die Operation einmal aus.
+         *
+         * @return beliebiger Wert, der das Ergebnis der Operation widerspiegelt
+         * @throws Exception wenn die Operation fehlschlägt
+         */
+        long run() throws Exception;
+    }
+
+    /**
+     * Ergebnis einer Messung.
+     */
+    public static class Result {
+        /**
+         * Name des Benchmarks.
+         */
+        private final String name;
+        /**
+         * Operationen pro Sekunde.
+         */
+        private final double opsPerSecond;
+        /**
+         * Angelegte Bytes pro Operation (-1, wenn nicht messbar).
+         */
+        private final double bytesPerOp;
+
+        /**
+         * @param name         Name des Benchmarks
+         * @param opsPerSecond Operationen pro Sekunde
+         * @param bytesPerOp   angelegte Bytes pro Operation
+         */
+        public Result(String name, double opsPerSecond, double bytesPerOp) {
+            this.name = name;
+            this.opsPerSecond = opsPerSecond;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        /**
+         * @return Name des Benchmarks
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return Operationen pro Sekunde
+         */
+        public double getOpsPerSecond() {
+            return opsPerSecond;
+        }
+
+        /**
+         * @return angelegte Bytes pro Operation (-1, wenn nicht messbar)
+         */
+        public double getBytesPerOp() {
+            return bytesPerOp;
+        }
+    }
+
+    /**
+     * Dauer der Aufwärmphase in Nanosekunden.
+     */
+    private final long warmupNanos;
+    /**
+     * Dauer eines Messdurchlaufs in Nanosekunden.
+     */
+    private final long measureNanos;
+    /**
+     * Anzahl der Messdurchläufe.
+     */
+    private final int iterations;
+    /**
+     * Alle bisherigen Ergebnisse.
+     */
+    private final List<Result> results = new ArrayList<>();
+    /**
+     * Senke für die Rückgabewerte der Operationen.
+     */
+    private long sink;
+
+    /**
+     * @param warmupMillis  Dauer der Aufwärmphase in Millisekunden
+     * @param measureMillis Dauer eines Messdurchlaufs in Millisekunden
+     * @param iterations    Anzahl der Messdurchläufe
+     */
+    public BenchmarkRunner(long warmupMillis, long measureMillis, int iterations) {
+        this.warmupNanos = warmupMillis * 1_000_000L;
+        this.measureNanos = measureMillis * 1_000_000L;
+        this.iterations = iterations;
+    }
+
+    /**
+     * Misst eine Operation und merkt sich das Ergebnis.
+     *
+     * @param name Name des Benchmarks
+     * @param op   zu messende Operation
+     * @return Ergebnis der Messung
+     * @throws Exception wenn die Operation fehlschlägt
+     */
+    public Result measure(String name, Operation op) throws Exception {
+        runFor(warmupNanos, op);
+
+        long totalOps = 0;
+        long totalNanos = 0;
+        long startBytes = allocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            totalOps += runFor(measureNanos, op);
+            totalNanos += System.nanoTime() - start;
+        }
+        long endBytes = allocatedBytes();
+
+        double bytesPerOp = startBytes < 0 ? -1 : (double) (endBytes - startBytes) / totalOps;
+        Result result = new Result(name, totalOps * 1_000_000_000.0 / totalNanos, bytesPerOp);
+        results.add(result);
+        return result;
+    }
+
+    /**
+     * Führt die Operation in Blöcken aus, bis die angegebene Zeit verstrichen ist.
+     *
+     * @param nanos Dauer in Nanosekunden
+     * @param op    Operation
+     * @return Anzahl der Ausführungen
+     * @throws Exception wenn die Operation fehlschlägt
+     */
+    private long runFor(long nanos, Operation op) throws Exception {
+        long deadline = System.nanoTime() + nanos;
+        long count = 0;
+        long local = 0;
+        do {
+            for (int i = 0; i < 64; i++) {
+                local += op.run();
+            }
+            count += 64;
+        } while (System.nanoTime() < deadline);
+        sink += local;
+        return count;
+    }
+
+    /**
+     * Liefert die bisher im aktuellen Thread angelegten Bytes.
+     *
+     * @return Bytes oder -1, wenn die JVM das nicht unterstützt
+     */
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+            if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                return sunBean.getCurrentThreadAllocatedBytes();
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gibt alle Ergebnisse als Tabelle aus.
+     *
+     * @param out Ziel der Ausgabe
+     */
+    public void printResults(PrintStream out) {
+        out.printf("%-28s %16s %12s%n", "Benchmark", "ops/s", "B/op");
+        for (Result r : results) {
+            out.printf("%-28s %16.1f %12.1f%n", r.getName(), r.getOpsPerSecond(), r.getBytesPerOp());
+        }
+        out.println("(checksum " + sink + ")");
+    }
+
+    /**
+     * Hängt alle Ergebnisse als CSV-Zeilen an eine Datei an, damit Messungen
+     * verschiedener Commits verglichen werden können.
+     *
+     * @param fileName Name der CSV-Datei
+     * @param label    Kennzeichnung des Laufs (z. B. Commit-Hash)
+     * @throws IOException bei Schreibfehlern
+     */
+    public void appendCsv(String fileName, String label) throws IOException {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(fileName, true))) {
+            long timestamp = System.currentTimeMillis();
+            for (Result r : results) {
+                writer.printf(Locale.ROOT, "%s,%d,%s,%.1f,%.1f%n",
+                        label, timestamp, r.getName(), r.getOpsPerSecond(), r.getBytesPerOp());
+            }
+        }
+    }
+}
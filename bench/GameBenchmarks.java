@@ -0,0 +1,322 @@
+package bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import app.CampusContent;
+import app.BuiltInEncounter;
+import app.CampusGraph;
+import app.EncounterTable;
+import app.EncounterType;
+import app.EscapeApp;
+import app.EscapeGame;
+import app.GameRecording;
+import app.NullOutput;
+import app.QuestionDraw;
+import app.SaveGameCodec;
+import app.WriterOutput;
+import model.AlienArchetype;
+import model.CombatBatch;
+import model.CombatEngine;
+import model.GameOutput;
+import model.GameRandom;
+import model.Hero;
+import model.HostileAlien;
+import model.Lecturer;
+import model.SpawnTable;
+import sim.AggressiveStrategy;
+import sim.TranspositionTable;
+
+/**
+ * Benchmarks für die zeitkritischen Stellen des Spiels.
+ *
+ * Aufruf: {@code java bench.GameBenchmarks [Kennzeichnung] [CSV-Datei]}.
+ * Mit Kennzeichnung (z. B. dem Commit-Hash) und CSV-Datei werden die
+ * Ergebnisse zusätzlich angehängt, damit Regressionen zwischen Commits
+ * sichtbar werden.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class GameBenchmarks {
+
+    /**
+     * Verworfene Spielausgabe, damit die Konsole nicht mitgemessen wird.
+     */
+    static final GameOutput DISCARD = new NullOutput();
+    /**
+     * Anzahl gleichzeitiger Kämpfe der Stapel-Benchmarks.
+     */
+    private static final int BATCH_FIGHTS = 1024;
+    /**
+     * Leere Liste der Übungsleitungen zum Zurücksetzen der Helden.
+     */
+    private static final Lecturer[] NO_LECTURERS = new Lecturer[0];
+
+    /**
+     * Einstiegspunkt der Benchmarks.
+     *
+     * @param args [Kennzeichnung] [CSV-Datei]
+     * @throws Exception wenn ein Benchmark fehlschlägt
+     */
+    public static void main(String[] args) throws Exception {
+        BenchmarkRunner runner = new BenchmarkRunner(1000, 1000, 5);
+
+        Hero hero = new Hero("Bench");
+        hero.addExperiencePoints(3);
+        runner.measure("Hero.attack", hero::attack);
+        runner.measure("Hero.flee", () -> hero.flee() ? 1 : 0);
+
+        CombatEngine engine = new CombatEngine(new GameRandom(1));
+        runner.measure("CombatEngine.resolve.xp0", () -> engine.resolve(50, 0, HostileAlien.LIFE_POINTS));
+        runner.measure("CombatEngine.resolve.xp6", () -> engine.resolve(50, 6, HostileAlien.LIFE_POINTS));
+
+        GameRandom[] fightRandoms = new GameRandom[BATCH_FIGHTS];
+        Hero[] fightHeroes = new Hero[BATCH_FIGHTS];
+        HostileAlien[] fightAliens = new HostileAlien[BATCH_FIGHTS];
+        for (int i = 0; i < BATCH_FIGHTS; i++) {
+            fightRandoms[i] = GameRandom.forStream(1, i);
+            fightHeroes[i] = new Hero("Bench", fightRandoms[i]);
+            fightAliens[i] = new HostileAlien();
+        }
+        runner.measure("Combat.objects." + BATCH_FIGHTS, () -> resolveObjects(fightHeroes, fightAliens, fightRandoms));
+        CombatBatch batch = new CombatBatch(BATCH_FIGHTS, BATCH_FIGHTS);
+        runner.measure("CombatBatch.resolve." + BATCH_FIGHTS, () -> resolveBatch(batch, fightRandoms));
+
+        runner.measure("EscapeGame.alienEncounter", () -> {
+            EscapeGame game = newGame();
+            game.handleAlienEncounter();
+            return game.getHero().getHealthPoints();
+        });
+        EscapeGame fighter = newGame();
+        long freshFighter = fighter.packState();
+        runner.measure("EscapeGame.hostileEncounter.reused", () -> {
+            fighter.unpackState(freshFighter, fighter.getRandom().getState());
+            fighter.handleAlienEncounter(AlienArchetype.HOSTILE);
+            return fighter.getHero().getHealthPoints();
+        });
+
+        EscapeGame explorer = newGame();
+        runner.measure("EscapeGame.exploreCampus", () -> {
+            explorer.exploreCampus();
+            return explorer.getCurrentRound();
+        });
+
+        measureTurns(runner, "EscapeGame.turn.buffered",
+                new WriterOutput(OutputStream.nullOutputStream(), StandardCharsets.UTF_8, 8192));
+        measureTurns(runner, "EscapeGame.turn.null", new NullOutput());
+
+        EscapeGame signed = newGame();
+        while (signed.getSignatureCount() < 3) {
+            signed.exploreCampus();
+        }
+        runner.measure("EscapeGame.countSignatures", signed::getSignatureCount);
+
+        long packed = signed.packState();
+        long randomState = signed.getRandom().getState();
+        runner.measure("EscapeGame.packState", signed::packState);
+        runner.measure("EscapeGame.unpackState", () -> {
+            signed.unpackState(packed, randomState);
+            return signed.getCurrentRound();
+        });
+
+        TranspositionTable table = new TranspositionTable(1 << 16);
+        long[] probe = new long[1];
+        runner.measure("TranspositionTable.putGet", () -> {
+            long key = packed + (probe[0]++ & 0xFFFF);
+            table.put(key, 0.5);
+            return table.get(key, 0.0) > 0 ? 1 : 0;
+        });
+
+        QuestionDraw questions = CampusContent.shared().getQuestionBank().draw(1);
+        runner.measure("QuestionDraw.next", () -> questions.next().getDifficulty());
+
+        GameRandom encounterRandom = new GameRandom(1);
+        EncounterTable encounters = EncounterTable.of(SpawnTable.DEFAULT);
+        runner.measure("EncounterTable.sample.4", () -> encounters.sample(encounterRandom).getName().length());
+        EncounterTable manyEncounters = manyEncounterTypes(256);
+        runner.measure("EncounterTable.sample.256", () -> manyEncounters.sample(encounterRandom).getName().length());
+
+        CampusGraph grid = gridCampus(128).getGraph();
+        int[] position = new int[1];
+        runner.measure("CampusGraph.nearestUnsignedLecturer", () -> {
+            int from = position[0]++ & 0x3FFF;
+            int lecturer = grid.nearestUnsignedLecturer(from, 0b00101);
+            return grid.stepTowardLecturer(from, lecturer);
+        });
+        runner.measure("CampusGraph.distancesTo.uncached", () -> grid.distancesTo(position[0]++ & 0x3FFF).length);
+
+        EscapeGame saved = newGame();
+        for (int i = 0; i < 10; i++) {
+            saved.exploreCampus();
+        }
+        runner.measure("EscapeApp.saveLoadRoundTrip", () -> {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            SaveGameCodec.write(saved, bytes);
+            EscapeGame loaded = SaveGameCodec.read(new ByteArrayInputStream(bytes.toByteArray()), saved.getPlayer(), DISCARD);
+            return bytes.size() + loaded.getCurrentRound();
+        });
+
+        // Startwert 4 mit immer derselben Wahl geht über alle 24 Runden
+        GameRecording recording = GameRecording.newGame(4, "Bench");
+        for (int i = 0; i < 400; i++) {
+            recording.add("1");
+        }
+        runner.measure("EscapeApp.replay", () -> EscapeApp.replay(recording, Integer.MAX_VALUE, DISCARD).getCurrentRound());
+
+        runner.printResults(System.out);
+        if (args.length >= 2) {
+            runner.appendCsv(args[1], args[0]);
+        }
+    }
+
+    /**
+     * Misst einen kompletten Zug (Erkunden und einmal Ausgabe leeren) mit der
+     * angegebenen Ausgabe. Beendete Spiele werden durch neue ersetzt.
+     *
+     * @param runner Mess-Rahmen
+     * @param name   Name des Benchmarks
+     * @param output Ziel der Spielausgaben
+     * @throws Exception wenn der Benchmark fehlschlägt
+     */
+    private static void measureTurns(BenchmarkRunner runner, String name, GameOutput output) throws Exception {
+        GameRandom random = new GameRandom(1);
+        EscapeGame[] current = new EscapeGame[1];
+        runner.measure(name, () -> {
+            EscapeGame game = current[0];
+            if (game == null || game.isGameFinished()) {
+                game = new EscapeGame(new AggressiveStrategy(1.0), output, random.split());
+                game.run("Bench");
+                current[0] = game;
+            }
+            game.exploreCampus();
+            output.flush();
+            return game.getCurrentRound();
+        });
+    }
+
+    /**
+     * Trägt {@link #BATCH_FIGHTS} Kämpfe einzeln über die Objekte aus:
+     * {@link Hero#attack()}, {@link HostileAlien#takeDamage(int)} und
+     * {@link Hero#takeDamage(int)}, Runde für Runde über alle Kämpfe.
+     *
+     * @param heroes  Helden
+     * @param aliens  Aliens
+     * @param randoms Zufallsquelle je Held
+     * @return Summe der Lebenspunkte der Helden
+     */
+    private static int resolveObjects(Hero[] heroes, HostileAlien[] aliens, GameRandom[] randoms) {
+        for (int i = 0; i < heroes.length; i++) {
+            heroes[i].restoreState(50, i % 8, false, 0, NO_LECTURERS);
+            aliens[i].reset(AlienArchetype.HOSTILE);
+        }
+        int running = heroes.length;
+        while (running > 0) {
+            running = 0;
+            for (int i = 0; i < heroes.length; i++) {
+                Hero hero = heroes[i];
+                HostileAlien alien = aliens[i];
+                if (hero.getHealthPoints() == 0 || alien.isDefeated()) {
+                    continue;
+                }
+                alien.takeDamage(hero.attack());
+                if (alien.isDefeated()) {
+                    continue;
+                }
+                hero.takeDamage(HostileAlien.MIN_DAMAGE
+                        + randoms[i].nextInt(HostileAlien.MAX_DAMAGE - HostileAlien.MIN_DAMAGE + 1));
+                if (hero.getHealthPoints() > 0) {
+                    running++;
+                }
+            }
+        }
+        int sum = 0;
+        for (Hero hero : heroes) {
+            sum += hero.getHealthPoints();
+        }
+        return sum;
+    }
+
+    /**
+     * Trägt dieselben Kämpfe wie {@link #resolveObjects} mit einem
+     * {@link CombatBatch} aus und setzt die Zufallsquellen danach weiter.
+     *
+     * @param batch   wiederverwendeter Stapel
+     * @param randoms Zufallsquelle je Held
+     * @return Summe der Lebenspunkte der Helden
+     */
+    private static int resolveBatch(CombatBatch batch, GameRandom[] randoms) {
+        batch.clear();
+        for (int i = 0; i < randoms.length; i++) {
+            batch.addHero(50, i % 8, randoms[i]);
+            batch.addAlien(HostileAlien.LIFE_POINTS, HostileAlien.MIN_DAMAGE, HostileAlien.MAX_DAMAGE);
+        }
+        batch.resolve();
+        int sum = 0;
+        for (int i = 0; i < randoms.length; i++) {
+            batch.applyTo(i, randoms[i]);
+            sum += batch.getHeroHp(i);
+        }
+        return sum;
+    }
+
+    /**
+     * Erstellt eine Ereignistabelle mit vielen Arten, um zu zeigen, dass die
+     * Ziehung nicht von ihrer Anzahl abhängt.
+     *
+     * @param count Anzahl der Arten
+     * @return Tabelle mit ungleichen Gewichten
+     */
+    static EncounterTable manyEncounterTypes(int count) {
+        EncounterType[] types = new EncounterType[count];
+        int[] weights = new int[count];
+        for (int i = 0; i < count; i++) {
+            types[i] = BuiltInEncounter.values()[i % BuiltInEncounter.values().length];
+            weights[i] = 1 + i * 7 % 100;
+        }
+        return new EncounterTable(types, weights);
+    }
+
+    /**
+     * Erstellt einen quadratischen Campus, in dem jeder Raum mit seinen
+     * Nachbarn im Raster verbunden ist. Die fünf Übungsleitungen sitzen
+     * verstreut in je einem Raum.
+     *
+     * @param side Räume je Seite
+     * @return Campus mit {@code side * side} Räumen
+     */
+    static CampusContent gridCampus(int side) {
+        CampusContent.Builder builder = new CampusContent.Builder();
+        for (int i = 0; i < 5; i++) {
+            builder.addLecturer("Lecturer " + i);
+        }
+        int rooms = side * side;
+        for (int room = 0; room < rooms; room++) {
+            int lecturer = room % (rooms / 5 + 1) == rooms / 7 ? room / (rooms / 5 + 1) : -1;
+            builder.addRoom("R" + room, "Raum", lecturer, "G" + room / side, 0);
+        }
+        for (int room = 0; room < rooms; room++) {
+            if (room % side + 1 < side) {
+                builder.addCorridor(room, room + 1);
+            }
+            if (room + side < rooms) {
+                builder.addCorridor(room, room + side);
+            }
+        }
+        builder.addQuestion("?", "a", "b", "c", "d", 0);
+        return builder.build();
+    }
+
+    /**
+     * Erstellt ein neues Spiel ohne Konsole mit einer angreifenden Strategie.
+     *
+     * @return neues, gestartetes Spiel
+     */
+    static EscapeGame newGame() {
+        EscapeGame game = new EscapeGame(new AggressiveStrategy(1.0), DISCARD);
+        game.run("Bench");
+        return game;
+    }
+}
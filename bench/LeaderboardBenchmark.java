@@ -0,0 +1,89 @@
+package bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import app.GameOutcome;
+import app.Leaderboard;
+
+/**
+ * Füllt eine {@link Leaderboard} aus mehreren Threads mit zufälligen
+ * Ergebnissen und misst danach Top-K- und Rang-Abfragen.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class LeaderboardBenchmark {
+    /**
+     * Anzahl verschiedener Spielernamen.
+     */
+    private static final int PLAYERS = 1_000_000;
+    /**
+     * Mögliche Ausgänge eines beendeten Spiels.
+     */
+    private static final GameOutcome[] OUTCOMES = {
+        GameOutcome.WON, GameOutcome.DEFEATED, GameOutcome.OUT_OF_ROUNDS, GameOutcome.QUIZ_FAILED
+    };
+
+    /**
+     * Einstiegspunkt des Benchmarks.
+     *
+     * @param args [Anzahl Ergebnisse] [Threads] [Verzeichnis] [CSV-Datei]
+     * @throws Exception wenn ein Benchmark fehlschlägt
+     */
+    public static void main(String[] args) throws Exception {
+        long entries = args.length > 0 ? Long.parseLong(args[0]) : 2_000_000;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+        Path directory = args.length > 2 ? Paths.get(args[2]) : Files.createTempDirectory("leaderboard");
+
+        try (Leaderboard leaderboard = new Leaderboard(directory)) {
+            long start = System.nanoTime();
+            List<Thread> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long count = entries / threads + (t < entries % threads ? 1 : 0);
+                SplittableRandom random = new SplittableRandom(t);
+                Thread writer = new Thread(() -> {
+                    try {
+                        for (long i = 0; i < count; i++) {
+                            leaderboard.record("hero" + random.nextInt(PLAYERS), random.nextInt(500),
+                                    1 + random.nextInt(24), OUTCOMES[random.nextInt(OUTCOMES.length)]);
+                        }
+                    } catch (IOException ex) {
+                        throw new IllegalStateException(ex);
+                    }
+                }, "leaderboard-writer-" + t);
+                writers.add(writer);
+                writer.start();
+            }
+            for (Thread writer : writers) {
+                writer.join();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.printf("Recorded %d results with %d threads in %.1f s (%.0f results/s), %d runs%n",
+                    leaderboard.size(), threads, seconds, leaderboard.size() / seconds, leaderboard.getRunCount());
+
+            SplittableRandom random = new SplittableRandom(42);
+            BenchmarkRunner runner = new BenchmarkRunner(1000, 1000, 5);
+            runner.measure("Leaderboard.top10", () -> leaderboard.topK(10).size());
+            runner.measure("Leaderboard.top1000", () -> leaderboard.topK(1000).size());
+            runner.measure("Leaderboard.rankOf", () -> leaderboard.rankOf("hero" + random.nextInt(PLAYERS)));
+            runner.printResults(System.out);
+            if (args.length >= 4) {
+                runner.appendCsv(args[3], "leaderboard-" + entries);
+            }
+        } finally {
+            if (args.length <= 2) {
+                try (Stream<Path> files = Files.walk(directory)) {
+                    files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package bench;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import app.EscapeGame;
+import app.SaveGameCodec;
+
+/**
+ * Vergleicht das Binärformat von {@link SaveGameCodec} mit dem alten
+ * Format der Java-Serialisierung: Größe des Spielstands sowie Dauer von
+ * Speichern und Laden.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class SaveFormatBenchmark {
+
+    /**
+     * Einstiegspunkt des Vergleichs.
+     *
+     * @param args [Kennzeichnung] [CSV-Datei]
+     * @throws Exception wenn ein Benchmark fehlschlägt
+     */
+    public static void main(String[] args) throws Exception {
+        EscapeGame game = GameBenchmarks.newGame();
+        for (int i = 0; i < 10; i++) {
+            game.exploreCampus();
+        }
+
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        SaveGameCodec.write(game, binary);
+        byte[] binaryBytes = binary.toByteArray();
+        ByteArrayOutputStream legacy = new ByteArrayOutputStream();
+        SaveGameCodec.writeLegacy(game, legacy);
+        byte[] legacyBytes = legacy.toByteArray();
+
+        System.out.println("Binary save size: " + binaryBytes.length + " bytes");
+        System.out.println("Legacy save size: " + legacyBytes.length + " bytes");
+        System.out.println();
+
+        BenchmarkRunner runner = new BenchmarkRunner(1000, 1000, 5);
+        runner.measure("binary.save", () -> {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            SaveGameCodec.write(game, bytes);
+            return bytes.size();
+        });
+        runner.measure("legacy.save", () -> {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(2048);
+            SaveGameCodec.writeLegacy(game, bytes);
+            return bytes.size();
+        });
+        runner.measure("binary.load", () -> SaveGameCodec.read(
+                new ByteArrayInputStream(binaryBytes), game.getPlayer(), GameBenchmarks.DISCARD).getCurrentRound());
+        runner.measure("legacy.load", () -> SaveGameCodec.readLegacy(
+                new ByteArrayInputStream(legacyBytes)).getCurrentRound());
+
+        runner.printResults(System.out);
+        if (args.length >= 2) {
+            runner.appendCsv(args[1], args[0]);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package bench;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lastgenerator für {@link app.GameServer}.
+ *
+ * Öffnet viele Verbindungen, startet in jeder ein Spiel und lässt sie danach
+ * offen, damit der Speicherbedarf pro Sitzung am Server abgelesen werden kann.
+ * Gemessen wird die Zeit bis zur ersten Antwort (Welcome-Zeile) und bis zum
+ * Spielmenü nach dem Start.
+ *
+ * Aufruf: {@code java bench.ServerLoadClient [Verbindungen] [Host] [Port] [Haltezeit in Sekunden]}.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class ServerLoadClient {
+
+    /**
+     * Einstiegspunkt des Lastgenerators.
+     *
+     * @param args [Verbindungen] [Host] [Port] [Haltezeit in Sekunden]
+     * @throws Exception wenn eine Verbindung fehlschlägt
+     */
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        String host = args.length > 1 ? args[1] : "localhost";
+        int port = args.length > 2 ? Integer.parseInt(args[2]) : 4242;
+        int holdSeconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        List<Socket> sockets = new ArrayList<>(connections);
+        long maxStartNanos = 0;
+        long totalStartNanos = 0;
+        long begin = System.nanoTime();
+        try {
+            for (int i = 0; i < connections; i++) {
+                long start = System.nanoTime();
+                Socket socket = new Socket(host, port);
+                sockets.add(socket);
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+                OutputStream out = socket.getOutputStream();
+                out.write(("1\nLoad" + i + "\n").getBytes(StandardCharsets.UTF_8));
+                out.flush();
+                waitFor(in, "(5) Exit game");
+                long nanos = System.nanoTime() - start;
+                totalStartNanos += nanos;
+                maxStartNanos = Math.max(maxStartNanos, nanos);
+            }
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            System.out.printf("%d sessions started in %.2f s (avg %.2f ms, max %.2f ms)%n",
+                    connections, seconds, totalStartNanos / 1e6 / connections, maxStartNanos / 1e6);
+            System.out.println("Holding connections for " + holdSeconds + " s ...");
+            Thread.sleep(holdSeconds * 1000L);
+        } finally {
+            for (Socket socket : sockets) {
+                try {
+                    socket.close();
+                } catch (IOException ex) {
+                    // beim Aufräumen egal
+                }
+            }
+        }
+    }
+
+    /**
+     * Liest Zeilen, bis eine den gesuchten Text enthält.
+     *
+     * @param in   Eingabe der Verbindung
+     * @param text gesuchter Text
+     * @throws IOException wenn die Verbindung vorher endet
+     */
+    private static void waitFor(BufferedReader in, String text) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            if (line.contains(text)) {
+                return;
+            }
+        }
+        throw new IOException("Connection closed before \"" + text + "\"");
+    }
+}
@@ -4,6 +4,11 @@ import java.io.Serializable;
 
 /**
  * Abstrakte Basisklasse fuer alle Alien-Typen.
+ *
+ * Name, Begruessung und Schaden stehen in der gemeinsamen
+ * {@link AlienArchetype}; ein Alien selbst traegt nur seine aktuellen
+ * Lebenspunkte und kann mit {@link #reset(AlienArchetype)} fuer die naechste
+ * Begegnung wiederverwendet werden.
  * 
  * @author Anas
  * @author Emilio
@@ -16,9 +21,9 @@ public abstract class Alien implements Serializable {
     private static final long serialVersionUID = 1729389822767173584L;
 
     /**
-     * Eindeutiger Name des Aliens.
+     * Art des Aliens (Name, Begruessung, Schaden).
      */
-    private final String name;
+    private AlienArchetype archetype;
 
     /**
      * Aktuelle Lebenspunkte.
@@ -26,17 +31,17 @@ public abstract class Alien implements Serializable {
     private int lifePoints;
 
     /**
-     * Gibt an, ob das Alien freundlich ist.
-     */
-    private final boolean friendly;
-
-    /**
-     * Begruessungstext des Aliens.
+     * Erstellt ein neues Alien der angegebenen Art mit vollen Lebenspunkten.
+     *
+     * @param archetype Art des Aliens
      */
-    private String greetingText;
+    protected Alien(AlienArchetype archetype) {
+        this.archetype = archetype;
+        this.lifePoints = archetype.getMaxLifePoints();
+    }
 
     /**
-     * Erstellt ein neues Alien.
+     * Erstellt ein neues Alien mit einer eigenen Art ohne Gegenschlaege.
      *
      * @param name         Name des Aliens
      * @param lifePoints   Lebenspunkte des Aliens
@@ -44,16 +49,23 @@ public abstract class Alien implements Serializable {
      * @param greetingText Begruessungstext bei Begegnung
      */
     protected Alien(String name, int lifePoints, boolean friendly, String greetingText) {
-        this.name = name;
-        this.lifePoints = lifePoints;
-        this.friendly = friendly;
-        this.greetingText = greetingText;
+        this(new AlienArchetype(name, lifePoints, friendly, greetingText, 0, 0));
+    }
+
+    /**
+     * Setzt das Alien fuer eine neue Begegnung auf die angegebene Art und
+     * deren volle Lebenspunkte zurueck.
+     *
+     * @param archetype Art des Aliens
+     */
+    protected void reset(AlienArchetype archetype) {
+        this.archetype = archetype;
+        this.lifePoints = archetype.getMaxLifePoints();
     }
 
     /**
      * Reduziert die Lebenspunkte um den angegebenen Schaden.
      * Wenn die Punkte unter 0 fallen, werden sie auf 0 gesetzt.
-     * Gibt den verbleibenden Wert auf der Konsole aus.
      *
      * @param amount Schadenswert
      */
@@ -65,7 +77,21 @@ public abstract class Alien implements Serializable {
         if (lifePoints < 0) {
             lifePoints = 0;
         }
-        System.out.println(name + " takes " + amount + " damage and has " + lifePoints + " life points left.");
+    }
+
+    /**
+     * Reduziert die Lebenspunkte um den angegebenen Schaden und gibt den
+     * verbleibenden Wert auf der uebergebenen Spielausgabe aus.
+     *
+     * @param amount Schadenswert
+     * @param out    Ziel der Ausgabe
+     */
+    public void takeDamage(int amount, GameOutput out) {
+        if (amount < 0) {
+            return;
+        }
+        takeDamage(amount);
+        out.println(archetype.getName() + " takes " + amount + " damage and has " + lifePoints + " life points left.");
     }
 
     /**
@@ -84,26 +110,21 @@ public abstract class Alien implements Serializable {
      * @return zusammengesetzter Begruessungstext
      */
     public String greeting(String playerName) {
-        if (playerName == null || playerName.isEmpty()) {
-            return greetingText;
-        }
-        return greetingText + " " + playerName + "!";
+        return archetype.greeting(playerName);
     }
-    
+
     /**
-     * Setzt den Begrüßungstext des Aliens.
-     * 
-     * @param greeting neuer Begrüßungstext
+     * @return Art des Aliens
      */
-    public void setGreetingText(String greeting) {
-        greetingText = greeting;
+    public AlienArchetype getArchetype() {
+        return archetype;
     }
 
     /**
      * @return Name des Aliens
      */
     public String getName() {
-        return name;
+        return archetype.getName();
     }
 
     /**
@@ -117,6 +138,6 @@ public abstract class Alien implements Serializable {
      * @return true, wenn freundlich
      */
     public boolean isFriendly() {
-        return friendly;
+        return archetype.isFriendly();
     }
 }
\ No newline at end of file
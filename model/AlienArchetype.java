@@ -0,0 +1,135 @@
+package model;
+
+import java.io.Serializable;
+
+/**
+ * Unveränderliche Eigenschaften einer Alien-Art: Name, Lebenspunkte zu
+ * Beginn, Freundlichkeit, Begrüßung und Schaden der Gegenschläge.
+ *
+ * Eine Art wird von allen Begegnungen geteilt (Fliegengewicht); was sich im
+ * Kampf ändert, sind nur die Lebenspunkte eines {@link Alien} bzw. die Zahlen
+ * in der {@link CombatEngine}. So kostet eine Begegnung keine neuen Texte
+ * und mit einem wiederverwendeten Alien gar keine Objekte.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public final class AlienArchetype implements Serializable {
+
+    // Bitte serialVersionUID beibehalten, damit die Klasse bei der
+    // Speicherung als Datei (Serialisierung) und beim Laden (Deserialisierung)
+    // konsistent bleibt und Versionierungsprobleme vermieden werden.
+    private static final long serialVersionUID = 4127783208925402212L;
+
+    /**
+     * Freundliches Alien des Spiels.
+     */
+    public static final AlienArchetype FRIENDLY = new AlienArchetype("Friendly Alien", 20, true, "Hello", 0, 0);
+    /**
+     * Feindliches Alien des Spiels.
+     */
+    public static final AlienArchetype HOSTILE = new AlienArchetype("Hostile Alien", HostileAlien.LIFE_POINTS,
+            false, "Hello", HostileAlien.MIN_DAMAGE, HostileAlien.MAX_DAMAGE);
+
+    /**
+     * Name der Art.
+     */
+    private final String name;
+    /**
+     * Lebenspunkte zu Beginn einer Begegnung.
+     */
+    private final int maxLifePoints;
+    /**
+     * Gibt an, ob Aliens dieser Art freundlich sind.
+     */
+    private final boolean friendly;
+    /**
+     * Begrüßung bei einer Begegnung.
+     */
+    private final String greetingText;
+    /**
+     * Kleinster Schaden eines Gegenschlags.
+     */
+    private final int minDamage;
+    /**
+     * Größter Schaden eines Gegenschlags.
+     */
+    private final int maxDamage;
+
+    /**
+     * @param name          Name der Art
+     * @param maxLifePoints Lebenspunkte zu Beginn einer Begegnung
+     * @param friendly      true, wenn freundlich
+     * @param greetingText  Begrüßung bei einer Begegnung
+     * @param minDamage     kleinster Schaden eines Gegenschlags
+     * @param maxDamage     größter Schaden eines Gegenschlags
+     * @throws IllegalArgumentException wenn Lebenspunkte oder Schaden ungültig sind
+     */
+    public AlienArchetype(String name, int maxLifePoints, boolean friendly, String greetingText,
+            int minDamage, int maxDamage) {
+        if (maxLifePoints < 0 || minDamage < 0 || maxDamage < minDamage) {
+            throw new IllegalArgumentException("Invalid life points or damage range for " + name);
+        }
+        this.name = name;
+        this.maxLifePoints = maxLifePoints;
+        this.friendly = friendly;
+        this.greetingText = greetingText;
+        this.minDamage = minDamage;
+        this.maxDamage = maxDamage;
+    }
+
+    /**
+     * Gibt den Begrüßungstext zurück, optional mit Spielernamen.
+     *
+     * @param playerName Name des Spielcharakters
+     * @return zusammengesetzter Begrüßungstext
+     */
+    public String greeting(String playerName) {
+        if (playerName == null || playerName.isEmpty()) {
+            return greetingText;
+        }
+        return greetingText + " " + playerName + "!";
+    }
+
+    /**
+     * @return Name der Art
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Lebenspunkte zu Beginn einer Begegnung
+     */
+    public int getMaxLifePoints() {
+        return maxLifePoints;
+    }
+
+    /**
+     * @return true, wenn freundlich
+     */
+    public boolean isFriendly() {
+        return friendly;
+    }
+
+    /**
+     * @return Begrüßung ohne Spielernamen
+     */
+    public String getGreetingText() {
+        return greetingText;
+    }
+
+    /**
+     * @return kleinster Schaden eines Gegenschlags
+     */
+    public int getMinDamage() {
+        return minDamage;
+    }
+
+    /**
+     * @return größter Schaden eines Gegenschlags
+     */
+    public int getMaxDamage() {
+        return maxDamage;
+    }
+}
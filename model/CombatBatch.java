@@ -0,0 +1,434 @@
+package model;
+
+/**
+ * Löst viele Kämpfe gleichzeitig auf: mehrere Helden, jeder gegen ein oder
+ * mehrere Aliens (eine Horde).
+ *
+ * Alle Werte liegen in parallelen Arrays (Lebenspunkte, Schaden,
+ * Zufallszustand, Stand), eine Runde ist eine Schleife über die noch
+ * laufenden Kämpfe. Es gibt keine Objekte pro Held oder Alien und nach dem
+ * Anlegen keine Speicheranforderungen mehr.
+ *
+ * In jeder Runde greift jeder Held das erste noch lebende Alien seiner
+ * Horde an, danach schlägt jedes lebende Alien der Reihe nach zurück.
+ * Schaden wird wie bei {@link Hero#takeDamage(int)} und
+ * {@link Alien#takeDamage(int)} bei 0 abgeschnitten. Jeder Held hat seine
+ * eigene Zufallsfolge, die fortgesetzt wird wie die übergebene
+ * {@link GameRandom}; ein Held gegen ein Alien ergibt daher genau denselben
+ * Kampf wie die {@link CombatEngine}.
+ *
+ * Die Aliens eines Helden werden direkt nach ihm mit
+ * {@link #addAlien(int, int, int)} hinzugefügt. Nicht threadsicher.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class CombatBatch {
+    /**
+     * Lebenspunkte der Helden.
+     */
+    private final int[] heroHp;
+    /**
+     * Lebenspunkte der Helden beim Hinzufügen.
+     */
+    private final int[] heroStartHp;
+    /**
+     * Schaden eines normalen Treffers je Held.
+     */
+    private final int[] normalDamage;
+    /**
+     * Schaden eines kritischen Treffers je Held.
+     */
+    private final int[] criticalDamage;
+    /**
+     * Zustand der Zufallsfolge je Held.
+     */
+    private final long[] seed;
+    /**
+     * Schrittweite der Zufallsfolge je Held.
+     */
+    private final long[] gamma;
+    /**
+     * Erstes noch lebendes Alien je Held.
+     */
+    private final int[] target;
+    /**
+     * Ende (exklusiv) der Aliens je Held.
+     */
+    private final int[] alienEnd;
+    /**
+     * Anzahl der Angriffe je Held.
+     */
+    private final int[] rounds;
+    /**
+     * Stand je Held ({@link CombatEngine#RUNNING}, {@link CombatEngine#HERO_WON}
+     * oder {@link CombatEngine#HERO_DEFEATED}).
+     */
+    private final byte[] result;
+    /**
+     * Nummern der Helden, deren Kampf noch läuft (die ersten {@link #running}).
+     */
+    private final int[] active;
+
+    /**
+     * Lebenspunkte der Aliens.
+     */
+    private final int[] alienHp;
+    /**
+     * Lebenspunkte der Aliens beim Hinzufügen.
+     */
+    private final int[] alienStartHp;
+    /**
+     * Kleinster Schaden eines Gegenschlags je Alien.
+     */
+    private final int[] minStrike;
+    /**
+     * Anzahl möglicher Schadenswerte eines Gegenschlags je Alien.
+     */
+    private final int[] strikeRange;
+    /**
+     * Kehrwert von {@link #strikeRange} für den Rest ohne Division
+     * (ceil(2^64 / Anzahl), siehe {@link #remainder(int, int, long)}).
+     */
+    private final long[] strikeInverse;
+
+    /**
+     * Anzahl der Helden.
+     */
+    private int heroes;
+    /**
+     * Anzahl der Aliens.
+     */
+    private int aliens;
+    /**
+     * Anzahl der Helden, deren Kampf noch läuft.
+     */
+    private int running;
+
+    /**
+     * Erstellt einen leeren Stapel.
+     *
+     * @param maxHeroes größte Anzahl Helden
+     * @param maxAliens größte Anzahl Aliens aller Helden zusammen
+     */
+    public CombatBatch(int maxHeroes, int maxAliens) {
+        heroHp = new int[maxHeroes];
+        heroStartHp = new int[maxHeroes];
+        normalDamage = new int[maxHeroes];
+        criticalDamage = new int[maxHeroes];
+        seed = new long[maxHeroes];
+        gamma = new long[maxHeroes];
+        target = new int[maxHeroes];
+        alienEnd = new int[maxHeroes];
+        rounds = new int[maxHeroes];
+        result = new byte[maxHeroes];
+        active = new int[maxHeroes];
+        alienHp = new int[maxAliens];
+        alienStartHp = new int[maxAliens];
+        minStrike = new int[maxAliens];
+        strikeRange = new int[maxAliens];
+        strikeInverse = new long[maxAliens];
+    }
+
+    /**
+     * Leert den Stapel für die nächsten Kämpfe.
+     */
+    public void clear() {
+        heroes = 0;
+        aliens = 0;
+        running = 0;
+    }
+
+    /**
+     * Fügt einen Helden hinzu. Seine Zufallsfolge setzt {@code random} fort,
+     * ohne sie zu verändern.
+     *
+     * @param hp               Lebenspunkte des Helden
+     * @param experiencePoints Erfahrungspunkte des Helden
+     * @param random           Zufallsquelle des Helden
+     * @return Nummer des Helden
+     * @throws IllegalStateException wenn der Stapel voll ist
+     */
+    public int addHero(int hp, int experiencePoints, GameRandom random) {
+        if (heroes == heroHp.length) {
+            throw new IllegalStateException("Combat batch holds at most " + heroHp.length + " heroes");
+        }
+        int h = heroes++;
+        heroHp[h] = Math.max(0, hp);
+        heroStartHp[h] = heroHp[h];
+        normalDamage[h] = Hero.normalDamage(experiencePoints);
+        criticalDamage[h] = Hero.criticalDamage(experiencePoints);
+        seed[h] = random.getState();
+        gamma[h] = random.getGamma();
+        target[h] = aliens;
+        alienEnd[h] = aliens;
+        rounds[h] = 0;
+        if (heroHp[h] == 0) {
+            result[h] = CombatEngine.HERO_DEFEATED;
+        } else {
+            // ohne Aliens ist der Kampf sofort gewonnen
+            result[h] = CombatEngine.HERO_WON;
+        }
+        return h;
+    }
+
+    /**
+     * Fügt einen Helden mit seinen aktuellen Werten hinzu.
+     *
+     * @param hero   Held
+     * @param random Zufallsquelle des Helden
+     * @return Nummer des Helden
+     * @throws IllegalStateException wenn der Stapel voll ist
+     */
+    public int addHero(Hero hero, GameRandom random) {
+        return addHero(hero.getHealthPoints(), hero.getExperiencePoints(), random);
+    }
+
+    /**
+     * Fügt dem zuletzt hinzugefügten Helden ein Alien hinzu.
+     *
+     * @param hp        Lebenspunkte des Aliens
+     * @param minDamage kleinster Schaden eines Gegenschlags
+     * @param maxDamage größter Schaden eines Gegenschlags
+     * @return Nummer des Aliens
+     * @throws IllegalStateException    wenn es noch keinen Helden gibt oder der Stapel voll ist
+     * @throws IllegalArgumentException wenn der Schadensbereich ungültig ist
+     */
+    public int addAlien(int hp, int minDamage, int maxDamage) {
+        if (heroes == 0) {
+            throw new IllegalStateException("Add a hero before its aliens");
+        }
+        if (aliens == alienHp.length) {
+            throw new IllegalStateException("Combat batch holds at most " + alienHp.length + " aliens");
+        }
+        if (minDamage < 0 || maxDamage < minDamage) {
+            throw new IllegalArgumentException("Invalid damage range " + minDamage + ".." + maxDamage);
+        }
+        int h = heroes - 1;
+        int a = aliens++;
+        alienHp[a] = Math.max(0, hp);
+        alienStartHp[a] = alienHp[a];
+        minStrike[a] = minDamage;
+        strikeRange[a] = maxDamage - minDamage + 1;
+        strikeInverse[a] = Long.divideUnsigned(-1L, strikeRange[a]) + 1;
+        alienEnd[h] = aliens;
+        if (alienHp[a] == 0 && target[h] == a) {
+            // bereits besiegte Aliens am Anfang der Horde überspringen
+            target[h]++;
+        }
+        if (result[h] == CombatEngine.HERO_WON && alienHp[a] > 0) {
+            result[h] = CombatEngine.RUNNING;
+            active[running++] = h;
+        }
+        return a;
+    }
+
+    /**
+     * Fügt dem zuletzt hinzugefügten Helden ein Alien mit seinen aktuellen
+     * Lebenspunkten und dem Schaden seiner Art hinzu.
+     *
+     * @param alien Alien
+     * @return Nummer des Aliens
+     * @throws IllegalStateException wenn es noch keinen Helden gibt oder der Stapel voll ist
+     */
+    public int addAlien(Alien alien) {
+        AlienArchetype archetype = alien.getArchetype();
+        return addAlien(alien.getLifePoints(), archetype.getMinDamage(), archetype.getMaxDamage());
+    }
+
+    /**
+     * Spielt eine Runde für alle laufenden Kämpfe. Beendete Kämpfe werden
+     * aus der Liste {@link #active} entfernt und danach nicht mehr besucht.
+     *
+     * @return Anzahl der Kämpfe, die danach noch laufen
+     */
+    public int playRound() {
+        return play(1);
+    }
+
+    /**
+     * Spielt alle Kämpfe bis zum Ende. Da jeder Held seine eigene
+     * Zufallsfolge hat, wird jeder Kampf am Stück aufgelöst; das Ergebnis ist
+     * dasselbe wie mit {@link #playRound()} in einer Schleife.
+     */
+    public void resolve() {
+        play(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Spielt für jeden laufenden Kampf bis zu {@code maxRounds} Runden.
+     *
+     * @param maxRounds größte Anzahl Runden je Kampf
+     * @return Anzahl der Kämpfe, die danach noch laufen
+     */
+    private int play(int maxRounds) {
+        int k = 0;
+        while (k < running) {
+            int h = active[k];
+            int end = alienEnd[h];
+            int a = target[h];
+            int hp = heroHp[h];
+            int normal = normalDamage[h];
+            int critical = criticalDamage[h];
+            long s = seed[h];
+            long g = gamma[h];
+            int round = 0;
+            while (round < maxRounds && a < end && hp > 0) {
+                round++;
+                // Angriff auf das erste lebende Alien der Horde
+                s += g;
+                double chance = (GameRandom.mix64(s) >>> 11) * 0x1.0p-53;
+                int damage = chance < Hero.MISS_CHANCE ? 0
+                        : chance < Hero.MISS_CHANCE + Hero.CRITICAL_CHANCE ? critical : normal;
+                alienHp[a] = Math.max(0, alienHp[a] - damage);
+                while (a < end && alienHp[a] == 0) {
+                    a++;
+                }
+
+                // Gegenschläge aller lebenden Aliens, wie GameRandom.nextInt(range)
+                for (int b = a; b < end && hp > 0; b++) {
+                    if (alienHp[b] == 0) {
+                        continue;
+                    }
+                    int range = strikeRange[b];
+                    int m = range - 1;
+                    s += g;
+                    int r = (int) (GameRandom.mix64(s) >>> 32);
+                    if ((range & m) == 0) {
+                        r &= m;
+                    } else {
+                        // überrepräsentierte Werte verwerfen
+                        long inverse = strikeInverse[b];
+                        for (int u = r >>> 1; u + m - (r = remainder(u, range, inverse)) < 0;
+                                u = (int) (GameRandom.mix64(s) >>> 32) >>> 1) {
+                            s += g;
+                        }
+                    }
+                    hp = Math.max(0, hp - minStrike[b] - r);
+                }
+            }
+            target[h] = a;
+            heroHp[h] = hp;
+            seed[h] = s;
+            rounds[h] += round;
+
+            if (a == end || hp == 0) {
+                result[h] = (byte) (hp == 0 ? CombatEngine.HERO_DEFEATED : CombatEngine.HERO_WON);
+                // letzten laufenden Kampf an diese Stelle holen, er war in diesem Durchgang noch nicht dran
+                active[k] = active[--running];
+            } else {
+                k++;
+            }
+        }
+        return running;
+    }
+
+    /**
+     * Rest von {@code u / range} mit zwei Multiplikationen statt einer
+     * Division (Verfahren von Lemire, "Faster Remainder by Direct
+     * Computation"). Die Division wäre sonst der teuerste Schritt eines
+     * Gegenschlags.
+     *
+     * @param u       nicht negativer Dividend
+     * @param range   positiver Divisor
+     * @param inverse ceil(2^64 / range)
+     * @return {@code u % range}
+     */
+    private static int remainder(int u, int range, long inverse) {
+        long lowbits = inverse * u;
+        // obere 64 Bit des vorzeichenlosen Produkts lowbits * range
+        return (int) (Math.multiplyHigh(lowbits, range) + ((lowbits >> 63) & range));
+    }
+
+    /**
+     * Überträgt den erlittenen Schaden eines Helden auf das Objekt.
+     *
+     * @param h    Nummer des Helden
+     * @param hero Held, der mit {@link #addHero(Hero, GameRandom)} hinzugefügt wurde
+     */
+    public void applyTo(int h, Hero hero) {
+        hero.takeDamage(heroStartHp[h] - heroHp[h]);
+    }
+
+    /**
+     * Überträgt den erlittenen Schaden eines Aliens auf das Objekt.
+     *
+     * @param a     Nummer des Aliens
+     * @param alien Alien, das mit {@link #addAlien(Alien)} hinzugefügt wurde
+     */
+    public void applyTo(int a, Alien alien) {
+        alien.takeDamage(alienStartHp[a] - alienHp[a]);
+    }
+
+    /**
+     * Setzt eine Zufallsquelle auf den Stand der Folge eines Helden, damit
+     * das Spiel danach mit denselben Zahlen weiterläuft wie nach einzelnen Kämpfen.
+     *
+     * @param h      Nummer des Helden
+     * @param random mit {@link #addHero(int, int, GameRandom)} übergebene Zufallsquelle
+     */
+    public void applyTo(int h, GameRandom random) {
+        random.setState(seed[h]);
+    }
+
+    /**
+     * @return Anzahl der Helden
+     */
+    public int getHeroCount() {
+        return heroes;
+    }
+
+    /**
+     * @return Anzahl der Aliens
+     */
+    public int getAlienCount() {
+        return aliens;
+    }
+
+    /**
+     * @return Anzahl der Kämpfe, die noch laufen
+     */
+    public int getRunningCount() {
+        return running;
+    }
+
+    /**
+     * @param h Nummer des Helden
+     * @return aktuelle Lebenspunkte des Helden
+     */
+    public int getHeroHp(int h) {
+        return heroHp[h];
+    }
+
+    /**
+     * @param h Nummer des Helden
+     * @return Anzahl der Angriffe des Helden
+     */
+    public int getRounds(int h) {
+        return rounds[h];
+    }
+
+    /**
+     * @param h Nummer des Helden
+     * @return Stand des Kampfes des Helden
+     */
+    public int getResult(int h) {
+        return result[h];
+    }
+
+    /**
+     * @param a Nummer des Aliens
+     * @return aktuelle Lebenspunkte des Aliens
+     */
+    public int getAlienHp(int a) {
+        return alienHp[a];
+    }
+
+    /**
+     * @param a Nummer des Aliens
+     * @return true, wenn das Alien besiegt ist
+     */
+    public boolean isAlienDefeated(int a) {
+        return alienHp[a] == 0;
+    }
+}
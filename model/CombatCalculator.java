@@ -0,0 +1,314 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Exakte Auswertung eines Kampfes gegen ein {@link HostileAlien}.
+ *
+ * Ein Kampf ist eine Markow-Kette über (Lebenspunkte Held, Lebenspunkte
+ * Alien): Der Held greift an ({@link Hero#attack()}), danach schlägt das
+ * Alien mit {@link HostileAlien#MIN_DAMAGE} bis {@link HostileAlien#MAX_DAMAGE}
+ * zurück. Da der Held in jeder Runde Schaden nimmt, hängt jeder Zustand nur
+ * von Zuständen mit weniger Lebenspunkten ab. Alle Werte werden deshalb
+ * einmal per dynamischer Programmierung berechnet und in einer Tabelle
+ * abgelegt; jede Abfrage ist danach ein Arrayzugriff.
+ *
+ * Ab {@link #getMaxTableExperience()} Erfahrungspunkten besiegt schon ein
+ * normaler Treffer jedes Alien, größere Werte verwenden daher dieselbe
+ * Tabelle. Werte außerhalb der Tabelle werden bei Bedarf einzeln berechnet.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public final class CombatCalculator {
+    /**
+     * Werte pro Zustand: Siegwahrscheinlichkeit, erwarteter Verlust an
+     * Lebenspunkten, erwartete Anzahl Runden.
+     */
+    private static final int VALUES = 3;
+    /**
+     * Wahrscheinlichkeiten der Angriffsarten: Fehlschlag, kritischer und normaler Treffer.
+     */
+    private static final double[] ATTACK_CHANCES = {Hero.MISS_CHANCE, Hero.CRITICAL_CHANCE,
+        1.0 - Hero.MISS_CHANCE - Hero.CRITICAL_CHANCE};
+    /**
+     * Anzahl gleich wahrscheinlicher Werte eines Gegenschlags.
+     */
+    private static final int STRIKES = HostileAlien.MAX_DAMAGE - HostileAlien.MIN_DAMAGE + 1;
+    /**
+     * Größte Lebenspunkte des Helden in der Tabelle.
+     */
+    private static final int MAX_HERO_HP = Hero.getMaxHealth();
+    /**
+     * Größte Lebenspunkte des Aliens in der Tabelle.
+     */
+    private static final int MAX_ALIEN_HP = HostileAlien.LIFE_POINTS;
+    /**
+     * Kleinste Erfahrung, bei der ein normaler Treffer jedes Alien der Tabelle besiegt.
+     */
+    private static final int MAX_XP = smallestOneHitExperience(MAX_ALIEN_HP);
+    /**
+     * Einträge pro Erfahrungsstufe.
+     */
+    private static final int TABLE_STRIDE = (MAX_HERO_HP + 1) * (MAX_ALIEN_HP + 1) * VALUES;
+    /**
+     * Alle Tabellen hintereinander, indiziert über {@link #index(int, int, int)}.
+     */
+    private static final float[] TABLE = buildTable();
+
+    /**
+     * Keine Instanzen, nur statische Abfragen.
+     */
+    private CombatCalculator() {
+    }
+
+    /**
+     * Berechnet die Aussichten eines Kampfes.
+     *
+     * @param heroHp           Lebenspunkte des Helden
+     * @param experiencePoints Erfahrungspunkte des Helden
+     * @param alienHp          Lebenspunkte des Aliens
+     * @return Aussichten des Kampfes
+     */
+    public static FightOdds odds(int heroHp, int experiencePoints, int alienHp) {
+        return new FightOdds(winProbability(heroHp, experiencePoints, alienHp),
+                expectedHpLoss(heroHp, experiencePoints, alienHp),
+                expectedRounds(heroHp, experiencePoints, alienHp));
+    }
+
+    /**
+     * Berechnet die Aussichten des Helden gegen das Alien.
+     *
+     * @param hero  Held
+     * @param alien Alien
+     * @return Aussichten des Kampfes
+     */
+    public static FightOdds odds(Hero hero, HostileAlien alien) {
+        return odds(hero.getHealthPoints(), hero.getExperiencePoints(), alien.getLifePoints());
+    }
+
+    /**
+     * Gibt an, ob Kämpfe gegen Aliens dieser Art ausgewertet werden können,
+     * also ob sie mit dem Schaden eines {@link HostileAlien} zurückschlagen.
+     *
+     * @param archetype Art des Aliens
+     * @return true, wenn {@link #odds(Hero, HostileAlien)} für die Art gilt
+     */
+    public static boolean supports(AlienArchetype archetype) {
+        return archetype.getMinDamage() == HostileAlien.MIN_DAMAGE
+                && archetype.getMaxDamage() == HostileAlien.MAX_DAMAGE;
+    }
+
+    /**
+     * @param heroHp           Lebenspunkte des Helden
+     * @param experiencePoints Erfahrungspunkte des Helden
+     * @param alienHp          Lebenspunkte des Aliens
+     * @return Wahrscheinlichkeit, dass der Held gewinnt
+     */
+    public static double winProbability(int heroHp, int experiencePoints, int alienHp) {
+        return value(heroHp, experiencePoints, alienHp, 0);
+    }
+
+    /**
+     * @param heroHp           Lebenspunkte des Helden
+     * @param experiencePoints Erfahrungspunkte des Helden
+     * @param alienHp          Lebenspunkte des Aliens
+     * @return erwarteter Verlust an Lebenspunkten des Helden
+     */
+    public static double expectedHpLoss(int heroHp, int experiencePoints, int alienHp) {
+        return value(heroHp, experiencePoints, alienHp, 1);
+    }
+
+    /**
+     * @param heroHp           Lebenspunkte des Helden
+     * @param experiencePoints Erfahrungspunkte des Helden
+     * @param alienHp          Lebenspunkte des Aliens
+     * @return erwartete Anzahl Runden (Angriffe des Helden)
+     */
+    public static double expectedRounds(int heroHp, int experiencePoints, int alienHp) {
+        return value(heroHp, experiencePoints, alienHp, 2);
+    }
+
+    /**
+     * @return Erfahrung, ab der alle Abfragen dieselbe Tabelle verwenden
+     */
+    public static int getMaxTableExperience() {
+        return MAX_XP;
+    }
+
+    /**
+     * Liefert einen Wert aus der Tabelle oder berechnet ihn, wenn der Zustand
+     * außerhalb der Tabelle liegt.
+     *
+     * @param heroHp           Lebenspunkte des Helden
+     * @param experiencePoints Erfahrungspunkte des Helden
+     * @param alienHp          Lebenspunkte des Aliens
+     * @param field            0 = Sieg, 1 = Verlust, 2 = Runden
+     * @return gesuchter Wert
+     */
+    private static double value(int heroHp, int experiencePoints, int alienHp, int field) {
+        if (heroHp <= 0) {
+            return 0.0;
+        }
+        if (alienHp <= 0) {
+            return field == 0 ? 1.0 : 0.0;
+        }
+        int xp = Math.max(0, experiencePoints);
+        if (heroHp <= MAX_HERO_HP && alienHp <= MAX_ALIEN_HP) {
+            return TABLE[index(Math.min(xp, MAX_XP), heroHp, alienHp) + field];
+        }
+        double[] values = solve(xp, heroHp, alienHp);
+        return values[(heroHp * (alienHp + 1) + alienHp) * VALUES + field];
+    }
+
+    /**
+     * @param xp      Erfahrungsstufe (0 bis {@link #MAX_XP})
+     * @param heroHp  Lebenspunkte des Helden
+     * @param alienHp Lebenspunkte des Aliens
+     * @return Position des ersten Werts in {@link #TABLE}
+     */
+    private static int index(int xp, int heroHp, int alienHp) {
+        return xp * TABLE_STRIDE + (heroHp * (MAX_ALIEN_HP + 1) + alienHp) * VALUES;
+    }
+
+    /**
+     * Berechnet die Tabellen aller Erfahrungsstufen.
+     *
+     * @return Tabelle
+     */
+    private static float[] buildTable() {
+        float[] table = new float[(MAX_XP + 1) * TABLE_STRIDE];
+        for (int xp = 0; xp <= MAX_XP; xp++) {
+            double[] values = solve(xp, MAX_HERO_HP, MAX_ALIEN_HP);
+            for (int i = 0; i < TABLE_STRIDE; i++) {
+                table[xp * TABLE_STRIDE + i] = (float) values[i];
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Löst die Markow-Kette für eine Erfahrungsstufe bis zu den angegebenen
+     * Lebenspunkten.
+     *
+     * @param experiencePoints Erfahrungspunkte des Helden
+     * @param maxHeroHp        größte Lebenspunkte des Helden
+     * @param maxAlienHp       größte Lebenspunkte des Aliens
+     * @return Werte je Zustand, Position {@code (heroHp * (maxAlienHp + 1) + alienHp) * 3}
+     */
+    private static double[] solve(int experiencePoints, int maxHeroHp, int maxAlienHp) {
+        int[] damage = attackDamages(experiencePoints);
+        int width = maxAlienHp + 1;
+        double[] values = new double[(maxHeroHp + 1) * width * VALUES];
+
+        for (int hp = 1; hp <= maxHeroHp; hp++) {
+            // besiegtes Alien: sicherer Sieg ohne weitere Runde
+            values[hp * width * VALUES] = 1.0;
+            for (int alienHp = 1; alienHp <= maxAlienHp; alienHp++) {
+                double win = 0.0;
+                double loss = 0.0;
+                double rounds = 0.0;
+                for (int attack = 0; attack < damage.length; attack++) {
+                    double p = ATTACK_CHANCES[attack];
+                    rounds += p;
+                    if (damage[attack] >= alienHp) {
+                        win += p;
+                        continue;
+                    }
+                    int remaining = alienHp - damage[attack];
+                    double q = p / STRIKES;
+                    for (int strike = HostileAlien.MIN_DAMAGE; strike <= HostileAlien.MAX_DAMAGE; strike++) {
+                        if (strike >= hp) {
+                            // Held besiegt, verliert alle restlichen Lebenspunkte
+                            loss += q * hp;
+                            continue;
+                        }
+                        int next = ((hp - strike) * width + remaining) * VALUES;
+                        win += q * values[next];
+                        loss += q * (strike + values[next + 1]);
+                        rounds += q * values[next + 2];
+                    }
+                }
+                int at = (hp * width + alienHp) * VALUES;
+                values[at] = win;
+                values[at + 1] = loss;
+                values[at + 2] = rounds;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Berechnet die Verteilung der Lebenspunkte, mit denen der Held einen
+     * Kampf gewinnt. Anders als die Erwartungswerte wird sie nicht
+     * zwischengespeichert.
+     *
+     * @param heroHp           Lebenspunkte des Helden
+     * @param experiencePoints Erfahrungspunkte des Helden
+     * @param alienHp          Lebenspunkte des Aliens
+     * @param winHp            wird gefüllt: {@code winHp[h]} ist die
+     *                         Wahrscheinlichkeit, mit {@code h} Lebenspunkten zu
+     *                         gewinnen (Länge mindestens {@code heroHp + 1})
+     * @return Wahrscheinlichkeit, dass der Held verliert
+     */
+    public static double fightOutcome(int heroHp, int experiencePoints, int alienHp, double[] winHp) {
+        Arrays.fill(winHp, 0.0);
+        if (heroHp <= 0) {
+            return 1.0;
+        }
+        if (alienHp <= 0) {
+            winHp[heroHp] = 1.0;
+            return 0.0;
+        }
+        int[] damage = attackDamages(Math.max(0, experiencePoints));
+        // Wahrscheinlichkeit, einen Zustand (Held, Alien) zu erreichen
+        double[][] mass = new double[heroHp + 1][alienHp + 1];
+        mass[heroHp][alienHp] = 1.0;
+        double loss = 0.0;
+        // jeder Gegenschlag senkt die Lebenspunkte des Helden: absteigend abarbeiten
+        for (int hp = heroHp; hp > 0; hp--) {
+            for (int alien = alienHp; alien > 0; alien--) {
+                double m = mass[hp][alien];
+                if (m == 0.0) {
+                    continue;
+                }
+                for (int attack = 0; attack < damage.length; attack++) {
+                    double p = m * ATTACK_CHANCES[attack];
+                    if (damage[attack] >= alien) {
+                        winHp[hp] += p;
+                        continue;
+                    }
+                    double q = p / STRIKES;
+                    for (int strike = HostileAlien.MIN_DAMAGE; strike <= HostileAlien.MAX_DAMAGE; strike++) {
+                        if (strike >= hp) {
+                            loss += q;
+                        } else {
+                            mass[hp - strike][alien - damage[attack]] += q;
+                        }
+                    }
+                }
+            }
+        }
+        return loss;
+    }
+
+    /**
+     * @param experiencePoints Erfahrungspunkte des Helden
+     * @return Schaden je Angriffsart in der Reihenfolge von {@link #ATTACK_CHANCES}
+     */
+    private static int[] attackDamages(int experiencePoints) {
+        return new int[] {0, Hero.criticalDamage(experiencePoints), Hero.normalDamage(experiencePoints)};
+    }
+
+    /**
+     * @param alienHp Lebenspunkte des Aliens
+     * @return kleinste Erfahrung, bei der ein normaler Treffer das Alien besiegt
+     */
+    private static int smallestOneHitExperience(int alienHp) {
+        int xp = 0;
+        while (Hero.normalDamage(xp) < alienHp) {
+            xp++;
+        }
+        return xp;
+    }
+}
@@ -0,0 +1,201 @@
+package model;
+
+/**
+ * Kampf zwischen Held und {@link HostileAlien} auf reinen Zahlen.
+ *
+ * Jede Runde greift der Held an ({@link Hero#attack()}); überlebt das Alien,
+ * schlägt es mit {@link HostileAlien#MIN_DAMAGE} bis
+ * {@link HostileAlien#MAX_DAMAGE} zurück, bei einer anderen
+ * {@link AlienArchetype} mit deren Schaden. Die Zufallszahlen werden in
+ * derselben Reihenfolge gezogen wie früher im Spiel, gleiche Startwerte
+ * ergeben also dieselben Kämpfe.
+ *
+ * Eine Instanz kann beliebig viele Kämpfe nacheinander austragen, ohne
+ * Objekte anzulegen. Die Schläge werden optional an einen
+ * {@link CombatListener} gemeldet; ohne Empfänger wird der Kampf in einem
+ * Stück aufgelöst. Nicht threadsicher.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class CombatEngine {
+    /**
+     * Der Kampf läuft noch.
+     */
+    public static final int RUNNING = 0;
+    /**
+     * Der Held hat gewonnen.
+     */
+    public static final int HERO_WON = 1;
+    /**
+     * Der Held wurde besiegt.
+     */
+    public static final int HERO_DEFEATED = 2;
+
+    /**
+     * Zufallsquelle der Kämpfe.
+     */
+    private final GameRandom random;
+    /**
+     * Aktuelle Lebenspunkte des Helden.
+     */
+    private int heroHp;
+    /**
+     * Aktuelle Lebenspunkte des Aliens.
+     */
+    private int alienHp;
+    /**
+     * Schaden eines normalen Treffers des Helden.
+     */
+    private int normalDamage;
+    /**
+     * Schaden eines kritischen Treffers des Helden.
+     */
+    private int criticalDamage;
+    /**
+     * Kleinster Schaden eines Gegenschlags im aktuellen Kampf.
+     */
+    private int minStrike;
+    /**
+     * Anzahl möglicher Schadenswerte eines Gegenschlags im aktuellen Kampf.
+     */
+    private int strikeRange;
+    /**
+     * Anzahl der Angriffe des Helden im aktuellen Kampf.
+     */
+    private int rounds;
+    /**
+     * Stand des aktuellen Kampfes ({@link #RUNNING}, {@link #HERO_WON} oder {@link #HERO_DEFEATED}).
+     */
+    private int result;
+
+    /**
+     * Erstellt eine Kampfmaschine.
+     *
+     * @param random Zufallsquelle (in der Regel die des Spiels)
+     */
+    public CombatEngine(GameRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * Beginnt einen neuen Kampf.
+     *
+     * @param heroHp           Lebenspunkte des Helden
+     * @param experiencePoints Erfahrungspunkte des Helden
+     * @param alienHp          Lebenspunkte des Aliens
+     */
+    public void start(int heroHp, int experiencePoints, int alienHp) {
+        start(heroHp, experiencePoints, alienHp, HostileAlien.MIN_DAMAGE, HostileAlien.MAX_DAMAGE);
+    }
+
+    /**
+     * Beginnt einen neuen Kampf gegen ein Alien mit eigenem Schaden.
+     *
+     * @param heroHp           Lebenspunkte des Helden
+     * @param experiencePoints Erfahrungspunkte des Helden
+     * @param alienHp          Lebenspunkte des Aliens
+     * @param minDamage        kleinster Schaden eines Gegenschlags
+     * @param maxDamage        größter Schaden eines Gegenschlags
+     */
+    public void start(int heroHp, int experiencePoints, int alienHp, int minDamage, int maxDamage) {
+        this.minStrike = minDamage;
+        this.strikeRange = maxDamage - minDamage + 1;
+        this.heroHp = heroHp;
+        this.alienHp = alienHp;
+        this.normalDamage = Hero.normalDamage(experiencePoints);
+        this.criticalDamage = Hero.criticalDamage(experiencePoints);
+        this.rounds = 0;
+        this.result = heroHp <= 0 ? HERO_DEFEATED : alienHp <= 0 ? HERO_WON : RUNNING;
+    }
+
+    /**
+     * Spielt eine Runde: Angriff des Helden und, falls das Alien überlebt,
+     * dessen Gegenschlag.
+     *
+     * @param listener Empfänger der Schläge oder null
+     * @return Stand des Kampfes nach der Runde
+     */
+    public int playRound(CombatListener listener) {
+        if (result != RUNNING) {
+            return result;
+        }
+        rounds++;
+        double chance = random.nextDouble();
+        int damage = chance < Hero.MISS_CHANCE ? 0
+                : chance < Hero.MISS_CHANCE + Hero.CRITICAL_CHANCE ? criticalDamage : normalDamage;
+        alienHp = Math.max(0, alienHp - damage);
+        if (listener != null) {
+            listener.onHeroAttack(damage, alienHp);
+        }
+        if (alienHp == 0) {
+            result = HERO_WON;
+            return result;
+        }
+
+        int strike = minStrike + random.nextInt(strikeRange);
+        heroHp = Math.max(0, heroHp - strike);
+        if (listener != null) {
+            listener.onAlienStrike(strike, heroHp);
+        }
+        if (heroHp == 0) {
+            result = HERO_DEFEATED;
+        }
+        return result;
+    }
+
+    /**
+     * Spielt den Kampf bis zum Ende.
+     *
+     * @param listener Empfänger der Schläge oder null
+     * @return {@link #HERO_WON} oder {@link #HERO_DEFEATED}
+     */
+    public int resolve(CombatListener listener) {
+        while (result == RUNNING) {
+            playRound(listener);
+        }
+        return result;
+    }
+
+    /**
+     * Spielt einen ganzen Kampf ohne Meldungen, z. B. für Simulationen.
+     *
+     * @param heroHp           Lebenspunkte des Helden
+     * @param experiencePoints Erfahrungspunkte des Helden
+     * @param alienHp          Lebenspunkte des Aliens
+     * @return {@link #HERO_WON} oder {@link #HERO_DEFEATED}; die restlichen
+     *         Lebenspunkte liefert danach {@link #getHeroHp()}
+     */
+    public int resolve(int heroHp, int experiencePoints, int alienHp) {
+        start(heroHp, experiencePoints, alienHp);
+        return resolve(null);
+    }
+
+    /**
+     * @return aktuelle Lebenspunkte des Helden
+     */
+    public int getHeroHp() {
+        return heroHp;
+    }
+
+    /**
+     * @return aktuelle Lebenspunkte des Aliens
+     */
+    public int getAlienHp() {
+        return alienHp;
+    }
+
+    /**
+     * @return Anzahl der Angriffe des Helden im aktuellen Kampf
+     */
+    public int getRounds() {
+        return rounds;
+    }
+
+    /**
+     * @return Stand des aktuellen Kampfes
+     */
+    public int getResult() {
+        return result;
+    }
+}
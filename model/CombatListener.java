@@ -0,0 +1,28 @@
+package model;
+
+/**
+ * Empfänger für die einzelnen Schläge eines Kampfes der {@link CombatEngine}.
+ *
+ * Übergeben werden nur Zahlen, damit pro Runde keine Objekte angelegt werden.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public interface CombatListener {
+
+    /**
+     * Der Held hat angegriffen.
+     *
+     * @param damage  verursachter Schaden (0 bei Fehlschlag)
+     * @param alienHp verbleibende Lebenspunkte des Aliens
+     */
+    void onHeroAttack(int damage, int alienHp);
+
+    /**
+     * Das Alien hat zurückgeschlagen.
+     *
+     * @param damage verursachter Schaden
+     * @param heroHp verbleibende Lebenspunkte des Helden
+     */
+    void onAlienStrike(int damage, int heroHp);
+}
@@ -0,0 +1,76 @@
+package model;
+
+/**
+ * Aussichten eines Kampfes, berechnet von {@link CombatCalculator}.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class FightOdds {
+    /**
+     * Wahrscheinlichkeit, dass der Held gewinnt.
+     */
+    private final double winProbability;
+    /**
+     * Erwarteter Verlust an Lebenspunkten des Helden.
+     */
+    private final double expectedHpLoss;
+    /**
+     * Erwartete Anzahl Runden.
+     */
+    private final double expectedRounds;
+
+    /**
+     * @param winProbability Wahrscheinlichkeit, dass der Held gewinnt
+     * @param expectedHpLoss erwarteter Verlust an Lebenspunkten
+     * @param expectedRounds erwartete Anzahl Runden
+     */
+    public FightOdds(double winProbability, double expectedHpLoss, double expectedRounds) {
+        this.winProbability = winProbability;
+        this.expectedHpLoss = expectedHpLoss;
+        this.expectedRounds = expectedRounds;
+    }
+
+    /**
+     * @return Wahrscheinlichkeit, dass der Held gewinnt
+     */
+    public double getWinProbability() {
+        return winProbability;
+    }
+
+    /**
+     * @return erwarteter Verlust an Lebenspunkten des Helden
+     */
+    public double getExpectedHpLoss() {
+        return expectedHpLoss;
+    }
+
+    /**
+     * @return erwartete Anzahl Runden
+     */
+    public double getExpectedRounds() {
+        return expectedRounds;
+    }
+
+    @Override
+    public String toString() {
+        // ohne String.format, die Vorschau steht bei jeder Begegnung im Spielablauf
+        StringBuilder text = new StringBuilder(64);
+        appendOneDecimal(text, winProbability * 100).append(" % win chance, expected HP loss ");
+        appendOneDecimal(text, expectedHpLoss).append(", about ");
+        appendOneDecimal(text, expectedRounds).append(" rounds");
+        return text.toString();
+    }
+
+    /**
+     * Hängt eine nicht negative Zahl mit einer Nachkommastelle an.
+     *
+     * @param text  Ziel
+     * @param value Zahl
+     * @return das Ziel
+     */
+    private static StringBuilder appendOneDecimal(StringBuilder text, double value) {
+        long tenths = Math.round(value * 10);
+        return text.append(tenths / 10).append('.').append(tenths % 10);
+    }
+}
@@ -12,6 +12,6 @@ public class FriendlyAlien extends Alien {
      * Erstellt ein freundliches Alien mit Standardwerten.
      */
    public FriendlyAlien() {
-        super("Friendly Alien", 20, true, "Welcome, friend");
+        super(AlienArchetype.FRIENDLY);
     }
 }
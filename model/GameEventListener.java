@@ -0,0 +1,21 @@
+package model;
+
+/**
+ * Empfänger für Spielereignisse.
+ *
+ * Ereignisse werden als Art und Zahl übergeben, damit beim Melden keine
+ * Objekte angelegt werden müssen.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public interface GameEventListener {
+
+    /**
+     * Wird bei jeder gemeldeten Zustandsänderung aufgerufen.
+     *
+     * @param type  Art des Ereignisses
+     * @param value Wert des Ereignisses (siehe {@link GameEventType})
+     */
+    void onEvent(GameEventType type, long value);
+}
@@ -0,0 +1,57 @@
+package model;
+
+/**
+ * Arten von Spielereignissen, die bei Zustandsänderungen gemeldet werden.
+ *
+ * Zu jedem Ereignis gehört ein ganzzahliger Wert, dessen Bedeutung hier
+ * beschrieben ist.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public enum GameEventType {
+    /**
+     * Neuer Raum betreten. Wert: Runde in den oberen 32 Bit, Raumindex in den unteren.
+     */
+    ROOM_ENTERED,
+    /**
+     * Held erleidet Schaden. Wert: Schadenshöhe.
+     */
+    HERO_DAMAGED,
+    /**
+     * Held fügt einem Alien Schaden zu. Wert: Schadenshöhe.
+     */
+    DAMAGE_DEALT,
+    /**
+     * Held erhält Erfahrungspunkte. Wert: Anzahl.
+     */
+    EXPERIENCE_GAINED,
+    /**
+     * Held regeneriert Lebenspunkte. Wert: 1 für lange, 0 für kurze Pause.
+     */
+    HERO_REGENERATED,
+    /**
+     * Unterschrift erhalten. Wert: Index der Übungsleitung.
+     */
+    SIGNATURE_GAINED,
+    /**
+     * Verschnaufpause genommen. Wert: 1 für lange, 0 für kurze Pause.
+     */
+    REST_TAKEN,
+    /**
+     * Quizfrage beantwortet. Wert: 1 für richtig, 0 für falsch.
+     */
+    QUIZ_ANSWERED,
+    /**
+     * Professorin Majuntke getroffen. Wert: 0.
+     */
+    PROFESSOR_MET,
+    /**
+     * Spiel beendet. Wert: Ordinalzahl des Spielausgangs.
+     */
+    GAME_FINISHED,
+    /**
+     * Zug beendet. Wert: Zustand der Zufallsquelle am Ende des Zugs.
+     */
+    TURN_END
+}
@@ -0,0 +1,41 @@
+package model;
+
+/**
+ * Ziel aller Spielausgaben.
+ *
+ * Implementierungen dürfen puffern; was mit {@link #print(String)} und
+ * {@link #println(String)} geschrieben wurde, ist erst nach {@link #flush()}
+ * sicher sichtbar. Das Spiel leert die Ausgabe einmal pro Zug bzw. vor
+ * jedem Einlesen.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public interface GameOutput {
+
+    /**
+     * Schreibt einen Text ohne Zeilenumbruch.
+     *
+     * @param text auszugebender Text
+     */
+    void print(String text);
+
+    /**
+     * Schreibt einen Text mit Zeilenumbruch.
+     *
+     * @param text auszugebender Text
+     */
+    void println(String text);
+
+    /**
+     * Schreibt einen leeren Zeilenumbruch.
+     */
+    default void println() {
+        println("");
+    }
+
+    /**
+     * Gibt alle gepufferten Ausgaben weiter.
+     */
+    void flush();
+}
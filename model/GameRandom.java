@@ -0,0 +1,213 @@
+package model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+
+/**
+ * Zufallsquelle eines Spiels.
+ *
+ * Verwendet denselben Algorithmus wie {@link java.util.SplittableRandom}
+ * (SplitMix64), ist aber serialisierbar, damit der Zustand mit dem Spielstand
+ * gespeichert wird und ein Spiel mit gleichem Startwert und gleichen Eingaben
+ * exakt gleich verläuft. Mit {@link #split()} lassen sich unabhängige
+ * Zufallsfolgen für weitere Threads abzweigen.
+ *
+ * Eine Instanz ist nicht threadsicher und gehört immer genau einem Spiel.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class GameRandom implements RandomGenerator, Serializable {
+
+    // Bitte serialVersionUID beibehalten, damit die Klasse bei der
+    // Speicherung als Datei (Serialisierung) und beim Laden (Deserialisierung)
+    // konsistent bleibt und Versionierungsprobleme vermieden werden.
+    private static final long serialVersionUID = 7311905093650411262L;
+
+    /**
+     * Schrittweite für Instanzen, die nicht durch Abzweigen entstanden sind.
+     */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /**
+     * Startwert, mit dem die Instanz erzeugt wurde.
+     */
+    private final long initialSeed;
+    /**
+     * Aktueller interner Zustand.
+     */
+    private long seed;
+    /**
+     * Schrittweite, um die der Zustand bei jeder Zahl erhöht wird (ungerade).
+     */
+    private final long gamma;
+
+    /**
+     * Erstellt eine Zufallsquelle mit zufälligem Startwert.
+     */
+    public GameRandom() {
+        this(ThreadLocalRandom.current().nextLong());
+    }
+
+    /**
+     * Erstellt eine Zufallsquelle mit festem Startwert.
+     *
+     * @param seed Startwert
+     */
+    public GameRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    /**
+     * Erstellt eine Zufallsquelle mit Startwert und Schrittweite.
+     *
+     * @param seed  Startwert
+     * @param gamma Schrittweite (ungerade)
+     */
+    private GameRandom(long seed, long gamma) {
+        this(seed, seed, gamma);
+    }
+
+    /**
+     * Erstellt eine Zufallsquelle mit vollständig vorgegebenem Zustand.
+     *
+     * @param initialSeed ursprünglicher Startwert
+     * @param seed        aktueller Zustand
+     * @param gamma       Schrittweite (ungerade)
+     */
+    private GameRandom(long initialSeed, long seed, long gamma) {
+        this.initialSeed = initialSeed;
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Schreibt den vollständigen Zustand in das Binärformat des Spielstands.
+     *
+     * @param out Ziel
+     * @throws IOException bei Schreibfehlern
+     */
+    public void writeState(DataOutput out) throws IOException {
+        out.writeLong(initialSeed);
+        out.writeLong(seed);
+        out.writeLong(gamma);
+    }
+
+    /**
+     * Liest eine mit {@link #writeState(DataOutput)} geschriebene Zufallsquelle.
+     *
+     * @param in Quelle
+     * @return Zufallsquelle im gespeicherten Zustand
+     * @throws IOException bei Lesefehlern
+     */
+    public static GameRandom readState(DataInput in) throws IOException {
+        long initialSeed = in.readLong();
+        long seed = in.readLong();
+        long gamma = in.readLong();
+        return new GameRandom(initialSeed, seed, gamma);
+    }
+
+    /**
+     * Liefert eine Zufallsquelle für die Folge mit der angegebenen Nummer.
+     * Gleicher Startwert und gleiche Nummer ergeben immer dieselbe Folge,
+     * unabhängig davon, in welchem Thread sie verwendet wird.
+     *
+     * @param seed   gemeinsamer Startwert
+     * @param stream Nummer der Folge (z. B. Nummer des simulierten Spiels)
+     * @return neue Zufallsquelle
+     */
+    public static GameRandom forStream(long seed, long stream) {
+        return new GameRandom(mix64(seed + stream * GOLDEN_GAMMA));
+    }
+
+    /**
+     * Zweigt eine unabhängige Zufallsquelle ab, z. B. für einen weiteren Thread.
+     *
+     * @return neue Zufallsquelle
+     */
+    public GameRandom split() {
+        return new GameRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    /**
+     * Liefert den Startwert, mit dem diese Zufallsquelle erzeugt wurde.
+     *
+     * @return Startwert
+     */
+    public long getInitialSeed() {
+        return initialSeed;
+    }
+
+    /**
+     * Liefert den aktuellen internen Zustand.
+     *
+     * @return Zustand
+     */
+    public long getState() {
+        return seed;
+    }
+
+    /**
+     * Liefert die Schrittweite, z. B. für {@link CombatBatch}, das die Folge
+     * ohne eigenes Objekt fortsetzt.
+     *
+     * @return Schrittweite
+     */
+    long getGamma() {
+        return gamma;
+    }
+
+    /**
+     * Setzt den internen Zustand, z. B. beim Wiederherstellen eines Spiels.
+     *
+     * @param state mit {@link #getState()} gelesener Zustand
+     */
+    public void setState(long state) {
+        this.seed = state;
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    /**
+     * Schaltet den Zustand um eine Schrittweite weiter.
+     *
+     * @return neuer Zustand
+     */
+    private long nextSeed() {
+        seed += gamma;
+        return seed;
+    }
+
+    /**
+     * Mischfunktion von SplitMix64.
+     *
+     * @param z Eingabewert
+     * @return gemischter Wert
+     */
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Erzeugt eine ungerade Schrittweite mit ausreichend vielen Bitwechseln.
+     *
+     * @param z Eingabewert
+     * @return Schrittweite
+     */
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
@@ -1,7 +1,10 @@
 package model;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.Random;
 
 /**
  * Spielcharakter (Held) des Spiels.
@@ -23,6 +26,26 @@ public class Hero implements Serializable {
      * maximale Anzahl an Lebenspunkte
      */
     private static final int MAXHEALTH = 50;
+    /**
+     * Wahrscheinlichkeit, dass ein Angriff danebengeht.
+     */
+    static final double MISS_CHANCE = 0.13;
+    /**
+     * Wahrscheinlichkeit eines kritischen Treffers (doppelter Schaden).
+     */
+    static final double CRITICAL_CHANCE = 0.12;
+    /**
+     * Wahrscheinlichkeit, dass eine Flucht gelingt.
+     */
+    public static final double FLEE_CHANCE = 0.42;
+    /**
+     * Lebenspunkte, die eine lange Verschnaufpause zurückgibt.
+     */
+    public static final int LONG_REST_HEALTH = 10;
+    /**
+     * Lebenspunkte, die eine kurze Verschnaufpause zurückgibt.
+     */
+    public static final int SHORT_REST_HEALTH = 3;
     /**
      * Name des Spielcharakters
      */
@@ -40,10 +63,23 @@ public class Hero implements Serializable {
      * des Spielcharakters bestaetigt haben.
      */
     private Lecturer[] signedExerciseLecturers;
+    /**
+     * Unterschriften als Bitmaske: Bit {@code i} ist gesetzt, wenn die
+     * Übungsleitung mit Index {@code i} unterschrieben hat.
+     */
+    private int signedMask;
     /**
      * Gibt an, ob die kleine Verschnaufpause genutzt wurde: wahr bedeutet ja, falsch bedeutet nein
      */
     private boolean smallRestUsed;
+    /**
+     * Zufallsquelle für Angriff und Flucht (wird mit dem Spiel geteilt).
+     */
+    private GameRandom random;
+    /**
+     * Empfänger für Zustandsänderungen (null, wenn niemand zuhört). Wird nicht gespeichert.
+     */
+    private transient GameEventListener listener;
 
     /**
      * Konstruktor des Helden.
@@ -53,10 +89,100 @@ public class Hero implements Serializable {
      * @param name Name des Spielcharakters
      */
     public Hero(String name) {
+        this(name, new GameRandom());
+    }
+
+    /**
+     * Erstellt einen neuen Helden, der die angegebene Zufallsquelle verwendet.
+     * 
+     * @param name   Name des Spielcharakters
+     * @param random Zufallsquelle für Angriff und Flucht
+     */
+    public Hero(String name, GameRandom random) {
         this.name = name;
         this.healthPoints = MAXHEALTH;
         this.experiencePoints = 0;
         this.signedExerciseLecturers = new Lecturer[5];
+        this.random = random;
+    }
+
+    /**
+     * Ältere Spielstände enthalten keine Zufallsquelle, daher wird beim
+     * Laden bei Bedarf eine neue erzeugt.
+     *
+     * @param in Eingabestrom der Deserialisierung
+     * @throws IOException            bei Lesefehlern
+     * @throws ClassNotFoundException wenn eine Klasse nicht gefunden wird
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (random == null) {
+            random = new GameRandom();
+        }
+    }
+
+    /**
+     * Schreibt den veränderlichen Zustand des Helden in das Binärformat des
+     * Spielstands. Unterschriften werden als Index in {@code lecturers}
+     * gespeichert, in der Reihenfolge, in der sie gesammelt wurden.
+     *
+     * @param out       Ziel
+     * @param lecturers alle Übungsleitungen des Spiels
+     * @throws IOException bei Schreibfehlern
+     */
+    public void writeState(DataOutput out, Lecturer[] lecturers) throws IOException {
+        out.writeUTF(name);
+        out.writeInt(healthPoints);
+        out.writeInt(experiencePoints);
+        out.writeBoolean(smallRestUsed);
+        int count = Integer.bitCount(signedMask);
+        out.writeByte(count);
+        for (int i = 0; i < count; i++) {
+            out.writeByte(signedExerciseLecturers[i].getIndex());
+        }
+    }
+
+    /**
+     * Liest einen mit {@link #writeState(DataOutput, Lecturer[])} geschriebenen Helden.
+     *
+     * @param in        Quelle
+     * @param lecturers alle Übungsleitungen des Spiels
+     * @param random    Zufallsquelle des Spiels
+     * @return Held im gespeicherten Zustand
+     * @throws IOException bei Lesefehlern oder wenn eine Übungsleitung nicht auf dem Campus existiert
+     */
+    public static Hero readState(DataInput in, Lecturer[] lecturers, GameRandom random) throws IOException {
+        Hero hero = new Hero(in.readUTF(), random);
+        hero.healthPoints = in.readInt();
+        hero.experiencePoints = in.readInt();
+        hero.smallRestUsed = in.readBoolean();
+        int count = in.readUnsignedByte();
+        for (int i = 0; i < count; i++) {
+            int index = in.readUnsignedByte();
+            if (index >= lecturers.length) {
+                throw new IOException("Save does not match campus: lecturer " + index + " of " + lecturers.length);
+            }
+            hero.signExerciseLeader(lecturers[index]);
+        }
+        return hero;
+    }
+
+    /**
+     * Setzt den Empfänger für Zustandsänderungen des Helden.
+     *
+     * @param listener Empfänger oder null
+     */
+    public void setEventListener(GameEventListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Setzt die Zufallsquelle für Angriff und Flucht.
+     *
+     * @param random neue Zufallsquelle
+     */
+    public void setRandom(GameRandom random) {
+        this.random = random;
     }
 
     /**
@@ -72,6 +198,9 @@ public class Hero implements Serializable {
         if (healthPoints < 0) {
             healthPoints = 0;
         }
+        if (listener != null) {
+            listener.onEvent(GameEventType.HERO_DAMAGED, amount);
+        }
     }
     /**
      * Ermöglicht dem Helden eine Verschnaufpause.
@@ -82,18 +211,21 @@ public class Hero implements Serializable {
      */
     public void regenerate(boolean longRest) {
         if (longRest) {
-            healthPoints += 10;
+            healthPoints += LONG_REST_HEALTH;
         } else {
             if (smallRestUsed) {
                 return;
             }
-            healthPoints += 3;
+            healthPoints += SHORT_REST_HEALTH;
             smallRestUsed = true;
         }
 
         if (healthPoints > MAXHEALTH) {
             healthPoints = MAXHEALTH;
         }
+        if (listener != null) {
+            listener.onEvent(GameEventType.HERO_REGENERATED, longRest ? 1 : 0);
+        }
     }
 
     /**
@@ -103,9 +235,8 @@ public class Hero implements Serializable {
      */
     public boolean flee() {
         // zufallzahl zwischen 0.0 und 1.0
-        Random random = new Random();
         // wenn zahl kleiner als 0.42 ist, flucht erfolgreich, sonst nicht
-        if (random.nextDouble() < 0.42) {
+        if (random.nextDouble() < FLEE_CHANCE) {
             return true;
         } else {
             return false;
@@ -119,17 +250,35 @@ public class Hero implements Serializable {
      * @return ganzzahliger berechneter Schaden
      */
      public int attack() {
-        double baseDamage = experiencePoints * 2.3 + 1;
-        Random random = new Random();
         double chance = random.nextDouble();
 
-        if (chance < 0.13) {
+        if (chance < MISS_CHANCE) {
             return 0;
-        } else if (chance < 0.25) {
-            baseDamage *= 2;
+        } else if (chance < MISS_CHANCE + CRITICAL_CHANCE) {
+            return criticalDamage(experiencePoints);
         }
 
-        return (int) baseDamage;
+        return normalDamage(experiencePoints);
+    }
+
+    /**
+     * Schaden eines normalen Treffers.
+     *
+     * @param experiencePoints Erfahrungspunkte des Angreifers
+     * @return ganzzahliger Schaden
+     */
+    static int normalDamage(int experiencePoints) {
+        return (int) (experiencePoints * 2.3 + 1);
+    }
+
+    /**
+     * Schaden eines kritischen Treffers.
+     *
+     * @param experiencePoints Erfahrungspunkte des Angreifers
+     * @return ganzzahliger Schaden
+     */
+    static int criticalDamage(int experiencePoints) {
+        return (int) ((experiencePoints * 2.3 + 1) * 2);
     }
     /**
      * Trägt die angegebene Übungsleitung in den nächsten freien Platz des Laufzettels ein.
@@ -142,16 +291,82 @@ public class Hero implements Serializable {
             return;
         }
 
-        for (Lecturer l : signedExerciseLecturers) {
-            if (lecturer.equals(l)) {
-                return;
+        int bit = 1 << lecturer.getIndex();
+        if ((signedMask & bit) != 0) {
+            return;
+        }
+        // die Plätze werden lückenlos belegt, der nächste freie folgt auf die bisherigen
+        int count = Integer.bitCount(signedMask);
+        if (count < signedExerciseLecturers.length) {
+            signedExerciseLecturers[count] = lecturer;
+            signedMask |= bit;
+        }
+    }
+
+    /**
+     * Prüft, ob die Übungsleitung den Laufzettel bereits unterschrieben hat.
+     *
+     * @param lecturer Übungsgruppenleitung
+     * @return wahr, wenn sie auf dem Laufzettel steht
+     */
+    public boolean hasSignature(Lecturer lecturer) {
+        return (signedMask & (1 << lecturer.getIndex())) != 0;
+    }
+
+    /**
+     * Liefert die Unterschriften als Bitmaske.
+     *
+     * @return Bit {@code i} ist gesetzt, wenn die Übungsleitung mit Index {@code i} unterschrieben hat
+     */
+    public int getSignedMask() {
+        return signedMask;
+    }
+
+    /**
+     * Setzt den veränderlichen Zustand des Helden auf einen zuvor gepackten
+     * Stand zurück, ohne neue Objekte anzulegen. Die Reihenfolge auf dem
+     * Laufzettel folgt dabei dem Index der Übungsleitungen.
+     *
+     * @param healthPoints     Lebenspunkte
+     * @param experiencePoints Erfahrungspunkte
+     * @param smallRestUsed    wahr, wenn die kleine Verschnaufpause genutzt wurde
+     * @param signedMask       Unterschriften als Bitmaske
+     * @param lecturers        alle Übungsleitungen des Spiels
+     */
+    public void restoreState(int healthPoints, int experiencePoints, boolean smallRestUsed,
+            int signedMask, Lecturer[] lecturers) {
+        this.healthPoints = healthPoints;
+        this.experiencePoints = experiencePoints;
+        this.smallRestUsed = smallRestUsed;
+        this.signedMask = signedMask;
+        int slot = 0;
+        for (Lecturer lecturer : lecturers) {
+            boolean signed = (signedMask & (1 << lecturer.getIndex())) != 0;
+            if (signed && slot < signedExerciseLecturers.length) {
+                signedExerciseLecturers[slot++] = lecturer;
             }
         }
+        while (slot < signedExerciseLecturers.length) {
+            signedExerciseLecturers[slot++] = null;
+        }
+    }
 
-        for (int i = 0; i < signedExerciseLecturers.length; i++) {
-            if (signedExerciseLecturers[i] == null) {
-                signedExerciseLecturers[i] = lecturer;
-                return;
+    /**
+     * Ersetzt nach dem Laden eines älteren Spielstands die mitgespeicherten
+     * Übungsleitungen auf dem Laufzettel durch die gleichnamigen des Campus
+     * und baut die Bitmaske der Unterschriften neu auf.
+     *
+     * @param lecturers alle Übungsleitungen des Spiels
+     */
+    public void restoreSignatures(Lecturer[] lecturers) {
+        Lecturer[] legacy = signedExerciseLecturers;
+        signedExerciseLecturers = new Lecturer[legacy.length];
+        signedMask = 0;
+        for (Lecturer l : legacy) {
+            for (Lecturer lecturer : lecturers) {
+                if (l != null && lecturer.getName().equals(l.getName())) {
+                    signExerciseLeader(lecturer);
+                }
             }
         }
     }
@@ -173,6 +388,9 @@ public class Hero implements Serializable {
     public void addExperiencePoints(int experiencePoints) {
         if (experiencePoints > 0) {
             this.experiencePoints += experiencePoints;
+            if (listener != null) {
+                listener.onEvent(GameEventType.EXPERIENCE_GAINED, experiencePoints);
+            }
         }
     }
     /**
@@ -193,6 +411,15 @@ public class Hero implements Serializable {
         return name;
     }
 
+    /**
+     * Liefert die maximale Anzahl an Lebenspunkten.
+     *
+     * @return maximale Lebenspunkte
+     */
+    public static int getMaxHealth() {
+        return MAXHEALTH;
+    }
+
     /**
      * Liefert die aktuellen Lebenspunkte des Helden.
      *
@@ -202,6 +429,15 @@ public class Hero implements Serializable {
         return healthPoints;
     }
 
+    /**
+     * Prüft, ob der Held die kleine Verschnaufpause bereits genutzt hat.
+     *
+     * @return wahr, wenn die kleine Verschnaufpause genutzt wurde
+     */
+    public boolean isSmallRestUsed() {
+        return smallRestUsed;
+    }
+
     /**
      * Gibt eine Kopie der unterschriebenen Übungsleitungen zurück.
      *
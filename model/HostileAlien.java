@@ -7,11 +7,38 @@ package model;
  * @author Emilio
  */
 public class HostileAlien extends Alien {
+    /**
+     * Lebenspunkte zu Beginn eines Kampfes.
+     */
+    public static final int LIFE_POINTS = 35;
+    /**
+     * Kleinster Schaden eines Gegenschlags.
+     */
+    public static final int MIN_DAMAGE = 5;
+    /**
+     * Groesster Schaden eines Gegenschlags.
+     */
+    public static final int MAX_DAMAGE = 10;
 
     /**
      * Erstellt ein feindliches Alien mit Standardwerten.
      */
     public HostileAlien() {
-        super("Hostile Alien", 35, false, "Prepare to fight");
+        super(AlienArchetype.HOSTILE);
+    }
+
+    /**
+     * Setzt das Alien fuer eine neue Begegnung zurueck, damit ein Spiel
+     * nicht fuer jeden Kampf ein neues Objekt anlegen muss.
+     *
+     * @param archetype feindliche Art des Aliens
+     * @throws IllegalArgumentException wenn die Art freundlich ist
+     */
+    @Override
+    public void reset(AlienArchetype archetype) {
+        if (archetype.isFriendly()) {
+            throw new IllegalArgumentException(archetype.getName() + " is not hostile");
+        }
+        super.reset(archetype);
     }
 }
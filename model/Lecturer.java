@@ -21,6 +21,11 @@ public class Lecturer implements Serializable {
      */
     private final String name;
 
+    /**
+     * Position im Campus und Bit im Laufzettel des Helden.
+     */
+    private final int index;
+
     /**
      * Kennzeichnet, ob der Laufzettel bereits unterschrieben wurde.
      */
@@ -29,10 +34,15 @@ public class Lecturer implements Serializable {
     /**
      * Erstellt eine neue Instanz mit dem angegebenen Namen.
      *
-     * @param name Name der Übungsgruppenleiterin bzw. des Übungsgruppenleiters
+     * @param name  Name der Übungsgruppenleiterin bzw. des Übungsgruppenleiters
+     * @param index Position im Spiel (0 bis 31)
      */
-    public Lecturer(String name) {
+    public Lecturer(String name, int index) {
+        if (index < 0 || index >= Integer.SIZE) {
+            throw new IllegalArgumentException("Lecturer index out of range: " + index);
+        }
         this.name = name;
+        this.index = index;
     }
 
     /**
@@ -61,6 +71,15 @@ public class Lecturer implements Serializable {
         return name;
     }
 
+    /**
+     * Liefert die Position im Spiel.
+     *
+     * @return Index der Übungsleitung
+     */
+    public int getIndex() {
+        return index;
+    }
+
     /**
      * Prueft, ob bereits unterschrieben wurde.
      *
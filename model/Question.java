@@ -10,24 +10,51 @@ import java.io.Serializable;
  */
 public class Question implements Serializable {
     private static final long serialVersionUID = 1L;
+
+    /**
+     * Anzahl der Antwortmöglichkeiten jeder Frage.
+     */
+    public static final int ANSWER_COUNT = 4;
+    /**
+     * Thema von Fragen, für die keines angegeben wurde.
+     */
+    public static final String DEFAULT_TOPIC = "general";
+    /**
+     * Niedrigster Schwierigkeitsgrad.
+     */
+    public static final int MIN_DIFFICULTY = 1;
+    /**
+     * Höchster Schwierigkeitsgrad.
+     */
+    public static final int MAX_DIFFICULTY = 5;
     
     /**
      * Die Frage bzw. die Fragestellung
      */
-    private String question;
+    private final String question;
     
     /**
      * Array mit vier Antwortmöglichkeiten (Formate: answers[0] bis answers[3]; answers[0]="(A) ...")
      */
-    private String[] answers;
+    private final String[] answers;
     
     /**
      * Der Index der korrekten Antwort (0-3)
      */
-    private int correctAnswerIndex;
+    private final int correctAnswerIndex;
+
+    /**
+     * Thema der Frage (z. B. "arrays").
+     */
+    private final String topic;
+
+    /**
+     * Schwierigkeitsgrad ({@link #MIN_DIFFICULTY} bis {@link #MAX_DIFFICULTY}).
+     */
+    private final int difficulty;
     
     /**
-     * Konstruktor für eine Question.
+     * Konstruktor für eine Question ohne Thema mit niedrigster Schwierigkeit.
      * 
      * @param question Die Frage
      * @param answer1 Erste Antwortmöglichkeit
@@ -37,9 +64,28 @@ public class Question implements Serializable {
      * @param correctAnswerIndex Der Index der korrekten Antwort (0-3)
      */
     public Question(String question, String answer1, String answer2, String answer3, String answer4, int correctAnswerIndex) {
+        this(question, answer1, answer2, answer3, answer4, correctAnswerIndex, DEFAULT_TOPIC, MIN_DIFFICULTY);
+    }
+
+    /**
+     * Konstruktor für eine Question.
+     * 
+     * @param question Die Frage
+     * @param answer1 Erste Antwortmöglichkeit
+     * @param answer2 Zweite Antwortmöglichkeit
+     * @param answer3 Dritte Antwortmöglichkeit
+     * @param answer4 Vierte Antwortmöglichkeit
+     * @param correctAnswerIndex Der Index der korrekten Antwort (0-3)
+     * @param topic Thema der Frage
+     * @param difficulty Schwierigkeitsgrad ({@link #MIN_DIFFICULTY} bis {@link #MAX_DIFFICULTY})
+     */
+    public Question(String question, String answer1, String answer2, String answer3, String answer4,
+            int correctAnswerIndex, String topic, int difficulty) {
         this.question = question;
         this.answers = new String[]{answer1, answer2, answer3, answer4};
         this.correctAnswerIndex = correctAnswerIndex;
+        this.topic = topic;
+        this.difficulty = difficulty;
     }
     
     /**
@@ -54,10 +100,10 @@ public class Question implements Serializable {
     /**
      * Gibt die Antwortmöglichkeiten zurück.
      * 
-     * @return Array mit vier Antwortmöglichkeiten
+     * @return Kopie des Arrays mit vier Antwortmöglichkeiten, da Fragen von allen Spielen geteilt werden
      */
     public String[] getAnswers() {
-        return answers;
+        return answers.clone();
     }
     
     /**
@@ -78,4 +124,31 @@ public class Question implements Serializable {
     public String getCorrectAnswer() {
         return answers[correctAnswerIndex];
     }
+
+    /**
+     * Gibt den Index der korrekten Antwort zurück.
+     *
+     * @return Index der korrekten Antwort (0-3)
+     */
+    public int getCorrectAnswerIndex() {
+        return correctAnswerIndex;
+    }
+
+    /**
+     * Gibt das Thema der Frage zurück.
+     *
+     * @return Thema
+     */
+    public String getTopic() {
+        return topic;
+    }
+
+    /**
+     * Gibt den Schwierigkeitsgrad der Frage zurück.
+     *
+     * @return Schwierigkeitsgrad
+     */
+    public int getDifficulty() {
+        return difficulty;
+    }
 }
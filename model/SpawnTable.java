@@ -0,0 +1,146 @@
+package model;
+
+/**
+ * Gewichte der Ereignisse beim Betreten eines Raums: nichts, freundliches
+ * Alien, feindliches Alien oder Treffen einer Übungsleitung.
+ *
+ * Die Gewichte sind ganze Zahlen; ausgewertet werden sie wie die festen
+ * Grenzen des ursprünglichen Spiels, eine Zufallszahl entscheidet über das
+ * Ereignis und eine zweite über die Art des Aliens. Die Standardtabelle
+ * ergibt genau die bisherigen Wahrscheinlichkeiten (20 % nichts, 52 % Alien,
+ * davon die Hälfte feindlich, 28 % Übungsleitung).
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public final class SpawnTable {
+    /**
+     * Verteilung des ursprünglichen Campus.
+     */
+    public static final SpawnTable DEFAULT = new SpawnTable(20, 26, 26, 28);
+
+    /**
+     * Gewicht für „nichts passiert“.
+     */
+    private final int nothing;
+    /**
+     * Gewicht für ein freundliches Alien.
+     */
+    private final int friendly;
+    /**
+     * Gewicht für ein feindliches Alien.
+     */
+    private final int hostile;
+    /**
+     * Gewicht für das Treffen einer Übungsleitung.
+     */
+    private final int lecturer;
+    /**
+     * Obergrenze der Zufallszahl für „nichts passiert“.
+     */
+    private final double nothingLimit;
+    /**
+     * Obergrenze der Zufallszahl für eine Alien-Begegnung.
+     */
+    private final double alienLimit;
+
+    /**
+     * @param nothing  Gewicht für „nichts passiert“
+     * @param friendly Gewicht für ein freundliches Alien
+     * @param hostile  Gewicht für ein feindliches Alien
+     * @param lecturer Gewicht für das Treffen einer Übungsleitung
+     * @throws IllegalArgumentException wenn ein Gewicht negativ ist oder die Summe nicht in ein {@code int} passt
+     */
+    public SpawnTable(int nothing, int friendly, int hostile, int lecturer) {
+        if (nothing < 0 || friendly < 0 || hostile < 0 || lecturer < 0) {
+            throw new IllegalArgumentException("Spawn weights must not be negative");
+        }
+        long total = (long) nothing + friendly + hostile + lecturer;
+        if (total == 0 || total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Spawn weights must add up to between 1 and " + Integer.MAX_VALUE);
+        }
+        this.nothing = nothing;
+        this.friendly = friendly;
+        this.hostile = hostile;
+        this.lecturer = lecturer;
+        this.nothingLimit = (double) nothing / total;
+        this.alienLimit = (double) (nothing + (long) friendly + hostile) / total;
+    }
+
+    /**
+     * @return Gewicht für „nichts passiert“
+     */
+    public int getNothing() {
+        return nothing;
+    }
+
+    /**
+     * @return Gewicht für ein freundliches Alien
+     */
+    public int getFriendly() {
+        return friendly;
+    }
+
+    /**
+     * @return Gewicht für ein feindliches Alien
+     */
+    public int getHostile() {
+        return hostile;
+    }
+
+    /**
+     * @return Gewicht für das Treffen einer Übungsleitung
+     */
+    public int getLecturer() {
+        return lecturer;
+    }
+
+    /**
+     * @return Zufallszahlen darunter bedeuten „nichts passiert“
+     */
+    public double getNothingLimit() {
+        return nothingLimit;
+    }
+
+    /**
+     * @return Zufallszahlen ab {@link #getNothingLimit()} und darunter bedeuten eine Alien-Begegnung
+     */
+    public double getAlienLimit() {
+        return alienLimit;
+    }
+
+    /**
+     * Entscheidet, ob ein erscheinendes Alien freundlich ist. Bei gleichen
+     * Gewichten wird wie bisher eine Münze geworfen.
+     *
+     * @param random Zufallsquelle des Spiels
+     * @return wahr für ein freundliches Alien
+     */
+    public boolean rollFriendly(GameRandom random) {
+        if (friendly == hostile) {
+            return random.nextBoolean();
+        }
+        return random.nextInt(friendly + hostile) < friendly;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof SpawnTable)) {
+            return false;
+        }
+        SpawnTable table = (SpawnTable) other;
+        return nothing == table.nothing && friendly == table.friendly
+                && hostile == table.hostile && lecturer == table.lecturer;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((nothing * 31 + friendly) * 31 + hostile) * 31 + lecturer;
+    }
+
+    @Override
+    public String toString() {
+        return "SpawnTable[nothing=" + nothing + ", friendly=" + friendly + ", hostile=" + hostile
+                + ", lecturer=" + lecturer + "]";
+    }
+}
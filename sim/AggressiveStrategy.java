@@ -0,0 +1,30 @@
+package sim;
+
+import app.EscapeGame;
+import model.HostileAlien;
+
+/**
+ * Strategie, die ohne Pause erkundet und jedes feindliche Alien angreift.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class AggressiveStrategy extends SimulatedPlayer {
+
+    /**
+     * @param quizSkill Wahrscheinlichkeit, die richtige Quizantwort zu kennen
+     */
+    public AggressiveStrategy(double quizSkill) {
+        super(quizSkill);
+    }
+
+    @Override
+    public String chooseMenuAction(EscapeGame game) {
+        return "1";
+    }
+
+    @Override
+    public String chooseFightAction(EscapeGame game, HostileAlien alien) {
+        return "1";
+    }
+}
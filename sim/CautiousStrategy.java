@@ -0,0 +1,36 @@
+package sim;
+
+import app.EscapeGame;
+import model.HostileAlien;
+
+/**
+ * Strategie, die sich bei wenig Lebenspunkten ausruht und flieht.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class CautiousStrategy extends SimulatedPlayer {
+    /**
+     * Unterhalb dieser Lebenspunkte wird pausiert bzw. geflohen.
+     */
+    private final int healthThreshold;
+
+    /**
+     * @param quizSkill       Wahrscheinlichkeit, die richtige Quizantwort zu kennen
+     * @param healthThreshold Lebenspunkte, unterhalb derer pausiert bzw. geflohen wird
+     */
+    public CautiousStrategy(double quizSkill, int healthThreshold) {
+        super(quizSkill);
+        this.healthThreshold = healthThreshold;
+    }
+
+    @Override
+    public String chooseMenuAction(EscapeGame game) {
+        return game.getHero().getHealthPoints() < healthThreshold ? "4" : "1";
+    }
+
+    @Override
+    public String chooseFightAction(EscapeGame game, HostileAlien alien) {
+        return game.getHero().getHealthPoints() < healthThreshold ? "2" : "1";
+    }
+}
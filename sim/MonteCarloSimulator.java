@@ -0,0 +1,206 @@
+package sim;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import app.EscapeGame;
+import app.GamePolicy;
+import app.NullOutput;
+import app.PlayerStrategy;
+import model.GameOutput;
+import model.GameRandom;
+
+/**
+ * Spielt viele komplette Spiele ohne Konsole und wertet sie aus.
+ *
+ * Die Spiele werden gleichmäßig auf einen festen Pool von Worker-Threads
+ * verteilt. Jeder Worker hat seinen eigenen {@link SimulationReport} und
+ * seine eigene (verworfene) Ausgabe, damit sich die Threads nicht gegenseitig
+ * blockieren. Die Spielregeln stammen unverändert aus {@link EscapeGame}.
+ *
+ * Spiel Nummer {@code i} verwendet immer die Zufallsfolge
+ * {@link GameRandom#forStream(long, long)} mit derselben Nummer. Gleicher
+ * Startwert ergibt daher unabhängig von der Anzahl der Threads dieselben
+ * Ergebnisse.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class MonteCarloSimulator {
+    /**
+     * Obergrenze an Menüaktionen pro Spiel, damit Strategien, die keine
+     * Runde verbrauchen (z. B. immer kurze Pause), nicht endlos laufen.
+     */
+    private static final int MAX_ACTIONS_PER_GAME = 1000;
+    /**
+     * Anzahl der Worker-Threads.
+     */
+    private final int threads;
+
+    /**
+     * Erstellt einen Simulator mit einem Thread pro Prozessorkern.
+     */
+    public MonteCarloSimulator() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param threads Anzahl der Worker-Threads (mindestens 1)
+     */
+    public MonteCarloSimulator(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Einstiegspunkt der Simulation.
+     *
+     * @param args [Anzahl Spiele] [aggressive|cautious|random] [Threads] [Startwert]
+     */
+    public static void main(String[] args) {
+        long games = args.length > 0 ? Long.parseLong(args[0]) : 1_000_000L;
+        String strategyName = args.length > 1 ? args[1] : "aggressive";
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : new GameRandom().getInitialSeed();
+
+        Supplier<PlayerStrategy> strategy = strategyFor(strategyName);
+        if (strategy == null) {
+            System.out.println("Unknown strategy: " + strategyName + " (aggressive, cautious, random, policy)");
+            return;
+        }
+
+        System.out.println("Simulating " + games + " games (" + strategyName + ") on " + threads
+                + " threads, seed " + seed + " ...");
+        SimulationReport report = new MonteCarloSimulator(threads).run(games, strategy, seed);
+        report.print(System.out);
+    }
+
+    /**
+     * Liefert die Strategie zum angegebenen Namen.
+     *
+     * @param name Name der Strategie
+     * @return Fabrik für die Strategie oder null, wenn unbekannt
+     */
+    public static Supplier<PlayerStrategy> strategyFor(String name) {
+        switch (name) {
+            case "aggressive":
+                return () -> new AggressiveStrategy(0.75);
+            case "cautious":
+                return () -> new CautiousStrategy(0.75, 20);
+            case "random":
+                return () -> new RandomStrategy(0.25);
+            case "policy":
+                GamePolicy policy = GamePolicy.shared();
+                if (policy == null) {
+                    return null;
+                }
+                return () -> new PolicyStrategy(policy.getQuizSkill(), policy);
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Spielt die angegebene Anzahl an Spielen parallel.
+     *
+     * @param games           Anzahl der Spiele
+     * @param strategyFactory erzeugt für jeden Worker eine eigene Strategie
+     * @param seed            gemeinsamer Startwert aller Zufallsfolgen
+     * @return zusammengeführter Bericht aller Spiele
+     */
+    public SimulationReport run(long games, Supplier<PlayerStrategy> strategyFactory, long seed) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        long start = System.nanoTime();
+        try {
+            List<Future<SimulationReport>> futures = new ArrayList<>();
+            long perWorker = games / threads;
+            long remainder = games % threads;
+            long first = 0;
+            for (int i = 0; i < threads; i++) {
+                long from = first;
+                long to = from + perWorker + (i < remainder ? 1 : 0);
+                futures.add(pool.submit(() -> playGames(from, to, seed, strategyFactory.get())));
+                first = to;
+            }
+
+            SimulationReport total = new SimulationReport();
+            for (Future<SimulationReport> future : futures) {
+                total.merge(future.get());
+            }
+            total.setElapsedNanos(System.nanoTime() - start);
+            return total;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Simulation failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Spielt die Spiele mit den Nummern {@code from} bis {@code to - 1}
+     * nacheinander im aktuellen Thread.
+     *
+     * @param from   Nummer des ersten Spiels
+     * @param to     Nummer nach dem letzten Spiel
+     * @param seed   gemeinsamer Startwert aller Zufallsfolgen
+     * @param player Strategie für alle Entscheidungen
+     * @return Bericht dieser Spiele
+     */
+    public static SimulationReport playGames(long from, long to, long seed, PlayerStrategy player) {
+        SimulationReport report = new SimulationReport();
+        NullOutput discard = new NullOutput();
+        for (long i = from; i < to; i++) {
+            playGame(player, discard, GameRandom.forStream(seed, i), report);
+        }
+        return report;
+    }
+
+    /**
+     * Spielt ein komplettes Spiel nach denselben Abläufen wie das Spielmenü in
+     * {@code EscapeApp.resumeGame} und trägt das Ergebnis in den Bericht ein.
+     *
+     * @param player Strategie für alle Entscheidungen
+     * @param out    Ziel der Spielausgaben
+     * @param random Zufallsquelle des Spiels
+     * @param report Bericht, in den das Ergebnis eingetragen wird
+     */
+    public static void playGame(PlayerStrategy player, GameOutput out, GameRandom random, SimulationReport report) {
+        EscapeGame game = new EscapeGame(player, out, random);
+        game.run("Simulated Hero");
+
+        int maxRounds = EscapeGame.getMaxRounds();
+        int[] signatureCurve = new int[maxRounds + 1];
+        int actions = 0;
+        while (!game.isGameFinished() && actions < MAX_ACTIONS_PER_GAME) {
+            if (game.checkIfGameOver()) {
+                break;
+            }
+            switch (player.chooseMenuAction(game)) {
+                case "1":
+                    game.exploreCampus();
+                    break;
+                case "4":
+                    game.takeRest(player.chooseRestType(game));
+                    break;
+                default:
+                    // Statusanzeigen verändern den Spielzustand nicht
+                    break;
+            }
+            signatureCurve[Math.min(game.getCurrentRound(), maxRounds)] = game.getSignatureCount();
+            actions++;
+        }
+
+        // Unterschriften gehen nie verloren: Lücken mit dem letzten Stand füllen
+        for (int i = 1; i <= maxRounds; i++) {
+            signatureCurve[i] = Math.max(signatureCurve[i], signatureCurve[i - 1]);
+        }
+        report.record(game.getOutcome(), game.getCurrentRound(), signatureCurve);
+    }
+}
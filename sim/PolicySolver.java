@@ -0,0 +1,273 @@
+package sim;
+
+import java.nio.file.Paths;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import app.EscapeGame;
+import app.GamePolicy;
+import model.CombatCalculator;
+import model.Hero;
+import model.HostileAlien;
+
+/**
+ * Berechnet offline die optimale Spielweise für alle Spielzustände und
+ * schreibt sie als {@link GamePolicy}.
+ *
+ * Jede Runde verbraucht eine Aktion außer der kleinen Pause, die nur einmal
+ * möglich ist. Der Zustandsgraph ist daher kreisfrei, und Expectimax
+ * rückwärts über die Runden liefert die exakten Werte in einem Durchgang
+ * (Wertiteration würde nach dieser einen Iteration bereits stillstehen).
+ * Innerhalb einer Runde sind alle Zustände unabhängig und werden parallel
+ * berechnet. Kämpfe werden über die exakte Verteilung aus
+ * {@link CombatCalculator#fightOutcome(int, int, int, double[])} bewertet.
+ *
+ * Aufruf: {@code java sim.PolicySolver [Quiz-Trefferquote] [Threads] [Datei]}.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class PolicySolver {
+    /**
+     * Erfahrungspunkte für ein freundliches Alien (wie in {@code EscapeGame.handleAlienEncounter}).
+     */
+    private static final int FRIENDLY_XP = 3;
+    /**
+     * Erfahrungspunkte für einen gewonnenen Kampf.
+     */
+    private static final int FIGHT_WON_XP = 5;
+    /**
+     * Erfahrungspunkte für eine Unterschrift (wie in {@code EscapeGame.handleLecturerEncounter}).
+     */
+    private static final int SIGNATURE_XP = 2;
+
+    /**
+     * Trefferquote pro Quizfrage.
+     */
+    private final double quizSkill;
+    /**
+     * Anzahl der Threads.
+     */
+    private final int threads;
+    /**
+     * Siegwahrscheinlichkeit je Zustand bei optimaler Spielweise.
+     */
+    private final float[] values = new float[GamePolicy.size()];
+    /**
+     * Beste Menüaktion je Zustand.
+     */
+    private final byte[] actions = new byte[GamePolicy.size()];
+    /**
+     * Verteilung der Lebenspunkte nach einem gewonnenen Kampf:
+     * {@code fightWins[xp][hp][verbleibende Lebenspunkte]}.
+     */
+    private final double[][][] fightWins;
+
+    /**
+     * @param quizSkill Trefferquote pro Quizfrage
+     * @param threads   Anzahl der Threads
+     */
+    public PolicySolver(double quizSkill, int threads) {
+        this.quizSkill = quizSkill;
+        this.threads = threads;
+        this.fightWins = new double[GamePolicy.EXPERIENCE_VALUES][GamePolicy.HEALTH_VALUES][];
+        for (int xp = 0; xp < GamePolicy.EXPERIENCE_VALUES; xp++) {
+            for (int hp = 1; hp < GamePolicy.HEALTH_VALUES; hp++) {
+                fightWins[xp][hp] = new double[GamePolicy.HEALTH_VALUES];
+                CombatCalculator.fightOutcome(hp, xp, HostileAlien.LIFE_POINTS, fightWins[xp][hp]);
+            }
+        }
+    }
+
+    /**
+     * Berechnet die Spielweise und schreibt sie in eine Datei.
+     *
+     * @param args [Quiz-Trefferquote] [Threads] [Datei]
+     * @throws Exception wenn die Berechnung oder das Schreiben fehlschlägt
+     */
+    public static void main(String[] args) throws Exception {
+        double quizSkill = args.length > 0 ? Double.parseDouble(args[0]) : 1.0;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        String file = args.length > 2 ? args[2] : GamePolicy.DEFAULT_FILE_NAME;
+
+        System.out.println("Solving " + GamePolicy.size() + " states on " + threads + " threads ...");
+        long start = System.nanoTime();
+        PolicySolver solver = new PolicySolver(quizSkill, threads);
+        short[] policy = solver.solve();
+        System.out.printf("Solved in %.2f s%n", (System.nanoTime() - start) / 1e9);
+
+        GamePolicy.write(Paths.get(file), policy, quizSkill);
+        System.out.printf("Win probability from the start: %.4f %%%n",
+                100 * solver.value(0, Hero.getMaxHealth(), 0, 0, false, -1));
+        System.out.println("Policy written to " + file);
+    }
+
+    /**
+     * Berechnet alle Zustände rückwärts über die Runden.
+     *
+     * @return gepackte Einträge für {@link GamePolicy#write}
+     * @throws Exception wenn ein Thread fehlschlägt
+     */
+    public short[] solve() throws Exception {
+        int perRound = GamePolicy.size() / GamePolicy.ROUNDS;
+        int perRest = perRound / 2;
+        short[] policy = new short[GamePolicy.size()];
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (int round = GamePolicy.ROUNDS - 1; round >= 0; round--) {
+                int r = round;
+                // die kleine Pause führt in dieselbe Runde mit verbrauchter Pause: diese zuerst
+                pool.submit(() -> IntStream.range(0, perRest).parallel()
+                        .forEach(i -> solveState(r, i, true))).get();
+                pool.submit(() -> IntStream.range(0, perRest).parallel()
+                        .forEach(i -> solveState(r, i, false))).get();
+            }
+            pool.submit(() -> IntStream.range(0, policy.length).parallel()
+                    .forEach(i -> policy[i] = packState(i))).get();
+        } finally {
+            pool.shutdown();
+        }
+        return policy;
+    }
+
+    /**
+     * Berechnet den besten Zug für einen Zustand.
+     *
+     * @param round         Runde
+     * @param i             laufende Nummer des Zustands innerhalb der Runde und Pause
+     * @param smallRestUsed ob die kleine Pause verbraucht ist
+     */
+    private void solveState(int round, int i, boolean smallRestUsed) {
+        int room = i % (GamePolicy.ROOMS + 1) - 1;
+        int rem = i / (GamePolicy.ROOMS + 1);
+        int mask = rem % (GamePolicy.ALL_SIGNED + 1);
+        rem /= GamePolicy.ALL_SIGNED + 1;
+        int xp = rem % GamePolicy.EXPERIENCE_VALUES;
+        int hp = rem / GamePolicy.EXPERIENCE_VALUES;
+        if (hp == 0) {
+            return;
+        }
+
+        int best = GamePolicy.EXPLORE;
+        double bestValue = exploreValue(round, hp, xp, mask, smallRestUsed, room);
+        double longRest = value(round + 1, Math.min(hp + Hero.LONG_REST_HEALTH, Hero.getMaxHealth()),
+                xp, mask, smallRestUsed, room);
+        if (longRest > bestValue) {
+            best = GamePolicy.LONG_REST;
+            bestValue = longRest;
+        }
+        if (!smallRestUsed) {
+            double shortRest = value(round, Math.min(hp + Hero.SHORT_REST_HEALTH, Hero.getMaxHealth()),
+                    xp, mask, true, room);
+            if (shortRest > bestValue) {
+                best = GamePolicy.SHORT_REST;
+                bestValue = shortRest;
+            }
+        }
+        int index = GamePolicy.index(round, hp, xp, mask, smallRestUsed, room);
+        values[index] = (float) bestValue;
+        actions[index] = (byte) best;
+    }
+
+    /**
+     * Siegwahrscheinlichkeit beim Erkunden (wie {@code EscapeGame.exploreCampus}).
+     *
+     * @param round         Runde
+     * @param hp            Lebenspunkte
+     * @param xp            Erfahrungsstufe
+     * @param mask          unterschriebene Übungsleitungen
+     * @param smallRestUsed ob die kleine Pause verbraucht ist
+     * @param room          aktueller Raum
+     * @return Siegwahrscheinlichkeit
+     */
+    private double exploreValue(int round, int hp, int xp, int mask, boolean smallRestUsed, int room) {
+        if (mask == GamePolicy.ALL_SIGNED) {
+            // Professorin Majuntke: zwei Versuche im Quiz
+            return quizSkill + (1 - quizSkill) * quizSkill;
+        }
+        int next = round + 1;
+        int nextRoom = (room + 1) % GamePolicy.ROOMS;
+        double nothing = value(next, hp, xp, mask, smallRestUsed, nextRoom);
+        double friendly = value(next, hp, xp + FRIENDLY_XP, mask, smallRestUsed, nextRoom);
+        double hostile = encounterValue(next, hp, xp, mask, smallRestUsed, nextRoom, false);
+        int bit = 1 << nextRoom;
+        double lecturer = (mask & bit) != 0 ? nothing
+                : value(next, hp, xp + SIGNATURE_XP, mask | bit, smallRestUsed, nextRoom);
+
+        double alienChance = EscapeGame.ALIEN_LIMIT - EscapeGame.NOTHING_LIMIT;
+        return EscapeGame.NOTHING_LIMIT * nothing
+                + alienChance / 2 * (friendly + hostile)
+                + (1 - EscapeGame.ALIEN_LIMIT) * lecturer;
+    }
+
+    /**
+     * Bewertet die Begegnung mit einem feindlichen Alien in einem Zustand.
+     *
+     * @param round         Runde (nach dem Erkunden)
+     * @param hp            Lebenspunkte
+     * @param xp            Erfahrungsstufe
+     * @param mask          unterschriebene Übungsleitungen
+     * @param smallRestUsed ob die kleine Pause verbraucht ist
+     * @param room          aktueller Raum
+     * @param decision      wahr: 1 für Flucht, 0 für Angriff liefern; falsch: Wert der besseren Wahl
+     * @return Wert der besseren Wahl bzw. die Entscheidung
+     */
+    private double encounterValue(int round, int hp, int xp, int mask, boolean smallRestUsed, int room,
+            boolean decision) {
+        double[] wins = fightWins[Math.min(xp, GamePolicy.EXPERIENCE_VALUES - 1)][hp];
+        double attack = 0.0;
+        for (int left = 1; left <= hp; left++) {
+            if (wins[left] != 0.0) {
+                attack += wins[left] * value(round, left, xp + FIGHT_WON_XP, mask, smallRestUsed, room);
+            }
+        }
+        double flee = Hero.FLEE_CHANCE * value(round, hp, xp, mask, smallRestUsed, room)
+                + (1 - Hero.FLEE_CHANCE) * attack;
+        if (decision) {
+            return flee > attack ? 1.0 : 0.0;
+        }
+        return Math.max(attack, flee);
+    }
+
+    /**
+     * Packt einen fertig berechneten Zustand samt Fluchtentscheidung.
+     *
+     * @param index Position des Zustands
+     * @return gepackter Eintrag
+     */
+    private short packState(int index) {
+        int i = index;
+        int room = i % (GamePolicy.ROOMS + 1) - 1;
+        i /= GamePolicy.ROOMS + 1;
+        boolean smallRestUsed = i % 2 == 1;
+        i /= 2;
+        int mask = i % (GamePolicy.ALL_SIGNED + 1);
+        i /= GamePolicy.ALL_SIGNED + 1;
+        int xp = i % GamePolicy.EXPERIENCE_VALUES;
+        i /= GamePolicy.EXPERIENCE_VALUES;
+        int hp = i % GamePolicy.HEALTH_VALUES;
+        int round = i / GamePolicy.HEALTH_VALUES;
+        boolean flee = hp > 0 && room >= 0
+                && encounterValue(round, hp, xp, mask, smallRestUsed, room, true) > 0.5;
+        return GamePolicy.pack(actions[index], flee, values[index]);
+    }
+
+    /**
+     * Siegwahrscheinlichkeit eines Zustands im Spielmenü. Nach der letzten
+     * Runde oder ohne Lebenspunkte ist das Spiel verloren.
+     *
+     * @param round         Runde
+     * @param hp            Lebenspunkte
+     * @param xp            Erfahrungspunkte
+     * @param mask          unterschriebene Übungsleitungen
+     * @param smallRestUsed ob die kleine Pause verbraucht ist
+     * @param room          aktueller Raum
+     * @return Siegwahrscheinlichkeit
+     */
+    double value(int round, int hp, int xp, int mask, boolean smallRestUsed, int room) {
+        if (round >= GamePolicy.ROUNDS || hp <= 0) {
+            return 0.0;
+        }
+        return values[GamePolicy.index(round, hp, xp, mask, smallRestUsed, room)];
+    }
+}
@@ -0,0 +1,49 @@
+package sim;
+
+import app.EscapeGame;
+import app.GamePolicy;
+import model.HostileAlien;
+
+/**
+ * Strategie, die der von {@link PolicySolver} berechneten optimalen
+ * Spielweise folgt.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class PolicyStrategy extends SimulatedPlayer {
+    /**
+     * Optimale Spielweise.
+     */
+    private final GamePolicy policy;
+
+    /**
+     * @param quizSkill Wahrscheinlichkeit, die richtige Quizantwort zu kennen
+     * @param policy    optimale Spielweise
+     */
+    public PolicyStrategy(double quizSkill, GamePolicy policy) {
+        super(quizSkill);
+        this.policy = policy;
+    }
+
+    @Override
+    public String chooseMenuAction(EscapeGame game) {
+        int index = GamePolicy.index(game);
+        if (index >= 0 && policy.action(index) != GamePolicy.EXPLORE) {
+            return "4";
+        }
+        return "1";
+    }
+
+    @Override
+    public String chooseRestType(EscapeGame game) {
+        int index = GamePolicy.index(game);
+        return index >= 0 && policy.action(index) == GamePolicy.SHORT_REST ? "2" : "1";
+    }
+
+    @Override
+    public String chooseFightAction(EscapeGame game, HostileAlien alien) {
+        int index = GamePolicy.index(game);
+        return index >= 0 && policy.shouldFlee(index) ? "2" : "1";
+    }
+}
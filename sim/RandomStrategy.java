@@ -0,0 +1,35 @@
+package sim;
+
+import app.EscapeGame;
+import model.HostileAlien;
+
+/**
+ * Strategie, die jede Entscheidung zufällig trifft.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class RandomStrategy extends SimulatedPlayer {
+
+    /**
+     * @param quizSkill Wahrscheinlichkeit, die richtige Quizantwort zu kennen
+     */
+    public RandomStrategy(double quizSkill) {
+        super(quizSkill);
+    }
+
+    @Override
+    public String chooseMenuAction(EscapeGame game) {
+        return game.getRandom().nextBoolean() ? "1" : "4";
+    }
+
+    @Override
+    public String chooseRestType(EscapeGame game) {
+        return game.getRandom().nextBoolean() ? "1" : "2";
+    }
+
+    @Override
+    public String chooseFightAction(EscapeGame game, HostileAlien alien) {
+        return game.getRandom().nextBoolean() ? "1" : "2";
+    }
+}
@@ -0,0 +1,48 @@
+package sim;
+
+import app.EscapeGame;
+import app.PlayerStrategy;
+import model.GameRandom;
+import model.Question;
+
+/**
+ * Gemeinsame Basis der automatischen Spielstrategien.
+ *
+ * Beantwortet Quizfragen mit einer festen Trefferquote: mit der
+ * Wahrscheinlichkeit {@code quizSkill} wird die richtige Antwort gewählt,
+ * sonst wird geraten.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public abstract class SimulatedPlayer implements PlayerStrategy {
+    /**
+     * Wahrscheinlichkeit, die richtige Quizantwort zu kennen (0.0 bis 1.0).
+     */
+    private final double quizSkill;
+
+    /**
+     * @param quizSkill Wahrscheinlichkeit, die richtige Quizantwort zu kennen
+     */
+    protected SimulatedPlayer(double quizSkill) {
+        this.quizSkill = quizSkill;
+    }
+
+    @Override
+    public String answerQuestion(EscapeGame game, Question question) {
+        GameRandom random = game.getRandom();
+        if (random.nextDouble() < quizSkill) {
+            for (int i = 0; i < Question.ANSWER_COUNT; i++) {
+                if (question.isCorrect(i)) {
+                    return String.valueOf(i + 1);
+                }
+            }
+        }
+        return String.valueOf(1 + random.nextInt(Question.ANSWER_COUNT));
+    }
+
+    @Override
+    public String chooseRestType(EscapeGame game) {
+        return game.isSmallRestUsed() ? "1" : "2";
+    }
+}
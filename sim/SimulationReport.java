@@ -0,0 +1,161 @@
+package sim;
+
+import java.io.PrintStream;
+
+import app.EscapeGame;
+import app.GameOutcome;
+
+/**
+ * Sammelt die Ergebnisse vieler simulierter Spiele.
+ *
+ * Jeder Worker-Thread füllt seinen eigenen Bericht, am Ende werden die
+ * Berichte mit {@link #merge(SimulationReport)} zusammengeführt. Die Klasse
+ * ist daher bewusst nicht threadsicher.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class SimulationReport {
+    /**
+     * Anzahl gespielter Spiele.
+     */
+    private long games;
+    /**
+     * Anzahl der Spiele je Ausgang (Index = {@link GameOutcome#ordinal()}).
+     */
+    private final long[] outcomes = new long[GameOutcome.values().length];
+    /**
+     * Summe der benötigten Runden aller gewonnenen Spiele.
+     */
+    private long roundsToWinSum;
+    /**
+     * Häufigkeit der benötigten Runden bei gewonnenen Spielen (Index = Runde).
+     */
+    private final long[] roundsToWin = new long[EscapeGame.getMaxRounds() + 1];
+    /**
+     * Summe der Unterschriften am Ende jeder Runde über alle Spiele (Index = Runde).
+     */
+    private final long[] signaturesAtRound = new long[EscapeGame.getMaxRounds() + 1];
+    /**
+     * Laufzeit der Simulation in Nanosekunden.
+     */
+    private long elapsedNanos;
+
+    /**
+     * Trägt ein beendetes Spiel in den Bericht ein.
+     *
+     * @param outcome        Ausgang des Spiels
+     * @param rounds         verbrauchte Runden
+     * @param signatureCurve Unterschriften am Ende jeder Runde
+     */
+    public void record(GameOutcome outcome, int rounds, int[] signatureCurve) {
+        games++;
+        outcomes[outcome.ordinal()]++;
+        if (outcome == GameOutcome.WON) {
+            roundsToWinSum += rounds;
+            roundsToWin[Math.min(rounds, roundsToWin.length - 1)]++;
+        }
+        for (int i = 0; i < signaturesAtRound.length; i++) {
+            signaturesAtRound[i] += signatureCurve[i];
+        }
+    }
+
+    /**
+     * Übernimmt die Werte eines anderen Berichts.
+     *
+     * @param other Bericht eines anderen Workers
+     */
+    public void merge(SimulationReport other) {
+        games += other.games;
+        roundsToWinSum += other.roundsToWinSum;
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] += other.outcomes[i];
+        }
+        for (int i = 0; i < roundsToWin.length; i++) {
+            roundsToWin[i] += other.roundsToWin[i];
+            signaturesAtRound[i] += other.signaturesAtRound[i];
+        }
+    }
+
+    /**
+     * Setzt die gemessene Laufzeit.
+     *
+     * @param elapsedNanos Laufzeit in Nanosekunden
+     */
+    public void setElapsedNanos(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * @return Anzahl gespielter Spiele
+     */
+    public long getGames() {
+        return games;
+    }
+
+    /**
+     * @param outcome gesuchter Ausgang
+     * @return Anzahl der Spiele mit diesem Ausgang
+     */
+    public long getCount(GameOutcome outcome) {
+        return outcomes[outcome.ordinal()];
+    }
+
+    /**
+     * @return Anteil gewonnener Spiele (0.0 bis 1.0)
+     */
+    public double getWinRate() {
+        return games == 0 ? 0.0 : (double) getCount(GameOutcome.WON) / games;
+    }
+
+    /**
+     * @return durchschnittliche Rundenanzahl bis zum Sieg
+     */
+    public double getAverageRoundsToWin() {
+        long wins = getCount(GameOutcome.WON);
+        return wins == 0 ? 0.0 : (double) roundsToWinSum / wins;
+    }
+
+    /**
+     * @param round Runde
+     * @return durchschnittliche Anzahl Unterschriften am Ende der Runde
+     */
+    public double getAverageSignaturesAtRound(int round) {
+        return games == 0 ? 0.0 : (double) signaturesAtRound[round] / games;
+    }
+
+    /**
+     * @return gespielte Spiele pro Sekunde
+     */
+    public double getGamesPerSecond() {
+        return elapsedNanos == 0 ? 0.0 : games * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    /**
+     * Gibt den Bericht lesbar aus.
+     *
+     * @param out Ziel der Ausgabe
+     */
+    public void print(PrintStream out) {
+        out.printf("Games played:        %d%n", games);
+        out.printf("Throughput:          %.0f games/s%n", getGamesPerSecond());
+        out.printf("Win rate:            %.2f %%%n", getWinRate() * 100);
+        out.printf("Avg rounds to win:   %.2f%n", getAverageRoundsToWin());
+        out.println("Outcomes:");
+        for (GameOutcome outcome : GameOutcome.values()) {
+            if (outcome != GameOutcome.RUNNING || getCount(outcome) > 0) {
+                out.printf("  %-14s %6.2f %%%n", outcome, games == 0 ? 0.0 : 100.0 * getCount(outcome) / games);
+            }
+        }
+        out.println("Rounds to win:");
+        for (int i = 0; i < roundsToWin.length; i++) {
+            if (roundsToWin[i] > 0) {
+                out.printf("  %2d: %d%n", i, roundsToWin[i]);
+            }
+        }
+        out.println("Avg signatures after round:");
+        for (int i = 0; i < signaturesAtRound.length; i++) {
+            out.printf("  %2d: %.2f%n", i, getAverageSignaturesAtRound(i));
+        }
+    }
+}
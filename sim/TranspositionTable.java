@@ -0,0 +1,165 @@
+package sim;
+
+import java.util.Arrays;
+
+/**
+ * Hashtabelle von gepackten Spielzuständen ({@link app.PackedGameState}) auf
+ * einen Wert, z. B. eine Siegwahrscheinlichkeit, die eine Suche bereits
+ * berechnet hat.
+ *
+ * Schlüssel und Werte liegen in zwei primitiven Arrays mit offener
+ * Adressierung und linearem Sondieren, sodass Abfragen und Einträge nichts
+ * allozieren. Erst wenn die Tabelle zur Hälfte gefüllt ist, wird sie
+ * verdoppelt. Gepackte Zustände belegen nie das oberste Bit, daher dient
+ * {@link #EMPTY} als Markierung für freie Plätze. Nicht threadsicher.
+ *
+ * @author Anas
+ * @author Emilio
+ */
+public class TranspositionTable {
+    /**
+     * Markierung für freie Plätze; kann selbst nicht als Schlüssel verwendet werden.
+     */
+    public static final long EMPTY = -1L;
+
+    /**
+     * Schlüssel je Platz oder {@link #EMPTY}.
+     */
+    private long[] keys;
+    /**
+     * Wert je Platz.
+     */
+    private double[] values;
+    /**
+     * Anzahl belegter Plätze.
+     */
+    private int size;
+
+    /**
+     * Erstellt eine Tabelle für ungefähr die angegebene Anzahl an Zuständen.
+     *
+     * @param expectedSize erwartete Anzahl an Zuständen
+     */
+    public TranspositionTable(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new double[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * Liefert den Wert eines Zustands.
+     *
+     * @param key     gepackter Zustand
+     * @param missing Rückgabewert, wenn der Zustand nicht enthalten ist
+     * @return gespeicherter Wert oder {@code missing}
+     */
+    public double get(long key, double missing) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            long k = keys[slot];
+            if (k == key) {
+                return values[slot];
+            }
+            if (k == EMPTY) {
+                return missing;
+            }
+        }
+    }
+
+    /**
+     * Prüft, ob ein Zustand enthalten ist.
+     *
+     * @param key gepackter Zustand
+     * @return wahr, wenn ein Wert gespeichert ist
+     */
+    public boolean contains(long key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            long k = keys[slot];
+            if (k == key) {
+                return true;
+            }
+            if (k == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Speichert den Wert eines Zustands und überschreibt einen vorhandenen.
+     *
+     * @param key   gepackter Zustand
+     * @param value Wert
+     * @throws IllegalArgumentException wenn der Schlüssel {@link #EMPTY} ist
+     */
+    public void put(long key, double value) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key " + EMPTY + " is reserved");
+        }
+        if (size * 2 >= keys.length) {
+            grow();
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    /**
+     * @return Anzahl gespeicherter Zustände
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Entfernt alle Einträge, behält aber den Speicher.
+     */
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    /**
+     * Verdoppelt die Tabelle und verteilt die Einträge neu.
+     */
+    private void grow() {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new double[oldValues.length * 2];
+        Arrays.fill(keys, EMPTY);
+        int mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY) {
+                int slot = hash(key) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Verteilt die Bits des Schlüssels (Schlussmischung von MurmurHash3), da
+     * benachbarte Zustände sich nur in wenigen niedrigen Bits unterscheiden.
+     *
+     * @param key gepackter Zustand
+     * @return Hashwert
+     */
+    private static int hash(long key) {
+        long h = (key ^ (key >>> 33)) * 0xFF51AFD7ED558CCDL;
+        h = (h ^ (h >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return (int) (h ^ (h >>> 33));
+    }
+}